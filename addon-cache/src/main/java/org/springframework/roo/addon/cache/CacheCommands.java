@@ -69,7 +69,7 @@ public class CacheCommands implements CommandMarker {
    * @return a List<String> with the possible and allowed values.
    */
   @CliOptionAutocompleteIndicator(command = "cache setup", param = "provider",
-      help = "'--provider' value should be a supported provider (GUAVA).")
+      help = "'--provider' value should be a supported provider (GUAVA, CAFFEINE, EHCACHE).")
   public List<String> getProviderPossibleValues(ShellContext shellContext) {
     List<String> possibleValues = new ArrayList<String>();
     for (CacheProvider provider : getCacheProviders()) {
@@ -10,6 +10,12 @@ public interface CacheProvider {
 
   public static final String CACHE_TYPE_PROPERTY_KEY = "spring.cache.type";
 
+  /**
+   * Last element of the package, under the module group id, where providers 
+   * generate the endpoint that publishes the cache statistics.
+   */
+  public static final String STATISTICS_PACKAGE = "cache";
+
   /**
    * Returns the name of the current intermediate memory provider.
    * 
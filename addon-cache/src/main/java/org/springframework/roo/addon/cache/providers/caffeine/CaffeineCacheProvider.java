@@ -0,0 +1,144 @@
+package org.springframework.roo.addon.cache.providers.caffeine;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Reference;
+import org.apache.felix.scr.annotations.Service;
+import org.springframework.roo.addon.cache.providers.CacheProvider;
+import org.springframework.roo.application.config.ApplicationConfigService;
+import org.springframework.roo.classpath.ModuleFeatureName;
+import org.springframework.roo.classpath.TypeLocationService;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.process.manager.FileManager;
+import org.springframework.roo.project.Dependency;
+import org.springframework.roo.project.Path;
+import org.springframework.roo.project.PathResolver;
+import org.springframework.roo.project.ProjectOperations;
+import org.springframework.roo.project.maven.Pom;
+import org.springframework.roo.support.util.FileUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Provides implementation of {@link CacheProvider} interface by installing Caffeine
+ * as intermediate memory manager.
+ *
+ * Caffeine uses a Window TinyLFU eviction policy, which keeps a better hit rate
+ * than the LRU policy of Guava for the same maximum size. Statistics are recorded
+ * for every cache and published by a generated <code>cachestats</code> endpoint,
+ * so the size of the caches can be adjusted by measurement.
+ *
+ * @since 2.0
+ */
+@Component
+@Service
+public class CaffeineCacheProvider implements CacheProvider {
+
+  private static final String CAFFEINE_PROVIDER_NAME = "CAFFEINE";
+  private static final Dependency CAFFEINE_DEPENDENCY = new Dependency(
+      "com.github.ben-manes.caffeine", "caffeine", null);
+  private static final Dependency ACTUATOR_DEPENDENCY = new Dependency(
+      "org.springframework.boot", "spring-boot-starter-actuator", null);
+  private static final String CAFFEINE_CACHE_SPEC_PROPERTY_KEY = "spring.cache.caffeine.spec";
+  private static final String CAFFEINE_CACHE_SPEC_PROPERTY_VALUE =
+      "maximumSize=500,expireAfterAccess=600s,recordStats";
+  private static final String CACHE_TYPE_PROPERTY_VALUE = "caffeine";
+  private static final String STATISTICS_ENDPOINT_CLASS_NAME = "CacheStatisticsEndpoint";
+
+  @Reference
+  private ProjectOperations projectOperations;
+  @Reference
+  private TypeLocationService typeLocationService;
+  @Reference
+  private ApplicationConfigService applicationConfigService;
+  @Reference
+  private PathResolver pathResolver;
+  @Reference
+  private FileManager fileManager;
+
+  List<Pom> applicationModules = null;
+
+  @Override
+  public String getName() {
+    return CAFFEINE_PROVIDER_NAME;
+  }
+
+  @Override
+  public boolean isInstalled() {
+    if (this.applicationModules == null) {
+      this.applicationModules =
+          (List<Pom>) typeLocationService.getModules(ModuleFeatureName.APPLICATION);
+    }
+
+    // Look if the Caffeine dependency has been installed
+    for (Pom module : applicationModules) {
+      if (module.hasDependencyExcludingVersion(CAFFEINE_DEPENDENCY)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  @Override
+  public void setup(String profile) {
+    if (this.applicationModules == null) {
+      this.applicationModules =
+          (List<Pom>) typeLocationService.getModules(ModuleFeatureName.APPLICATION);
+    }
+
+    // Add Caffeine dependency to each application module
+    for (Pom module : applicationModules) {
+      projectOperations.addDependency(module.getModuleName(), CAFFEINE_DEPENDENCY);
+      projectOperations.addDependency(module.getModuleName(), ACTUATOR_DEPENDENCY);
+
+      // Add Caffeine specific application properties
+      applicationConfigService.addProperty(module.getModuleName(), CACHE_TYPE_PROPERTY_KEY,
+          CACHE_TYPE_PROPERTY_VALUE, profile, false);
+      applicationConfigService.addProperty(module.getModuleName(),
+          CAFFEINE_CACHE_SPEC_PROPERTY_KEY, CAFFEINE_CACHE_SPEC_PROPERTY_VALUE, profile, false);
+
+      // Publish the statistics recorded by each cache
+      createStatisticsEndpoint(module);
+    }
+
+  }
+
+  /**
+   * Creates the endpoint which publishes the hits, misses and evictions of
+   * every Caffeine cache in the provided module.
+   *
+   * @param module the Pom where the endpoint should be created.
+   */
+  private void createStatisticsEndpoint(Pom module) {
+    String packageName = String.format("%s.%s", module.getGroupId(), STATISTICS_PACKAGE);
+    final JavaType type =
+        new JavaType(String.format("%s.%s", packageName, STATISTICS_ENDPOINT_CLASS_NAME),
+            module.getModuleName());
+    final String identifier =
+        pathResolver.getCanonicalPath(type.getModule(), Path.SRC_MAIN_JAVA, type);
+    if (fileManager.exists(identifier)) {
+      return;
+    }
+
+    InputStream inputStream = null;
+    try {
+
+      // Use defined template
+      inputStream = FileUtils.getInputStream(getClass(), "CacheStatisticsEndpoint-template._java");
+      String input = IOUtils.toString(inputStream);
+
+      // Replacing package
+      input = input.replace("__PACKAGE__", packageName);
+
+      fileManager.createOrUpdateTextFileIfRequired(identifier, input, true);
+    } catch (final IOException e) {
+      throw new IllegalStateException(String.format("Unable to create '%s'", identifier), e);
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
+}
@@ -0,0 +1,184 @@
+package org.springframework.roo.addon.cache.providers.ehcache;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Reference;
+import org.apache.felix.scr.annotations.Service;
+import org.springframework.roo.addon.cache.providers.CacheProvider;
+import org.springframework.roo.application.config.ApplicationConfigService;
+import org.springframework.roo.classpath.ModuleFeatureName;
+import org.springframework.roo.classpath.TypeLocationService;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.process.manager.FileManager;
+import org.springframework.roo.project.Dependency;
+import org.springframework.roo.project.LogicalPath;
+import org.springframework.roo.project.Path;
+import org.springframework.roo.project.PathResolver;
+import org.springframework.roo.project.ProjectOperations;
+import org.springframework.roo.project.maven.Pom;
+import org.springframework.roo.support.util.FileUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Provides implementation of {@link CacheProvider} interface by installing Ehcache 3,
+ * through its JCache API, as intermediate memory manager.
+ *
+ * The generated <code>ehcache.xml</code> file keeps the entries of each cache on
+ * the heap, and provides an opt-in template which stores the less used entries
+ * of large caches of Serializable reference data off-heap. Statistics are
+ * enabled for every cache and published by a generated <code>cachestats</code>
+ * endpoint.
+ *
+ * @since 2.0
+ */
+@Component
+@Service
+public class EhcacheCacheProvider implements CacheProvider {
+
+  private static final String EHCACHE_PROVIDER_NAME = "EHCACHE";
+  private static final Dependency EHCACHE_DEPENDENCY = new Dependency("org.ehcache", "ehcache",
+      null);
+  private static final Dependency JCACHE_DEPENDENCY = new Dependency("javax.cache", "cache-api",
+      null);
+  private static final Dependency ACTUATOR_DEPENDENCY = new Dependency(
+      "org.springframework.boot", "spring-boot-starter-actuator", null);
+  private static final String JCACHE_CONFIG_PROPERTY_KEY = "spring.cache.jcache.config";
+  private static final String JCACHE_CONFIG_PROPERTY_VALUE = "classpath:ehcache.xml";
+  private static final String JCACHE_PROVIDER_PROPERTY_KEY = "spring.cache.jcache.provider";
+  private static final String JCACHE_PROVIDER_PROPERTY_VALUE =
+      "org.ehcache.jsr107.EhcacheCachingProvider";
+  private static final String CACHE_TYPE_PROPERTY_VALUE = "jcache";
+  private static final String EHCACHE_CONFIG_FILE = "ehcache.xml";
+  private static final String STATISTICS_ENDPOINT_CLASS_NAME = "CacheStatisticsEndpoint";
+
+  @Reference
+  private ProjectOperations projectOperations;
+  @Reference
+  private TypeLocationService typeLocationService;
+  @Reference
+  private ApplicationConfigService applicationConfigService;
+  @Reference
+  private PathResolver pathResolver;
+  @Reference
+  private FileManager fileManager;
+
+  List<Pom> applicationModules = null;
+
+  @Override
+  public String getName() {
+    return EHCACHE_PROVIDER_NAME;
+  }
+
+  @Override
+  public boolean isInstalled() {
+    if (this.applicationModules == null) {
+      this.applicationModules =
+          (List<Pom>) typeLocationService.getModules(ModuleFeatureName.APPLICATION);
+    }
+
+    // Look if the Ehcache dependency has been installed
+    for (Pom module : applicationModules) {
+      if (module.hasDependencyExcludingVersion(EHCACHE_DEPENDENCY)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  @Override
+  public void setup(String profile) {
+    if (this.applicationModules == null) {
+      this.applicationModules =
+          (List<Pom>) typeLocationService.getModules(ModuleFeatureName.APPLICATION);
+    }
+
+    // Add Ehcache and JCache dependencies to each application module
+    for (Pom module : applicationModules) {
+      projectOperations.addDependency(module.getModuleName(), JCACHE_DEPENDENCY);
+      projectOperations.addDependency(module.getModuleName(), EHCACHE_DEPENDENCY);
+      projectOperations.addDependency(module.getModuleName(), ACTUATOR_DEPENDENCY);
+
+      // Add JCache specific application properties
+      applicationConfigService.addProperty(module.getModuleName(), CACHE_TYPE_PROPERTY_KEY,
+          CACHE_TYPE_PROPERTY_VALUE, profile, false);
+      applicationConfigService.addProperty(module.getModuleName(), JCACHE_CONFIG_PROPERTY_KEY,
+          JCACHE_CONFIG_PROPERTY_VALUE, profile, false);
+      applicationConfigService.addProperty(module.getModuleName(),
+          JCACHE_PROVIDER_PROPERTY_KEY, JCACHE_PROVIDER_PROPERTY_VALUE, profile, false);
+
+      // Configure the heap tier of the caches and the opt-in off-heap tier
+      createEhcacheConfiguration(module);
+
+      // Publish the statistics recorded by each cache
+      createStatisticsEndpoint(module);
+    }
+
+  }
+
+  /**
+   * Creates the Ehcache configuration file of the provided module, with the
+   * template applied to every cache created through JCache.
+   *
+   * @param module the Pom where the configuration should be created.
+   */
+  private void createEhcacheConfiguration(Pom module) {
+    final String identifier =
+        pathResolver.getIdentifier(
+            LogicalPath.getInstance(Path.SRC_MAIN_RESOURCES, module.getModuleName()),
+            EHCACHE_CONFIG_FILE);
+    if (fileManager.exists(identifier)) {
+      return;
+    }
+
+    InputStream inputStream = null;
+    try {
+      inputStream = FileUtils.getInputStream(getClass(), "ehcache-template.xml");
+      fileManager.createOrUpdateTextFileIfRequired(identifier, IOUtils.toString(inputStream),
+          true);
+    } catch (final IOException e) {
+      throw new IllegalStateException(String.format("Unable to create '%s'", identifier), e);
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
+  /**
+   * Creates the endpoint which publishes the hits, misses and evictions of
+   * every JCache cache in the provided module.
+   *
+   * @param module the Pom where the endpoint should be created.
+   */
+  private void createStatisticsEndpoint(Pom module) {
+    String packageName = String.format("%s.%s", module.getGroupId(), STATISTICS_PACKAGE);
+    final JavaType type =
+        new JavaType(String.format("%s.%s", packageName, STATISTICS_ENDPOINT_CLASS_NAME),
+            module.getModuleName());
+    final String identifier =
+        pathResolver.getCanonicalPath(type.getModule(), Path.SRC_MAIN_JAVA, type);
+    if (fileManager.exists(identifier)) {
+      return;
+    }
+
+    InputStream inputStream = null;
+    try {
+
+      // Use defined template
+      inputStream = FileUtils.getInputStream(getClass(), "CacheStatisticsEndpoint-template._java");
+      String input = IOUtils.toString(inputStream);
+
+      // Replacing package
+      input = input.replace("__PACKAGE__", packageName);
+
+      fileManager.createOrUpdateTextFileIfRequired(identifier, input, true);
+    } catch (final IOException e) {
+      throw new IllegalStateException(String.format("Unable to create '%s'", identifier), e);
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
+}
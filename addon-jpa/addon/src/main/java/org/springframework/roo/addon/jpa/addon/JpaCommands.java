@@ -8,6 +8,7 @@ import static org.springframework.roo.model.RooJavaType.ROO_SERIALIZABLE;
 import static org.springframework.roo.model.RooJavaType.ROO_TO_STRING;
 import static org.springframework.roo.shell.OptionContexts.APPLICATION_FEATURE_INCLUDE_CURRENT_MODULE;
 import static org.springframework.roo.shell.OptionContexts.INTERFACE;
+import static org.springframework.roo.shell.OptionContexts.PROJECT;
 import static org.springframework.roo.shell.OptionContexts.SUPERCLASS;
 import static org.springframework.roo.shell.OptionContexts.UPDATELAST_PROJECT;
 import static org.springframework.roo.shell.OptionContexts.UPDATE_PROJECT;
@@ -18,6 +19,7 @@ import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.Service;
 import org.osgi.service.component.ComponentContext;
+import org.springframework.roo.addon.jpa.addon.entity.CacheConcurrencyStrategy;
 import org.springframework.roo.addon.jpa.addon.entity.IdentifierStrategy;
 import org.springframework.roo.addon.jpa.annotations.entity.RooJpaEntity;
 import org.springframework.roo.addon.propfiles.PropFileOperations;
@@ -128,6 +130,11 @@ public class JpaCommands implements CommandMarker {
     return jpaOperations.isJpaInstalled();
   }
 
+  @CliAvailabilityIndicator({"jpa cache"})
+  public boolean isJpaCacheAvailable() {
+    return jpaOperations.isJpaInstalled();
+  }
+
   @CliCommand(
       value = "embeddable",
       help = "Creates a new Java class source file with the JPA @Embeddable annotation in SRC_MAIN_JAVA")
@@ -235,6 +242,15 @@ public class JpaCommands implements CommandMarker {
       @CliOption(key = "databaseName", mandatory = false, help = "The database name to use") final String databaseName,
       @CliOption(key = "userName", mandatory = false, help = "The username to use") final String userName,
       @CliOption(key = "password", mandatory = false, help = "The password to use") final String password,
+      @CliOption(key = "performanceProfile", mandatory = false, unspecifiedDefaultValue = "DEFAULT",
+          help = "The persistence tuning profile to apply. BULK enables JDBC batching "
+              + "and pooled identifier allocation") final PerformanceProfile performanceProfile,
+      @CliOption(key = "poolProfile", mandatory = false, unspecifiedDefaultValue = "OLTP",
+          help = "The sizing profile of the HikariCP connection pool. Not used with a JNDI "
+              + "datasource") final PoolProfile poolProfile,
+      @CliOption(key = "readReplica", mandatory = false,
+          help = "Comma-separated JDBC URLs of the read replicas. The read-only transactions, "
+              + "like the ones of the find methods of the services, will be sent to them") final String readReplica,
       ShellContext shellContext) {
 
     if (jdbcDatabase == JdbcDatabase.FIREBIRD && !isJdk6OrHigher()) {
@@ -243,7 +259,48 @@ public class JpaCommands implements CommandMarker {
     }
 
     jpaOperations.configureJpa(ormProvider, jdbcDatabase, module, jndi, hostName, databaseName,
-        userName, password, shellContext.getProfile(), shellContext.isForce());
+        userName, password, performanceProfile, poolProfile, readReplica,
+        shellContext.getProfile(), shellContext.isForce());
+  }
+
+  /**
+   * Indicator that provides all possible values for --entity parameter of
+   * "jpa cache" command.
+   * 
+   * @param shellContext
+   * @return List with the names of the entities annotated with @RooJpaEntity
+   */
+  @CliOptionAutocompleteIndicator(command = "jpa cache", param = "entity",
+      help = "Provided --entity option should be a class annotated with @RooJpaEntity.")
+  public List<String> getCacheEntityPossibleValues(ShellContext shellContext) {
+    String currentText = shellContext.getParameters().get("entity");
+    List<String> allPossibleValues = new ArrayList<String>();
+    Set<ClassOrInterfaceTypeDetails> entitiesInProject =
+        typeLocationService.findClassesOrInterfaceDetailsWithAnnotation(RooJavaType.ROO_JPA_ENTITY);
+    for (ClassOrInterfaceTypeDetails entity : entitiesInProject) {
+      String name = replaceTopLevelPackageString(entity, currentText);
+      if (!allPossibleValues.contains(name)) {
+        allPossibleValues.add(name);
+      }
+    }
+    return allPossibleValues;
+  }
+
+  @CliCommand(value = "jpa cache",
+      help = "Stores an entity in the second-level cache of the persistence provider and the "
+          + "results of its repository queries in the query cache")
+  public void addEntityCache(
+      @CliOption(key = "entity", mandatory = true, optionContext = PROJECT,
+          help = "The read-mostly entity to cache") final JavaType entity,
+      @CliOption(key = "strategy", mandatory = false, unspecifiedDefaultValue = "READ_WRITE",
+          help = "The concurrency strategy of the entity cache. Only used by Hibernate") final CacheConcurrencyStrategy strategy,
+      @CliOption(key = "includeReferences", mandatory = false, unspecifiedDefaultValue = "false",
+          specifiedDefaultValue = "true",
+          help = "Whether the entities referenced by the many-to-one and one-to-one fields "
+              + "should be cached too") final boolean includeReferences,
+      ShellContext shellContext) {
+    jpaOperations.addEntityCache(entity, strategy, includeReferences, shellContext.getProfile(),
+        shellContext.isForce());
   }
 
   /**
@@ -427,12 +484,17 @@ public class JpaCommands implements CommandMarker {
           help = "The name of the sequence for incrementing sequence-driven primary keys") final String sequenceName,
       @CliOption(key = "identifierStrategy", mandatory = true, specifiedDefaultValue = "AUTO",
           help = "The generation value strategy to be used") final IdentifierStrategy identifierStrategy,
+      @CliOption(key = "allocationSize", mandatory = false,
+          help = "The number of identifiers allocated from the sequence in each access. "
+              + "It must match the increment of the database sequence") final Integer allocationSize,
       @CliOption(key = "readOnly", mandatory = false, unspecifiedDefaultValue = "false",
           specifiedDefaultValue = "true",
           help = "Whether the generated entity should be used for read operations only.") final boolean readOnly,
       ShellContext shellContext) {
 
     Validate.isTrue(!identifierType.isPrimitive(), "Identifier type cannot be a primitive");
+    Validate.isTrue(allocationSize == null || allocationSize > 0,
+        "Allocation size must be greater than 0");
 
     // Check if exists other entity with the same name
     final String entityFilePathIdentifier =
@@ -542,7 +604,8 @@ public class JpaCommands implements CommandMarker {
     annotationBuilder.add(ROO_TO_STRING_BUILDER);
     annotationBuilder.add(getEntityAnnotationBuilder(table, schema, catalog, identifierField,
         identifierColumn, identifierType, versionField, versionColumn, versionType,
-        inheritanceType, mappedSuperclass, entityName, sequenceName, identifierStrategy, readOnly));
+        inheritanceType, mappedSuperclass, entityName, sequenceName, allocationSize,
+        identifierStrategy, readOnly));
     if (equals) {
       annotationBuilder.add(ROO_EQUALS_BUILDER);
     }
@@ -580,6 +643,8 @@ public class JpaCommands implements CommandMarker {
      * @param mappedSuperclass
      * @param entityName
      * @param sequenceName
+     * @param allocationSize
+     * @param identifierStrategy
      * @param readOnly
      * @return a non-<code>null</code> builder
      */
@@ -588,7 +653,7 @@ public class JpaCommands implements CommandMarker {
       final String identifierColumn, final JavaType identifierType, final String versionField,
       final String versionColumn, final JavaType versionType,
       final InheritanceType inheritanceType, final boolean mappedSuperclass,
-      final String entityName, final String sequenceName,
+      final String entityName, final String sequenceName, final Integer allocationSize,
       final IdentifierStrategy identifierStrategy, final boolean readOnly) {
     final AnnotationMetadataBuilder entityAnnotationBuilder =
         new AnnotationMetadataBuilder(ROO_JPA_ENTITY);
@@ -603,6 +668,9 @@ public class JpaCommands implements CommandMarker {
     if (sequenceName != null) {
       entityAnnotationBuilder.addStringAttribute("sequenceName", sequenceName);
     }
+    if (allocationSize != null) {
+      entityAnnotationBuilder.addIntegerAttribute("allocationSize", allocationSize);
+    }
     if (identifierColumn != null) {
       entityAnnotationBuilder.addStringAttribute("identifierColumn", identifierColumn);
     }
@@ -1,5 +1,6 @@
 package org.springframework.roo.addon.jpa.addon;
 
+import org.springframework.roo.addon.jpa.addon.entity.CacheConcurrencyStrategy;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadataBuilder;
 import org.springframework.roo.model.JavaType;
 import org.springframework.roo.project.Feature;
@@ -32,12 +33,18 @@ public interface JpaOperations extends Feature {
    * @param databaseName the name of the database
    * @param userName the username to connect to the database
    * @param password the password to connect to the database
+   * @param performanceProfile the persistence tuning profile to apply
+   * @param poolProfile the sizing profile of the connection pool. Ignored
+   *            when a JNDI datasource is used
+   * @param readReplicas comma-separated JDBC URLs of the read replicas. Can be
+   *            <code>null</code>
    * @param profile string with profile where current jpa persistence will be applied.
    * @param force boolean that forces configuration if exists some previous configuration
    */
   void configureJpa(OrmProvider ormProvider, JdbcDatabase database, Pom module, String jndi,
-      String hostName, String databaseName, String userName, String password, String profile,
-      boolean force);
+      String hostName, String databaseName, String userName, String password,
+      PerformanceProfile performanceProfile, PoolProfile poolProfile, String readReplicas,
+      String profile, boolean force);
 
   /**
    * Indicates whether JPA can be installed in the currently focused module.
@@ -94,4 +101,21 @@ public interface JpaOperations extends Feature {
 
   SortedSet<String> getDatabaseProperties(String profile);
 
+  /**
+   * Stores an existing entity in the second-level cache of the persistence
+   * provider, and the results of its repository queries in the query cache.
+   * Configures both caches in every application module.
+   * 
+   * @param entity the entity to cache (required)
+   * @param strategy the concurrency strategy of the entity cache, only used
+   *            by Hibernate. Can be null to use the provider default.
+   * @param includeReferences whether the entities referenced by the 
+   *            many-to-one and one-to-one fields of the entity should be 
+   *            cached too
+   * @param profile string with profile where the cache properties will be applied.
+   * @param force boolean that forces configuration if exists some previous configuration
+   */
+  void addEntityCache(JavaType entity, CacheConcurrencyStrategy strategy,
+      boolean includeReferences, String profile, boolean force);
+
 }
@@ -18,6 +18,7 @@ import org.osgi.framework.BundleContext;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.component.ComponentContext;
+import org.springframework.roo.addon.jpa.addon.entity.CacheConcurrencyStrategy;
 import org.springframework.roo.application.config.ApplicationConfigService;
 import org.springframework.roo.classpath.ModuleFeatureName;
 import org.springframework.roo.classpath.PhysicalTypeCategory;
@@ -26,14 +27,17 @@ import org.springframework.roo.classpath.TypeLocationService;
 import org.springframework.roo.classpath.TypeManagementService;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetailsBuilder;
+import org.springframework.roo.classpath.details.FieldMetadata;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadataBuilder;
 import org.springframework.roo.model.JavaPackage;
 import org.springframework.roo.model.JavaType;
 import org.springframework.roo.model.JdkJavaType;
+import org.springframework.roo.model.JpaJavaType;
 import org.springframework.roo.model.RooJavaType;
 import org.springframework.roo.process.manager.FileManager;
 import org.springframework.roo.project.Dependency;
 import org.springframework.roo.project.FeatureNames;
+import org.springframework.roo.project.LogicalPath;
 import org.springframework.roo.project.Path;
 import org.springframework.roo.project.PathResolver;
 import org.springframework.roo.project.ProjectOperations;
@@ -85,6 +89,20 @@ public class JpaOperationsImpl implements JpaOperations {
   private static final String DATABASE_URL = "url";
   private static final String DATABASE_USERNAME = "username";
   private static final String JNDI_NAME = "jndi-name";
+  private static final String JPA_PROPERTIES_PREFIX = "spring.jpa.properties";
+  private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+  private static final String REPLICAS_PREFIX = "datasource.replicas";
+  private static final int REPLICA_MAX_LAG_SECONDS = 10;
+  private static final String POSTGRES_REPLICA_LAG_QUERY =
+      "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+          + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+  private static final String HIBERNATE_CACHE_CONFIG_FILE = "hibernate-ehcache.xml";
+  private static final Dependency HIBERNATE_EHCACHE_DEPENDENCY = new Dependency("org.hibernate",
+      "hibernate-ehcache", null);
+  private static final Dependency HIKARI_DEPENDENCY = new Dependency("com.zaxxer", "HikariCP",
+      null);
+  private static final Dependency ECLIPSELINK_DEPENDENCY = new Dependency(
+      "org.eclipse.persistence", "eclipselink", null);
   static final String POM_XML = "pom.xml";
 
   private FileManager fileManager;
@@ -103,11 +121,15 @@ public class JpaOperationsImpl implements JpaOperations {
   @Override
   public void configureJpa(final OrmProvider ormProvider, final JdbcDatabase jdbcDatabase,
       final Pom module, final String jndi, final String hostName, final String databaseName,
-      final String userName, final String password, final String profile, final boolean force) {
+      final String userName, final String password, final PerformanceProfile performanceProfile,
+      final PoolProfile poolProfile, final String readReplicas, final String profile,
+      final boolean force) {
 
     Validate.notNull(module, "Module required");
     Validate.notNull(ormProvider, "ORM provider required");
     Validate.notNull(jdbcDatabase, "JDBC database required");
+    Validate.isTrue(StringUtils.isBlank(readReplicas) || StringUtils.isBlank(jndi),
+        "ERROR: Read replicas can't be used with a JNDI datasource");
 
     // Parse the configuration.xml file
     final Element configuration = XmlUtils.getConfiguration(getClass());
@@ -126,6 +148,25 @@ public class JpaOperationsImpl implements JpaOperations {
     updateApplicationProperties(module.getModuleName(), ormProvider, jdbcDatabase, hostName,
         databaseName, userName, password, jndi, profile, force);
 
+    // Update Spring Config File with spring.jpa.properties.* tuning properties
+    if (performanceProfile != null) {
+      updatePerformanceProperties(module.getModuleName(), ormProvider, performanceProfile,
+          profile, force);
+    }
+
+    // Update Spring Config File with spring.datasource.hikari.* pool properties
+    if (poolProfile != null && StringUtils.isBlank(jndi)) {
+      getProjectOperations().addDependency(module.getModuleName(), HIKARI_DEPENDENCY);
+      updatePoolProperties(module.getModuleName(), jdbcDatabase, poolProfile, profile, force);
+    }
+
+    // Route the read-only transactions to the read replicas
+    if (StringUtils.isNotBlank(readReplicas)) {
+      updateReadReplicaProperties(module.getModuleName(), jdbcDatabase, readReplicas, profile,
+          force);
+      createReadReplicaConfiguration(module);
+    }
+
   }
 
   @Override
@@ -451,6 +492,179 @@ public class JpaOperationsImpl implements JpaOperations {
     }
   }
 
+  /**
+   * Writes the persistence provider properties of the given performance
+   * profile. The {@link PerformanceProfile#BULK} profile groups the
+   * statements of the batch operations in JDBC batches, ordering them by
+   * entity so the batches are not split, and makes Hibernate allocate the
+   * sequence based identifiers in blocks using the pooled-lo optimizer.
+   * 
+   * @param moduleName the module where the properties will be written
+   * @param ormProvider the selected persistence provider
+   * @param performanceProfile the profile to apply
+   * @param profile the Spring profile where the properties will be written
+   * @param force whether existing properties should be overwritten
+   */
+  private void updatePerformanceProperties(final String moduleName,
+      final OrmProvider ormProvider, final PerformanceProfile performanceProfile,
+      final String profile, final boolean force) {
+    if (performanceProfile.getBatchSize() <= 0) {
+      // Keep the provider defaults
+      return;
+    }
+
+    final String batchSize = String.valueOf(performanceProfile.getBatchSize());
+    final Map<String, String> props = new HashMap<String, String>();
+    if (ormProvider == OrmProvider.HIBERNATE) {
+      props.put("hibernate.jdbc.batch_size", batchSize);
+      props.put("hibernate.jdbc.batch_versioned_data", "true");
+      props.put("hibernate.order_inserts", "true");
+      props.put("hibernate.order_updates", "true");
+      props.put("hibernate.id.new_generator_mappings", "true");
+      props.put("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+    } else if (ormProvider == OrmProvider.ECLIPSELINK) {
+      props.put("eclipselink.jdbc.batch-writing", "JDBC");
+      props.put("eclipselink.jdbc.batch-writing.size", batchSize);
+    }
+
+    applicationConfigService.addProperties(moduleName, JPA_PROPERTIES_PREFIX, props, profile,
+        force);
+  }
+
+  /**
+   * Makes Spring Boot use a HikariCP pool sized by the given profile. The pool
+   * logs the connections that stay in use longer than the leak detection
+   * threshold of the profile and registers its MBeans, so its usage can be
+   * followed through JMX. The prepared statements are cached by the driver
+   * when the database supports it.
+   * 
+   * @param moduleName the module where the properties will be written
+   * @param jdbcDatabase the database of the pool connections
+   * @param poolProfile the sizing profile to apply
+   * @param profile the Spring profile where the properties will be written
+   * @param force whether existing properties should be overwritten
+   */
+  private void updatePoolProperties(final String moduleName, final JdbcDatabase jdbcDatabase,
+      final PoolProfile poolProfile, final String profile, final boolean force) {
+    applicationConfigService.addProperty(moduleName, DATASOURCE_PREFIX, "type",
+        "com.zaxxer.hikari.HikariDataSource", profile, force);
+
+    final Map<String, String> props = new HashMap<String, String>();
+    props.put("pool-name",
+        StringUtils.isBlank(moduleName) ? "HikariPool" : moduleName + "-HikariPool");
+    props.put("maximum-pool-size", String.valueOf(poolProfile.getMaximumPoolSize()));
+    props.put("minimum-idle", String.valueOf(poolProfile.getMinimumIdle()));
+    props.put("connection-timeout", String.valueOf(poolProfile.getConnectionTimeout()));
+    props.put("idle-timeout", String.valueOf(poolProfile.getIdleTimeout()));
+    props.put("max-lifetime", "1800000");
+    props.put("leak-detection-threshold",
+        String.valueOf(poolProfile.getLeakDetectionThreshold()));
+    props.put("register-mbeans", "true");
+    for (Map.Entry<String, String> property : getStatementCacheProperties(jdbcDatabase)
+        .entrySet()) {
+      props.put("data-source-properties." + property.getKey(), property.getValue());
+    }
+
+    applicationConfigService.addProperties(moduleName, HIKARI_PREFIX, props, profile, force);
+  }
+
+  /**
+   * Returns the driver properties that enable the prepared statement cache of
+   * the given database. The databases not listed keep the driver defaults.
+   * 
+   * @param jdbcDatabase the database of the pool connections
+   * @return the driver properties, which can be empty
+   */
+  private Map<String, String> getStatementCacheProperties(final JdbcDatabase jdbcDatabase) {
+    final Map<String, String> props = new HashMap<String, String>();
+    if (jdbcDatabase == JdbcDatabase.MYSQL) {
+      props.put("cachePrepStmts", "true");
+      props.put("prepStmtCacheSize", "250");
+      props.put("prepStmtCacheSqlLimit", "2048");
+      props.put("useServerPrepStmts", "true");
+      props.put("rewriteBatchedStatements", "true");
+    } else if (jdbcDatabase == JdbcDatabase.POSTGRES) {
+      props.put("prepareThreshold", "3");
+      props.put("preparedStatementCacheQueries", "256");
+      props.put("preparedStatementCacheSizeMiB", "5");
+    } else if (jdbcDatabase == JdbcDatabase.ORACLE) {
+      props.put("oracle.jdbc.implicitStatementCacheSize", "250");
+    }
+    return props;
+  }
+
+  /**
+   * Writes the properties of the read replicas. Without a lag query, a replica
+   * is used while it accepts connections. PostgreSQL replicas also stop being
+   * used while they are more than {@link #REPLICA_MAX_LAG_SECONDS} seconds
+   * behind the primary database. A replica that has replayed all the WAL it
+   * received isn't behind, even if the primary had no writes for a while.
+   * The lag query uses the functions of PostgreSQL 10; older servers need
+   * pg_last_xlog_receive_location() and pg_last_xlog_replay_location() instead.
+   * 
+   * @param moduleName the module where the properties will be written
+   * @param jdbcDatabase the database of the primary and the replicas
+   * @param readReplicas comma-separated JDBC URLs of the replicas
+   * @param profile the Spring profile where the properties will be written
+   * @param force whether existing properties should be overwritten
+   */
+  private void updateReadReplicaProperties(final String moduleName,
+      final JdbcDatabase jdbcDatabase, final String readReplicas, final String profile,
+      final boolean force) {
+    final List<String> urls = new ArrayList<String>();
+    for (String url : StringUtils.split(readReplicas, ',')) {
+      if (StringUtils.isNotBlank(url)) {
+        urls.add(url.trim());
+      }
+    }
+
+    final Map<String, String> props = new HashMap<String, String>();
+    props.put("urls", StringUtils.join(urls, ','));
+    props.put("max-lag-seconds", String.valueOf(REPLICA_MAX_LAG_SECONDS));
+    props.put("check-interval-seconds", "5");
+    if (jdbcDatabase == JdbcDatabase.POSTGRES) {
+      props.put("lag-query", POSTGRES_REPLICA_LAG_QUERY);
+    }
+
+    applicationConfigService.addProperties(moduleName, REPLICAS_PREFIX, props, profile, force);
+  }
+
+  /**
+   * Creates the classes that route the read-only transactions to the read
+   * replicas in the config package of the provided module, if they don't
+   * exist yet.
+   * 
+   * @param module the module where the classes will be created
+   */
+  private void createReadReplicaConfiguration(final Pom module) {
+    final JavaPackage configPackage =
+        new JavaPackage(String.format("%s.config",
+            getProjectOperations().getTopLevelPackage(module.getModuleName())),
+            module.getModuleName());
+    for (String className : Arrays.asList("ReadReplicaRoutingDataSource",
+        "ReadReplicaDataSourceConfiguration")) {
+      final JavaType javaType =
+          new JavaType(String.format("%s.%s", configPackage, className), module.getModuleName());
+      final String physicalPath =
+          getPathResolver().getCanonicalPath(module.getModuleName(), Path.SRC_MAIN_JAVA, javaType);
+      if (getFileManager().exists(physicalPath)) {
+        continue;
+      }
+
+      InputStream inputStream = null;
+      try {
+        inputStream = FileUtils.getInputStream(getClass(), className + "-template._java");
+        String input = IOUtils.toString(inputStream);
+        input = input.replace("__PACKAGE__", configPackage.getFullyQualifiedPackageName());
+        getFileManager().createOrUpdateTextFileIfRequired(physicalPath, input, false);
+      } catch (final IOException e) {
+        throw new IllegalStateException(String.format("Unable to create '%s'", physicalPath), e);
+      } finally {
+        IOUtils.closeQuietly(inputStream);
+      }
+    }
+  }
+
   /**
    * Updates the POM with the dependencies required for the given database and
    * ORM provider, removing any other persistence-related dependencies
@@ -729,6 +943,136 @@ public class JpaOperationsImpl implements JpaOperations {
     }
   }
 
+  @Override
+  public void addEntityCache(final JavaType entity, final CacheConcurrencyStrategy strategy,
+      final boolean includeReferences, final String profile, final boolean force) {
+    Validate.notNull(entity, "ERROR: Entity required");
+    final ClassOrInterfaceTypeDetails entityDetails =
+        getTypeLocationService().getTypeDetails(entity);
+    Validate.notNull(entityDetails, "ERROR: Entity '%s' not found", entity);
+    Validate.notNull(entityDetails.getAnnotation(RooJavaType.ROO_JPA_ENTITY),
+        "ERROR: Type '%s' is not annotated with @RooJpaEntity", entity);
+
+    // Configure the second-level and query caches in every application module
+    boolean hibernateInstalled = false;
+    for (Pom module : getTypeLocationService().getModules(ModuleFeatureName.APPLICATION)) {
+      final OrmProvider ormProvider =
+          module.hasDependencyExcludingVersion(ECLIPSELINK_DEPENDENCY) ? OrmProvider.ECLIPSELINK
+              : OrmProvider.HIBERNATE;
+      hibernateInstalled |= ormProvider == OrmProvider.HIBERNATE;
+      updateCacheProperties(module, ormProvider, profile, force);
+    }
+
+    // The concurrency strategy is only known by Hibernate
+    final CacheConcurrencyStrategy entityStrategy = hibernateInstalled ? strategy : null;
+    updateRooJpaEntityCache(entityDetails, entityStrategy, true);
+
+    if (includeReferences) {
+
+      // Cache the entities referenced by the entity too, so loading them
+      // doesn't hit the database. Keep their strategy if already cached.
+      for (FieldMetadata field : entityDetails.getDeclaredFields()) {
+        if (field.getAnnotation(JpaJavaType.MANY_TO_ONE) == null
+            && field.getAnnotation(JpaJavaType.ONE_TO_ONE) == null) {
+          continue;
+        }
+        final ClassOrInterfaceTypeDetails referencedDetails =
+            getTypeLocationService().getTypeDetails(field.getFieldType());
+        if (referencedDetails != null
+            && referencedDetails.getAnnotation(RooJavaType.ROO_JPA_ENTITY) != null) {
+          updateRooJpaEntityCache(referencedDetails, entityStrategy, false);
+        }
+      }
+    }
+  }
+
+  /**
+   * Sets the cache attributes of the @RooJpaEntity annotation of an entity.
+   * 
+   * @param entityDetails the entity to cache
+   * @param strategy the concurrency strategy of the entity cache. Can be null.
+   * @param overwrite whether the strategy of an already cacheable entity 
+   *            should be replaced
+   */
+  private void updateRooJpaEntityCache(final ClassOrInterfaceTypeDetails entityDetails,
+      final CacheConcurrencyStrategy strategy, final boolean overwrite) {
+    final AnnotationMetadataBuilder entityAnnotation =
+        new AnnotationMetadataBuilder(entityDetails.getAnnotation(RooJavaType.ROO_JPA_ENTITY));
+    final boolean cacheable = entityAnnotation.getAttributes().containsKey("cacheable")
+        && Boolean.TRUE.equals(entityAnnotation.getAttributes().get("cacheable").getValue());
+    if (cacheable && !overwrite) {
+      return;
+    }
+
+    entityAnnotation.addBooleanAttribute("cacheable", true);
+    if (strategy != null) {
+      entityAnnotation.addStringAttribute("cacheConcurrencyStrategy", strategy.name());
+    }
+
+    final ClassOrInterfaceTypeDetailsBuilder entityBuilder =
+        new ClassOrInterfaceTypeDetailsBuilder(entityDetails);
+    entityBuilder.updateTypeAnnotation(entityAnnotation);
+    getTypeManagementService().createOrUpdateTypeOnDisk(entityBuilder.build());
+  }
+
+  /**
+   * Writes the persistence provider properties which enable the 
+   * second-level cache for the entities annotated with @Cacheable and the 
+   * query cache. Hibernate stores both caches in a dedicated Ehcache 
+   * instance, configured in its own file so it doesn't collide with the 
+   * configuration of the Spring cache providers.
+   * 
+   * @param module the module where the properties will be written
+   * @param ormProvider the persistence provider installed in the module
+   * @param profile the Spring profile where the properties will be written
+   * @param force whether existing properties should be overwritten
+   */
+  private void updateCacheProperties(final Pom module, final OrmProvider ormProvider,
+      final String profile, final boolean force) {
+    final Map<String, String> props = new HashMap<String, String>();
+    props.put("javax.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+    if (ormProvider == OrmProvider.HIBERNATE) {
+      props.put("hibernate.cache.use_second_level_cache", "true");
+      props.put("hibernate.cache.use_query_cache", "true");
+      props.put("hibernate.cache.region.factory_class",
+          "org.hibernate.cache.ehcache.SingletonEhCacheRegionFactory");
+      props.put("net.sf.ehcache.configurationResourceName", "/" + HIBERNATE_CACHE_CONFIG_FILE);
+
+      getProjectOperations().addDependency(module.getModuleName(), HIBERNATE_EHCACHE_DEPENDENCY);
+      createHibernateCacheConfiguration(module);
+    }
+
+    applicationConfigService.addProperties(module.getModuleName(), JPA_PROPERTIES_PREFIX, props,
+        profile, force);
+  }
+
+  /**
+   * Creates the Ehcache configuration of the Hibernate second-level and
+   * query caches in the provided module, if it doesn't exist yet.
+   * 
+   * @param module the module where the configuration will be created
+   */
+  private void createHibernateCacheConfiguration(final Pom module) {
+    final String identifier =
+        getPathResolver().getIdentifier(
+            LogicalPath.getInstance(Path.SRC_MAIN_RESOURCES, module.getModuleName()),
+            HIBERNATE_CACHE_CONFIG_FILE);
+    if (getFileManager().exists(identifier)) {
+      return;
+    }
+
+    InputStream inputStream = null;
+    try {
+      inputStream = FileUtils.getInputStream(getClass(), "hibernate-ehcache-template.xml");
+      getFileManager().createOrUpdateTextFileIfRequired(identifier,
+          IOUtils.toString(inputStream), true);
+    } catch (final IOException e) {
+      throw new IllegalStateException(String.format("Unable to create '%s'", identifier), e);
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
   public FileManager getFileManager() {
     // Get all Services implement FileManager interface
     try {
@@ -0,0 +1,46 @@
+package org.springframework.roo.addon.jpa.addon;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Persistence tuning profiles that can be applied by the "jpa setup" command.
+ * 
+ * @since 2.0
+ */
+public enum PerformanceProfile {
+
+  /**
+   * Keeps the default settings of the persistence provider.
+   */
+  DEFAULT(0),
+
+  /**
+   * Groups the inserts and updates of the batch operations in JDBC batches
+   * and allocates the sequence based identifiers in blocks.
+   */
+  BULK(50);
+
+  private final int batchSize;
+
+  /**
+   * Constructor
+   * 
+   * @param batchSize the number of statements to send in each JDBC batch, or
+   *            0 to keep the provider default
+   */
+  private PerformanceProfile(final int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  @Override
+  public String toString() {
+    final ToStringBuilder builder = new ToStringBuilder(this);
+    builder.append("profile", name());
+    builder.append("batchSize", batchSize);
+    return builder.toString();
+  }
+}
@@ -0,0 +1,85 @@
+package org.springframework.roo.addon.jpa.addon;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+/**
+ * Sizing profiles of the HikariCP connection pool that can be applied by the
+ * "jpa setup" command.
+ * 
+ * @since 2.0
+ */
+public enum PoolProfile {
+
+  /**
+   * Many short transactions. Keeps a small pool of always open connections
+   * and fails fast when all of them are in use, instead of queuing the
+   * requests.
+   */
+  OLTP(10, 10, 3000, 600000, 10000),
+
+  /**
+   * A few long running jobs. Keeps a small pool that shrinks when the jobs
+   * finish and waits longer for a free connection.
+   */
+  BATCH(4, 1, 30000, 300000, 600000),
+
+  /**
+   * Long read queries. Allows some more connections than {@link #BATCH} and
+   * waits the longest for a free connection.
+   */
+  REPORTING(6, 2, 60000, 600000, 300000);
+
+  private final int maximumPoolSize;
+  private final int minimumIdle;
+  private final long connectionTimeout;
+  private final long idleTimeout;
+  private final long leakDetectionThreshold;
+
+  /**
+   * Constructor
+   * 
+   * @param maximumPoolSize the maximum number of connections of the pool
+   * @param minimumIdle the minimum number of idle connections of the pool
+   * @param connectionTimeout the milliseconds to wait for a free connection
+   * @param idleTimeout the milliseconds an idle connection is kept open while
+   *            there are more than the minimum idle connections
+   * @param leakDetectionThreshold the milliseconds a connection can be in use
+   *            before logging a possible leak
+   */
+  private PoolProfile(final int maximumPoolSize, final int minimumIdle,
+      final long connectionTimeout, final long idleTimeout, final long leakDetectionThreshold) {
+    this.maximumPoolSize = maximumPoolSize;
+    this.minimumIdle = minimumIdle;
+    this.connectionTimeout = connectionTimeout;
+    this.idleTimeout = idleTimeout;
+    this.leakDetectionThreshold = leakDetectionThreshold;
+  }
+
+  public int getMaximumPoolSize() {
+    return maximumPoolSize;
+  }
+
+  public int getMinimumIdle() {
+    return minimumIdle;
+  }
+
+  public long getConnectionTimeout() {
+    return connectionTimeout;
+  }
+
+  public long getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  public long getLeakDetectionThreshold() {
+    return leakDetectionThreshold;
+  }
+
+  @Override
+  public String toString() {
+    final ToStringBuilder builder = new ToStringBuilder(this);
+    builder.append("profile", name());
+    builder.append("maximumPoolSize", maximumPoolSize);
+    return builder.toString();
+  }
+}
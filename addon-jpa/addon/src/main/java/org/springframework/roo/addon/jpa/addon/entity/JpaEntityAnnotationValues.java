@@ -35,6 +35,8 @@ public class JpaEntityAnnotationValues extends AbstractAnnotationValues {
   @AutoPopulate
   private String sequenceName = null;
   @AutoPopulate
+  private int allocationSize = 0;
+  @AutoPopulate
   private String identifierStrategy = IdentifierStrategy.AUTO.name();
   @AutoPopulate
   private String table = "";
@@ -46,6 +48,10 @@ public class JpaEntityAnnotationValues extends AbstractAnnotationValues {
   private JavaType versionType = JavaType.INT_OBJECT;
   @AutoPopulate
   private boolean readOnly;
+  @AutoPopulate
+  private boolean cacheable;
+  @AutoPopulate
+  private String cacheConcurrencyStrategy = "";
 
   /**
    * Constructor for reading the values of the given annotation
@@ -94,6 +100,10 @@ public class JpaEntityAnnotationValues extends AbstractAnnotationValues {
     return sequenceName;
   }
 
+  public int getAllocationSize() {
+    return allocationSize;
+  }
+
   public String getIdentifierStrategy() {
     return identifierStrategy;
   }
@@ -121,4 +131,12 @@ public class JpaEntityAnnotationValues extends AbstractAnnotationValues {
   public boolean isReadOnly() {
     return readOnly;
   }
+
+  public boolean isCacheable() {
+    return cacheable;
+  }
+
+  public String getCacheConcurrencyStrategy() {
+    return cacheConcurrencyStrategy;
+  }
 }
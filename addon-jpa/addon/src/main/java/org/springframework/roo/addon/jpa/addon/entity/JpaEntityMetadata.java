@@ -102,6 +102,10 @@ public class JpaEntityMetadata extends AbstractItdTypeDetailsProvidingMetadataIt
     // Add @DiscriminatorColumn if required
     builder.addAnnotation(getDiscriminatorColumnAnnotation());
 
+    // Add @Cacheable and Hibernate @Cache annotations if required
+    builder.addAnnotation(getCacheableAnnotation());
+    builder.addAnnotation(getCacheAnnotation());
+
     // Ensure there's a no-arg constructor (explicit or default)
     builder.addConstructor(getNoArgConstructor());
 
@@ -145,6 +149,40 @@ public class JpaEntityMetadata extends AbstractItdTypeDetailsProvidingMetadataIt
     return null;
   }
 
+  /**
+   * Generates the JPA @Cacheable annotation which stores the entity in the
+   * second-level cache.
+   * 
+   * @return <code>null</code> if the entity isn't cacheable
+   */
+  private AnnotationMetadata getCacheableAnnotation() {
+    if (!annotationValues.isCacheable() || annotationValues.isMappedSuperclass()) {
+      return null;
+    }
+    return getTypeAnnotation(CACHEABLE);
+  }
+
+  /**
+   * Generates the Hibernate @Cache annotation with the concurrency strategy
+   * of the entity cache.
+   * 
+   * @return <code>null</code> if the entity isn't cacheable or doesn't
+   *         specify a concurrency strategy
+   */
+  private AnnotationMetadata getCacheAnnotation() {
+    if (!annotationValues.isCacheable() || annotationValues.isMappedSuperclass()
+        || StringUtils.isBlank(annotationValues.getCacheConcurrencyStrategy())
+        || governorTypeDetails.getAnnotation(HibernateJavaType.CACHE) != null) {
+      return null;
+    }
+    final AnnotationMetadataBuilder cacheBuilder =
+        new AnnotationMetadataBuilder(HibernateJavaType.CACHE);
+    cacheBuilder.addEnumAttribute("usage", new EnumDetails(
+        HibernateJavaType.CACHE_CONCURRENCY_STRATEGY, new JavaSymbolName(
+            annotationValues.getCacheConcurrencyStrategy())));
+    return cacheBuilder.build();
+  }
+
   /**
    * Generates the JPA @Entity annotation to be applied to the entity
    * 
@@ -357,6 +395,10 @@ public class JpaEntityMetadata extends AbstractItdTypeDetailsProvidingMetadataIt
           sequenceGeneratorBuilder.addStringAttribute("name", sequenceKey);
           sequenceGeneratorBuilder.addStringAttribute("sequenceName",
               annotationValues.getSequenceName());
+          if (annotationValues.getAllocationSize() > 0) {
+            sequenceGeneratorBuilder.addIntegerAttribute("allocationSize",
+                annotationValues.getAllocationSize());
+          }
           annotations.add(sequenceGeneratorBuilder);
         }
         annotations.add(generatedValueBuilder);
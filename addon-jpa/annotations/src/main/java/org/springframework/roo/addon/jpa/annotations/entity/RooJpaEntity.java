@@ -95,6 +95,15 @@ public @interface RooJpaEntity {
    */
   String sequenceName() default "";
 
+  /**
+   * Specifies the number of identifiers allocated from the sequence each time
+   * the persistence provider reads it. It must match the increment of the
+   * database sequence.
+   * 
+   * @return the allocation size (defaults to 0, which keeps the JPA default)
+   */
+  int allocationSize() default 0;
+
   /**
    * Specifies the generation type strategy for the primary key @GeneratedValue
    * 
@@ -150,4 +159,24 @@ public @interface RooJpaEntity {
    *         if this entity should be used for CRUD operations.
    */
   boolean readOnly() default false;
+
+  /**
+   * Specifies if the entities should be stored in the second-level cache of
+   * the persistence provider, and the results of the repository queries in
+   * its query cache. Use it for read-mostly entities, like the ones of
+   * reference tables.
+   * 
+   * @return true if the entity is cacheable (defaults to false)
+   */
+  boolean cacheable() default false;
+
+  /**
+   * Specifies the concurrency strategy of the second-level cache of a
+   * cacheable entity, as one of the Hibernate CacheConcurrencyStrategy
+   * names. It is ignored by other persistence providers.
+   * 
+   * @return the name of the strategy to use (defaults to "", which keeps the
+   *         default strategy of the persistence provider)
+   */
+  String cacheConcurrencyStrategy() default "";
 }
@@ -11,6 +11,7 @@ import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.component.ComponentContext;
 import org.springframework.roo.addon.field.addon.FieldCommands;
+import org.springframework.roo.addon.layers.repository.jpa.annotations.GlobalSearchBackend;
 import org.springframework.roo.classpath.TypeLocationService;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
 import org.springframework.roo.converters.LastUsed;
@@ -71,7 +72,7 @@ public class RepositoryJpaCommands implements CommandMarker {
     this.context = null;
   }
 
-  @CliAvailabilityIndicator({"repository jpa"})
+  @CliAvailabilityIndicator({"repository jpa", "repository jpa search"})
   public boolean isRepositoryCommandAvailable() {
     return repositoryJpaOperations.isRepositoryInstallationPossible();
   }
@@ -324,6 +325,22 @@ public class RepositoryJpaCommands implements CommandMarker {
     }
   }
 
+  @CliCommand(
+      value = "repository jpa search",
+      help = "Changes how the global searches of the Spring Data repositories find the matching entities.")
+  public void search(
+      @CliOption(
+          key = "backend",
+          mandatory = true,
+          help = "The global search backend. HIBERNATE_SEARCH looks for the text in an embedded "
+              + "index of the entity String fields, which is kept in sync on save and delete.") final GlobalSearchBackend backend,
+      @CliOption(key = "entity", mandatory = false, optionContext = PROJECT,
+          help = "The domain entity whose repository will be updated. If not specified, "
+              + "every repository will be updated.") final JavaType domainType) {
+
+    repositoryJpaOperations.setGlobalSearchBackend(domainType, backend);
+  }
+
   /**
    * Replaces a JavaType fullyQualifiedName for a shorter name using '~' for TopLevelPackage
    * 
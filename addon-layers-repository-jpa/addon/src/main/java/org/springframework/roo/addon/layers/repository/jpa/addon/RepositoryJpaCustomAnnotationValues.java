@@ -1,10 +1,14 @@
 package org.springframework.roo.addon.layers.repository.jpa.addon;
 
+import org.springframework.roo.addon.layers.repository.jpa.annotations.CountStrategy;
+import org.springframework.roo.addon.layers.repository.jpa.annotations.GlobalSearchBackend;
 import org.springframework.roo.addon.layers.repository.jpa.annotations.RooJpaRepositoryCustom;
 import org.springframework.roo.classpath.PhysicalTypeMetadata;
+import org.springframework.roo.classpath.details.annotations.AnnotationAttributeValue;
 import org.springframework.roo.classpath.details.annotations.populator.AbstractAnnotationValues;
 import org.springframework.roo.classpath.details.annotations.populator.AutoPopulate;
 import org.springframework.roo.classpath.details.annotations.populator.AutoPopulationUtils;
+import org.springframework.roo.model.EnumDetails;
 import org.springframework.roo.model.JavaType;
 import org.springframework.roo.model.RooJavaType;
 
@@ -22,6 +26,10 @@ public class RepositoryJpaCustomAnnotationValues extends AbstractAnnotationValue
   @AutoPopulate
   private JavaType defaultReturnType;
 
+  private CountStrategy countStrategy = CountStrategy.EXACT;
+
+  private GlobalSearchBackend globalSearchBackend = GlobalSearchBackend.QUERYDSL;
+
   /**
    * Constructor
    * 
@@ -30,6 +38,52 @@ public class RepositoryJpaCustomAnnotationValues extends AbstractAnnotationValue
   public RepositoryJpaCustomAnnotationValues(final PhysicalTypeMetadata governorPhysicalTypeMetadata) {
     super(governorPhysicalTypeMetadata, RooJavaType.ROO_REPOSITORY_JPA_CUSTOM);
     AutoPopulationUtils.populate(this, annotationMetadata);
+
+    // Enum attributes can't be auto populated, as the enum type isn't visible
+    // from the classpath bundle
+    if (annotationMetadata != null) {
+      AnnotationAttributeValue<?> countStrategyAttribute =
+          annotationMetadata.getAttribute(RooJpaRepositoryCustom.COUNT_STRATEGY_ATTRIBUTE);
+      if (countStrategyAttribute != null) {
+        CountStrategy strategy =
+            CountStrategy.getCountStrategy(((EnumDetails) countStrategyAttribute.getValue())
+                .getField().getSymbolName());
+        if (strategy != null) {
+          countStrategy = strategy;
+        }
+      }
+      AnnotationAttributeValue<?> globalSearchBackendAttribute =
+          annotationMetadata
+              .getAttribute(RooJpaRepositoryCustom.GLOBAL_SEARCH_BACKEND_ATTRIBUTE);
+      if (globalSearchBackendAttribute != null) {
+        GlobalSearchBackend backend =
+            GlobalSearchBackend.getGlobalSearchBackend(((EnumDetails) globalSearchBackendAttribute
+                .getValue()).getField().getSymbolName());
+        if (backend != null) {
+          globalSearchBackend = backend;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns how the paginated searches of the annotated repository obtain
+   * the total number of results
+   * 
+   * @return a non-<code>null</code> strategy
+   */
+  public CountStrategy getCountStrategy() {
+    return countStrategy;
+  }
+
+  /**
+   * Returns how the global searches of the annotated repository find the
+   * matching entities
+   * 
+   * @return a non-<code>null</code> backend
+   */
+  public GlobalSearchBackend getGlobalSearchBackend() {
+    return globalSearchBackend;
   }
 
   /**
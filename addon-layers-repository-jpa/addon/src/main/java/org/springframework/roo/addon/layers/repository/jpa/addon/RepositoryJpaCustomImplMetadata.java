@@ -4,6 +4,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.springframework.roo.addon.finder.addon.parser.FinderParameter;
+import org.springframework.roo.addon.layers.repository.jpa.annotations.CountStrategy;
 import org.springframework.roo.addon.layers.repository.jpa.annotations.RooJpaRepositoryCustomImpl;
 import org.springframework.roo.classpath.PhysicalTypeIdentifierNamingUtils;
 import org.springframework.roo.classpath.PhysicalTypeMetadata;
@@ -48,11 +49,23 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
   private ImportRegistrationResolver importResolver;
   private JavaType entity;
   private MethodMetadata findAllGlobalSearchMethod;
+  private MethodMetadata findAllByKeysetMethod;
+  private MethodMetadata findAllForDatatablesMethod;
+  private MethodMetadata exportAllMethod;
+  private MethodMetadata deleteAllByIdInBatchMethod;
+  private MethodMetadata saveAllInBatchMethod;
+  private MethodMetadata findVersionMethod;
+  private MethodMetadata versionFingerprintMethod;
+  private boolean bulkDeleteAllowed;
   private Map<JavaType, Map<String, String>> typesFieldMaps;
   private JavaType defaultReturnType;
   private Map<JavaType, Map<String, FieldMetadata>> typesFieldsMetadata;
   private Map<JavaType, Boolean> typesAreProjections;
   private Map<JavaSymbolName, List<FinderParameter>> finderParametersMap;
+  private CountStrategy countStrategy;
+  private List<String> globalSearchIndexFields;
+  private List<String> fetchJoinFields;
+  private boolean queryCacheable;
 
   public static String createIdentifier(final JavaType javaType, final LogicalPath path) {
     return PhysicalTypeIdentifierNamingUtils.createIdentifier(PROVIDES_TYPE_STRING, javaType, path);
@@ -92,6 +105,18 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
    * @param idFields entity id fields
    * @param validFields entity fields to search for (excluded id, reference and collection fields)
    * @param findAllGlobalSearchMethod the findAll metadata
+   * @param findAllByKeysetMethod the findAll with keyset pagination metadata
+   * @param findAllForDatatablesMethod the findAllForDatatables metadata
+   * @param exportAllMethod the exportAll metadata
+   * @param deleteAllByIdInBatchMethod the deleteAllByIdInBatch metadata
+   * @param saveAllInBatchMethod the saveAllInBatch metadata
+   * @param bulkDeleteAllowed indicates if the entities can be deleted with 
+   *            bulk delete statements, as they don't need to cascade the
+   *            delete or invoke lifecycle callbacks.
+   * @param findVersionMethod the findVersion metadata, or null if the 
+   *            entity doesn't have a version field
+   * @param versionFingerprintMethod the getVersionFingerprint metadata, or 
+   *            null if the entity doesn't have a version field
    * @param allFindAllReferencedFieldsMethods the metadata for al findAllByReference methods.
    * @param referencedFieldsIdentifierNames
    * @param typesFieldMaps the Map<JavaType, Map<String, String>> of each associated
@@ -105,12 +130,26 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
    *            a projection and must use a ConstructorExpression in finders implementations.
    * @param finderParametersMap the Map with all projection finder names and its list 
    *            of finder params.
+   * @param countStrategy how the implemented searches obtain the total number 
+   *            of results.
+   * @param globalSearchIndexFields the entity fields to look for the global 
+   *            search text in the global search index. If empty, the global 
+   *            search is applied by the query.
+   * @param fetchJoinFields the entity fields which reference a single entity,
+   *            to load the referenced entities in the same query when the
+   *            query returns the entity.
+   * @param queryCacheable indicates if the results of the queries should be
+   *            stored in the query cache, as the entity is cacheable.
    */
   public RepositoryJpaCustomImplMetadata(final String identifier, final JavaType aspectName,
       final PhysicalTypeMetadata governorPhysicalTypeMetadata,
       final RepositoryJpaCustomImplAnnotationValues annotationValues, final JavaType domainType,
       final List<FieldMetadata> idFields, final List<FieldMetadata> validFields,
-      final MethodMetadata findAllGlobalSearchMethod,
+      final MethodMetadata findAllGlobalSearchMethod, final MethodMetadata findAllByKeysetMethod,
+      final MethodMetadata findAllForDatatablesMethod, final MethodMetadata exportAllMethod,
+      final MethodMetadata deleteAllByIdInBatchMethod, final MethodMetadata saveAllInBatchMethod,
+      final boolean bulkDeleteAllowed,
+      final MethodMetadata findVersionMethod, final MethodMetadata versionFingerprintMethod,
       final Map<FieldMetadata, MethodMetadata> allFindAllReferencedFieldsMethods,
       final Map<FieldMetadata, String> referencedFieldsIdentifierNames,
       final Map<JavaType, Map<String, String>> typesFieldMaps,
@@ -118,17 +157,31 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
       final List<MethodMetadata> customCountMethods,
       final Map<JavaType, Map<String, FieldMetadata>> typesFieldsMetadata,
       final Map<JavaType, Boolean> typesAreProjections,
-      final Map<JavaSymbolName, List<FinderParameter>> finderParametersMap) {
+      final Map<JavaSymbolName, List<FinderParameter>> finderParametersMap,
+      final CountStrategy countStrategy, final List<String> globalSearchIndexFields,
+      final List<String> fetchJoinFields, final boolean queryCacheable) {
     super(identifier, aspectName, governorPhysicalTypeMetadata);
     Validate.notNull(annotationValues, "Annotation values required");
 
     this.importResolver = builder.getImportRegistrationResolver();
     this.findAllGlobalSearchMethod = findAllGlobalSearchMethod;
+    this.findAllByKeysetMethod = findAllByKeysetMethod;
+    this.findAllForDatatablesMethod = findAllForDatatablesMethod;
+    this.exportAllMethod = exportAllMethod;
+    this.deleteAllByIdInBatchMethod = deleteAllByIdInBatchMethod;
+    this.saveAllInBatchMethod = saveAllInBatchMethod;
+    this.bulkDeleteAllowed = bulkDeleteAllowed;
+    this.findVersionMethod = findVersionMethod;
+    this.versionFingerprintMethod = versionFingerprintMethod;
     this.entity = domainType;
     this.typesFieldMaps = typesFieldMaps;
     this.typesFieldsMetadata = typesFieldsMetadata;
     this.typesAreProjections = typesAreProjections;
     this.finderParametersMap = finderParametersMap;
+    this.countStrategy = countStrategy;
+    this.globalSearchIndexFields = globalSearchIndexFields;
+    this.fetchJoinFields = fetchJoinFields;
+    this.queryCacheable = queryCacheable;
 
     // Get inner parameter of default return type (enclosed inside Page);
     this.defaultReturnType = findAllGlobalSearchMethod.getReturnType().getParameters().get(0);
@@ -145,6 +198,25 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
     // Generate findAll implementation method
     ensureGovernorHasMethod(new MethodMetadataBuilder(getFindAllImpl(idFields, validFields)));
 
+    // Generate findAll with keyset pagination implementation method
+    ensureGovernorHasMethod(new MethodMetadataBuilder(getFindAllByKeysetImpl(validFields)));
+
+    // Generate findAllForDatatables implementation method
+    ensureGovernorHasMethod(new MethodMetadataBuilder(getFindAllForDatatablesImpl(validFields)));
+
+    // Generate exportAll implementation method
+    ensureGovernorHasMethod(new MethodMetadataBuilder(getExportAllImpl()));
+
+    // Generate batch implementation methods
+    ensureGovernorHasMethod(new MethodMetadataBuilder(getDeleteAllByIdInBatchImpl()));
+    ensureGovernorHasMethod(new MethodMetadataBuilder(getSaveAllInBatchImpl()));
+
+    // Generate version implementation methods
+    if (findVersionMethod != null && versionFingerprintMethod != null) {
+      ensureGovernorHasMethod(new MethodMetadataBuilder(getFindVersionImpl()));
+      ensureGovernorHasMethod(new MethodMetadataBuilder(getVersionFingerprintImpl()));
+    }
+
     // ROO-3765: Prevent ITD regeneration applying the same sort to provided map. If this sort is not applied, maybe some
     // method is not in the same order and ITD will be regenerated.
     Map<FieldMetadata, MethodMetadata> allFindAllReferencedFieldsMethodsOrderedByFieldName =
@@ -239,7 +311,245 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
 
     // Construct query
     buildQuery(bodyBuilder, entityVariable, globalSearch, null, null, null, null,
-        this.defaultReturnType, null);
+        this.defaultReturnType, null, true);
+    bodyBuilder.newLine();
+
+    // AttributeMappingBuilder mapping = buildMapper()
+    StringBuffer mappingBuilderLine = new StringBuffer();
+    mappingBuilderLine.append(String.format(
+        "%s mapping = buildMapper()",
+        new JavaType(governorPhysicalTypeMetadata.getType().getPackage()
+            .getFullyQualifiedPackageName().concat(LogicalPath.PATH_SEPARATOR)
+            .concat("QueryDslRepositorySupportExt").concat(LogicalPath.PATH_SEPARATOR)
+            .concat("AttributeMappingBuilder")).getNameIncludingTypeParameters(false,
+            this.importResolver)));
+
+    if (!this.typesAreProjections.get(this.defaultReturnType)) {
+
+      // Return type is the same entity
+      Iterator<FieldMetadata> iterator = fields.iterator();
+      while (iterator.hasNext()) {
+        FieldMetadata field = iterator.next();
+        String fieldName = field.getFieldName().getSymbolName();
+        mappingBuilderLine.append(String.format("\n\t\t\t.map(\"%s\", %s.%s)", fieldName,
+            entityVariable, fieldName));
+      }
+    } else {
+
+      // Return type is a projection
+      Map<String, String> projectionFields = this.typesFieldMaps.get(this.defaultReturnType);
+      Iterator<Entry<String, String>> iterator = projectionFields.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Entry<String, String> entry = iterator.next();
+        mappingBuilderLine.append(String.format("\n\t\t\t.map(\"%s\", %s)", entry.getKey(),
+            entry.getValue()));
+      }
+    }
+    mappingBuilderLine.append(";");
+    bodyBuilder.appendFormalLine(mappingBuilderLine.toString());
+    bodyBuilder.newLine();
+
+    // applyPagination(pageable, query, mapping);
+    bodyBuilder.appendFormalLine(String.format("applyPagination(%s, query, mapping);", pageable));
+
+    //applyOrderById(query);
+    bodyBuilder.appendFormalLine("applyOrderById(query);");
+    bodyBuilder.newLine();
+
+
+    buildQueryResult(bodyBuilder, pageable, entityVariable, projection, this.defaultReturnType,
+        globalSearch);
+
+    // Sets body to generated method
+    methodBuilder.setBodyBuilder(bodyBuilder);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
+  /**
+   * Method that generates the findAllByKeyset implementation method, which 
+   * applies keyset pagination instead of skipping the results of previous pages
+   * 
+   * @param fields the entity fields to search for
+   *
+   * @return
+   */
+  public MethodMetadata getFindAllByKeysetImpl(List<FieldMetadata> fields) {
+
+    // Define method name
+    JavaSymbolName methodName = this.findAllByKeysetMethod.getMethodName();
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = this.findAllByKeysetMethod.getParameterTypes();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = this.findAllByKeysetMethod.getParameterNames();
+
+    MethodMetadata existingMethod =
+        getGovernorMethod(methodName,
+            AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Use provided findAllByKeyset method to generate its implementation
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC, methodName,
+            this.findAllByKeysetMethod.getReturnType(), parameterTypes, parameterNames, null);
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    // Getting variable name to use in the code
+    JavaSymbolName globalSearch = parameterNames.get(0);
+    JavaSymbolName continuationToken = parameterNames.get(1);
+    JavaSymbolName pageable = parameterNames.get(2);
+    String entity = this.entity.getSimpleTypeName();
+    String entityVariable = StringUtils.uncapitalize(entity);
+
+    // Types to import
+    JavaType qEntity =
+        new JavaType(this.entity.getPackage().getFullyQualifiedPackageName().concat(".Q")
+            .concat(entity));
+    JavaType projection = new JavaType("com.querydsl.core.types.Projections");
+
+    bodyBuilder.newLine();
+
+    // QEntity qEntity = QEntity.entity;
+    bodyBuilder.appendFormalLine(String.format("%1$s %2$s = %1$s.%2$s;",
+        qEntity.getNameIncludingTypeParameters(false, importResolver), entityVariable));
+    bodyBuilder.newLine();
+
+    // Construct query
+    buildQuery(bodyBuilder, entityVariable, globalSearch, null, null, null, null,
+        this.defaultReturnType, null, true);
+    bodyBuilder.newLine();
+
+    // AttributeMappingBuilder mapping = buildMapper()
+    StringBuffer mappingBuilderLine = new StringBuffer();
+    mappingBuilderLine.append(String.format(
+        "%s mapping = buildMapper()",
+        new JavaType(governorPhysicalTypeMetadata.getType().getPackage()
+            .getFullyQualifiedPackageName().concat(LogicalPath.PATH_SEPARATOR)
+            .concat("QueryDslRepositorySupportExt").concat(LogicalPath.PATH_SEPARATOR)
+            .concat("AttributeMappingBuilder")).getNameIncludingTypeParameters(false,
+            this.importResolver)));
+
+    if (!this.typesAreProjections.get(this.defaultReturnType)) {
+
+      // Return type is the same entity
+      Iterator<FieldMetadata> iterator = fields.iterator();
+      while (iterator.hasNext()) {
+        FieldMetadata field = iterator.next();
+        String fieldName = field.getFieldName().getSymbolName();
+        mappingBuilderLine.append(String.format("\n\t\t\t.map(\"%s\", %s.%s)", fieldName,
+            entityVariable, fieldName));
+      }
+    } else {
+
+      // Return type is a projection
+      Map<String, String> projectionFields = this.typesFieldMaps.get(this.defaultReturnType);
+      Iterator<Entry<String, String>> iterator = projectionFields.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Entry<String, String> entry = iterator.next();
+        mappingBuilderLine.append(String.format("\n\t\t\t.map(\"%s\", %s)", entry.getKey(),
+            entry.getValue()));
+      }
+    }
+    mappingBuilderLine.append(";");
+    bodyBuilder.appendFormalLine(mappingBuilderLine.toString());
+    bodyBuilder.newLine();
+
+    // applyKeyset(continuationToken, pageable, query, mapping);
+    bodyBuilder.appendFormalLine(String.format("applyKeyset(%s, %s, query, mapping);",
+        continuationToken, pageable));
+    bodyBuilder.newLine();
+
+    if (!this.typesAreProjections.get(this.defaultReturnType)) {
+
+      // return loadKeysetSlice(query, pageable, myEntity);
+      bodyBuilder.appendFormalLine(String.format("return loadKeysetSlice(query, %s, %s);",
+          pageable, entityVariable));
+    } else {
+      Map<String, String> projectionFields = this.typesFieldMaps.get(this.defaultReturnType);
+
+      // return loadKeysetSlice(query, pageable, Projection.constructor(MyProjection.class,
+      //                    getEntityId(), myEntity.field1, myEntity.field2);
+      bodyBuilder.appendFormalLine(String.format(
+          "return loadKeysetSlice(query, %s, %s.constructor(%s.class, %s ));", pageable,
+          projection.getNameIncludingTypeParameters(false, this.importResolver),
+          this.defaultReturnType.getNameIncludingTypeParameters(false, this.importResolver),
+          StringUtils.join(projectionFields.values(), ", ")));
+    }
+
+    // Sets body to generated method
+    methodBuilder.setBodyBuilder(bodyBuilder);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
+  /**
+   * Method that generates the findAllForDatatables implementation method, 
+   * which applies the same search and ordering as findAll, but only loads 
+   * the requested entity attributes. The referenced entities aren't fetched 
+   * with the query, as the entity attributes are selected instead of the 
+   * entities.
+   * 
+   * @param fields the entity fields to search for
+   *
+   * @return
+   */
+  public MethodMetadata getFindAllForDatatablesImpl(List<FieldMetadata> fields) {
+
+    // Define method name
+    JavaSymbolName methodName = this.findAllForDatatablesMethod.getMethodName();
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = this.findAllForDatatablesMethod.getParameterTypes();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = this.findAllForDatatablesMethod.getParameterNames();
+
+    MethodMetadata existingMethod =
+        getGovernorMethod(methodName,
+            AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Use provided findAllForDatatables method to generate its implementation
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC, methodName,
+            this.findAllForDatatablesMethod.getReturnType(), parameterTypes, parameterNames, null);
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    // Getting variable name to use in the code
+    JavaSymbolName globalSearch = parameterNames.get(0);
+    JavaSymbolName pageable = parameterNames.get(1);
+    JavaSymbolName attributes = parameterNames.get(2);
+    JavaSymbolName countUnfiltered = parameterNames.get(3);
+    String entity = this.entity.getSimpleTypeName();
+    String entityVariable = StringUtils.uncapitalize(entity);
+
+    // Types to import
+    JavaType qEntity =
+        new JavaType(this.entity.getPackage().getFullyQualifiedPackageName().concat(".Q")
+            .concat(entity));
+
+    bodyBuilder.newLine();
+
+    // QEntity qEntity = QEntity.entity;
+    bodyBuilder.appendFormalLine(String.format("%1$s %2$s = %1$s.%2$s;",
+        qEntity.getNameIncludingTypeParameters(false, importResolver), entityVariable));
+    bodyBuilder.newLine();
+
+    // Construct query
+    buildQuery(bodyBuilder, entityVariable, globalSearch, null, null, null, null,
+        this.defaultReturnType, null, false);
     bodyBuilder.newLine();
 
     // AttributeMappingBuilder mapping = buildMapper()
@@ -284,8 +594,17 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
     bodyBuilder.appendFormalLine("applyOrderById(query);");
     bodyBuilder.newLine();
 
+    if (this.countStrategy == CountStrategy.NONE) {
 
-    buildQueryResult(bodyBuilder, pageable, entityVariable, projection, this.defaultReturnType);
+      // return loadFilteredPageWithoutCount(query, pageable, attributes);
+      bodyBuilder.appendFormalLine(String.format(
+          "return loadFilteredPageWithoutCount(query, %s, %s);", pageable, attributes));
+    } else {
+
+      // return loadFilteredPage(query, pageable, attributes, countUnfiltered);
+      bodyBuilder.appendFormalLine(String.format("return loadFilteredPage(query, %s, %s, %s);",
+          pageable, attributes, countUnfiltered));
+    }
 
     // Sets body to generated method
     methodBuilder.setBodyBuilder(bodyBuilder);
@@ -294,6 +613,261 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
     // instance
   }
 
+  /**
+   * Method that generates the exportAll implementation method, which sends 
+   * every result of the global search to the provided export handler, 
+   * reading them from a forward only cursor.
+   *
+   * @return
+   */
+  public MethodMetadata getExportAllImpl() {
+
+    // Define method name
+    JavaSymbolName methodName = this.exportAllMethod.getMethodName();
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = this.exportAllMethod.getParameterTypes();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = this.exportAllMethod.getParameterNames();
+
+    MethodMetadata existingMethod =
+        getGovernorMethod(methodName,
+            AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Use provided exportAll method to generate its implementation
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC, methodName,
+            this.exportAllMethod.getReturnType(), parameterTypes, parameterNames, null);
+    methodBuilder.setThrowsTypes(this.exportAllMethod.getThrowsTypes());
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    // Getting variable name to use in the code
+    JavaSymbolName globalSearch = parameterNames.get(0);
+    JavaSymbolName handler = parameterNames.get(1);
+    String entity = this.entity.getSimpleTypeName();
+    String entityVariable = StringUtils.uncapitalize(entity);
+
+    // Types to import
+    JavaType qEntity =
+        new JavaType(this.entity.getPackage().getFullyQualifiedPackageName().concat(".Q")
+            .concat(entity));
+    JavaType projection = new JavaType("com.querydsl.core.types.Projections");
+
+    bodyBuilder.newLine();
+
+    // QEntity qEntity = QEntity.entity;
+    bodyBuilder.appendFormalLine(String.format("%1$s %2$s = %1$s.%2$s;",
+        qEntity.getNameIncludingTypeParameters(false, importResolver), entityVariable));
+    bodyBuilder.newLine();
+
+    // Construct query
+    buildQuery(bodyBuilder, entityVariable, globalSearch, null, null, null, null,
+        this.defaultReturnType, null, true);
+    bodyBuilder.newLine();
+
+    //applyOrderById(query);
+    bodyBuilder.appendFormalLine("applyOrderById(query);");
+    bodyBuilder.newLine();
+
+    if (!this.typesAreProjections.get(this.defaultReturnType)) {
+
+      // export(query, myEntity, handler);
+      bodyBuilder.appendFormalLine(String.format("export(query, %s, %s);", entityVariable,
+          handler));
+    } else {
+      Map<String, String> projectionFields = this.typesFieldMaps.get(this.defaultReturnType);
+
+      // export(query, Projections.constructor(MyProjection.class, 
+      //                    getEntityId(), myEntity.field1, myEntity.field2), handler);
+      bodyBuilder.appendFormalLine(String.format(
+          "export(query, %s.constructor(%s.class, %s ), %s);",
+          projection.getNameIncludingTypeParameters(false, this.importResolver),
+          this.defaultReturnType.getNameIncludingTypeParameters(false, this.importResolver),
+          StringUtils.join(projectionFields.values(), ", "), handler));
+    }
+
+    // Sets body to generated method
+    methodBuilder.setBodyBuilder(bodyBuilder);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
+  /**
+   * Method that generates the deleteAllByIdInBatch implementation method. 
+   * It uses bulk delete statements, unless the entity must cascade the 
+   * delete or invoke lifecycle callbacks. In that case, the entities are 
+   * loaded and deleted one by one.
+   *
+   * @return
+   */
+  public MethodMetadata getDeleteAllByIdInBatchImpl() {
+
+    // Define method name
+    JavaSymbolName methodName = this.deleteAllByIdInBatchMethod.getMethodName();
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = this.deleteAllByIdInBatchMethod.getParameterTypes();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = this.deleteAllByIdInBatchMethod.getParameterNames();
+
+    MethodMetadata existingMethod =
+        getGovernorMethod(methodName,
+            AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    // return deleteInBulk(ids);
+    // or
+    // return deleteOneByOne(ids);
+    bodyBuilder.appendFormalLine(String.format("return %s(%s);",
+        this.bulkDeleteAllowed ? "deleteInBulk" : "deleteOneByOne", parameterNames.get(0)));
+
+    // Use provided deleteAllByIdInBatch method to generate its implementation
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC, methodName,
+            this.deleteAllByIdInBatchMethod.getReturnType(), parameterTypes, parameterNames,
+            bodyBuilder);
+
+    // The repository is @Transactional(readOnly = true), so the write methods,
+    // like this one and saveAllInBatch, need their own read-write @Transactional
+    methodBuilder.addAnnotation(new AnnotationMetadataBuilder(SpringJavaType.TRANSACTIONAL));
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
+  /**
+   * Method that generates the saveAllInBatch implementation method
+   *
+   * @return
+   */
+  public MethodMetadata getSaveAllInBatchImpl() {
+
+    // Define method name
+    JavaSymbolName methodName = this.saveAllInBatchMethod.getMethodName();
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = this.saveAllInBatchMethod.getParameterTypes();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = this.saveAllInBatchMethod.getParameterNames();
+
+    MethodMetadata existingMethod =
+        getGovernorMethod(methodName,
+            AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    // return saveInBatch(entities);
+    bodyBuilder.appendFormalLine(String.format("return saveInBatch(%s);", parameterNames.get(0)));
+
+    // Use provided saveAllInBatch method to generate its implementation
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC, methodName,
+            this.saveAllInBatchMethod.getReturnType(), parameterTypes, parameterNames, bodyBuilder);
+
+    methodBuilder.addAnnotation(new AnnotationMetadataBuilder(SpringJavaType.TRANSACTIONAL));
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
+  /**
+   * Method that generates the findVersion implementation method, which only
+   * selects the version of the entity
+   *
+   * @return
+   */
+  public MethodMetadata getFindVersionImpl() {
+
+    // Define method name
+    JavaSymbolName methodName = this.findVersionMethod.getMethodName();
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = this.findVersionMethod.getParameterTypes();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = this.findVersionMethod.getParameterNames();
+
+    MethodMetadata existingMethod =
+        getGovernorMethod(methodName,
+            AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    // return (Integer) loadVersion(id);
+    bodyBuilder.appendFormalLine(String.format("return (%s) loadVersion(%s);",
+        this.findVersionMethod.getReturnType().getNameIncludingTypeParameters(false,
+            this.importResolver), parameterNames.get(0)));
+
+    // Use provided findVersion method to generate its implementation
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC, methodName,
+            this.findVersionMethod.getReturnType(), parameterTypes, parameterNames, bodyBuilder);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
+  /**
+   * Method that generates the getVersionFingerprint implementation method
+   *
+   * @return
+   */
+  public MethodMetadata getVersionFingerprintImpl() {
+
+    // Define method name
+    JavaSymbolName methodName = this.versionFingerprintMethod.getMethodName();
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = this.versionFingerprintMethod.getParameterTypes();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = this.versionFingerprintMethod.getParameterNames();
+
+    MethodMetadata existingMethod =
+        getGovernorMethod(methodName,
+            AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    // return loadVersionFingerprint();
+    bodyBuilder.appendFormalLine("return loadVersionFingerprint();");
+
+    // Use provided getVersionFingerprint method to generate its implementation
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC, methodName,
+            this.versionFingerprintMethod.getReturnType(), parameterTypes, parameterNames,
+            bodyBuilder);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
   /**
    * Builds the query return sentence
    * 
@@ -301,25 +875,39 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
    * @param pageable the Page implementation variable name
    * @param entityVariable the name of the variable owning the query
    * @param projection the projection expression for returning the query
+   * @param returnType the type of the page content
+   * @param globalSearch the GlobalSearch variable name, if the query is only 
+   *            filtered by it and its count can be cached. Can be null.
    */
   private void buildQueryResult(InvocableMemberBodyBuilder bodyBuilder, JavaSymbolName pageable,
-      String entityVariable, JavaType projection, JavaType returnType) {
+      String entityVariable, JavaType projection, JavaType returnType,
+      JavaSymbolName globalSearch) {
+
+    // Choose the page loading method depending on the count strategy
+    String loadMethod = "loadPage";
+    String countArguments = "";
+    if (this.countStrategy == CountStrategy.NONE) {
+      loadMethod = "loadPageWithoutCount";
+    } else if (this.countStrategy == CountStrategy.CACHED && globalSearch != null) {
+      loadMethod = "loadPageWithCachedCount";
+      countArguments = ", ".concat(globalSearch.getSymbolName());
+    }
 
     if (!this.typesAreProjections.get(returnType)) {
 
       // return loadPage(query, pageable, myEntity);
-      bodyBuilder.appendFormalLine(String.format("return loadPage(query, pageable, %s);",
-          entityVariable));
+      bodyBuilder.appendFormalLine(String.format("return %s(query, pageable, %s%s);", loadMethod,
+          entityVariable, countArguments));
     } else {
       Map<String, String> projectionFields = this.typesFieldMaps.get(returnType);
 
       // return loadPage(query, pageable, Projection.constructor(MyProjection.class,
       //                    getEntityId(), myEntity.field1, myEntity.field2);
       bodyBuilder.appendFormalLine(String.format(
-          "return loadPage(query, %s, %s.constructor(%s.class, %s ));", pageable,
+          "return %s(query, %s, %s.constructor(%s.class, %s )%s);", loadMethod, pageable,
           projection.getNameIncludingTypeParameters(false, this.importResolver),
           returnType.getNameIncludingTypeParameters(false, this.importResolver),
-          StringUtils.join(projectionFields.values(), ", ")));
+          StringUtils.join(projectionFields.values(), ", "), countArguments));
     }
   }
 
@@ -384,7 +972,7 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
 
     // Construct query
     buildQuery(bodyBuilder, entityVariable, globalSearch, referencedFieldName,
-        referencedPathFieldName, null, null, this.defaultReturnType, null);
+        referencedPathFieldName, null, null, this.defaultReturnType, null, true);
     bodyBuilder.newLine();
 
     // AttributeMappingBuilder mapping = buildMapper()
@@ -431,7 +1019,8 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
     bodyBuilder.appendFormalLine("applyOrderById(query);");
     bodyBuilder.newLine();
 
-    buildQueryResult(bodyBuilder, pageable, entityVariable, projection, this.defaultReturnType);
+    buildQueryResult(bodyBuilder, pageable, entityVariable, projection, this.defaultReturnType,
+        null);
 
     // Sets body to generated method
     methodBuilder.setBodyBuilder(bodyBuilder);
@@ -492,7 +1081,7 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
 
     // Construct query
     buildQuery(bodyBuilder, entityVariable, globalSearch, null, null, finderParamType,
-        finderParamName, returnType, method.getMethodName());
+        finderParamName, returnType, method.getMethodName(), true);
     bodyBuilder.newLine();
 
     // AttributeMappingBuilder mapping = buildMapper()
@@ -538,7 +1127,7 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
     bodyBuilder.appendFormalLine("applyOrderById(query);");
     bodyBuilder.newLine();
 
-    buildQueryResult(bodyBuilder, pageable, entityVariable, projection, returnType);
+    buildQueryResult(bodyBuilder, pageable, entityVariable, projection, returnType, null);
 
     // Use provided finder method to generate its implementation
     MethodMetadataBuilder methodBuilder =
@@ -599,6 +1188,8 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
     bodyBuilder.appendFormalLine(String.format("JPQLQuery query = from(%s);", entityVariable));
     bodyBuilder.newLine();
 
+    addQueryCacheHint(bodyBuilder);
+
     // BooleanBuilder searchFormCondition = new BooleanBuilder();
     bodyBuilder.appendFormalLine(String.format("%1$s searchFormCondition = new %1$s();",
         new JavaType("com.querydsl.core.BooleanBuilder").getNameIncludingTypeParameters(false,
@@ -655,6 +1246,22 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
     return methodBuilder.build();
   }
 
+  /**
+   * Stores the results of the query in the query cache of the persistence
+   * provider, when the entity is cacheable.
+   *
+   * @param bodyBuilder the method body where the query is built
+   */
+  private void addQueryCacheHint(InvocableMemberBodyBuilder bodyBuilder) {
+    if (!this.queryCacheable) {
+      return;
+    }
+
+    // applyQueryCache(query);
+    bodyBuilder.appendFormalLine("applyQueryCache(query);");
+    bodyBuilder.newLine();
+  }
+
   /**
    * Builds the search query
    *
@@ -669,11 +1276,13 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
    * @param formBean the name of the search param.
    * @param finderName the name of the finder. Only available when method is a 
    *            projection/DTO finder.
+   * @param fetchJoins indicates if the referenced entities can be loaded with
+   *            the same query, as it returns the entity itself.
    */
   private void buildQuery(InvocableMemberBodyBuilder bodyBuilder, String entityVariable,
       JavaSymbolName globalSearch, JavaSymbolName referencedFieldName,
       String referencedFieldIdentifierPathName, JavaType finderParam, String formBean,
-      JavaType returnType, JavaSymbolName finderName) {
+      JavaType returnType, JavaSymbolName finderName, boolean fetchJoins) {
 
     JavaType jpql = new JavaType("com.querydsl.jpa.JPQLQuery");
 
@@ -682,6 +1291,21 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
         jpql.getNameIncludingTypeParameters(false, importResolver), entityVariable));
     bodyBuilder.newLine();
 
+    addQueryCacheHint(bodyBuilder);
+
+    if (fetchJoins && !this.typesAreProjections.get(returnType)
+        && !this.fetchJoinFields.isEmpty()) {
+
+      // Load the referenced entities with the same query, instead of one
+      // query for each result
+      // query.leftJoin(myEntity.field).fetchJoin();
+      for (String fieldName : this.fetchJoinFields) {
+        bodyBuilder.appendFormalLine(String.format("query.leftJoin(%s.%s).fetchJoin();",
+            entityVariable, fieldName));
+      }
+      bodyBuilder.newLine();
+    }
+
     if (finderParam != null) {
       // if (formSearch != null) {
       bodyBuilder.appendFormalLine(String.format("if (%s != null) {", formBean));
@@ -766,6 +1390,25 @@ public class RepositoryJpaCustomImplMetadata extends AbstractItdTypeDetailsProvi
           referencedFieldIdentifierPathName, referencedFieldName));
     }
 
+    if (!this.globalSearchIndexFields.isEmpty()) {
+
+      // Search the text in the global search index and filter by the found ids
+      // applyGlobalSearchResults(GlobalSearchIndex.findIds(getEntityManager(),
+      //   Entity.class, globalSearch, "field1", "field2"), query);
+      JavaType globalSearchIndex =
+          new JavaType(governorPhysicalTypeMetadata.getType().getPackage()
+              .getFullyQualifiedPackageName().concat(".GlobalSearchIndex"));
+      StringBuffer fieldNames = new StringBuffer();
+      for (String fieldName : this.globalSearchIndexFields) {
+        fieldNames.append(String.format(", \"%s\"", fieldName));
+      }
+      bodyBuilder.appendFormalLine(String.format(
+          "applyGlobalSearchResults(%s.findIds(getEntityManager(), %s.class, globalSearch%s), query);",
+          globalSearchIndex.getNameIncludingTypeParameters(false, importResolver),
+          this.entity.getNameIncludingTypeParameters(false, importResolver), fieldNames));
+      return;
+    }
+
     // applyGlobalSearch(search, query, ...
     bodyBuilder.appendIndent();
     bodyBuilder.append("applyGlobalSearch(globalSearch, query");
@@ -16,6 +16,7 @@ import org.springframework.roo.addon.finder.addon.parser.FinderParameter;
 import org.springframework.roo.addon.finder.addon.parser.PartTree;
 import org.springframework.roo.addon.javabean.addon.JavaBeanMetadata;
 import org.springframework.roo.addon.jpa.addon.entity.JpaEntityMetadata;
+import org.springframework.roo.addon.layers.repository.jpa.annotations.GlobalSearchBackend;
 import org.springframework.roo.addon.layers.repository.jpa.annotations.RooJpaRepositoryCustomImpl;
 import org.springframework.roo.addon.security.addon.audit.AuditMetadata;
 import org.springframework.roo.classpath.PhysicalTypeIdentifier;
@@ -29,6 +30,8 @@ import org.springframework.roo.classpath.details.MemberHoldingTypeDetails;
 import org.springframework.roo.classpath.details.MethodMetadata;
 import org.springframework.roo.classpath.details.annotations.AnnotationAttributeValue;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
+import org.springframework.roo.classpath.details.annotations.ArrayAttributeValue;
+import org.springframework.roo.classpath.details.annotations.EnumAttributeValue;
 import org.springframework.roo.classpath.details.annotations.StringAttributeValue;
 import org.springframework.roo.classpath.itd.AbstractMemberDiscoveringItdMetadataProvider;
 import org.springframework.roo.classpath.itd.ItdTypeDetailsProvidingMetadataItem;
@@ -37,6 +40,7 @@ import org.springframework.roo.classpath.scanner.MemberDetails;
 import org.springframework.roo.metadata.MetadataDependencyRegistry;
 import org.springframework.roo.metadata.MetadataIdentificationUtils;
 import org.springframework.roo.metadata.internal.MetadataDependencyRegistryTracker;
+import org.springframework.roo.model.HibernateJavaType;
 import org.springframework.roo.model.JavaSymbolName;
 import org.springframework.roo.model.JavaType;
 import org.springframework.roo.model.JpaJavaType;
@@ -45,6 +49,8 @@ import org.springframework.roo.project.LogicalPath;
 import org.springframework.roo.support.logging.HandlerUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -338,6 +344,36 @@ public class RepositoryJpaCustomImplMetadataProviderImpl extends
       validFields.add(field);
     }
 
+    // Getting the fields to search in the global search index, if the
+    // repository uses one
+    List<String> globalSearchIndexFields = new ArrayList<String>();
+    if (repositoryCustomMetadata.getGlobalSearchBackend() == GlobalSearchBackend.HIBERNATE_SEARCH) {
+      for (FieldMetadata field : validFields) {
+        if (field.getAnnotation(HibernateJavaType.SEARCH_FIELD) != null) {
+          globalSearchIndexFields.add(field.getFieldName().getSymbolName());
+        }
+      }
+    }
+
+    // Getting the fields which reference a single entity. The list views
+    // show them in each row, so they are loaded with the results
+    List<String> fetchJoinFields = new ArrayList<String>();
+    for (FieldMetadata field : validFields) {
+      if (field.getAnnotation(JpaJavaType.MANY_TO_ONE) != null
+          || field.getAnnotation(JpaJavaType.ONE_TO_ONE) != null) {
+        fetchJoinFields.add(field.getFieldName().getSymbolName());
+      }
+    }
+
+    // Getting if the entity is cacheable, to store the results of its 
+    // queries in the query cache
+    AnnotationMetadata jpaEntityAnnotation =
+        entityDetails.getAnnotation(RooJavaType.ROO_JPA_ENTITY);
+    AnnotationAttributeValue<?> cacheableAttribute =
+        jpaEntityAnnotation == null ? null : jpaEntityAnnotation.getAttribute("cacheable");
+    boolean queryCacheable =
+        cacheableAttribute != null && Boolean.TRUE.equals(cacheableAttribute.getValue());
+
     // Getting all necessary information about referencedFields
     Map<FieldMetadata, MethodMetadata> referencedFieldsMethods =
         repositoryCustomMetadata.getReferencedFieldsFindAllMethods();
@@ -489,9 +525,19 @@ public class RepositoryJpaCustomImplMetadataProviderImpl extends
 
     return new RepositoryJpaCustomImplMetadata(metadataIdentificationString, aspectName,
         governorPhysicalTypeMetadata, annotationValues, entity, validIdFields, validFields,
-        repositoryCustomMetadata.getFindAllGlobalSearchMethod(), referencedFieldsMethods,
+        repositoryCustomMetadata.getFindAllGlobalSearchMethod(),
+        repositoryCustomMetadata.getFindAllByKeysetMethod(),
+        repositoryCustomMetadata.getFindAllForDatatablesMethod(),
+        repositoryCustomMetadata.getExportAllMethod(),
+        repositoryCustomMetadata.getDeleteAllByIdInBatchMethod(),
+        repositoryCustomMetadata.getSaveAllInBatchMethod(),
+        isBulkDeleteAllowed(entityDetails, entityMemberDetails),
+        repositoryCustomMetadata.getFindVersionMethod(),
+        repositoryCustomMetadata.getVersionFingerprintMethod(), referencedFieldsMethods,
         referencedFieldsIdentifierNames, typesFieldMaps, customFinderMethods, customCountMethods,
-        typesFieldsMetadataMap, typesAreProjections, finderParametersMap);
+        typesFieldsMetadataMap, typesAreProjections, finderParametersMap,
+        repositoryCustomMetadata.getCountStrategy(), globalSearchIndexFields, fetchJoinFields,
+        queryCacheable);
   }
 
   /**
@@ -708,6 +754,84 @@ public class RepositoryJpaCustomImplMetadataProviderImpl extends
     return found;
   }
 
+  /**
+   * Checks if the entities can be deleted with bulk delete statements. Bulk 
+   * deletes don't load the entities, so they can't be used when the entity
+   * must cascade the delete to other entities or collection tables, or when
+   * it has lifecycle callbacks.
+   *
+   * @param entityDetails
+   * @param entityMemberDetails
+   * @return true if the entity doesn't need to be deleted one by one
+   */
+  private boolean isBulkDeleteAllowed(ClassOrInterfaceTypeDetails entityDetails,
+      MemberDetails entityMemberDetails) {
+    if (entityDetails.getAnnotation(JpaJavaType.ENTITY_LISTENERS) != null) {
+      return false;
+    }
+
+    for (MethodMetadata method : entityMemberDetails.getMethods()) {
+      if (method.getAnnotation(JpaJavaType.PRE_REMOVE) != null
+          || method.getAnnotation(JpaJavaType.POST_REMOVE) != null) {
+        return false;
+      }
+    }
+
+    for (FieldMetadata field : entityMemberDetails.getFields()) {
+
+      // Join and collection table rows are only removed with the entity
+      if (field.getAnnotation(JpaJavaType.MANY_TO_MANY) != null
+          || field.getAnnotation(JpaJavaType.ELEMENT_COLLECTION) != null) {
+        return false;
+      }
+
+      for (JavaType relation : Arrays.asList(JpaJavaType.ONE_TO_MANY, JpaJavaType.ONE_TO_ONE,
+          JpaJavaType.MANY_TO_ONE)) {
+        AnnotationMetadata relationAnnotation = field.getAnnotation(relation);
+        if (relationAnnotation == null) {
+          continue;
+        }
+        AnnotationAttributeValue<?> orphanRemoval =
+            relationAnnotation.getAttribute("orphanRemoval");
+        if (isRemoveCascaded(relationAnnotation.getAttribute("cascade"))
+            || (orphanRemoval != null && Boolean.TRUE.equals(orphanRemoval.getValue()))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if the cascade attribute of a relation annotation includes the
+   * REMOVE or ALL cascade types.
+   *
+   * @param cascade the cascade attribute. Could be null.
+   * @return true if removing the entity removes the related ones
+   */
+  private boolean isRemoveCascaded(AnnotationAttributeValue<?> cascade) {
+    if (cascade == null) {
+      return false;
+    }
+
+    List<?> cascadeTypes = Collections.singletonList(cascade);
+    if (cascade instanceof ArrayAttributeValue) {
+      cascadeTypes = ((ArrayAttributeValue<?>) cascade).getValue();
+    }
+    for (Object cascadeType : cascadeTypes) {
+      if (!(cascadeType instanceof EnumAttributeValue)) {
+        // Unknown cascade type, so don't risk skipping it
+        return true;
+      }
+      String cascadeTypeName =
+          ((EnumAttributeValue) cascadeType).getValue().getField().getSymbolName();
+      if ("ALL".equals(cascadeTypeName) || "REMOVE".equals(cascadeTypeName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private void registerDependency(final String upstreamDependency, final String downStreamDependency) {
 
     if (getMetadataDependencyRegistry() != null
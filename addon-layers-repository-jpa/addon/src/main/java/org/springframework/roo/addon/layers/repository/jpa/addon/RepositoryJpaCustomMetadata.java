@@ -3,6 +3,8 @@ package org.springframework.roo.addon.layers.repository.jpa.addon;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.roo.addon.layers.repository.jpa.annotations.CountStrategy;
+import org.springframework.roo.addon.layers.repository.jpa.annotations.GlobalSearchBackend;
 import org.springframework.roo.addon.layers.repository.jpa.annotations.RooJpaRepositoryCustom;
 import org.springframework.roo.classpath.PhysicalTypeIdentifierNamingUtils;
 import org.springframework.roo.classpath.PhysicalTypeMetadata;
@@ -42,7 +44,12 @@ public class RepositoryJpaCustomMetadata extends AbstractItdTypeDetailsProviding
       .create(PROVIDES_TYPE_STRING);
 
   private JavaType globalSearch;
+  private JavaType entity;
+  private JavaType identifierType;
+  private JavaType versionType;
   private JavaType defaultReturnType;
+  private CountStrategy countStrategy;
+  private GlobalSearchBackend globalSearchBackend;
   private Map<FieldMetadata, MethodMetadata> referencedFieldsFindAllMethods;
   private List<MethodMetadata> customFinderMethods;
   private List<MethodMetadata> customCountMethods;
@@ -78,9 +85,11 @@ public class RepositoryJpaCustomMetadata extends AbstractItdTypeDetailsProviding
    * @param governorPhysicalTypeMetadata the governor, which is expected to
    *            contain a {@link ClassOrInterfaceTypeDetails} (required)
    * @param annotationValues (required)
+   * @param domainType entity referenced on interface
    * @param identifierType the type of the entity's identifier field
    *            (required)
-   * @param domainType entity referenced on interface
+   * @param versionType the type of the entity's version field, or null if
+   *            the entity doesn't have a version field
    * @param searchResult the java type o the search result returned by findAll finder
    * @param globalSearch the class annotated with @RooGlobalSearch 
    * @param referencedFields map that contains referenced field and its identifier field type
@@ -89,6 +98,7 @@ public class RepositoryJpaCustomMetadata extends AbstractItdTypeDetailsProviding
   public RepositoryJpaCustomMetadata(final String identifier, final JavaType aspectName,
       final PhysicalTypeMetadata governorPhysicalTypeMetadata,
       final RepositoryJpaCustomAnnotationValues annotationValues, final JavaType domainType,
+      final JavaType identifierType, final JavaType versionType,
       final JavaType defaultReturnType, JavaType globalSearch,
       final Map<FieldMetadata, JavaType> referencedFields, List<CustomFinderMethod> findersToAdd) {
     super(identifier, aspectName, governorPhysicalTypeMetadata);
@@ -98,7 +108,12 @@ public class RepositoryJpaCustomMetadata extends AbstractItdTypeDetailsProviding
     Validate.notNull(referencedFields, "Referenced fields could be empty but not null");
 
     this.globalSearch = globalSearch;
+    this.entity = domainType;
+    this.identifierType = identifierType;
+    this.versionType = versionType;
     this.defaultReturnType = defaultReturnType;
+    this.countStrategy = annotationValues.getCountStrategy();
+    this.globalSearchBackend = annotationValues.getGlobalSearchBackend();
     this.customFinderMethods = new ArrayList<MethodMetadata>();
     this.customCountMethods = new ArrayList<MethodMetadata>();
 
@@ -107,6 +122,25 @@ public class RepositoryJpaCustomMetadata extends AbstractItdTypeDetailsProviding
     // Generate findAll method
     ensureGovernorHasMethod(new MethodMetadataBuilder(getFindAllGlobalSearchMethod()));
 
+    // Generate findAll method which uses keyset pagination
+    ensureGovernorHasMethod(new MethodMetadataBuilder(getFindAllByKeysetMethod()));
+
+    // Generate findAll method which only loads the columns shown by Datatables
+    ensureGovernorHasMethod(new MethodMetadataBuilder(getFindAllForDatatablesMethod()));
+
+    // Generate exportAll method which streams every result
+    ensureGovernorHasMethod(new MethodMetadataBuilder(getExportAllMethod()));
+
+    // Generate batch methods which don't load or save entities one by one
+    ensureGovernorHasMethod(new MethodMetadataBuilder(getDeleteAllByIdInBatchMethod()));
+    ensureGovernorHasMethod(new MethodMetadataBuilder(getSaveAllInBatchMethod()));
+
+    // Generate version methods which validate conditional requests
+    if (versionType != null) {
+      ensureGovernorHasMethod(new MethodMetadataBuilder(getFindVersionMethod()));
+      ensureGovernorHasMethod(new MethodMetadataBuilder(getVersionFingerprintMethod()));
+    }
+
     // ROO-3765: Prevent ITD regeneration applying the same sort to provided map. If this sort is not applied, maybe some
     // method is not in the same order and ITD will be regenerated.
     Map<FieldMetadata, JavaType> referencedFieldsOrderedByFieldName =
@@ -189,6 +223,279 @@ public class RepositoryJpaCustomMetadata extends AbstractItdTypeDetailsProviding
     return methodBuilder.build(); // Build and return a MethodMetadata
   }
 
+  /**
+   * Method that generates the findAllByKeyset method on current interface. 
+   * Unlike findAll, it loads the results placed after the row identified by 
+   * a continuation token, so it doesn't need to skip the previous results.
+   * 
+   * @return
+   */
+  public MethodMetadata getFindAllByKeysetMethod() {
+
+    // Define method parameter types and parameter names
+    List<AnnotatedJavaType> parameterTypes = new ArrayList<AnnotatedJavaType>();
+    List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
+
+    //Global search parameter
+    parameterTypes.add(new AnnotatedJavaType(globalSearch));
+    parameterNames.add(new JavaSymbolName("globalSearch"));
+
+    // Continuation token parameter
+    parameterTypes.add(new AnnotatedJavaType(JavaType.STRING));
+    parameterNames.add(new JavaSymbolName("continuationToken"));
+
+    // Pageable parameter
+    parameterTypes.add(new AnnotatedJavaType(SpringJavaType.PAGEABLE));
+    parameterNames.add(new JavaSymbolName("pageable"));
+
+    // Method name
+    JavaSymbolName methodName = new JavaSymbolName("findAllByKeyset");
+
+    // Return type
+    JavaType returnType =
+        new JavaType(getKeysetSliceType().getFullyQualifiedTypeName(), 0, DataType.TYPE, null,
+            Arrays.asList(defaultReturnType), getKeysetSliceType().getModule());
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT, methodName,
+            returnType, parameterTypes, parameterNames, null);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+  }
+
+  /**
+   * Method that generates the findAllForDatatables method on current 
+   * interface. Like findAll, it applies a global search, but it only loads 
+   * the provided entity attributes and can also count the entities 
+   * without the global search, as the Datatables component shows both totals.
+   * 
+   * @return
+   */
+  public MethodMetadata getFindAllForDatatablesMethod() {
+
+    // Define method parameter types and parameter names
+    List<AnnotatedJavaType> parameterTypes = new ArrayList<AnnotatedJavaType>();
+    List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
+
+    //Global search parameter
+    parameterTypes.add(new AnnotatedJavaType(globalSearch));
+    parameterNames.add(new JavaSymbolName("globalSearch"));
+
+    // Pageable parameter
+    parameterTypes.add(new AnnotatedJavaType(SpringJavaType.PAGEABLE));
+    parameterNames.add(new JavaSymbolName("pageable"));
+
+    // Attributes to load parameter
+    parameterTypes.add(new AnnotatedJavaType(new JavaType("java.util.List", 0, DataType.TYPE,
+        null, Arrays.asList(JavaType.STRING))));
+    parameterNames.add(new JavaSymbolName("attributes"));
+
+    // Count without global search parameter
+    parameterTypes.add(new AnnotatedJavaType(JavaType.BOOLEAN_PRIMITIVE));
+    parameterNames.add(new JavaSymbolName("countUnfiltered"));
+
+    // Method name
+    JavaSymbolName methodName = new JavaSymbolName("findAllForDatatables");
+
+    // Return type
+    JavaType filteredPageType = getSupportNestedType("FilteredPage");
+    JavaType returnType =
+        new JavaType(filteredPageType.getFullyQualifiedTypeName(), 0, DataType.TYPE, null,
+            Arrays.asList(entity), filteredPageType.getModule());
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT, methodName,
+            returnType, parameterTypes, parameterNames, null);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+  }
+
+  /**
+   * Method that generates the exportAll method on current interface. It 
+   * sends every result of a global search, one by one, to an export handler 
+   * instead of loading them in memory.
+   * 
+   * @return
+   */
+  public MethodMetadata getExportAllMethod() {
+
+    // Define method parameter types and parameter names
+    List<AnnotatedJavaType> parameterTypes = new ArrayList<AnnotatedJavaType>();
+    List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
+
+    //Global search parameter
+    parameterTypes.add(new AnnotatedJavaType(globalSearch));
+    parameterNames.add(new JavaSymbolName("globalSearch"));
+
+    // Export handler parameter
+    JavaType exportHandlerType = getSupportType("ExportHandler");
+    parameterTypes.add(new AnnotatedJavaType(new JavaType(exportHandlerType
+        .getFullyQualifiedTypeName(), 0, DataType.TYPE, null, Arrays.asList(defaultReturnType),
+        exportHandlerType.getModule())));
+    parameterNames.add(new JavaSymbolName("handler"));
+
+    // Method name
+    JavaSymbolName methodName = new JavaSymbolName("exportAll");
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT, methodName,
+            JavaType.VOID_PRIMITIVE, parameterTypes, parameterNames, null);
+    methodBuilder.addThrowsType(new JavaType("java.io.IOException"));
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+  }
+
+  /**
+   * Method that generates the deleteAllByIdInBatch method on current 
+   * interface. It deletes the entities with the provided identifiers without
+   * loading them, unless they must be deleted one by one.
+   * 
+   * @return
+   */
+  public MethodMetadata getDeleteAllByIdInBatchMethod() {
+
+    // Define method parameter types and parameter names
+    List<AnnotatedJavaType> parameterTypes = new ArrayList<AnnotatedJavaType>();
+    parameterTypes.add(AnnotatedJavaType.convertFromJavaType(new JavaType("java.lang.Iterable", 0,
+        DataType.TYPE, null, Arrays.asList(identifierType))));
+    List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
+    parameterNames.add(new JavaSymbolName("ids"));
+
+    // Method name
+    JavaSymbolName methodName = new JavaSymbolName("deleteAllByIdInBatch");
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT, methodName,
+            JavaType.LONG_PRIMITIVE, parameterTypes, parameterNames, null);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+  }
+
+  /**
+   * Method that generates the saveAllInBatch method on current interface. 
+   * It loads the existing entities with a query for each group of entities,
+   * instead of a query for each one, before saving them.
+   * 
+   * @return
+   */
+  public MethodMetadata getSaveAllInBatchMethod() {
+
+    // Define method parameter types and parameter names
+    List<AnnotatedJavaType> parameterTypes = new ArrayList<AnnotatedJavaType>();
+    parameterTypes.add(AnnotatedJavaType.convertFromJavaType(new JavaType("java.lang.Iterable", 0,
+        DataType.TYPE, null, Arrays.asList(entity))));
+    List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
+    parameterNames.add(new JavaSymbolName("entities"));
+
+    // Method name
+    JavaSymbolName methodName = new JavaSymbolName("saveAllInBatch");
+
+    // Return type
+    JavaType returnType =
+        new JavaType("java.util.List", 0, DataType.TYPE, null, Arrays.asList(entity));
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT, methodName,
+            returnType, parameterTypes, parameterNames, null);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+  }
+
+  /**
+   * Method that generates the findVersion method on current interface. 
+   * It only loads the version of the entity with the provided identifier, 
+   * without loading the entity.
+   * 
+   * @return the method, or null if the entity doesn't have a version field
+   */
+  public MethodMetadata getFindVersionMethod() {
+    if (versionType == null) {
+      return null;
+    }
+
+    // Define method parameter types and parameter names
+    List<AnnotatedJavaType> parameterTypes = new ArrayList<AnnotatedJavaType>();
+    parameterTypes.add(AnnotatedJavaType.convertFromJavaType(identifierType));
+    List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
+    parameterNames.add(new JavaSymbolName("id"));
+
+    // Method name
+    JavaSymbolName methodName = new JavaSymbolName("findVersion");
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT, methodName,
+            versionType, parameterTypes, parameterNames, null);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+  }
+
+  /**
+   * Method that generates the getVersionFingerprint method on current 
+   * interface. The returned fingerprint changes when any entity is created,
+   * updated or removed.
+   * 
+   * @return the method, or null if the entity doesn't have a version field
+   */
+  public MethodMetadata getVersionFingerprintMethod() {
+    if (versionType == null) {
+      return null;
+    }
+
+    // Method name
+    JavaSymbolName methodName = new JavaSymbolName("getVersionFingerprint");
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT, methodName,
+            JavaType.STRING, new ArrayList<AnnotatedJavaType>(), new ArrayList<JavaSymbolName>(),
+            null);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+  }
+
+  /**
+   * Returns the KeysetSlice type generated in the repositories package, next
+   * to the QueryDslRepositorySupportExt class.
+   * 
+   * @return
+   */
+  private JavaType getKeysetSliceType() {
+    return getSupportType("KeysetSlice");
+  }
+
+  /**
+   * Returns a type generated in the repositories package, next to the
+   * QueryDslRepositorySupportExt class.
+   * 
+   * @param simpleTypeName the name of the type
+   * @return
+   */
+  private JavaType getSupportType(String simpleTypeName) {
+    JavaType governor = governorPhysicalTypeMetadata.getType();
+    return new JavaType(governor.getPackage().getFullyQualifiedPackageName()
+        .concat(LogicalPath.PATH_SEPARATOR).concat(simpleTypeName), governor.getModule());
+  }
+
+  /**
+   * Returns a type declared inside the QueryDslRepositorySupportExt class 
+   * generated in the repositories package.
+   * 
+   * @param simpleTypeName the name of the nested type
+   * @return
+   */
+  private JavaType getSupportNestedType(String simpleTypeName) {
+    JavaType governor = governorPhysicalTypeMetadata.getType();
+    return new JavaType(governor.getPackage().getFullyQualifiedPackageName()
+        .concat(LogicalPath.PATH_SEPARATOR).concat("QueryDslRepositorySupportExt")
+        .concat(LogicalPath.PATH_SEPARATOR).concat(simpleTypeName), governor.getModule());
+  }
+
   /**
    * Method that generates the findAll method for provided referenced field on current interface. 
    * 
@@ -316,6 +623,26 @@ public class RepositoryJpaCustomMetadata extends AbstractItdTypeDetailsProviding
     return defaultReturnType;
   }
 
+  /**
+   * This method returns how the paginated searches of this repository 
+   * obtain the total number of results
+   * 
+   * @return
+   */
+  public CountStrategy getCountStrategy() {
+    return countStrategy;
+  }
+
+  /**
+   * This method returns how the global searches of this repository find
+   * the matching entities
+   * 
+   * @return
+   */
+  public GlobalSearchBackend getGlobalSearchBackend() {
+    return globalSearchBackend;
+  }
+
   /**
    * This method returns all findAll methods for 
    * referenced fields
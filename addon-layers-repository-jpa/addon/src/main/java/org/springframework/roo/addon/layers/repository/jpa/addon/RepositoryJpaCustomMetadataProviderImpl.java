@@ -321,9 +321,23 @@ public class RepositoryJpaCustomMetadataProviderImpl extends
       }
     }
 
+    // Getting entity identifier type
+    JavaType identifierType = getPersistenceMemberLocator().getIdentifierType(entity);
+    Validate.notNull(identifierType,
+        "ERROR: The entity %s should define an identifier to generate its repository",
+        entity.getSimpleTypeName());
+
+    // Getting entity version type, using its object type to return null 
+    // when the entity doesn't exist
+    JavaType versionType = null;
+    FieldMetadata versionField = getPersistenceMemberLocator().getVersionField(entity);
+    if (versionField != null) {
+      versionType = new JavaType(versionField.getFieldType().getFullyQualifiedTypeName());
+    }
+
     return new RepositoryJpaCustomMetadata(metadataIdentificationString, aspectName,
-        governorPhysicalTypeMetadata, annotationValues, entity, defaultReturnType, globalSearch,
-        referencedFields, findersToAdd);
+        governorPhysicalTypeMetadata, annotationValues, entity, identifierType, versionType,
+        defaultReturnType, globalSearch, referencedFields, findersToAdd);
   }
 
   protected void registerDependency(final String upstreamDependency,
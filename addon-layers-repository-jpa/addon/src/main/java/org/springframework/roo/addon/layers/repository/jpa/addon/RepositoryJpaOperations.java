@@ -1,5 +1,6 @@
 package org.springframework.roo.addon.layers.repository.jpa.addon;
 
+import org.springframework.roo.addon.layers.repository.jpa.annotations.GlobalSearchBackend;
 import org.springframework.roo.model.JavaPackage;
 import org.springframework.roo.model.JavaType;
 import org.springframework.roo.project.Feature;
@@ -34,4 +35,16 @@ public interface RepositoryJpaOperations extends Feature {
    * @param repositoriesPackage package where repositories will be generated
    */
   void generateAllRepositories(JavaPackage repositoriesPackage);
+
+  /**
+   * Changes how the global searches of the custom repositories find the
+   * matching entities. The {@link GlobalSearchBackend#HIBERNATE_SEARCH} 
+   * backend also indexes the String fields of the related entities and 
+   * configures an embedded index in the project.
+   * 
+   * @param domainType the entity whose repository will be updated. If null,
+   *            every custom repository will be updated.
+   * @param backend the global search backend to use
+   */
+  void setGlobalSearchBackend(JavaType domainType, GlobalSearchBackend backend);
 }
@@ -10,12 +10,17 @@ import org.osgi.framework.ServiceReference;
 import org.osgi.service.component.ComponentContext;
 import org.springframework.roo.addon.jpa.addon.JpaOperations;
 import org.springframework.roo.addon.jpa.addon.JpaOperationsImpl;
+import org.springframework.roo.addon.layers.repository.jpa.annotations.GlobalSearchBackend;
+import org.springframework.roo.addon.layers.repository.jpa.annotations.RooJpaRepositoryCustom;
+import org.springframework.roo.application.config.ApplicationConfigService;
+import org.springframework.roo.classpath.ModuleFeatureName;
 import org.springframework.roo.classpath.PhysicalTypeCategory;
 import org.springframework.roo.classpath.PhysicalTypeIdentifier;
 import org.springframework.roo.classpath.TypeLocationService;
 import org.springframework.roo.classpath.TypeManagementService;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetailsBuilder;
+import org.springframework.roo.classpath.details.FieldMetadataBuilder;
 import org.springframework.roo.classpath.details.annotations.AnnotationAttributeValue;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
 import org.springframework.roo.classpath.details.annotations.AnnotationMetadataBuilder;
@@ -23,9 +28,11 @@ import org.springframework.roo.classpath.details.annotations.ClassAttributeValue
 import org.springframework.roo.classpath.scanner.MemberDetailsScanner;
 import org.springframework.roo.metadata.MetadataService;
 import org.springframework.roo.model.DataType;
+import org.springframework.roo.model.HibernateJavaType;
 import org.springframework.roo.model.JavaPackage;
 import org.springframework.roo.model.JavaSymbolName;
 import org.springframework.roo.model.JavaType;
+import org.springframework.roo.model.JpaJavaType;
 import org.springframework.roo.model.RooJavaType;
 import org.springframework.roo.process.manager.FileManager;
 import org.springframework.roo.project.Dependency;
@@ -36,6 +43,7 @@ import org.springframework.roo.project.PathResolver;
 import org.springframework.roo.project.Plugin;
 import org.springframework.roo.project.ProjectOperations;
 import org.springframework.roo.project.Repository;
+import org.springframework.roo.project.maven.Pom;
 import org.springframework.roo.support.logging.HandlerUtils;
 import org.springframework.roo.support.util.FileUtils;
 import org.springframework.roo.support.util.XmlUtils;
@@ -44,6 +52,7 @@ import org.w3c.dom.Element;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -66,6 +75,15 @@ public class RepositoryJpaOperationsImpl implements RepositoryJpaOperations {
 
   protected final static Logger LOGGER = HandlerUtils.getLogger(RepositoryJpaOperationsImpl.class);
 
+  private static final Dependency HIBERNATE_SEARCH_DEPENDENCY = new Dependency("org.hibernate",
+      "hibernate-search-orm", "5.5.6.Final");
+  private static final String HIBERNATE_SEARCH_PROPERTY_PREFIX =
+      "spring.jpa.properties.hibernate.search.default";
+  private static final String HIBERNATE_SEARCH_DIRECTORY_PROVIDER_KEY = "directory_provider";
+  private static final String HIBERNATE_SEARCH_DIRECTORY_PROVIDER_VALUE = "filesystem";
+  private static final String HIBERNATE_SEARCH_INDEX_BASE_KEY = "indexBase";
+  private static final String HIBERNATE_SEARCH_INDEX_BASE_VALUE = "${user.dir}/indexes";
+
   // ------------ OSGi component attributes ----------------
   private BundleContext context;
 
@@ -77,6 +95,7 @@ public class RepositoryJpaOperationsImpl implements RepositoryJpaOperations {
   private MemberDetailsScanner memberDetailsScanner;
   private MetadataService metadataService;
   private JpaOperationsImpl jpaOperations;
+  private ApplicationConfigService applicationConfigService;
 
   protected void activate(final ComponentContext context) {
     this.context = context.getBundleContext();
@@ -217,6 +236,160 @@ public class RepositoryJpaOperationsImpl implements RepositoryJpaOperations {
 
   }
 
+  @Override
+  public void setGlobalSearchBackend(JavaType domainType, GlobalSearchBackend backend) {
+    Validate.notNull(backend, "ERROR: You must specify a global search backend.");
+
+    // Getting the custom repositories to update
+    List<ClassOrInterfaceTypeDetails> repositories = new ArrayList<ClassOrInterfaceTypeDetails>();
+    for (ClassOrInterfaceTypeDetails repository : getTypeLocationService()
+        .findClassesOrInterfaceDetailsWithAnnotation(RooJavaType.ROO_REPOSITORY_JPA_CUSTOM)) {
+      JavaType entity =
+          (JavaType) repository.getAnnotation(RooJavaType.ROO_REPOSITORY_JPA_CUSTOM)
+              .getAttribute(RooJpaRepositoryCustom.ENTITY_ATTRIBUTE).getValue();
+      if (domainType == null || domainType.equals(entity)) {
+        repositories.add(repository);
+      }
+    }
+    if (domainType != null) {
+      Validate.notEmpty(repositories, "ERROR: The entity '%s' doesn't have a repository.",
+          domainType.getSimpleTypeName());
+    }
+
+    for (ClassOrInterfaceTypeDetails repository : repositories) {
+      AnnotationMetadataBuilder repositoryAnnotation =
+          new AnnotationMetadataBuilder(
+              repository.getAnnotation(RooJavaType.ROO_REPOSITORY_JPA_CUSTOM));
+      if (backend == GlobalSearchBackend.QUERYDSL) {
+
+        // QueryDSL is the default backend
+        repositoryAnnotation.removeAttribute(RooJpaRepositoryCustom.GLOBAL_SEARCH_BACKEND_ATTRIBUTE);
+      } else {
+        repositoryAnnotation.addEnumAttribute(
+            RooJpaRepositoryCustom.GLOBAL_SEARCH_BACKEND_ATTRIBUTE, new JavaType(
+                GlobalSearchBackend.class), backend.name());
+      }
+
+      // Replace the repository annotation, as attributes can't be removed
+      // updating it
+      ClassOrInterfaceTypeDetailsBuilder repositoryBuilder =
+          new ClassOrInterfaceTypeDetailsBuilder(repository);
+      repositoryBuilder.removeAnnotation(RooJavaType.ROO_REPOSITORY_JPA_CUSTOM);
+      repositoryBuilder.addAnnotation(repositoryAnnotation);
+      getTypeManagementService().createOrUpdateTypeOnDisk(repositoryBuilder.build());
+
+      if (backend == GlobalSearchBackend.HIBERNATE_SEARCH) {
+        JavaType entity =
+            (JavaType) repository.getAnnotation(RooJavaType.ROO_REPOSITORY_JPA_CUSTOM)
+                .getAttribute(RooJpaRepositoryCustom.ENTITY_ATTRIBUTE).getValue();
+        addSearchIndex(entity);
+        generateGlobalSearchIndex(repository.getType().getPackage());
+        getProjectOperations().addDependency(repository.getType().getModule(),
+            HIBERNATE_SEARCH_DEPENDENCY);
+      }
+    }
+
+    if (backend == GlobalSearchBackend.HIBERNATE_SEARCH && !repositories.isEmpty()) {
+
+      // Store the index in the file system of each application
+      for (Pom module : getTypeLocationService().getModules(ModuleFeatureName.APPLICATION)) {
+        getApplicationConfigService().addProperty(module.getModuleName(),
+            HIBERNATE_SEARCH_PROPERTY_PREFIX, HIBERNATE_SEARCH_DIRECTORY_PROVIDER_KEY,
+            HIBERNATE_SEARCH_DIRECTORY_PROVIDER_VALUE, null, false);
+        getApplicationConfigService().addProperty(module.getModuleName(),
+            HIBERNATE_SEARCH_PROPERTY_PREFIX, HIBERNATE_SEARCH_INDEX_BASE_KEY,
+            HIBERNATE_SEARCH_INDEX_BASE_VALUE, null, false);
+      }
+    }
+  }
+
+  /**
+   * Annotates the provided entity with @Indexed and its String fields with
+   * @Field, so Hibernate Search keeps them in the global search index. 
+   * Fields already annotated with @Field are not modified.
+   * 
+   * @param entity
+   */
+  private void addSearchIndex(JavaType entity) {
+    ClassOrInterfaceTypeDetails entityDetails = getTypeLocationService().getTypeDetails(entity);
+    ClassOrInterfaceTypeDetailsBuilder entityBuilder =
+        new ClassOrInterfaceTypeDetailsBuilder(entityDetails);
+
+    boolean changed = false;
+    if (entityDetails.getAnnotation(HibernateJavaType.SEARCH_INDEXED) == null) {
+      entityBuilder.addAnnotation(new AnnotationMetadataBuilder(HibernateJavaType.SEARCH_INDEXED));
+      changed = true;
+    }
+    for (FieldMetadataBuilder field : entityBuilder.getDeclaredFields()) {
+      if (!JavaType.STRING.equals(field.getFieldType())
+          || Modifier.isStatic(field.getModifier()) || Modifier.isTransient(field.getModifier())
+          || field.getDeclaredTypeAnnotation(JpaJavaType.TRANSIENT) != null
+          || field.getDeclaredTypeAnnotation(HibernateJavaType.SEARCH_FIELD) != null) {
+        continue;
+      }
+      field.addAnnotation(new AnnotationMetadataBuilder(HibernateJavaType.SEARCH_FIELD));
+      changed = true;
+    }
+
+    if (changed) {
+      getTypeManagementService().createOrUpdateTypeOnDisk(entityBuilder.build());
+    }
+
+    getProjectOperations().addDependency(entity.getModule(), HIBERNATE_SEARCH_DEPENDENCY);
+  }
+
+  /**
+   * Method that generates GlobalSearchIndex on current package, next to
+   * QueryDslRepositorySupportExt. If it already exists, it will not be
+   * generated.
+   * 
+   * @param repositoryPackage Package where GlobalSearchIndex should be 
+   *            generated
+   * @return JavaType with existing or new GlobalSearchIndex
+   */
+  private JavaType generateGlobalSearchIndex(JavaPackage repositoryPackage) {
+
+    // Create JavaType in repositoryPackage
+    final JavaType javaType =
+        new JavaType(String.format("%s.GlobalSearchIndex", repositoryPackage),
+            repositoryPackage.getModule());
+    final String physicalPath =
+        getPathResolver().getCanonicalPath(javaType.getModule(), Path.SRC_MAIN_JAVA, javaType);
+    if (getFileManager().exists(physicalPath)) {
+      return javaType;
+    }
+
+    // Find GlobalSearch and get fully qualified name
+    Set<JavaType> globalSearchTypes =
+        getTypeLocationService().findTypesWithAnnotation(RooJavaType.ROO_GLOBAL_SEARCH);
+    JavaType globalSearch = null;
+    for (JavaType type : globalSearchTypes) {
+      globalSearch = type;
+    }
+    Validate.notNull(globalSearch,
+        "The project must have a GlobalSearch class to work properly with repositories.");
+
+    InputStream inputStream = null;
+    try {
+      // Use defined template
+      inputStream = FileUtils.getInputStream(getClass(), "GlobalSearchIndex-template._java");
+      String input = IOUtils.toString(inputStream);
+      // Replacing package
+      input = input.replace("__PACKAGE__", repositoryPackage.getFullyQualifiedPackageName());
+      // Replacing GlobalSearch import
+      input = input.replace("__GLOBAL_SEARCH_IMPORT__", globalSearch.getFullyQualifiedTypeName());
+
+      // Creating GlobalSearchIndex class
+      getFileManager().createOrUpdateTextFileIfRequired(physicalPath, input, true);
+    } catch (final IOException e) {
+      throw new IllegalStateException(String.format("Unable to create '%s'", physicalPath), e);
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+
+    return javaType;
+  }
+
   @SuppressWarnings({"unchecked", "rawtypes"})
   private void generateConfiguration(JavaType interfaceType, JavaType domainType) {
 
@@ -564,6 +737,11 @@ public class RepositoryJpaOperationsImpl implements RepositoryJpaOperations {
     Validate.notNull(globalSearch,
         "The project must have a GlobalSearch class to work properly with repositories.");
 
+    // Types used by the QueryDslRepositorySupportExt methods which are
+    // also part of the repository and service APIs
+    generateRepositorySupportType(repositoryPackage, "KeysetSlice");
+    generateRepositorySupportType(repositoryPackage, "ExportHandler");
+
     // Including ReadOnlyRepository interface
     InputStream inputStream = null;
     try {
@@ -588,6 +766,37 @@ public class RepositoryJpaOperationsImpl implements RepositoryJpaOperations {
 
   }
 
+  /**
+   * Method that generates a type used by QueryDslRepositorySupportExt on
+   * current package, from the template with the same name.
+   * 
+   * @param repositoryPackage Package where the type should be generated
+   * @param simpleTypeName the name of the type to generate
+   * @return JavaType with the generated type
+   */
+  private JavaType generateRepositorySupportType(JavaPackage repositoryPackage,
+      String simpleTypeName) {
+    final JavaType javaType =
+        new JavaType(String.format("%s.%s", repositoryPackage, simpleTypeName),
+            repositoryPackage.getModule());
+    final String physicalPath =
+        getPathResolver().getCanonicalPath(javaType.getModule(), Path.SRC_MAIN_JAVA, javaType);
+
+    InputStream inputStream = null;
+    try {
+      inputStream = FileUtils.getInputStream(getClass(), simpleTypeName + "-template._java");
+      String input = IOUtils.toString(inputStream);
+      input = input.replace("__PACKAGE__", repositoryPackage.getFullyQualifiedPackageName());
+      getFileManager().createOrUpdateTextFileIfRequired(physicalPath, input, true);
+    } catch (final IOException e) {
+      throw new IllegalStateException(String.format("Unable to create '%s'", physicalPath), e);
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+
+    return javaType;
+  }
+
   public FileManager getFileManager() {
     if (fileManager == null) {
       // Get all Services implement FileManager interface
@@ -777,6 +986,29 @@ public class RepositoryJpaOperationsImpl implements RepositoryJpaOperations {
     }
   }
 
+  public ApplicationConfigService getApplicationConfigService() {
+    if (applicationConfigService == null) {
+      // Get all Services implement ApplicationConfigService interface
+      try {
+        ServiceReference<?>[] references =
+            this.context.getAllServiceReferences(ApplicationConfigService.class.getName(), null);
+
+        for (ServiceReference<?> ref : references) {
+          applicationConfigService = (ApplicationConfigService) this.context.getService(ref);
+          return applicationConfigService;
+        }
+
+        return null;
+
+      } catch (InvalidSyntaxException e) {
+        LOGGER.warning("Cannot load ApplicationConfigService on RepositoryJpaOperationsImpl.");
+        return null;
+      }
+    } else {
+      return applicationConfigService;
+    }
+  }
+
   // Feature methods
 
   public String getName() {
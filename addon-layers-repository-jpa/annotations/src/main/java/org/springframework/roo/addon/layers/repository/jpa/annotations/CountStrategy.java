@@ -0,0 +1,36 @@
+package org.springframework.roo.addon.layers.repository.jpa.annotations;
+
+/**
+ * How the paginated searches of a custom repository obtain the total number
+ * of results.
+ *
+ * @since 2.0
+ */
+public enum CountStrategy {
+
+  /**
+   * Counts the results of every page, unless the page is not full and the
+   * total can be computed from its content.
+   */
+  EXACT,
+
+  /**
+   * Like {@link #EXACT}, but the total of the global searches is reused for
+   * a few seconds for the same search text, so it might be approximate.
+   */
+  CACHED,
+
+  /**
+   * Never counts the results. Pages load an additional row to know if there
+   * is a next page, and their total only includes the results known so far.
+   */
+  NONE;
+
+  public static CountStrategy getCountStrategy(final String name) {
+    try {
+      return CountStrategy.valueOf(name);
+    } catch (final IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package org.springframework.roo.addon.layers.repository.jpa.annotations;
+
+/**
+ * How the global searches of a custom repository find the matching entities.
+ *
+ * @since 2.0
+ */
+public enum GlobalSearchBackend {
+
+  /**
+   * Filters the query with a case insensitive contains condition on every
+   * searchable attribute. It needs no configuration, but every search scans
+   * the whole table.
+   */
+  QUERYDSL,
+
+  /**
+   * Looks for the search text in an embedded Hibernate Search index of the
+   * entity fields annotated with <code>@Field</code>, and filters the query
+   * by the identifiers found.
+   */
+  HIBERNATE_SEARCH;
+
+  public static GlobalSearchBackend getGlobalSearchBackend(final String name) {
+    try {
+      return GlobalSearchBackend.valueOf(name);
+    } catch (final IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
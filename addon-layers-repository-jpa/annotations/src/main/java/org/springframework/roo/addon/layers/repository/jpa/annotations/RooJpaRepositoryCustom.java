@@ -27,6 +27,18 @@ public @interface RooJpaRepositoryCustom {
    */
   String DEFAULT_RETURN_TYPE_ATTRIBUTE = "defaultReturnType";
 
+  /**
+   * The name of this annotation's attribute that specifies how the total
+   * number of search results is obtained.
+   */
+  String COUNT_STRATEGY_ATTRIBUTE = "countStrategy";
+
+  /**
+   * The name of this annotation's attribute that specifies how the global
+   * searches find the matching entities.
+   */
+  String GLOBAL_SEARCH_BACKEND_ATTRIBUTE = "globalSearchBackend";
+
   /**
    * The entity managed by the annotated repository
    * 
@@ -41,4 +53,20 @@ public @interface RooJpaRepositoryCustom {
    */
   Class<?> defaultReturnType(); // No default => mandatory
 
+  /**
+   * How the paginated searches of annotated repository obtain the total
+   * number of results
+   * 
+   * @return the count strategy
+   */
+  CountStrategy countStrategy() default CountStrategy.EXACT;
+
+  /**
+   * How the global searches of annotated repository find the matching
+   * entities
+   * 
+   * @return the global search backend
+   */
+  GlobalSearchBackend globalSearchBackend() default GlobalSearchBackend.QUERYDSL;
+
 }
@@ -70,7 +70,7 @@ public class ServiceCommands implements CommandMarker {
   }
 
 
-  @CliAvailabilityIndicator({"service"})
+  @CliAvailabilityIndicator({"service", "service cache"})
   public boolean isServiceCommandAvailable() {
     return serviceOperations.areServiceCommandsAvailable();
   }
@@ -329,6 +329,47 @@ public class ServiceCommands implements CommandMarker {
     }
   }
 
+  @CliOptionAutocompleteIndicator(command = "service cache", param = "entity",
+      help = "--entity option should be an entity with a generated service.")
+  public List<String> getCachedEntityPossibleResults(ShellContext shellContext) {
+
+    // Get current value of class
+    String currentText = shellContext.getParameters().get("entity");
+
+    List<String> allPossibleValues = new ArrayList<String>();
+
+    // Getting all entities with a generated service
+    Set<ClassOrInterfaceTypeDetails> services =
+        typeLocationService.findClassesOrInterfaceDetailsWithAnnotation(RooJavaType.ROO_SERVICE);
+    for (ClassOrInterfaceTypeDetails service : services) {
+      AnnotationAttributeValue<JavaType> entityAttr =
+          service.getAnnotation(RooJavaType.ROO_SERVICE).getAttribute("entity");
+      if (entityAttr == null) {
+        continue;
+      }
+      ClassOrInterfaceTypeDetails entity =
+          typeLocationService.getTypeDetails(entityAttr.getValue());
+      if (entity != null) {
+        String name = replaceTopLevelPackageString(entity, currentText);
+        if (!allPossibleValues.contains(name)) {
+          allPossibleValues.add(name);
+        }
+      }
+    }
+
+    return allPossibleValues;
+  }
+
+  @CliCommand(value = "service cache",
+      help = "Caches the search results returned by the service of an entity, "
+          + "evicting them when the entities change.")
+  public void serviceCache(
+      @CliOption(key = "entity", optionContext = PROJECT, mandatory = true,
+          help = "The domain entity whose service results should be cached") final JavaType domainType,
+      ShellContext shellContext) {
+    serviceOperations.addServiceCache(domainType, shellContext.getProfile());
+  }
+
   /**
    * Replaces a JavaType fullyQualifiedName for a shorter name using '~' for TopLevelPackage
    * 
@@ -50,7 +50,9 @@ public class ServiceImplMetadata extends AbstractItdTypeDetailsProvidingMetadata
   private List<MethodMetadata> allImplementedMethods;
   private Map<FieldMetadata, MethodMetadata> allCountByReferencedFieldMethods;
   private Map<FieldMetadata, MethodMetadata> allFindAllByReferencedFieldMethods;
-  private MethodMetadata findAllIterableMethod;
+  private MethodMetadata deleteAllByIdInBatchMethod;
+  private MethodMetadata saveAllInBatchMethod;
+  private boolean cacheable;
 
   public static String createIdentifier(final JavaType javaType, final LogicalPath path) {
     return PhysicalTypeIdentifierNamingUtils.createIdentifier(PROVIDES_TYPE_STRING, javaType, path);
@@ -75,6 +77,17 @@ public class ServiceImplMetadata extends AbstractItdTypeDetailsProvidingMetadata
         metadataIdentificationString);
   }
 
+  /**
+   * Returns the name of the cache where a cacheable service stores the
+   * results of the searches and counts of its entity.
+   * 
+   * @param entity the entity managed by the service
+   * @return the cache name
+   */
+  public static String getSearchCacheName(final JavaType entity) {
+    return entity.getSimpleTypeName().concat(".searches");
+  }
+
   /**
    * Constructor
    * 
@@ -83,12 +96,19 @@ public class ServiceImplMetadata extends AbstractItdTypeDetailsProvidingMetadata
    * @param governorPhysicalTypeMetadata the governor, which is expected to
    *            contain a {@link ClassOrInterfaceTypeDetails} (required)
    * @param serviceInterface JavaType with interface that this service will implement
+   * @param deleteAllByIdInBatchMethod repository method used to implement 
+   *            the batch delete method
+   * @param saveAllInBatchMethod repository method used to implement the 
+   *            batch save method
+   * @param cacheable whether the service results should be cached
    * @param methodsToBeImplemented list of MethodMetadata that represents all necessary methods
    *            that should be implemented on current service implementation
    */
   public ServiceImplMetadata(final String identifier, final JavaType aspectName,
       final PhysicalTypeMetadata governorPhysicalTypeMetadata, final JavaType serviceInterface,
-      final JavaType repository, final JavaType entity, final MethodMetadata findAllIterableMethod,
+      final JavaType repository, final JavaType entity,
+      final MethodMetadata deleteAllByIdInBatchMethod, final MethodMetadata saveAllInBatchMethod,
+      final boolean cacheable,
       final List<MethodMetadata> methodsToBeImplemented,
       final Map<FieldMetadata, MethodMetadata> countReferencedFieldsMethods,
       final Map<FieldMetadata, MethodMetadata> findAllReferencedFieldsMethods) {
@@ -97,7 +117,9 @@ public class ServiceImplMetadata extends AbstractItdTypeDetailsProvidingMetadata
     this.importResolver = builder.getImportRegistrationResolver();
     this.entity = entity;
     this.repository = repository;
-    this.findAllIterableMethod = findAllIterableMethod;
+    this.deleteAllByIdInBatchMethod = deleteAllByIdInBatchMethod;
+    this.saveAllInBatchMethod = saveAllInBatchMethod;
+    this.cacheable = cacheable;
     this.allImplementedMethods = methodsToBeImplemented;
     this.allCountByReferencedFieldMethods = countReferencedFieldsMethods;
     this.allFindAllByReferencedFieldMethods = findAllReferencedFieldsMethods;
@@ -237,15 +259,15 @@ public class ServiceImplMetadata extends AbstractItdTypeDetailsProvidingMetadata
 
     if (isBatch && methodName.getSymbolName().equals("delete")) {
 
-      // List<Entity> toDelete = repositoryField.FIND_ALL_METHOD(paramName);
-      bodyBuilder.appendFormalLine(String.format("%s<%s> toDelete = %s.%s(ids);", new JavaType(
-          "java.util.List").getNameIncludingTypeParameters(false, importResolver), this.entity
-          .getNameIncludingTypeParameters(false, importResolver), getRepositoryField()
-          .getFieldName(), this.findAllIterableMethod.getMethodName()));
+      // repositoryField.deleteAllByIdInBatch(ids);
+      bodyBuilder.appendFormalLine(String.format("%s.%s(%s);", getRepositoryField()
+          .getFieldName(), this.deleteAllByIdInBatchMethod.getMethodName(), parameterNames.get(0)));
+
+    } else if (isBatch && methodName.getSymbolName().equals("save")) {
 
-      bodyBuilder.appendFormalLine(String.format("%s.deleteInBatch(toDelete);",
-          getRepositoryField().getFieldName(), methodToBeImplemented.getMethodName()
-              .getSymbolName()));
+      // return repositoryField.saveAllInBatch(entities);
+      bodyBuilder.appendFormalLine(String.format("return %s.%s(%s);", getRepositoryField()
+          .getFieldName(), this.saveAllInBatchMethod.getMethodName(), parameterNames.get(0)));
 
     } else {
       // Getting parameters String
@@ -273,10 +295,60 @@ public class ServiceImplMetadata extends AbstractItdTypeDetailsProvidingMetadata
       methodBuilder.addAnnotation(annotation);
     }
 
+    // Adding thrown exceptions
+    methodBuilder.setThrowsTypes(methodToBeImplemented.getThrowsTypes());
+
+    // Adding cache annotations
+    if (this.cacheable) {
+      addCacheAnnotations(methodBuilder, this.entity);
+    }
+
     return methodBuilder.build(); // Build and return a MethodMetadata
     // instance
   }
 
+  /**
+   * Annotates the provided method to cache its results or to keep the
+   * cached results up to date when it changes the entities.
+   * 
+   * The results of the searches and counts are cached, and the cache is 
+   * cleared when some entity is saved or deleted, as any change could affect 
+   * the results of any search. findOne isn't cached: the controllers bind 
+   * the request parameters to the entity it returns, so a cached instance 
+   * would be modified and shared by the concurrent requests.
+   * 
+   * @param methodBuilder the builder of the method to annotate
+   * @param entity the entity managed by the service
+   */
+  static void addCacheAnnotations(final MethodMetadataBuilder methodBuilder,
+      final JavaType entity) {
+    String methodName = methodBuilder.getMethodName().getSymbolName();
+    String searchCache = getSearchCacheName(entity);
+
+    if (methodName.equals("save") || methodName.equals("delete")) {
+
+      // @CacheEvict(cacheNames = "Entity.searches", allEntries = true)
+      AnnotationMetadataBuilder cacheEvict =
+          new AnnotationMetadataBuilder(SpringJavaType.CACHE_EVICT);
+      cacheEvict.addStringAttribute("cacheNames", searchCache);
+      cacheEvict.addBooleanAttribute("allEntries", true);
+      methodBuilder.addAnnotation(cacheEvict);
+    } else if (methodName.equals("findOne") || methodName.equals("findVersion")
+        || methodName.equals("getVersionFingerprint")) {
+
+      // The request parameters are bound to the entity returned by findOne 
+      // and the versions validate conditional requests, so they are never 
+      // cached
+      return;
+    } else if (!methodBuilder.getReturnType().equals(JavaType.VOID_PRIMITIVE)) {
+
+      // @Cacheable("Entity.searches")
+      AnnotationMetadataBuilder cacheable = new AnnotationMetadataBuilder(SpringJavaType.CACHEABLE);
+      cacheable.addStringAttribute("cacheNames", searchCache);
+      methodBuilder.addAnnotation(cacheable);
+    }
+  }
+
   /**
    * This method returns repository field included on controller
    * 
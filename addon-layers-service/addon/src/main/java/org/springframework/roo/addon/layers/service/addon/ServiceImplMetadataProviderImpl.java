@@ -15,6 +15,7 @@ import org.apache.commons.lang3.Validate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Service;
 import org.osgi.service.component.ComponentContext;
+import org.springframework.roo.addon.layers.service.annotations.RooService;
 import org.springframework.roo.addon.layers.service.annotations.RooServiceImpl;
 import org.springframework.roo.classpath.PhysicalTypeIdentifier;
 import org.springframework.roo.classpath.PhysicalTypeMetadata;
@@ -167,6 +168,11 @@ public class ServiceImplMetadataProviderImpl extends AbstractMemberDiscoveringIt
 
     JavaType entity = (JavaType) serviceAnnotation.getAttribute("entity").getValue();
 
+    // Check if the service results should be cached
+    AnnotationAttributeValue<?> cacheableAttr =
+        serviceAnnotation.getAttribute(RooService.CACHEABLE_ATTRIBUTE);
+    boolean cacheable = cacheableAttr != null && Boolean.TRUE.equals(cacheableAttr.getValue());
+
     // Getting all methods defined on service interface that should be implemented in this 
     // service implementation
     List<MethodMetadata> methodsToBeImplemented = new ArrayList<MethodMetadata>();
@@ -222,13 +228,15 @@ public class ServiceImplMetadataProviderImpl extends AbstractMemberDiscoveringIt
       }
     }
 
-    // Getting findAll Iterable method. This method will be used to findAll results 
-    // before to invoke batch operations
-    MethodMetadata findAllIterableMethod = serviceMetadata.getFindAllIterableMethod();
+    // Getting repository batch methods. These methods will be used to implement
+    // batch operations without loading or saving the entities one by one
+    MethodMetadata deleteAllByIdInBatchMethod = serviceMetadata.getDeleteAllByIdInBatchMethod();
+    MethodMetadata saveAllInBatchMethod = serviceMetadata.getSaveAllInBatchMethod();
 
     return new ServiceImplMetadata(metadataIdentificationString, aspectName,
         governorPhysicalTypeMetadata, serviceInterface, repositoryDetails.getType(), entity,
-        findAllIterableMethod, methodsToBeImplemented, countReferencedFieldsMethodsToBeImplemented,
+        deleteAllByIdInBatchMethod, saveAllInBatchMethod, cacheable,
+        methodsToBeImplemented, countReferencedFieldsMethodsToBeImplemented,
         findAllReferencedFieldsMethodsToBeImplemented);
   }
 
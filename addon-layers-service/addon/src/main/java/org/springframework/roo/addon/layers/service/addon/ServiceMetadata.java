@@ -46,6 +46,13 @@ public class ServiceMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
   private JavaType identifierType;
   private List<MethodMetadata> finders;
   private MethodMetadata findAllGlobalSearchMethod;
+  private MethodMetadata findAllByKeysetMethod;
+  private MethodMetadata findAllForDatatablesMethod;
+  private MethodMetadata exportAllMethod;
+  private MethodMetadata deleteAllByIdInBatchMethod;
+  private MethodMetadata saveAllInBatchMethod;
+  private MethodMetadata findVersionMethod;
+  private MethodMetadata versionFingerprintMethod;
   private List<MethodMetadata> allDefinedMethod;
   private Map<FieldMetadata, MethodMetadata> countByReferenceFieldDefinedMethod;
   private Map<FieldMetadata, MethodMetadata> referencedFieldsFindAllDefinedMethods;
@@ -87,6 +94,20 @@ public class ServiceMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
    * @param readOnly specifies if current entity is defined as readOnly or not
    * @param finders list of finders added to current entity
    * @param findAllGlobalSearchMethod MethodMetadata with findAllGlobalSearch method
+   * @param findAllByKeysetMethod MethodMetadata with findAll method which uses 
+   *            keyset pagination
+   * @param findAllForDatatablesMethod MethodMetadata with findAll method 
+   *            which only loads the attributes shown by Datatables
+   * @param exportAllMethod MethodMetadata with exportAll method which sends 
+   *            every result of a global search to an export handler
+   * @param deleteAllByIdInBatchMethod MethodMetadata with the repository 
+   *            method used to implement the batch delete method
+   * @param saveAllInBatchMethod MethodMetadata with the repository method 
+   *            used to implement the batch save method
+   * @param findVersionMethod MethodMetadata with findVersion method, or null
+   *            if the entity doesn't have a version field
+   * @param versionFingerprintMethod MethodMetadata with getVersionFingerprint
+   *            method, or null if the entity doesn't have a version field
    * @param referencedFieldsFindAllMethods
    * @param countByReferencedFieldsMethods
    * @param customCountMethods 
@@ -95,7 +116,10 @@ public class ServiceMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
   public ServiceMetadata(final String identifier, final JavaType aspectName,
       final PhysicalTypeMetadata governorPhysicalTypeMetadata, final JavaType entity,
       final JavaType identifierType, final boolean readOnly, final List<MethodMetadata> finders,
-      final MethodMetadata findAllGlobalSearchMethod,
+      final MethodMetadata findAllGlobalSearchMethod, final MethodMetadata findAllByKeysetMethod,
+      final MethodMetadata findAllForDatatablesMethod, final MethodMetadata exportAllMethod,
+      final MethodMetadata deleteAllByIdInBatchMethod, final MethodMetadata saveAllInBatchMethod,
+      final MethodMetadata findVersionMethod, final MethodMetadata versionFingerprintMethod,
       final Map<FieldMetadata, MethodMetadata> referencedFieldsFindAllMethods,
       final Map<FieldMetadata, MethodMetadata> countByReferencedFieldsMethods,
       final List<MethodMetadata> customCountMethods) {
@@ -109,6 +133,13 @@ public class ServiceMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
     this.identifierType = identifierType;
     this.finders = finders;
     this.findAllGlobalSearchMethod = findAllGlobalSearchMethod;
+    this.findAllByKeysetMethod = findAllByKeysetMethod;
+    this.findAllForDatatablesMethod = findAllForDatatablesMethod;
+    this.exportAllMethod = exportAllMethod;
+    this.deleteAllByIdInBatchMethod = deleteAllByIdInBatchMethod;
+    this.saveAllInBatchMethod = saveAllInBatchMethod;
+    this.findVersionMethod = findVersionMethod;
+    this.versionFingerprintMethod = versionFingerprintMethod;
     this.referencedFieldsFindAllDefinedMethods = new HashMap<FieldMetadata, MethodMetadata>();
     this.allDefinedMethod = new ArrayList<MethodMetadata>();
     this.countByReferenceFieldDefinedMethod = new HashMap<FieldMetadata, MethodMetadata>();
@@ -169,6 +200,32 @@ public class ServiceMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
     this.allDefinedMethod.add(findAllWithGlobalSearchMethod);
     ensureGovernorHasMethod(new MethodMetadataBuilder(findAllWithGlobalSearchMethod));
 
+    // Generating findAll method that uses keyset pagination
+    MethodMetadata findAllWithKeysetMethod = getFindAllByKeysetMethod();
+    this.allDefinedMethod.add(findAllWithKeysetMethod);
+    ensureGovernorHasMethod(new MethodMetadataBuilder(findAllWithKeysetMethod));
+
+    // Generating findAll method that only loads the attributes shown by Datatables
+    MethodMetadata findAllForDatatablesServiceMethod = getFindAllForDatatablesMethod();
+    this.allDefinedMethod.add(findAllForDatatablesServiceMethod);
+    ensureGovernorHasMethod(new MethodMetadataBuilder(findAllForDatatablesServiceMethod));
+
+    // Generating exportAll method that streams every result
+    MethodMetadata exportAllServiceMethod = getExportAllMethod();
+    this.allDefinedMethod.add(exportAllServiceMethod);
+    ensureGovernorHasMethod(new MethodMetadataBuilder(exportAllServiceMethod));
+
+    // Generating version methods that validate conditional requests
+    if (findVersionMethod != null && versionFingerprintMethod != null) {
+      MethodMetadata findVersionServiceMethod = getFindVersionMethod();
+      this.allDefinedMethod.add(findVersionServiceMethod);
+      ensureGovernorHasMethod(new MethodMetadataBuilder(findVersionServiceMethod));
+
+      MethodMetadata versionFingerprintServiceMethod = getVersionFingerprintMethod();
+      this.allDefinedMethod.add(versionFingerprintServiceMethod);
+      ensureGovernorHasMethod(new MethodMetadataBuilder(versionFingerprintServiceMethod));
+    }
+
     // ROO-3765: Prevent ITD regeneration applying the same sort to provided map. If this sort is not applied, maybe some
     // method is not in the same order and ITD will be regenerated.
     Map<FieldMetadata, MethodMetadata> referencedFieldsFindAllMethodsOrderedByFieldName =
@@ -247,6 +304,105 @@ public class ServiceMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
     // instance
   }
 
+  /**
+   * Method that generates method "findAllByKeyset" method. This method loads 
+   * the results placed after the one identified by a continuation token, 
+   * applying keyset pagination.
+   * 
+   * @return MethodMetadata
+   */
+  public MethodMetadata getFindAllByKeysetMethod() {
+    // Define method name
+    JavaSymbolName methodName = this.findAllByKeysetMethod.getMethodName();
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = this.findAllByKeysetMethod.getParameterTypes();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = this.findAllByKeysetMethod.getParameterNames();
+
+    MethodMetadata existingMethod =
+        getGovernorMethod(methodName,
+            AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT, methodName,
+            this.findAllByKeysetMethod.getReturnType(), parameterTypes, parameterNames, null);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
+  /**
+   * Method that generates method "findAllForDatatables" method. This method 
+   * applies a global search loading only the provided entity attributes, 
+   * and can also count the entities without the global search.
+   * 
+   * @return MethodMetadata
+   */
+  public MethodMetadata getFindAllForDatatablesMethod() {
+    // Define method name
+    JavaSymbolName methodName = this.findAllForDatatablesMethod.getMethodName();
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = this.findAllForDatatablesMethod.getParameterTypes();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = this.findAllForDatatablesMethod.getParameterNames();
+
+    MethodMetadata existingMethod =
+        getGovernorMethod(methodName,
+            AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT, methodName,
+            this.findAllForDatatablesMethod.getReturnType(), parameterTypes, parameterNames, null);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
+  /**
+   * Method that generates method "exportAll" method. This method sends every 
+   * result of a global search, one by one, to an export handler.
+   * 
+   * @return MethodMetadata
+   */
+  public MethodMetadata getExportAllMethod() {
+    // Define method name
+    JavaSymbolName methodName = this.exportAllMethod.getMethodName();
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = this.exportAllMethod.getParameterTypes();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = this.exportAllMethod.getParameterNames();
+
+    MethodMetadata existingMethod =
+        getGovernorMethod(methodName,
+            AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT, methodName,
+            this.exportAllMethod.getReturnType(), parameterTypes, parameterNames, null);
+    methodBuilder.setThrowsTypes(this.exportAllMethod.getThrowsTypes());
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
   /**
    * Method that generates method "findAll" method.
    * 
@@ -645,6 +801,88 @@ public class ServiceMetadata extends AbstractItdTypeDetailsProvidingMetadataItem
     // instance
   }
 
+  /**
+   * Method that generates method "findVersion" method. This method only 
+   * loads the version of an entity, without loading the entity.
+   * 
+   * @return MethodMetadata, or null if the entity doesn't have a version 
+   *         field
+   */
+  public MethodMetadata getFindVersionMethod() {
+    if (this.findVersionMethod == null) {
+      return null;
+    }
+    return getAbstractMethod(this.findVersionMethod);
+  }
+
+  /**
+   * Method that generates method "getVersionFingerprint" method. This method
+   * returns a fingerprint which changes when any entity changes.
+   * 
+   * @return MethodMetadata, or null if the entity doesn't have a version 
+   *         field
+   */
+  public MethodMetadata getVersionFingerprintMethod() {
+    if (this.versionFingerprintMethod == null) {
+      return null;
+    }
+    return getAbstractMethod(this.versionFingerprintMethod);
+  }
+
+  /**
+   * Generates the service method which declares the same signature as the
+   * provided repository method.
+   * 
+   * @param repositoryMethod
+   * @return MethodMetadata
+   */
+  private MethodMetadata getAbstractMethod(MethodMetadata repositoryMethod) {
+    // Define method name
+    JavaSymbolName methodName = repositoryMethod.getMethodName();
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = repositoryMethod.getParameterTypes();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = repositoryMethod.getParameterNames();
+
+    MethodMetadata existingMethod =
+        getGovernorMethod(methodName,
+            AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    if (existingMethod != null) {
+      return existingMethod;
+    }
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC + Modifier.ABSTRACT, methodName,
+            repositoryMethod.getReturnType(), parameterTypes, parameterNames, null);
+
+    return methodBuilder.build(); // Build and return a MethodMetadata
+    // instance
+  }
+
+  /**
+   * This method returns the repository method which deletes a group of 
+   * entities by their identifiers. It is used to implement the batch 
+   * delete method.
+   * 
+   * @return
+   */
+  public MethodMetadata getDeleteAllByIdInBatchMethod() {
+    return deleteAllByIdInBatchMethod;
+  }
+
+  /**
+   * This method returns the repository method which saves a group of 
+   * entities. It is used to implement the batch save method.
+   * 
+   * @return
+   */
+  public MethodMetadata getSaveAllInBatchMethod() {
+    return saveAllInBatchMethod;
+  }
+
   /**
    * This method returns all defined methods in service interface
    * 
@@ -297,6 +297,13 @@ public class ServiceMetadataProviderImpl extends AbstractMemberDiscoveringItdMet
     return new ServiceMetadata(metadataIdentificationString, aspectName,
         governorPhysicalTypeMetadata, entity, identifierType, readOnly, finders,
         repositoryCustomMetadata.getFindAllGlobalSearchMethod(),
+        repositoryCustomMetadata.getFindAllByKeysetMethod(),
+        repositoryCustomMetadata.getFindAllForDatatablesMethod(),
+        repositoryCustomMetadata.getExportAllMethod(),
+        repositoryCustomMetadata.getDeleteAllByIdInBatchMethod(),
+        repositoryCustomMetadata.getSaveAllInBatchMethod(),
+        repositoryCustomMetadata.getFindVersionMethod(),
+        repositoryCustomMetadata.getVersionFingerprintMethod(),
         repositoryCustomMetadata.getReferencedFieldsFindAllMethods(),
         countByReferencedFieldMethods, countMethods);
   }
@@ -50,4 +50,14 @@ public interface ServiceOperations {
    */
   void addAllServices(JavaPackage apiPackage, JavaPackage implPackage);
 
+  /**
+   * Makes the service of some specific domain entity cache the search
+   * results it returns, and declares the search cache of the entity in the
+   * application configuration.
+   * 
+   * @param domainType entity related with service
+   * @param profile the profile where the caches should be declared, if any
+   */
+  void addServiceCache(JavaType domainType, String profile);
+
 }
@@ -8,15 +8,20 @@ import static org.springframework.roo.model.RooJavaType.ROO_SERVICE_IMPL;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.Service;
+import org.springframework.roo.addon.layers.service.annotations.RooService;
+import org.springframework.roo.application.config.ApplicationConfigService;
+import org.springframework.roo.classpath.ModuleFeatureName;
 import org.springframework.roo.classpath.PhysicalTypeCategory;
 import org.springframework.roo.classpath.PhysicalTypeIdentifier;
 import org.springframework.roo.classpath.TypeLocationService;
@@ -32,10 +37,12 @@ import org.springframework.roo.model.JavaPackage;
 import org.springframework.roo.model.JavaSymbolName;
 import org.springframework.roo.model.JavaType;
 import org.springframework.roo.model.RooJavaType;
+import org.springframework.roo.model.SpringJavaType;
 import org.springframework.roo.process.manager.FileManager;
 import org.springframework.roo.project.Path;
 import org.springframework.roo.project.PathResolver;
 import org.springframework.roo.project.ProjectOperations;
+import org.springframework.roo.project.maven.Pom;
 import org.springframework.roo.support.logging.HandlerUtils;
 
 /**
@@ -51,6 +58,8 @@ public class ServiceOperationsImpl implements ServiceOperations {
 
   private static final Logger LOGGER = HandlerUtils.getLogger(ServiceOperationsImpl.class);
 
+  private static final String CACHE_NAMES_PROPERTY = "spring.cache.cache-names";
+
   @Reference
   private FileManager fileManager;
   @Reference
@@ -61,6 +70,8 @@ public class ServiceOperationsImpl implements ServiceOperations {
   private TypeManagementService typeManagementService;
   @Reference
   private TypeLocationService typeLocationService;
+  @Reference
+  private ApplicationConfigService applicationConfigService;
 
   @Override
   public boolean areServiceCommandsAvailable() {
@@ -209,6 +220,55 @@ public class ServiceOperationsImpl implements ServiceOperations {
     createServiceImplementation(interfaceType, implType, repository, domainType);
   }
 
+  @Override
+  public void addServiceCache(final JavaType domainType, final String profile) {
+    Validate.notNull(domainType, "ERROR: Domain type required to be able to cache its service.");
+    Validate.isTrue(
+        !typeLocationService.findClassesOrInterfaceDetailsWithAnnotation(
+            SpringJavaType.ENABLE_CACHING).isEmpty(),
+        "ERROR: Cache support is not installed. Use 'cache setup' command first.");
+
+    // Getting the service of the entity
+    ClassOrInterfaceTypeDetails service = null;
+    for (ClassOrInterfaceTypeDetails type : typeLocationService
+        .findClassesOrInterfaceDetailsWithAnnotation(ROO_SERVICE)) {
+      AnnotationAttributeValue<JavaType> entityAttr =
+          type.getAnnotation(ROO_SERVICE).getAttribute(RooService.ENTITY_ATTRIBUTE);
+      if (entityAttr != null && entityAttr.getValue().equals(domainType)) {
+        service = type;
+        break;
+      }
+    }
+    Validate.notNull(service,
+        "ERROR: Entity '%s' doesn't have a service. Use 'service' command to generate it first.",
+        domainType.getSimpleTypeName());
+
+    // Update @RooService annotation including cacheable attribute
+    AnnotationMetadataBuilder serviceAnnotationBuilder =
+        new AnnotationMetadataBuilder(service.getAnnotation(ROO_SERVICE));
+    serviceAnnotationBuilder.addBooleanAttribute(RooService.CACHEABLE_ATTRIBUTE, true);
+    ClassOrInterfaceTypeDetailsBuilder cidBuilder = new ClassOrInterfaceTypeDetailsBuilder(service);
+    cidBuilder.updateTypeAnnotation(serviceAnnotationBuilder.build());
+    typeManagementService.createOrUpdateTypeOnDisk(cidBuilder.build());
+
+    // Declare the search cache of the entity in every application module,
+    // keeping the caches already declared
+    for (Pom module : typeLocationService.getModules(ModuleFeatureName.APPLICATION)) {
+      Set<String> cacheNames = new LinkedHashSet<String>();
+      String currentCacheNames =
+          applicationConfigService.getProperty(module.getModuleName(), CACHE_NAMES_PROPERTY,
+              profile);
+      if (StringUtils.isNotBlank(currentCacheNames)) {
+        for (String cacheName : StringUtils.split(currentCacheNames, ',')) {
+          cacheNames.add(cacheName.trim());
+        }
+      }
+      cacheNames.add(ServiceImplMetadata.getSearchCacheName(domainType));
+      applicationConfigService.addProperty(module.getModuleName(), CACHE_NAMES_PROPERTY,
+          StringUtils.join(cacheNames, ","), profile, true);
+    }
+  }
+
   /**
    * Method that creates the service interface
    * 
@@ -0,0 +1,130 @@
+package org.springframework.roo.addon.layers.service.addon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.roo.classpath.details.MethodMetadataBuilder;
+import org.springframework.roo.classpath.details.annotations.AnnotatedJavaType;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadataBuilder;
+import org.springframework.roo.classpath.itd.InvocableMemberBodyBuilder;
+import org.springframework.roo.model.DataType;
+import org.springframework.roo.model.JavaSymbolName;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.model.SpringJavaType;
+
+/**
+ * Unit test of the cache annotations generated by {@link ServiceImplMetadata}
+ *
+ * @since 2.0
+ */
+public class ServiceImplMetadataTest {
+
+  private static final JavaType ENTITY = new JavaType("com.example.domain.Owner");
+  private static final JavaType ENTITY_LIST = new JavaType("java.util.List", 0, DataType.TYPE,
+      null, Arrays.asList(ENTITY));
+  private static final JavaType ID_LIST = new JavaType("java.util.List", 0, DataType.TYPE, null,
+      Arrays.asList(JavaType.LONG_OBJECT));
+  private static final String SEARCH_CACHE = "Owner.searches";
+
+  /**
+   * Returns the annotations that a cacheable service adds to the provided
+   * method
+   *
+   * @param methodName
+   * @param returnType
+   * @param parameterType
+   * @return the generated annotations
+   */
+  private List<AnnotationMetadata> getCacheAnnotations(final String methodName,
+      final JavaType returnType, final JavaType parameterType) {
+    // Set up
+    final MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder("MID:test#Owner", Modifier.PUBLIC,
+            new JavaSymbolName(methodName), returnType,
+            AnnotatedJavaType.convertFromJavaTypes(parameterType),
+            Arrays.asList(new JavaSymbolName("param")), new InvocableMemberBodyBuilder());
+
+    // Invoke
+    ServiceImplMetadata.addCacheAnnotations(methodBuilder, ENTITY);
+
+    final List<AnnotationMetadata> annotations = new ArrayList<AnnotationMetadata>();
+    for (final AnnotationMetadataBuilder annotation : methodBuilder.getAnnotations()) {
+      annotations.add(annotation.build());
+    }
+    return annotations;
+  }
+
+  /**
+   * Asserts that the provided annotations are a single annotation of the
+   * expected type on the search cache
+   *
+   * @param expectedType
+   * @param annotations
+   */
+  private void assertSearchCacheAnnotation(final JavaType expectedType,
+      final List<AnnotationMetadata> annotations) {
+    assertEquals(1, annotations.size());
+    final AnnotationMetadata annotation = annotations.get(0);
+    assertEquals(expectedType, annotation.getAnnotationType());
+    assertEquals(SEARCH_CACHE, annotation.getAttribute("cacheNames").getValue());
+  }
+
+  /**
+   * Asserts that the provided annotations evict all the search results
+   *
+   * @param annotations
+   */
+  private void assertClearsSearchCache(final List<AnnotationMetadata> annotations) {
+    assertSearchCacheAnnotation(SpringJavaType.CACHE_EVICT, annotations);
+    assertEquals(Boolean.TRUE, annotations.get(0).getAttribute("allEntries").getValue());
+  }
+
+  @Test
+  public void testFindOneIsNotCached() {
+    assertTrue(getCacheAnnotations("findOne", ENTITY, JavaType.LONG_OBJECT).isEmpty());
+  }
+
+  @Test
+  public void testFindVersionIsNotCached() {
+    assertTrue(getCacheAnnotations("findVersion", JavaType.LONG_OBJECT, JavaType.LONG_OBJECT)
+        .isEmpty());
+  }
+
+  @Test
+  public void testGetVersionFingerprintIsNotCached() {
+    assertTrue(getCacheAnnotations("getVersionFingerprint", JavaType.STRING, ID_LIST).isEmpty());
+  }
+
+  @Test
+  public void testSearchIsCached() {
+    assertSearchCacheAnnotation(SpringJavaType.CACHEABLE,
+        getCacheAnnotations("findAll", ENTITY_LIST, ID_LIST));
+  }
+
+  @Test
+  public void testSaveClearsSearchCache() {
+    assertClearsSearchCache(getCacheAnnotations("save", ENTITY, ENTITY));
+  }
+
+  @Test
+  public void testDeleteClearsSearchCache() {
+    assertClearsSearchCache(getCacheAnnotations("delete", JavaType.VOID_PRIMITIVE, ENTITY));
+  }
+
+  @Test
+  public void testBatchSaveClearsSearchCache() {
+    assertClearsSearchCache(getCacheAnnotations("save", ENTITY_LIST, ENTITY_LIST));
+  }
+
+  @Test
+  public void testBatchDeleteClearsSearchCache() {
+    assertClearsSearchCache(getCacheAnnotations("delete", JavaType.VOID_PRIMITIVE, ID_LIST));
+  }
+}
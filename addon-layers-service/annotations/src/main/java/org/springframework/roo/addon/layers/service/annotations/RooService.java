@@ -23,6 +23,11 @@ public @interface RooService {
    */
   String ENTITY_ATTRIBUTE = "entity";
 
+  /**
+   * The name of this annotation's "cacheable" attribute
+   */
+  String CACHEABLE_ATTRIBUTE = "cacheable";
+
   /**
    * Returns the domain type managed by this service
    * 
@@ -30,4 +35,16 @@ public @interface RooService {
    */
   Class<?> entity();
 
+  /**
+   * Indicates if the service implementation caches the search results it
+   * returns. The cached search results are evicted when any entity is saved
+   * or deleted through the service. The entities of the cached results are
+   * detached, so their lazy relations are not available once they are
+   * returned from the cache. findOne is never cached, because the 
+   * controllers bind the request parameters to the entity it returns.
+   * 
+   * @return true if the service results are cached (defaults to false)
+   */
+  boolean cacheable() default false;
+
 }
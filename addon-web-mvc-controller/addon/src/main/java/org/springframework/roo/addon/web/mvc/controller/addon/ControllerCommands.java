@@ -13,6 +13,7 @@ import org.osgi.framework.ServiceReference;
 import org.osgi.service.component.ComponentContext;
 import org.springframework.roo.addon.web.mvc.controller.addon.responses.ControllerMVCResponseService;
 import org.springframework.roo.addon.web.mvc.controller.addon.servers.ServerProvider;
+import org.springframework.roo.addon.web.mvc.controller.annotations.config.ExecutionModel;
 import org.springframework.roo.classpath.ModuleFeatureName;
 import org.springframework.roo.classpath.TypeLocationService;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
@@ -148,6 +149,7 @@ public class ControllerCommands implements CommandMarker {
    *
    * @param module
    * @param appServer
+   * @param executionModel
    */
   @CliCommand(value = "web mvc setup", help = "Includes Spring MVC on generated project")
   public void setup(
@@ -155,13 +157,18 @@ public class ControllerCommands implements CommandMarker {
           help = "The application module where to install the persistence",
           unspecifiedDefaultValue = ".", optionContext = APPLICATION_FEATURE_INCLUDE_CURRENT_MODULE) Pom module,
       @CliOption(key = "appServer", mandatory = false,
-          help = "The server where deploy the application", unspecifiedDefaultValue = "EMBEDDED") String appServer) {
+          help = "The server where deploy the application", unspecifiedDefaultValue = "EMBEDDED") String appServer,
+      @CliOption(
+          key = "executionModel",
+          mandatory = false,
+          help = "How the list and export requests are executed: SYNC on the server threads, ASYNC on a pool of MVC task executor threads or VIRTUAL on virtual threads (requires Java 21 at runtime)",
+          unspecifiedDefaultValue = "SYNC") ExecutionModel executionModel) {
 
     if (!getServerProviders().containsKey(appServer)) {
       throw new IllegalArgumentException("ERROR: Invalid server provider");
     }
 
-    getControllerOperations().setup(module, serverProviders.get(appServer));
+    getControllerOperations().setup(module, serverProviders.get(appServer), executionModel);
   }
 
   /**
@@ -294,7 +301,8 @@ public class ControllerCommands implements CommandMarker {
    *
    * @return
    */
-  @CliAvailabilityIndicator(value = "web mvc controller")
+  @CliAvailabilityIndicator(value = {"web mvc controller", "web mvc export", "web mvc etag",
+      "web mvc performance"})
   public boolean isAddControllerAvailable() {
     return getControllerOperations().isAddControllerAvailable();
   }
@@ -365,6 +373,68 @@ public class ControllerCommands implements CommandMarker {
     }
   }
 
+  /**
+   * This method provides the Command definition to be able to include an
+   * endpoint which streams every entity on JSON collection controllers.
+   *
+   * @param entity
+   */
+  @CliCommand(value = "web mvc export",
+      help = "Includes an '/export' endpoint which streams all the entities on @RooJSON "
+          + "collection controllers, instead of loading them page by page")
+  public void addExportEndpoint(
+      @CliOption(
+          key = "entity",
+          mandatory = false,
+          help = "Indicates the entity whose controllers will include the export endpoint. If not specified, it will be included on the controllers of every entity.") JavaType entity) {
+    getControllerOperations().addExportEndpoint(entity);
+  }
+
+  /**
+   * This method provides the Command definition to be able to answer 
+   * conditional requests on the controllers of versioned entities.
+   *
+   * @param entity
+   */
+  @CliCommand(value = "web mvc etag",
+      help = "Uses the version of the entities as ETag, so the JSON controllers answer "
+          + "conditional requests without sending again the entities that haven't changed")
+  public void addConditionalRequests(
+      @CliOption(
+          key = "entity",
+          mandatory = false,
+          help = "Indicates the entity whose controllers will answer conditional requests. If not specified, they will be answered on the JSON controllers of every entity with a numeric or timestamp version field.") JavaType entity) {
+    getControllerOperations().addConditionalRequests(entity);
+  }
+
+  /**
+   * This method provides the Command definition to be able to compress the
+   * responses and cache the static resources of the application.
+   *
+   * @param module
+   * @param compressionMinSize
+   * @param cachePeriod
+   */
+  @CliCommand(value = "web mvc performance",
+      help = "Compresses the responses with gzip and serves the static resources with "
+          + "content based versioned URLs and long-lived Cache-Control headers")
+  public void setupPerformance(
+      @CliOption(key = "module", mandatory = true,
+          help = "The application module where to configure the responses",
+          unspecifiedDefaultValue = ".", optionContext = APPLICATION_FEATURE_INCLUDE_CURRENT_MODULE) Pom module,
+      @CliOption(
+          key = "compressionMinSize",
+          mandatory = false,
+          unspecifiedDefaultValue = "2048",
+          help = "The minimum size in bytes of the responses to compress. Smaller responses are sent uncompressed, as compressing them doesn't save enough to pay off.") int compressionMinSize,
+      @CliOption(
+          key = "cachePeriod",
+          mandatory = false,
+          unspecifiedDefaultValue = "31536000",
+          help = "The seconds the browsers can cache the static resources. As their URLs change with their content, it can be as long as a year.") int cachePeriod) {
+    getControllerOperations().setupPerformance(module, compressionMinSize, cachePeriod);
+  }
+
   /**
    * Replaces a JavaType fullyQualifiedName for a shorter name using '~' for
    * TopLevelPackage
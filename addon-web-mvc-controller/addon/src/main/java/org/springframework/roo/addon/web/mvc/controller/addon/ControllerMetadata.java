@@ -42,6 +42,7 @@ public class ControllerMetadata extends AbstractItdTypeDetailsProvidingMetadataI
 
   private static final JavaType CONTROLLER_ANNOTATION = new JavaType(
       "org.springframework.stereotype.Controller");
+  private static final JavaType SQL_TIMESTAMP = new JavaType("java.sql.Timestamp");
   private static final JavaType REQUEST_MAPPING_ANNOTATION = new JavaType(
       "org.springframework.web.bind.annotation.RequestMapping");
 
@@ -52,6 +53,7 @@ public class ControllerMetadata extends AbstractItdTypeDetailsProvidingMetadataI
   private JavaType identifierType;
   private ServiceMetadata serviceMetadata;
   private String path;
+  private boolean etag;
 
   public static String createIdentifier(final JavaType javaType, final LogicalPath path) {
     return PhysicalTypeIdentifierNamingUtils.createIdentifier(PROVIDES_TYPE_STRING, javaType, path);
@@ -76,6 +78,27 @@ public class ControllerMetadata extends AbstractItdTypeDetailsProvidingMetadataI
         metadataIdentificationString);
   }
 
+  /**
+   * Checks if the values of a version field of the provided type can be 
+   * used as ETag. Numeric versions and timestamps change on every update 
+   * and their text represents them completely, unlike java.util.Date, 
+   * whose text doesn't include the milliseconds.
+   *
+   * @param versionType the type of the version field
+   * @return true if the version can be used as ETag
+   */
+  public static boolean isETagVersionType(final JavaType versionType) {
+    if (versionType == null) {
+      return false;
+    }
+    // The primitive types have the name of their wrapper
+    String typeName = versionType.getFullyQualifiedTypeName();
+    return typeName.equals(JavaType.INT_OBJECT.getFullyQualifiedTypeName())
+        || typeName.equals(JavaType.LONG_OBJECT.getFullyQualifiedTypeName())
+        || typeName.equals(JavaType.SHORT_OBJECT.getFullyQualifiedTypeName())
+        || typeName.equals(SQL_TIMESTAMP.getFullyQualifiedTypeName());
+  }
+
   /**
    * Constructor
    *
@@ -102,11 +125,17 @@ public class ControllerMetadata extends AbstractItdTypeDetailsProvidingMetadataI
    *            this controller
    * @param serviceMetadata
    *            ServiceMetadata of the service used by controller
+   * @param etag
+   *            Indicates if the controller answers conditional requests. 
+   *            Only JSON controllers of entities with a version that 
+   *            {@link #isETagVersionType(JavaType) can be used as ETag} 
+   *            answer them.
    */
   public ControllerMetadata(final String identifier, final JavaType aspectName,
       final PhysicalTypeMetadata governorPhysicalTypeMetadata, final JavaType entity,
       final JavaType service, final List<JavaType> detailsServices, final String path,
-      final ControllerType type, final JavaType identifierType, ServiceMetadata serviceMetadata) {
+      final ControllerType type, final JavaType identifierType, ServiceMetadata serviceMetadata,
+      final boolean etag) {
     super(identifier, aspectName, governorPhysicalTypeMetadata);
 
     this.type = type;
@@ -116,6 +145,7 @@ public class ControllerMetadata extends AbstractItdTypeDetailsProvidingMetadataI
     this.identifierType = identifierType;
     this.serviceMetadata = serviceMetadata;
     this.path = path;
+    this.etag = etag;
 
     // Add @Controller annotation
     ensureGovernorIsAnnotated(new AnnotationMetadataBuilder(CONTROLLER_ANNOTATION));
@@ -240,10 +270,16 @@ public class ControllerMetadata extends AbstractItdTypeDetailsProvidingMetadataI
         new AnnotationMetadataBuilder(SpringJavaType.PATH_VARIABLE);
     pathVariable.addStringAttribute("value", "id");
     parameterTypes.add(new AnnotatedJavaType(this.identifierType, pathVariable.build()));
+    if (this.etag) {
+      parameterTypes.add(new AnnotatedJavaType(SpringJavaType.SERVLET_WEB_REQUEST));
+    }
 
     // Define method parameter names
     List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
     parameterNames.add(new JavaSymbolName("id"));
+    if (this.etag) {
+      parameterNames.add(new JavaSymbolName("request"));
+    }
 
     JavaSymbolName methodName = new JavaSymbolName("get".concat(this.entity.getSimpleTypeName()));
 
@@ -257,9 +293,38 @@ public class ControllerMetadata extends AbstractItdTypeDetailsProvidingMetadataI
     // Generate body
     InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
 
-    // return entityNameService.findOne(id);
     // Getting serviceFieldName
     String serviceFieldName = getServiceField().getFieldName().getSymbolName();
+
+    if (this.etag) {
+
+      // A revalidation only needs the version, so the entity isn't loaded
+      // if ("GET".equals(request.getRequest().getMethod())
+      //     && request.getHeader("If-None-Match") != null) {
+      //   Long version = entityNameService.findVersion(id);
+      //   if (version != null && request.checkNotModified(String.valueOf(version))) {
+      //     return null;
+      //   }
+      // }
+      bodyBuilder.appendFormalLine("if (\"GET\".equals(request.getRequest().getMethod())");
+      bodyBuilder.appendFormalLine("    && request.getHeader(\"If-None-Match\") != null) {");
+      bodyBuilder.indent();
+      MethodMetadata serviceFindVersionMethod = serviceMetadata.getFindVersionMethod();
+      bodyBuilder.appendFormalLine(String.format("%s version = this.%s.%s(id);",
+          serviceFindVersionMethod.getReturnType().getNameIncludingTypeParameters(false,
+              builder.getImportRegistrationResolver()), serviceFieldName,
+          serviceFindVersionMethod.getMethodName()));
+      bodyBuilder.appendFormalLine(
+          "if (version != null && request.checkNotModified(String.valueOf(version))) {");
+      bodyBuilder.indent();
+      bodyBuilder.appendFormalLine("return null;");
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("}");
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("}");
+    }
+
+    // return entityNameService.findOne(id);
     // Getting findOneMethod
 
     MethodMetadata serviceFindOneMethod = serviceMetadata.getFindOneMethod();
@@ -308,4 +373,8 @@ public class ControllerMetadata extends AbstractItdTypeDetailsProvidingMetadataI
     return this.path;
   }
 
+  public boolean isEtag() {
+    return this.etag;
+  }
+
 }
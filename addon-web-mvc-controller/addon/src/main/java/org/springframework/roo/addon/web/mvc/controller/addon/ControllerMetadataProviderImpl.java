@@ -168,6 +168,10 @@ public class ControllerMetadataProviderImpl extends AbstractMemberDiscoveringItd
       pathPrefix = StringUtils.lowerCase((String) pathPrefixAttr.getValue());
     }
 
+    // Getting etag
+    AnnotationAttributeValue<Object> etagAttr = controllerAnnotation.getAttribute("etag");
+    boolean etag = etagAttr != null && (Boolean) etagAttr.getValue();
+
     // Getting related service
     JavaType service = null;
     Set<ClassOrInterfaceTypeDetails> services =
@@ -252,9 +256,21 @@ public class ControllerMetadataProviderImpl extends AbstractMemberDiscoveringItd
     final ServiceMetadata serviceMetadata =
         (ServiceMetadata) getMetadataService().get(serviceMetadataKey);
 
+    // Conditional requests are only answered by JSON controllers, if the
+    // entity has a version that can be used as ETag. The HTML pages also
+    // depend on the locale, the layout and the CSRF token, so the version
+    // isn't a valid ETag for them
+    if (governorPhysicalTypeMetadata.getMemberHoldingTypeDetails().getAnnotation(
+        RooJavaType.ROO_JSON) == null
+        || serviceMetadata.getFindVersionMethod() == null
+        || !ControllerMetadata.isETagVersionType(serviceMetadata.getFindVersionMethod()
+            .getReturnType())) {
+      etag = false;
+    }
+
     return new ControllerMetadata(metadataIdentificationString, aspectName,
         governorPhysicalTypeMetadata, entity, service, detailsService, path, type, identifierType,
-        serviceMetadata);
+        serviceMetadata, etag);
   }
 
   private void registerDependency(final String upstreamDependency, final String downStreamDependency) {
@@ -2,6 +2,7 @@ package org.springframework.roo.addon.web.mvc.controller.addon;
 
 import org.springframework.roo.addon.web.mvc.controller.addon.responses.ControllerMVCResponseService;
 import org.springframework.roo.addon.web.mvc.controller.addon.servers.ServerProvider;
+import org.springframework.roo.addon.web.mvc.controller.annotations.config.ExecutionModel;
 import org.springframework.roo.model.JavaPackage;
 import org.springframework.roo.model.JavaType;
 import org.springframework.roo.project.Feature;
@@ -35,8 +36,10 @@ public interface ControllerOperations extends Feature {
    *            Pom module where Spring MVC should be included
    * @param appServer
    *            Server where application should be deployed
+   * @param executionModel
+   *            How the list and export requests are executed
    */
-  void setup(Pom module, ServerProvider appServer);
+  void setup(Pom module, ServerProvider appServer, ExecutionModel executionModel);
 
   /**
    * This operation will check if add controllers operation is available
@@ -103,4 +106,38 @@ public interface ControllerOperations extends Feature {
   void createOrUpdateDetailControllerForEntity(JavaType entity, String relationField,
       ControllerMVCResponseService responseType, JavaPackage controllerPackage);
 
+  /**
+   * This operation will enable the streaming export endpoint on the JSON
+   * collection controllers of the specified entity, or of every entity if
+   * none is specified
+   *
+   * @param entity
+   *            Entity whose controllers will export its data. Could be null.
+   */
+  void addExportEndpoint(JavaType entity);
+
+  /**
+   * This operation will make the item and collection controllers of the
+   * specified entity, or of every entity if none is specified, answer
+   * conditional requests using the version of the entities as ETag
+   *
+   * @param entity
+   *            Entity whose controllers will answer conditional requests. 
+   *            Could be null.
+   */
+  void addConditionalRequests(JavaType entity);
+
+  /**
+   * This operation will compress the responses of the specified module and
+   * serve its static resources with versioned URLs and cache headers
+   *
+   * @param module
+   *            Pom module where the responses should be configured
+   * @param compressionMinSize
+   *            Minimum size in bytes of the responses to compress
+   * @param cachePeriod
+   *            Seconds the browsers can cache the static resources
+   */
+  void setupPerformance(Pom module, int compressionMinSize, int cachePeriod);
+
 }
@@ -16,6 +16,7 @@ import org.osgi.service.component.ComponentContext;
 import org.springframework.roo.addon.web.mvc.controller.addon.responses.ControllerMVCResponseService;
 import org.springframework.roo.addon.web.mvc.controller.addon.servers.ServerProvider;
 import org.springframework.roo.addon.web.mvc.controller.annotations.ControllerType;
+import org.springframework.roo.addon.web.mvc.controller.annotations.config.ExecutionModel;
 import org.springframework.roo.addon.web.mvc.controller.annotations.config.RooWebMvcJSONConfiguration;
 import org.springframework.roo.application.config.ApplicationConfigService;
 import org.springframework.roo.classpath.ModuleFeatureName;
@@ -82,6 +83,13 @@ public class ControllerOperationsImpl implements ControllerOperations {
 
   private static final Logger LOGGER = HandlerUtils.getLogger(ControllerOperationsImpl.class);
 
+  /**
+   * Types of the responses compressed by "web mvc performance"
+   */
+  private static final String COMPRESSED_MIME_TYPES =
+      "text/html,text/xml,text/plain,text/css,text/javascript,application/javascript,"
+          + "application/json,application/x-ndjson";
+
   // ------------ OSGi component attributes ----------------
   private BundleContext context;
 
@@ -127,11 +135,14 @@ public class ControllerOperationsImpl implements ControllerOperations {
    *            Pom module where Spring MVC should be included
    * @param appServer
    *            Server where application should be deployed
+   * @param executionModel
+   *            How the list and export requests are executed
    */
   @Override
-  public void setup(Pom module, ServerProvider appServer) {
+  public void setup(Pom module, ServerProvider appServer, ExecutionModel executionModel) {
 
     Validate.notNull(appServer, "Application server required");
+    Validate.notNull(executionModel, "Execution model required");
 
     // Checks that provided module matches with Application properties
     // modules
@@ -174,6 +185,10 @@ public class ControllerOperationsImpl implements ControllerOperations {
       // Generating @RooWebMvcConfiguration annotation
       final AnnotationMetadataBuilder annotationMetadata =
           new AnnotationMetadataBuilder(RooJavaType.ROO_WEB_MVC_CONFIGURATION);
+      if (executionModel != ExecutionModel.SYNC) {
+        annotationMetadata.addEnumAttribute("executionModel", new JavaType(
+            ExecutionModel.class), executionModel.name());
+      }
       typeBuilder.addAnnotation(annotationMetadata.build());
 
       // Write new class disk
@@ -198,10 +213,10 @@ public class ControllerOperationsImpl implements ControllerOperations {
         "ConversionServiceBeanSerializerModifier", "http.converter.json");
     createClassFromTemplate(module, "ConversionServicePropertySerializer-template._java",
         "ConversionServicePropertySerializer", "http.converter.json");
+    createClassFromTemplate(module, "ConversionServicePropertyDeserializer-template._java",
+        "ConversionServicePropertyDeserializer", "http.converter.json");
     createClassFromTemplate(module, "DataBinderBeanDeserializerModifier-template._java",
         "DataBinderBeanDeserializerModifier", "http.converter.json");
-    createClassFromTemplate(module, "DataBinderDeserializer-template._java",
-        "DataBinderDeserializer", "http.converter.json");
     createClassFromTemplate(module, "FieldErrorSerializer-template._java", "FieldErrorSerializer",
         "http.converter.json");
     createClassFromTemplate(module, "JsonpAdvice-template._java", "JsonpAdvice",
@@ -217,7 +232,7 @@ public class ControllerOperationsImpl implements ControllerOperations {
     addGlobalSearchHandlerMethodArgumentResolverClass(module);
 
     // Add server configuration
-    appServer.setup(module);
+    appServer.setup(module, executionModel);
   }
 
   /**
@@ -1228,6 +1243,172 @@ public class ControllerOperationsImpl implements ControllerOperations {
     return relationFieldIsValid;
   }
 
+  @Override
+  public void addExportEndpoint(JavaType entity) {
+
+    boolean controllerFound = false;
+    Set<ClassOrInterfaceTypeDetails> controllers =
+        getTypeLocationService().findClassesOrInterfaceDetailsWithAnnotation(
+            RooJavaType.ROO_CONTROLLER, RooJavaType.ROO_JSON);
+    for (ClassOrInterfaceTypeDetails controller : controllers) {
+      AnnotationMetadata controllerAnnotation =
+          controller.getAnnotation(RooJavaType.ROO_CONTROLLER);
+      AnnotationAttributeValue<Object> entityAttr = controllerAnnotation.getAttribute("entity");
+      AnnotationAttributeValue<Object> typeAttribute = controllerAnnotation.getAttribute("type");
+
+      // Only collection controllers of the specified entity are updated
+      if (entityAttr == null || (entity != null && !entityAttr.getValue().equals(entity))) {
+        continue;
+      }
+      if (typeAttribute == null
+          || ControllerType.getControllerType(((EnumDetails) typeAttribute.getValue()).getField()
+              .getSymbolName()) != ControllerType.COLLECTION) {
+        continue;
+      }
+      controllerFound = true;
+
+      // Update @RooJSON annotation including export attribute
+      AnnotationMetadataBuilder jsonAnnotationBuilder =
+          new AnnotationMetadataBuilder(controller.getAnnotation(RooJavaType.ROO_JSON));
+      jsonAnnotationBuilder.addBooleanAttribute("export", true);
+      ClassOrInterfaceTypeDetailsBuilder cidBuilder =
+          new ClassOrInterfaceTypeDetailsBuilder(controller);
+      cidBuilder.updateTypeAnnotation(jsonAnnotationBuilder.build());
+      getTypeManagementService().createOrUpdateTypeOnDisk(cidBuilder.build());
+    }
+
+    if (!controllerFound) {
+      LOGGER.log(Level.INFO, entity == null ? "ERROR: There are no JSON collection controllers "
+          + "to include the export endpoint on." : String.format(
+          "ERROR: There are no JSON collection controllers associated to entity '%s'.",
+          entity.getSimpleTypeName()));
+    }
+  }
+
+  @Override
+  public void addConditionalRequests(JavaType entity) {
+
+    boolean controllerFound = false;
+    Set<ClassOrInterfaceTypeDetails> controllers =
+        getTypeLocationService().findClassesOrInterfaceDetailsWithAnnotation(
+            RooJavaType.ROO_CONTROLLER);
+    for (ClassOrInterfaceTypeDetails controller : controllers) {
+      AnnotationMetadata controllerAnnotation =
+          controller.getAnnotation(RooJavaType.ROO_CONTROLLER);
+      AnnotationAttributeValue<Object> entityAttr = controllerAnnotation.getAttribute("entity");
+      AnnotationAttributeValue<Object> typeAttribute = controllerAnnotation.getAttribute("type");
+
+      // Only JSON item and collection controllers of the specified entity are
+      // updated. The HTML views also depend on the locale, the layout and the
+      // CSRF token, so the version of the entity isn't a valid ETag for them
+      if (entityAttr == null || (entity != null && !entityAttr.getValue().equals(entity))) {
+        continue;
+      }
+      if (typeAttribute == null || controller.getAnnotation(RooJavaType.ROO_JSON) == null) {
+        continue;
+      }
+      ControllerType type =
+          ControllerType.getControllerType(((EnumDetails) typeAttribute.getValue()).getField()
+              .getSymbolName());
+      if (type != ControllerType.ITEM && type != ControllerType.COLLECTION) {
+        continue;
+      }
+
+      // The version is used as ETag, so it must be numeric or a timestamp
+      JavaType controllerEntity = (JavaType) entityAttr.getValue();
+      if (!hasETagVersion(controllerEntity)) {
+        if (entity != null) {
+          LOGGER.log(Level.INFO, String.format(
+              "ERROR: Entity '%s' doesn't have a numeric or timestamp version field to use as "
+                  + "ETag.",
+              entity.getSimpleTypeName()));
+          return;
+        }
+        continue;
+      }
+      controllerFound = true;
+
+      // Update @RooController annotation including etag attribute
+      AnnotationMetadataBuilder controllerAnnotationBuilder =
+          new AnnotationMetadataBuilder(controllerAnnotation);
+      controllerAnnotationBuilder.addBooleanAttribute("etag", true);
+      ClassOrInterfaceTypeDetailsBuilder cidBuilder =
+          new ClassOrInterfaceTypeDetailsBuilder(controller);
+      cidBuilder.updateTypeAnnotation(controllerAnnotationBuilder.build());
+      getTypeManagementService().createOrUpdateTypeOnDisk(cidBuilder.build());
+    }
+
+    if (!controllerFound) {
+      LOGGER.log(Level.INFO, entity == null ? "ERROR: There are no JSON controllers of "
+          + "entities with a numeric or timestamp version field to answer conditional requests."
+          : String.format(
+              "ERROR: There are no JSON item or collection controllers associated to entity '%s'.",
+          entity.getSimpleTypeName()));
+    }
+  }
+
+  @Override
+  public void setupPerformance(Pom module, int compressionMinSize, int cachePeriod) {
+
+    Validate
+        .isTrue(
+            getTypeLocationService().hasModuleFeature(module, ModuleFeatureName.APPLICATION),
+            "ERROR: You are trying to configure the responses of a module that doesn't match with APPLICATION modules features.");
+    Validate.isTrue(compressionMinSize >= 0,
+        "ERROR: The minimum size of the compressed responses can't be negative.");
+    Validate.isTrue(cachePeriod >= 0, "ERROR: The cache period can't be negative.");
+
+    String moduleName = module.getModuleName();
+
+    // Compress with gzip the text responses, including the JSON ones, when
+    // the client accepts it. Tomcat doesn't provide brotli, so it must be
+    // added by a proxy in front of the application if required
+    getApplicationConfigService().addProperty(moduleName, "server.compression.enabled", "true",
+        "", true);
+    getApplicationConfigService().addProperty(moduleName, "server.compression.mime-types",
+        COMPRESSED_MIME_TYPES, "", true);
+    getApplicationConfigService().addProperty(moduleName,
+        "server.compression.min-response-size", String.valueOf(compressionMinSize), "", true);
+
+    // Serve the static resources with a hash of their content in their URLs.
+    // The ResourceUrlEncodingFilter registered by Spring Boot rewrites the
+    // links of the Thymeleaf views, so the browsers can cache the resources
+    // until their content changes
+    getApplicationConfigService().addProperty(moduleName, "spring.resources.chain.enabled",
+        "true", "", true);
+    getApplicationConfigService().addProperty(moduleName, "spring.resources.chain.cache",
+        "true", "", true);
+    getApplicationConfigService().addProperty(moduleName,
+        "spring.resources.chain.strategy.content.enabled", "true", "", true);
+    getApplicationConfigService().addProperty(moduleName,
+        "spring.resources.chain.strategy.content.paths", "/**", "", true);
+    getApplicationConfigService().addProperty(moduleName, "spring.resources.cache-period",
+        String.valueOf(cachePeriod), "", true);
+  }
+
+  /**
+   * Checks if the provided entity has a version field whose values are valid
+   * ETags
+   *
+   * @param entity
+   * @return true if the entity has a numeric or timestamp version field
+   * @see ControllerMetadata#isETagVersionType(JavaType)
+   */
+  private boolean hasETagVersion(JavaType entity) {
+    ClassOrInterfaceTypeDetails entityDetails = getTypeLocationService().getTypeDetails(entity);
+    if (entityDetails == null) {
+      return false;
+    }
+    MemberDetails memberDetails =
+        memberDetailsScanner.getMemberDetails(entity.getSimpleTypeName(), entityDetails);
+    for (FieldMetadata field : memberDetails.getFields()) {
+      if (field.getAnnotation(JpaJavaType.VERSION) != null) {
+        return ControllerMetadata.isETagVersionType(field.getFieldType());
+      }
+    }
+    return false;
+  }
+
   /**
    * Get default package to set it to a controller or a detail controller.
    * Search classes with @SpringBootApplication annotation to establish the
@@ -2,6 +2,7 @@ package org.springframework.roo.addon.web.mvc.controller.addon.config;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.springframework.roo.addon.web.mvc.controller.annotations.config.ExecutionModel;
 import org.springframework.roo.classpath.PhysicalTypeIdentifierNamingUtils;
 import org.springframework.roo.classpath.PhysicalTypeMetadata;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
@@ -41,9 +42,26 @@ public class WebMvcConfigurationMetadata extends AbstractItdTypeDetailsProviding
       "org.springframework.context.annotation.Configuration");
   private static final JavaType LOCAL_VALIDATOR_FACTORY_BEAN = new JavaType(
       "org.springframework.validation.beanvalidation.LocalValidatorFactoryBean");
+  private static final JavaType ASYNC_SUPPORT_CONFIGURER = new JavaType(
+      "org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer");
+  private static final JavaType ASYNC_TASK_EXECUTOR = new JavaType(
+      "org.springframework.core.task.AsyncTaskExecutor");
+  private static final JavaType THREAD_POOL_TASK_EXECUTOR = new JavaType(
+      "org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor");
+  private static final JavaType CONCURRENT_TASK_EXECUTOR = new JavaType(
+      "org.springframework.scheduling.concurrent.ConcurrentTaskExecutor");
+  private static final JavaType EXECUTOR_SERVICE = new JavaType(
+      "java.util.concurrent.ExecutorService");
+  private static final JavaType EXECUTORS = new JavaType("java.util.concurrent.Executors");
+
+  /**
+   * Milliseconds an asynchronous request can take before it times out.
+   */
+  private static final long ASYNC_REQUEST_TIMEOUT = 60000L;
 
   private ImportRegistrationResolver importResolver;
   private JavaType globalSearchHandler;
+  private ExecutionModel executionModel;
 
   public static String createIdentifier(final JavaType javaType, final LogicalPath path) {
     return PhysicalTypeIdentifierNamingUtils.createIdentifier(PROVIDES_TYPE_STRING, javaType, path);
@@ -75,14 +93,18 @@ public class WebMvcConfigurationMetadata extends AbstractItdTypeDetailsProviding
    * @param aspectName the Java type of the ITD (required)
    * @param governorPhysicalTypeMetadata the governor, which is expected to
    *            contain a {@link ClassOrInterfaceTypeDetails} (required)
+   * @param globalSearchHandler the GlobalSearch argument resolver
+   * @param executionModel how the list and export requests are executed
    *
    */
   public WebMvcConfigurationMetadata(final String identifier, final JavaType aspectName,
-      final PhysicalTypeMetadata governorPhysicalTypeMetadata, final JavaType globalSearchHandler) {
+      final PhysicalTypeMetadata governorPhysicalTypeMetadata,
+      final JavaType globalSearchHandler, final ExecutionModel executionModel) {
     super(identifier, aspectName, governorPhysicalTypeMetadata);
 
     this.importResolver = builder.getImportRegistrationResolver();
     this.globalSearchHandler = globalSearchHandler;
+    this.executionModel = executionModel;
 
     // Add @Configuration
     ensureGovernorIsAnnotated(new AnnotationMetadataBuilder(CONFIGURATION));
@@ -109,6 +131,12 @@ public class WebMvcConfigurationMetadata extends AbstractItdTypeDetailsProviding
     // Add globalSearchResolver()
     ensureGovernorHasMethod(new MethodMetadataBuilder(getGlobalSearchResolver()));
 
+    // Add configureAsyncSupport() and mvcTaskExecutor()
+    if (executionModel != ExecutionModel.SYNC) {
+      ensureGovernorHasMethod(new MethodMetadataBuilder(getConfigureAsyncSupport()));
+      ensureGovernorHasMethod(new MethodMetadataBuilder(getMvcTaskExecutor()));
+    }
+
     // Build the ITD
     itdTypeDetails = builder.build();
   }
@@ -387,6 +415,134 @@ public class WebMvcConfigurationMetadata extends AbstractItdTypeDetailsProviding
     // instance
   }
 
+  /**
+   * Method that generates "configureAsyncSupport" method, which makes the
+   * asynchronous requests run on the "mvcTaskExecutor" bean.
+   *
+   * @return MethodMetadata
+   */
+  public MethodMetadata getConfigureAsyncSupport() {
+
+    // Define method name
+    JavaSymbolName methodName = new JavaSymbolName("configureAsyncSupport");
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = new ArrayList<AnnotatedJavaType>();
+    parameterTypes.add(AnnotatedJavaType.convertFromJavaType(ASYNC_SUPPORT_CONFIGURER));
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
+    parameterNames.add(new JavaSymbolName("configurer"));
+
+    if (governorHasMethod(methodName,
+        AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes))) {
+      return getGovernorMethod(methodName,
+          AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    }
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    // configurer.setTaskExecutor(mvcTaskExecutor());
+    // configurer.setDefaultTimeout(60000L);
+    bodyBuilder.appendFormalLine("configurer.setTaskExecutor(mvcTaskExecutor());");
+    bodyBuilder.appendFormalLine(String.format("configurer.setDefaultTimeout(%dL);",
+        ASYNC_REQUEST_TIMEOUT));
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC, methodName, JavaType.VOID_PRIMITIVE,
+            parameterTypes, parameterNames, bodyBuilder);
+
+    // Add @Override annotation
+    methodBuilder.addAnnotation(new AnnotationMetadataBuilder(JavaType.OVERRIDE));
+
+    return methodBuilder.build();
+  }
+
+  /**
+   * Method that generates "mvcTaskExecutor" method. With the ASYNC
+   * execution model it returns a bounded pool of threads. With the VIRTUAL
+   * one, it starts a virtual thread for each request, obtaining the executor
+   * through reflection, as virtual threads need Java 21 or later.
+   *
+   * @return MethodMetadata
+   */
+  public MethodMetadata getMvcTaskExecutor() {
+
+    // Define method name
+    JavaSymbolName methodName = new JavaSymbolName("mvcTaskExecutor");
+
+    // Define method parameter types
+    List<AnnotatedJavaType> parameterTypes = new ArrayList<AnnotatedJavaType>();
+
+    // Define method parameter names
+    List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
+
+    if (governorHasMethod(methodName,
+        AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes))) {
+      return getGovernorMethod(methodName,
+          AnnotatedJavaType.convertFromAnnotatedJavaTypes(parameterTypes));
+    }
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    if (this.executionModel == ExecutionModel.VIRTUAL) {
+
+      // try {
+      //   ExecutorService executor = (ExecutorService) Executors.class
+      //       .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      //   return new ConcurrentTaskExecutor(executor);
+      // } catch (Exception e) {
+      //   throw new IllegalStateException("Virtual threads require Java 21 or later", e);
+      // }
+      String executorService =
+          EXECUTOR_SERVICE.getNameIncludingTypeParameters(false, importResolver);
+      bodyBuilder.appendFormalLine("try {");
+      bodyBuilder.indent();
+      bodyBuilder.appendFormalLine(String.format(
+          "%1$s executor = (%1$s) %2$s.class.getMethod(\"newVirtualThreadPerTaskExecutor\")"
+              + ".invoke(null);", executorService,
+          EXECUTORS.getNameIncludingTypeParameters(false, importResolver)));
+      bodyBuilder.appendFormalLine(String.format("return new %s(executor);",
+          CONCURRENT_TASK_EXECUTOR.getNameIncludingTypeParameters(false, importResolver)));
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("} catch (Exception e) {");
+      bodyBuilder.indent();
+      bodyBuilder.appendFormalLine(
+          "throw new IllegalStateException(\"Virtual threads require Java 21 or later\", e);");
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("}");
+    } else {
+
+      // ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+      // executor.setThreadNamePrefix("mvc-async-");
+      // executor.setCorePoolSize(Runtime.getRuntime().availableProcessors() * 4);
+      // executor.setMaxPoolSize(200);
+      // executor.setQueueCapacity(1000);
+      // return executor;
+      bodyBuilder.appendFormalLine(String.format("%1$s executor = new %1$s();",
+          THREAD_POOL_TASK_EXECUTOR.getNameIncludingTypeParameters(false, importResolver)));
+      bodyBuilder.appendFormalLine("executor.setThreadNamePrefix(\"mvc-async-\");");
+      bodyBuilder.appendFormalLine(
+          "executor.setCorePoolSize(Runtime.getRuntime().availableProcessors() * 4);");
+      bodyBuilder.appendFormalLine("executor.setMaxPoolSize(200);");
+      bodyBuilder.appendFormalLine("executor.setQueueCapacity(1000);");
+      bodyBuilder.appendFormalLine("return executor;");
+    }
+
+    // Use the MethodMetadataBuilder for easy creation of MethodMetadata
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(getId(), Modifier.PUBLIC, methodName, ASYNC_TASK_EXECUTOR,
+            parameterTypes, parameterNames, bodyBuilder);
+
+    // Add Bean annotation
+    methodBuilder.addAnnotation(new AnnotationMetadataBuilder(SpringJavaType.BEAN));
+
+    return methodBuilder.build();
+  }
+
   @Override
   public String toString() {
     final ToStringBuilder builder = new ToStringBuilder(this);
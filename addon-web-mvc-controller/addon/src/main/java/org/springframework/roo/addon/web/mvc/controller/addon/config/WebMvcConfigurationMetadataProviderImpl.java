@@ -10,6 +10,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Service;
 import org.osgi.service.component.ComponentContext;
+import org.springframework.roo.addon.web.mvc.controller.annotations.config.ExecutionModel;
 import org.springframework.roo.classpath.PhysicalTypeIdentifier;
 import org.springframework.roo.classpath.PhysicalTypeMetadata;
 import org.springframework.roo.classpath.customdata.taggers.CustomDataKeyDecorator;
@@ -17,11 +18,14 @@ import org.springframework.roo.classpath.customdata.taggers.CustomDataKeyDecorat
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
 import org.springframework.roo.classpath.details.ItdTypeDetails;
 import org.springframework.roo.classpath.details.MemberHoldingTypeDetails;
+import org.springframework.roo.classpath.details.annotations.AnnotationAttributeValue;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadata;
 import org.springframework.roo.classpath.itd.AbstractMemberDiscoveringItdMetadataProvider;
 import org.springframework.roo.classpath.itd.ItdTypeDetailsProvidingMetadataItem;
 import org.springframework.roo.metadata.MetadataDependencyRegistry;
 import org.springframework.roo.metadata.MetadataIdentificationUtils;
 import org.springframework.roo.metadata.internal.MetadataDependencyRegistryTracker;
+import org.springframework.roo.model.EnumDetails;
 import org.springframework.roo.model.JavaType;
 import org.springframework.roo.model.RooJavaType;
 import org.springframework.roo.project.LogicalPath;
@@ -150,8 +154,25 @@ public class WebMvcConfigurationMetadataProviderImpl extends
       break;
     }
 
+    // Getting how the list and export requests must be executed
+    ExecutionModel executionModel = ExecutionModel.SYNC;
+    AnnotationMetadata webMvcConfigurationAnnotation =
+        governorPhysicalTypeMetadata.getMemberHoldingTypeDetails().getAnnotation(
+            RooJavaType.ROO_WEB_MVC_CONFIGURATION);
+    AnnotationAttributeValue<?> executionModelAttribute =
+        webMvcConfigurationAnnotation.getAttribute("executionModel");
+    if (executionModelAttribute != null
+        && executionModelAttribute.getValue() instanceof EnumDetails) {
+      ExecutionModel model =
+          ExecutionModel.getExecutionModel(((EnumDetails) executionModelAttribute.getValue())
+              .getField().getSymbolName());
+      if (model != null) {
+        executionModel = model;
+      }
+    }
+
     return new WebMvcConfigurationMetadata(metadataIdentificationString, aspectName,
-        governorPhysicalTypeMetadata, globalSearchHandler);
+        governorPhysicalTypeMetadata, globalSearchHandler, executionModel);
   }
 
   private void registerDependency(final String upstreamDependency, final String downStreamDependency) {
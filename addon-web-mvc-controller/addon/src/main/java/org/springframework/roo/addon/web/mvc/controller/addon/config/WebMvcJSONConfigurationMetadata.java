@@ -102,9 +102,6 @@ public class WebMvcJSONConfigurationMetadata extends AbstractItdTypeDetailsProvi
     // Add FormattingConversionService field
     ensureGovernorHasField(getFormattingConversionServiceField());
 
-    // Add LocalValidatorFactoryBean field
-    ensureGovernorHasField(getLocalValidatorFactoryBeanField());
-
     // Add objectMapper method
     ensureGovernorHasMethod(new MethodMetadataBuilder(getJacksonDatabindModule()));
 
@@ -125,19 +122,6 @@ public class WebMvcJSONConfigurationMetadata extends AbstractItdTypeDetailsProvi
         "conversionService"), SpringJavaType.FORMATTING_CONVERSION_SERVICE);
   }
 
-  /**
-   * Creates LocalValidatorFactoryBean field with @Autowired
-   *
-   * @return FieldMetadataBuilder
-   */
-  private FieldMetadataBuilder getLocalValidatorFactoryBeanField() {
-    List<AnnotationMetadataBuilder> annotations = new ArrayList<AnnotationMetadataBuilder>();
-    annotations.add(new AnnotationMetadataBuilder(SpringJavaType.AUTOWIRED));
-
-    return new FieldMetadataBuilder(getId(), Modifier.PRIVATE, annotations, new JavaSymbolName(
-        "validatorFactory"), SpringJavaType.LOCAL_VALIDATOR_FACTORY_BEAN);
-  }
-
   /**
    * Method that generates "jacksonDatabindModule" method.
    *
@@ -178,9 +162,10 @@ public class WebMvcJSONConfigurationMetadata extends AbstractItdTypeDetailsProvi
             "ConversionServiceBeanSerializerModifier"), convertersJavaPackage.getModule())
             .getNameIncludingTypeParameters(false, importResolver)));
 
-    // module.setDeserializerModifier(new DataBinderBeanDeserializerModifier(conversionService, validatorFactory));
+    // module.setDeserializerModifier(new DataBinderBeanDeserializerModifier(conversionService));
+    // JSR-303 validation is applied by the @Valid arguments of the controllers
     bodyBuilder.appendFormalLine(String.format(
-        "module.setDeserializerModifier(new %s(conversionService, validatorFactory));",
+        "module.setDeserializerModifier(new %s(conversionService));",
         new JavaType(String.format("%s.%s",
             this.convertersJavaPackage.getFullyQualifiedPackageName(),
             "DataBinderBeanDeserializerModifier"), this.convertersJavaPackage.getModule())
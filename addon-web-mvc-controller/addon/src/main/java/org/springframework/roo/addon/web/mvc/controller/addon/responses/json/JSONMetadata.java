@@ -1,5 +1,7 @@
 package org.springframework.roo.addon.web.mvc.controller.addon.responses.json;
 
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
@@ -8,11 +10,15 @@ import org.springframework.roo.addon.web.mvc.controller.annotations.responses.js
 import org.springframework.roo.classpath.PhysicalTypeIdentifierNamingUtils;
 import org.springframework.roo.classpath.PhysicalTypeMetadata;
 import org.springframework.roo.classpath.details.ClassOrInterfaceTypeDetails;
+import org.springframework.roo.classpath.details.FieldMetadataBuilder;
 import org.springframework.roo.classpath.details.MethodMetadata;
 import org.springframework.roo.classpath.details.MethodMetadataBuilder;
+import org.springframework.roo.classpath.details.annotations.AnnotationMetadataBuilder;
 import org.springframework.roo.classpath.itd.AbstractItdTypeDetailsProvidingMetadataItem;
 import org.springframework.roo.metadata.MetadataIdentificationUtils;
+import org.springframework.roo.model.JavaSymbolName;
 import org.springframework.roo.model.JavaType;
+import org.springframework.roo.model.SpringJavaType;
 import org.springframework.roo.project.LogicalPath;
 
 /**
@@ -27,8 +33,14 @@ public class JSONMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
   private static final String PROVIDES_TYPE = MetadataIdentificationUtils
       .create(PROVIDES_TYPE_STRING);
 
+  static final JavaType OBJECT_MAPPER = new JavaType(
+      "com.fasterxml.jackson.databind.ObjectMapper");
+  static final String OBJECT_MAPPER_FIELD_NAME = "objectMapper";
+
   private boolean readOnly;
   private MethodMetadata listMethod;
+  private MethodMetadata listByKeysetMethod;
+  private MethodMetadata exportMethod;
   private MethodMetadata showMethod;
   private MethodMetadata createMethod;
   private MethodMetadata updateMethod;
@@ -70,6 +82,9 @@ public class JSONMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
    * @param governorPhysicalTypeMetadata the governor, which is expected to
    *            contain a {@link ClassOrInterfaceTypeDetails} (required)
    * @param listMethod MethodMetadata
+   * @param listByKeysetMethod MethodMetadata
+   * @param exportMethod MethodMetadata, or null if the export endpoint 
+   *            is not enabled
    * @param createMethod MethodMetadata
    * @param updateMethod MethodMetadata
    * @param deleteMethod MethodMetadata
@@ -84,6 +99,7 @@ public class JSONMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
    */
   public JSONMetadata(final String identifier, final JavaType aspectName,
       final PhysicalTypeMetadata governorPhysicalTypeMetadata, final MethodMetadata listMethod,
+      final MethodMetadata listByKeysetMethod, final MethodMetadata exportMethod,
       final MethodMetadata createMethod, final MethodMetadata updateMethod,
       final MethodMetadata deleteMethod, final MethodMetadata showMethod,
       final MethodMetadata createBatchMethod, final MethodMetadata updateBatchMethod,
@@ -94,6 +110,8 @@ public class JSONMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
 
     this.readOnly = readOnly;
     this.listMethod = listMethod;
+    this.listByKeysetMethod = listByKeysetMethod;
+    this.exportMethod = exportMethod;
     this.createMethod = createMethod;
     this.updateMethod = updateMethod;
     this.deleteMethod = deleteMethod;
@@ -106,6 +124,12 @@ public class JSONMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
 
     if (type == ControllerType.COLLECTION) {
       ensureGovernorHasMethod(new MethodMetadataBuilder(listMethod));
+      ensureGovernorHasMethod(new MethodMetadataBuilder(listByKeysetMethod));
+
+      if (exportMethod != null) {
+        ensureGovernorHasField(getObjectMapperField());
+        ensureGovernorHasMethod(new MethodMetadataBuilder(exportMethod));
+      }
     }
 
     if (!readOnly) {
@@ -146,6 +170,38 @@ public class JSONMetadata extends AbstractItdTypeDetailsProvidingMetadataItem {
     return this.listMethod;
   }
 
+  /**
+   * Method that returns list JSON method which uses keyset pagination
+   *
+   * @return {@link MethodMetadata}
+   */
+  public MethodMetadata getListByKeysetMethod() {
+    return this.listByKeysetMethod;
+  }
+
+  /**
+   * Method that returns the JSON method which streams every entity, or null
+   * if the export endpoint is not enabled
+   *
+   * @return {@link MethodMetadata}
+   */
+  public MethodMetadata getExportMethod() {
+    return this.exportMethod;
+  }
+
+  /**
+   * Creates the ObjectMapper field used by the export method to write the
+   * entities, with @Autowired
+   *
+   * @return FieldMetadataBuilder
+   */
+  private FieldMetadataBuilder getObjectMapperField() {
+    List<AnnotationMetadataBuilder> annotations = new ArrayList<AnnotationMetadataBuilder>();
+    annotations.add(new AnnotationMetadataBuilder(SpringJavaType.AUTOWIRED));
+
+    return new FieldMetadataBuilder(getId(), Modifier.PRIVATE, annotations, new JavaSymbolName(
+        OBJECT_MAPPER_FIELD_NAME), OBJECT_MAPPER);
+  }
 
   /**
    * Method that returns create JSON method
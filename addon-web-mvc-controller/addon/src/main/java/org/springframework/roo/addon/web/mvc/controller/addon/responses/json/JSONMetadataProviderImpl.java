@@ -11,8 +11,10 @@ import org.springframework.roo.addon.layers.service.addon.ServiceMetadata;
 import org.springframework.roo.addon.plural.addon.PluralMetadata;
 import org.springframework.roo.addon.web.mvc.controller.addon.ControllerMVCService;
 import org.springframework.roo.addon.web.mvc.controller.addon.ControllerMetadata;
+import org.springframework.roo.addon.web.mvc.controller.addon.config.WebMvcConfigurationMetadata;
 import org.springframework.roo.addon.web.mvc.controller.addon.finder.SearchAnnotationValues;
 import org.springframework.roo.addon.web.mvc.controller.annotations.ControllerType;
+import org.springframework.roo.addon.web.mvc.controller.annotations.config.ExecutionModel;
 import org.springframework.roo.classpath.PhysicalTypeIdentifier;
 import org.springframework.roo.classpath.PhysicalTypeMetadata;
 import org.springframework.roo.classpath.customdata.taggers.CustomDataKeyDecorator;
@@ -38,6 +40,7 @@ import org.springframework.roo.metadata.MetadataDependencyRegistry;
 import org.springframework.roo.metadata.MetadataIdentificationUtils;
 import org.springframework.roo.metadata.internal.MetadataDependencyRegistryTracker;
 import org.springframework.roo.model.DataType;
+import org.springframework.roo.model.EnumDetails;
 import org.springframework.roo.model.JavaSymbolName;
 import org.springframework.roo.model.JavaType;
 import org.springframework.roo.model.JdkJavaType;
@@ -80,6 +83,9 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
   protected CustomDataKeyDecoratorTracker keyDecoratorTracker = null;
 
   private boolean readOnly;
+  private boolean export;
+  private boolean etag;
+  private boolean async;
   private JavaType entity;
   private JavaType identifierType;
   private JavaType service;
@@ -87,6 +93,17 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
   private String metadataIdentificationString;
   private ClassOrInterfaceTypeDetails controller;
   private final JavaType URI = new JavaType("java.net.URI");
+  private final JavaType IO_EXCEPTION = new JavaType("java.io.IOException");
+  private final JavaType HTTP_SERVLET_RESPONSE = new JavaType(
+      "javax.servlet.http.HttpServletResponse");
+  private final JavaType JSON_GENERATOR = new JavaType("com.fasterxml.jackson.core.JsonGenerator");
+  private final JavaType SERIALIZED_STRING = new JavaType(
+      "com.fasterxml.jackson.core.io.SerializedString");
+  private final JavaType CALLABLE = new JavaType("java.util.concurrent.Callable");
+  private final JavaType OUTPUT_STREAM = new JavaType("java.io.OutputStream");
+  private final JavaType STREAMING_RESPONSE_BODY = new JavaType(
+      "org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody");
+  private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
   private ControllerMVCService controllerMVCService;
   private List<JavaType> typesToImport = new ArrayList<JavaType>();
   private JavaType globalSearch;
@@ -198,6 +215,12 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
 
     this.path = controllerMetadata.getPath();
 
+    // Check if conditional requests must be answered
+    this.etag = controllerMetadata.isEtag();
+
+    // Check if list and export requests must release the server thread
+    this.async = getExecutionModel() != ExecutionModel.SYNC;
+
     Validate.notNull(this.entity, String.format(
         "ERROR: You should provide a valid entity for controller '%s'", this.controller.getType()
             .getFullyQualifiedTypeName()));
@@ -213,6 +236,13 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
       this.readOnly = (Boolean) entityAnnotation.getAttribute("readOnly").getValue();
     }
 
+    // Check if the export endpoint has been enabled
+    this.export = false;
+    AnnotationMetadata jsonAnnotation = this.controller.getAnnotation(RooJavaType.ROO_JSON);
+    if (jsonAnnotation != null && jsonAnnotation.getAttribute("export") != null) {
+      this.export = (Boolean) jsonAnnotation.getAttribute("export").getValue();
+    }
+
     // Getting identifierType
     this.identifierType = getPersistenceMemberLocator().getIdentifierType(entity);
 
@@ -255,6 +285,10 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
     MethodMetadata serviceFindOneMethod = serviceMetadata.getFindOneMethod();
     MethodMetadata serviceFindAllGlobalSearchMethod =
         serviceMetadata.getFindAllGlobalSearchMethod();
+    MethodMetadata serviceFindAllByKeysetMethod = serviceMetadata.getFindAllByKeysetMethod();
+    MethodMetadata serviceExportAllMethod = serviceMetadata.getExportAllMethod();
+    MethodMetadata serviceVersionFingerprintMethod =
+        serviceMetadata.getVersionFingerprintMethod();
 
     List<MethodMetadata> findersToAdd = new ArrayList<MethodMetadata>();
 
@@ -301,7 +335,9 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
     }
 
     return new JSONMetadata(metadataIdentificationString, aspectName, governorPhysicalTypeMetadata,
-        getListMethod(serviceFindAllGlobalSearchMethod), getCreateMethod(serviceSaveMethod),
+        getListMethod(serviceFindAllGlobalSearchMethod, serviceVersionFingerprintMethod),
+        getListByKeysetMethod(serviceFindAllByKeysetMethod),
+        getExportMethod(serviceExportAllMethod), getCreateMethod(serviceSaveMethod),
         getUpdateMethod(serviceSaveMethod), getDeleteMethod(serviceDeleteMethod),
         getShowMethod(serviceFindOneMethod), getCreateBatchMethod(serviceSaveMethod),
         getUpdateBatchMethod(serviceSaveMethod), getDeleteBatchMethod(serviceDeleteMethod),
@@ -482,12 +518,22 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
         Jsr303JavaType.VALID).build(), new AnnotationMetadataBuilder(SpringJavaType.REQUEST_BODY)
         .build()));
     parameterTypes.add(new AnnotatedJavaType(SpringJavaType.BINDING_RESULT));
+    if (this.etag) {
+      AnnotationMetadataBuilder requestHeaderAnnotation =
+          new AnnotationMetadataBuilder(SpringJavaType.REQUEST_HEADER);
+      requestHeaderAnnotation.addStringAttribute("value", "If-Match");
+      requestHeaderAnnotation.addBooleanAttribute("required", false);
+      parameterTypes.add(new AnnotatedJavaType(JavaType.STRING, requestHeaderAnnotation.build()));
+    }
 
     final List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
     parameterNames.add(new JavaSymbolName("stored".concat(this.entity.getSimpleTypeName())));
     parameterNames
         .add(new JavaSymbolName(StringUtils.uncapitalize(this.entity.getSimpleTypeName())));
     parameterNames.add(new JavaSymbolName("result"));
+    if (this.etag) {
+      parameterNames.add(new JavaSymbolName("ifMatch"));
+    }
 
     // Adding annotations
     final List<AnnotationMetadataBuilder> annotations = new ArrayList<AnnotationMetadataBuilder>();
@@ -545,6 +591,41 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
     bodyBuilder.indentRemove();
     bodyBuilder.appendFormalLine("}");
 
+    if (this.etag) {
+
+      // The received entity doesn't include the version, so the client
+      // requirements are checked against the stored one
+      // if (ifMatch != null) {
+      //   Set<String> tags =
+      //       StringUtils.commaDelimitedListToSet(StringUtils.trimAllWhitespace(ifMatch));
+      //   if (!tags.contains("*") && !tags.contains("\"" + storedEntity.getVersion() + "\"")) {
+      //     return new ResponseEntity(HttpStatus.PRECONDITION_FAILED);
+      //   }
+      // }
+      String stringUtils = addTypeToImport(SpringJavaType.STRING_UTILS).getSimpleTypeName();
+      bodyBuilder.newLine();
+      bodyBuilder.appendFormalLine("if (ifMatch != null) {");
+      bodyBuilder.indent();
+      bodyBuilder.appendFormalLine(String.format("%s<String> tags =",
+          addTypeToImport(JdkJavaType.SET).getSimpleTypeName()));
+      bodyBuilder.appendFormalLine(String.format(
+          "    %s.commaDelimitedListToSet(%s.trimAllWhitespace(ifMatch));", stringUtils,
+          stringUtils));
+      bodyBuilder.appendFormalLine(String.format(
+          "if (!tags.contains(\"*\") && !tags.contains(\"\\\"\" + stored%s.%s() + \"\\\"\")) {",
+          this.entity.getSimpleTypeName(), getVersionAccessorName()));
+      bodyBuilder.indent();
+      bodyBuilder.appendFormalLine(String.format("return new %s(%s.%s);",
+          addTypeToImport(SpringJavaType.RESPONSE_ENTITY).getSimpleTypeName(),
+          addTypeToImport(SpringEnumDetails.HTTP_STATUS_PRECONDITION_FAILED.getType())
+              .getSimpleTypeName(), SpringEnumDetails.HTTP_STATUS_PRECONDITION_FAILED.getField()
+              .getSymbolName()));
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("}");
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("}");
+    }
+
     // // Update stored record with the received one
     // storedEntity.setField1(entity.getField1());
     // storedEntity.setField2(entity.getField2());
@@ -688,7 +769,8 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
    *
    * @return MethodMetadata
    */
-  private MethodMetadata getListMethod(MethodMetadata serviceFindAllGlobalSearchMethod) {
+  private MethodMetadata getListMethod(MethodMetadata serviceFindAllGlobalSearchMethod,
+      MethodMetadata serviceVersionFingerprintMethod) {
 
     if (this.type != ControllerType.COLLECTION) {
       return null;
@@ -734,6 +816,10 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
     final List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
     parameterNames.add(new JavaSymbolName("search"));
     parameterNames.add(new JavaSymbolName("pageable"));
+    if (this.etag) {
+      parameterTypes.add(new AnnotatedJavaType(SpringJavaType.SERVLET_WEB_REQUEST));
+      parameterNames.add(new JavaSymbolName("request"));
+    }
 
     // Adding annotations
     final List<AnnotationMetadataBuilder> annotations = new ArrayList<AnnotationMetadataBuilder>();
@@ -767,13 +853,194 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
           returnParameterTypes.get(i));
     }
 
-    // ReturnType<ReturnTypeParams> objects = entityService.findAll(search,
-    // pageable);
+    if (this.etag) {
+
+      // Any change of the entities changes the fingerprint, so the page
+      // isn't loaded while it doesn't change. It is a weak validator, as
+      // the fingerprint doesn't depend on the search and page requested.
+      // Computing it counts the entities, so it is only done when the client
+      // sends an If-None-Match header, receiving the ETag in the response
+      // if (request.getHeader("If-None-Match") != null
+      //     && request.checkNotModified("W/\"" + entityService.getVersionFingerprint() + "\"")) {
+      //   return null;
+      // }
+      bodyBuilder.newLine();
+      bodyBuilder.appendFormalLine("if (request.getHeader(\"If-None-Match\") != null");
+      bodyBuilder.appendFormalLine(String.format(
+          "    && request.checkNotModified(\"W/\\\"\" + %s.%s() + \"\\\"\")) {",
+          getServiceField().getFieldName(), serviceVersionFingerprintMethod.getMethodName()));
+      bodyBuilder.indent();
+      bodyBuilder.appendFormalLine("return null;");
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("}");
+    }
+
+    if (this.async) {
+
+      // The page is loaded by the MVC task executor, releasing the server
+      // thread while the database is queried
+      // final GlobalSearch asyncSearch = search;
+      // final Pageable asyncPageable = pageable;
+      // return new Callable<ReturnType<ReturnTypeParams>>() {
+      //   public ReturnType<ReturnTypeParams> call() {
+      //     return entityService.findAll(asyncSearch, asyncPageable);
+      //   }
+      // };
+      String pageType =
+          String.format("%s<%s>", addTypeToImport(returnType).getSimpleTypeName(),
+              returnTypeParamsString);
+      bodyBuilder.newLine();
+      bodyBuilder.appendFormalLine(String.format("final %s asyncSearch = search;",
+          addTypeToImport(this.globalSearch).getSimpleTypeName()));
+      bodyBuilder.appendFormalLine(String.format("final %s asyncPageable = pageable;",
+          addTypeToImport(SpringJavaType.PAGEABLE).getSimpleTypeName()));
+      bodyBuilder.appendFormalLine(String.format("return new %s<%s>() {",
+          addTypeToImport(CALLABLE).getSimpleTypeName(), pageType));
+      bodyBuilder.indent();
+      bodyBuilder.appendFormalLine(String.format("public %s call() {", pageType));
+      bodyBuilder.indent();
+      bodyBuilder.appendFormalLine(String.format("return %s.%s(asyncSearch, asyncPageable);",
+          getServiceField().getFieldName(), serviceFindAllGlobalSearchMethod.getMethodName()));
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("}");
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("};");
+
+      returnType =
+          new JavaType(CALLABLE.getFullyQualifiedTypeName(), 0, DataType.TYPE, null,
+              Arrays.asList(returnType));
+    } else {
+
+      // ReturnType<ReturnTypeParams> objects = entityService.findAll(search,
+      // pageable);
+      bodyBuilder.newLine();
+      bodyBuilder.appendFormalLine(String.format("%s<%s> %s = %s.%s(search, pageable);",
+          addTypeToImport(returnType).getSimpleTypeName(), returnTypeParamsString,
+          StringUtils.uncapitalize(this.entityPlural), getServiceField().getFieldName(),
+          serviceFindAllGlobalSearchMethod.getMethodName()));
+
+      // return objects;
+      bodyBuilder.appendFormalLine(String.format("return %s;",
+          StringUtils.uncapitalize(this.entityPlural)));
+    }
+
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(this.metadataIdentificationString, Modifier.PUBLIC, methodName,
+            returnType, parameterTypes, parameterNames, bodyBuilder);
+    methodBuilder.setAnnotations(annotations);
+
+    return methodBuilder.build();
+  }
+
+  /**
+   * This method provides the "listByKeyset" method using JSON response type.
+   * Instead of a page number, clients provide the continuation token returned 
+   * with the previous slice of results, so deep slices load as fast as the 
+   * first one.
+   *
+   * @param serviceFindAllByKeysetMethod
+   *
+   * @return MethodMetadata
+   */
+  private MethodMetadata getListByKeysetMethod(MethodMetadata serviceFindAllByKeysetMethod) {
+
+    if (this.type != ControllerType.COLLECTION) {
+      return null;
+    }
+
+    // First of all, check if exists other method with the same
+    // @RequesMapping to generate
+    MethodMetadata existingMVCMethod =
+        getControllerMVCService().getMVCMethodByRequestMapping(controller.getType(),
+            SpringEnumDetails.REQUEST_METHOD_GET, "/keyset", null, null,
+            SpringEnumDetails.MEDIA_TYPE_APPLICATION_JSON_VALUE.toString(), "");
+    if (existingMVCMethod != null
+        && !existingMVCMethod.getDeclaredByMetadataId().equals(this.metadataIdentificationString)) {
+      return existingMVCMethod;
+    }
+
+    // Define methodName
+    final JavaSymbolName methodName = new JavaSymbolName("listByKeyset");
+
+    // Create RequestParam annotation
+    AnnotationMetadataBuilder requestParamAnnotation =
+        new AnnotationMetadataBuilder(SpringJavaType.REQUEST_PARAM);
+    requestParamAnnotation.addStringAttribute("value", "continuationToken");
+    requestParamAnnotation.addBooleanAttribute("required", false);
+
+    // Create PageableDefault annotation
+    AnnotationMetadataBuilder pageableDefaultAnnotation =
+        new AnnotationMetadataBuilder(SpringJavaType.PAGEABLE_DEFAULT);
+
+    String sortFieldName = "";
+    MemberDetails entityDetails =
+        getMemberDetails(getTypeLocationService().getTypeDetails(this.entity));
+    List<FieldMetadata> fields = entityDetails.getFields();
+    for (FieldMetadata field : fields) {
+      if (field.getAnnotation(new JavaType("javax.persistence.Id")) != null) {
+        sortFieldName = field.getFieldName().getSymbolName();
+      }
+    }
+    if (!sortFieldName.isEmpty()) {
+      pageableDefaultAnnotation.addStringAttribute("sort", sortFieldName);
+    }
+
+    List<AnnotatedJavaType> parameterTypes = new ArrayList<AnnotatedJavaType>();
+    Validate.notNull(globalSearch, "Couldn't find GlobalSearch in project.");
+    parameterTypes.add(new AnnotatedJavaType(this.globalSearch));
+    parameterTypes.add(new AnnotatedJavaType(JavaType.STRING, requestParamAnnotation.build()));
+    parameterTypes.add(new AnnotatedJavaType(SpringJavaType.PAGEABLE, pageableDefaultAnnotation
+        .build()));
+
+    final List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
+    parameterNames.add(new JavaSymbolName("search"));
+    parameterNames.add(new JavaSymbolName("continuationToken"));
+    parameterNames.add(new JavaSymbolName("pageable"));
+
+    // Adding annotations
+    final List<AnnotationMetadataBuilder> annotations = new ArrayList<AnnotationMetadataBuilder>();
+
+    // Adding @RequestMapping annotation
+    annotations.add(getControllerMVCService().getRequestMappingAnnotation(
+        SpringEnumDetails.REQUEST_METHOD_GET, "/keyset", null, null,
+        SpringEnumDetails.MEDIA_TYPE_APPLICATION_JSON_VALUE, ""));
+
+    // Adding @ResponseBody annotation
+    AnnotationMetadataBuilder responseBodyAnnotation =
+        new AnnotationMetadataBuilder(SpringJavaType.RESPONSE_BODY);
+    annotations.add(responseBodyAnnotation);
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    // Generating returnType
+    JavaType returnType = serviceFindAllByKeysetMethod.getReturnType();
+    List<JavaType> returnParameterTypes = returnType.getParameters();
+    StringBuffer returnTypeParamsString = new StringBuffer();
+    for (int i = 0; i < returnParameterTypes.size(); i++) {
+      addTypeToImport(returnParameterTypes.get(i));
+      if (i > 0) {
+        returnTypeParamsString.append(",");
+      }
+      returnTypeParamsString.append(returnParameterTypes.get(i).getSimpleTypeName());
+
+      // Add module dependency
+      getTypeLocationService().addModuleDependency(this.controller.getType().getModule(),
+          returnParameterTypes.get(i));
+    }
+
+    // Add module dependency with the module providing the slice type
+    getTypeLocationService().addModuleDependency(this.controller.getType().getModule(),
+        returnType);
+
+    // ReturnType<ReturnTypeParams> objects = entityService.findAllByKeyset(search,
+    // continuationToken, pageable);
     bodyBuilder.newLine();
-    bodyBuilder.appendFormalLine(String.format("%s<%s> %s = %s.%s(search, pageable);",
+    bodyBuilder.appendFormalLine(String.format(
+        "%s<%s> %s = %s.%s(search, continuationToken, pageable);",
         addTypeToImport(returnType).getSimpleTypeName(), returnTypeParamsString,
         StringUtils.uncapitalize(this.entityPlural), getServiceField().getFieldName(),
-        serviceFindAllGlobalSearchMethod.getMethodName()));
+        serviceFindAllByKeysetMethod.getMethodName()));
 
     // return objects;
     bodyBuilder.appendFormalLine(String.format("return %s;",
@@ -787,6 +1054,176 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
     return methodBuilder.build();
   }
 
+  /**
+   * This method provides the "export" method using JSON response type. It 
+   * streams every entity matching the global search as newline delimited 
+   * JSON, writing each one as soon as it is read from the database. With an 
+   * asynchronous execution model, it returns a StreamingResponseBody so the 
+   * entities are written by the MVC task executor instead of by the server 
+   * thread.
+   *
+   * @param serviceExportAllMethod
+   *
+   * @return MethodMetadata
+   */
+  private MethodMetadata getExportMethod(MethodMetadata serviceExportAllMethod) {
+
+    if (!this.export || this.type != ControllerType.COLLECTION) {
+      return null;
+    }
+
+    // First of all, check if exists other method with the same
+    // @RequesMapping to generate
+    MethodMetadata existingMVCMethod =
+        getControllerMVCService().getMVCMethodByRequestMapping(controller.getType(),
+            SpringEnumDetails.REQUEST_METHOD_GET, "/export", null, null, NDJSON_MEDIA_TYPE, "");
+    if (existingMVCMethod != null
+        && !existingMVCMethod.getDeclaredByMetadataId().equals(this.metadataIdentificationString)) {
+      return existingMVCMethod;
+    }
+
+    // Define methodName
+    final JavaSymbolName methodName = new JavaSymbolName("export");
+
+    List<AnnotatedJavaType> parameterTypes = new ArrayList<AnnotatedJavaType>();
+    Validate.notNull(globalSearch, "Couldn't find GlobalSearch in project.");
+    parameterTypes.add(new AnnotatedJavaType(this.globalSearch));
+    parameterTypes.add(new AnnotatedJavaType(HTTP_SERVLET_RESPONSE));
+
+    final List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
+    parameterNames.add(new JavaSymbolName("search"));
+    parameterNames.add(new JavaSymbolName("response"));
+
+    // Adding annotations
+    final List<AnnotationMetadataBuilder> annotations = new ArrayList<AnnotationMetadataBuilder>();
+
+    // Adding @RequestMapping annotation
+    annotations.add(getControllerMVCService().getRequestMappingAnnotation(
+        SpringEnumDetails.REQUEST_METHOD_GET, "/export", null, null, NDJSON_MEDIA_TYPE, ""));
+
+    // Getting the export handler type and the type of the exported data
+    JavaType handlerType = serviceExportAllMethod.getParameterTypes().get(1).getJavaType();
+    JavaType exportedType = handlerType.getParameters().get(0);
+
+    // Add module dependencies
+    getTypeLocationService().addModuleDependency(this.controller.getType().getModule(),
+        handlerType);
+    getTypeLocationService().addModuleDependency(this.controller.getType().getModule(),
+        exportedType);
+
+    // Generate body
+    InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
+
+    // response.setContentType("application/x-ndjson");
+    bodyBuilder.newLine();
+    bodyBuilder.appendFormalLine(String.format("response.setContentType(\"%s\");",
+        NDJSON_MEDIA_TYPE));
+
+    if (this.async) {
+
+      // final GlobalSearch asyncSearch = search;
+      // return new StreamingResponseBody() {
+      //   public void writeTo(OutputStream outputStream) throws IOException {
+      //     ...
+      //   }
+      // };
+      bodyBuilder.appendFormalLine(String.format("final %s asyncSearch = search;",
+          addTypeToImport(this.globalSearch).getSimpleTypeName()));
+      bodyBuilder.appendFormalLine(String.format("return new %s() {",
+          addTypeToImport(STREAMING_RESPONSE_BODY).getSimpleTypeName()));
+      bodyBuilder.indent();
+      bodyBuilder.appendFormalLine(String.format(
+          "public void writeTo(%s outputStream) throws %s {", addTypeToImport(OUTPUT_STREAM)
+              .getSimpleTypeName(), addTypeToImport(IO_EXCEPTION).getSimpleTypeName()));
+      bodyBuilder.indent();
+      appendExportBody(bodyBuilder, serviceExportAllMethod, "asyncSearch", "outputStream");
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("}");
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("};");
+
+      MethodMetadataBuilder methodBuilder =
+          new MethodMetadataBuilder(this.metadataIdentificationString, Modifier.PUBLIC,
+              methodName, STREAMING_RESPONSE_BODY, parameterTypes, parameterNames, bodyBuilder);
+      methodBuilder.setAnnotations(annotations);
+
+      return methodBuilder.build();
+    }
+
+    appendExportBody(bodyBuilder, serviceExportAllMethod, "search", "response.getOutputStream()");
+
+    MethodMetadataBuilder methodBuilder =
+        new MethodMetadataBuilder(this.metadataIdentificationString, Modifier.PUBLIC, methodName,
+            JavaType.VOID_PRIMITIVE, parameterTypes, parameterNames, bodyBuilder);
+    methodBuilder.setAnnotations(annotations);
+    methodBuilder.addThrowsType(IO_EXCEPTION);
+
+    return methodBuilder.build();
+  }
+
+  /**
+   * Appends the statements that write as newline delimited JSON every
+   * entity matching the global search.
+   *
+   * @param bodyBuilder the builder of the export method body
+   * @param serviceExportAllMethod
+   * @param searchVariable the name of the GlobalSearch variable
+   * @param outputStream the expression of the stream to write to
+   */
+  private void appendExportBody(InvocableMemberBodyBuilder bodyBuilder,
+      MethodMetadata serviceExportAllMethod, String searchVariable, String outputStream) {
+
+    // Getting the export handler type and the type of the exported data
+    JavaType handlerType = serviceExportAllMethod.getParameterTypes().get(1).getJavaType();
+    JavaType exportedType = handlerType.getParameters().get(0);
+    String exportedVariable = StringUtils.uncapitalize(exportedType.getSimpleTypeName());
+
+    // final JsonGenerator generator =
+    //   objectMapper.getFactory().createGenerator(outputStream);
+    bodyBuilder.appendFormalLine(String.format(
+        "final %s generator = %s.getFactory().createGenerator(%s);",
+        addTypeToImport(JSON_GENERATOR).getSimpleTypeName(),
+        JSONMetadata.OBJECT_MAPPER_FIELD_NAME, outputStream));
+
+    // generator.setRootValueSeparator(new SerializedString("\n"));
+    bodyBuilder.appendFormalLine(String.format(
+        "generator.setRootValueSeparator(new %s(\"\\n\"));",
+        addTypeToImport(SERIALIZED_STRING).getSimpleTypeName()));
+
+    // try {
+    //   entityService.exportAll(search, new ExportHandler<Entity>() {
+    //     public void export(Entity entity) throws IOException {
+    //       generator.writeObject(entity);
+    //     }
+    //   });
+    // } finally {
+    //   generator.close();
+    // }
+    bodyBuilder.appendFormalLine("try {");
+    bodyBuilder.indent();
+    bodyBuilder.appendFormalLine(String.format("%s.%s(%s, new %s<%s>() {",
+        getServiceField().getFieldName(), serviceExportAllMethod.getMethodName(), searchVariable,
+        addTypeToImport(handlerType).getSimpleTypeName(), addTypeToImport(exportedType)
+            .getSimpleTypeName()));
+    bodyBuilder.indent();
+    bodyBuilder.appendFormalLine(String.format("public void export(%s %s) throws %s {",
+        exportedType.getSimpleTypeName(), exportedVariable, addTypeToImport(IO_EXCEPTION)
+            .getSimpleTypeName()));
+    bodyBuilder.indent();
+    bodyBuilder.appendFormalLine(String.format("generator.writeObject(%s);", exportedVariable));
+    bodyBuilder.indentRemove();
+    bodyBuilder.appendFormalLine("}");
+    bodyBuilder.indentRemove();
+    bodyBuilder.appendFormalLine("});");
+    bodyBuilder.indentRemove();
+    bodyBuilder.appendFormalLine("} finally {");
+    bodyBuilder.indent();
+    bodyBuilder.appendFormalLine("generator.close();");
+    bodyBuilder.indentRemove();
+    bodyBuilder.appendFormalLine("}");
+
+  }
+
   /**
    * This method provides a finder method using JSON response type
    *
@@ -959,6 +1396,10 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
     final List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
     parameterNames
         .add(new JavaSymbolName(StringUtils.uncapitalize(this.entity.getSimpleTypeName())));
+    if (this.etag) {
+      parameterTypes.add(new AnnotatedJavaType(SpringJavaType.SERVLET_WEB_REQUEST));
+      parameterNames.add(new JavaSymbolName("request"));
+    }
 
     // Adding annotations
     final List<AnnotationMetadataBuilder> annotations = new ArrayList<AnnotationMetadataBuilder>();
@@ -976,6 +1417,20 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
     // Generate body
     InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
 
+    if (this.etag) {
+
+      // The @ModelAttribute method has already answered the revalidation
+      // if (request.isNotModified()) {
+      //   return null;
+      // }
+      bodyBuilder.newLine();
+      bodyBuilder.appendFormalLine("if (request.isNotModified()) {");
+      bodyBuilder.indent();
+      bodyBuilder.appendFormalLine("return null;");
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("}");
+    }
+
     // if (entity == null) {
     // return new ResponseEntity(HttpStatus.NOT_FOUND);
     // }
@@ -991,6 +1446,22 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
     bodyBuilder.indentRemove();
     bodyBuilder.appendFormalLine("}");
 
+    if (this.etag) {
+
+      // Sets the ETag of the response
+      // if (request.checkNotModified(String.valueOf(entity.getVersion()))) {
+      //   return null;
+      // }
+      bodyBuilder.newLine();
+      bodyBuilder.appendFormalLine(String.format(
+          "if (request.checkNotModified(String.valueOf(%s.%s()))) {",
+          StringUtils.uncapitalize(this.entity.getSimpleTypeName()), getVersionAccessorName()));
+      bodyBuilder.indent();
+      bodyBuilder.appendFormalLine("return null;");
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("}");
+    }
+
     // return new ResponseEntity(entity, HttpStatus.FOUND);
     bodyBuilder.appendFormalLine(String.format("return new %s<%s>(%s, %s.%s);",
         addTypeToImport(SpringJavaType.RESPONSE_ENTITY).getSimpleTypeName(),
@@ -1385,6 +1856,61 @@ public class JSONMetadataProviderImpl extends AbstractMemberDiscoveringItdMetada
         .build();
   }
 
+  /**
+   * This method returns the name of the accessor of the entity version, 
+   * whose value is used as ETag
+   *
+   * @return String with the accessor name
+   */
+  private String getVersionAccessorName() {
+    FieldMetadata versionField = getPersistenceMemberLocator().getVersionField(this.entity);
+    Validate.notNull(versionField, String.format(
+        "ERROR: Entity '%s' should have a version field to answer conditional requests",
+        this.entity.getSimpleTypeName()));
+    return "get".concat(versionField.getFieldName().getSymbolNameCapitalisedFirstLetter());
+  }
+
+  /**
+   * Returns the execution model configured in the class annotated with
+   * <code>@RooWebMvcConfiguration</code> of the controller module. The JSON
+   * metadata depends on the configuration metadata, so it is regenerated
+   * when the execution model changes.
+   *
+   * @return the execution model, or SYNC if the controller module doesn't
+   *         have a configuration class or it doesn't set the model
+   */
+  private ExecutionModel getExecutionModel() {
+    Set<ClassOrInterfaceTypeDetails> configurations =
+        getTypeLocationService().findClassesOrInterfaceDetailsWithAnnotation(
+            RooJavaType.ROO_WEB_MVC_CONFIGURATION);
+    for (ClassOrInterfaceTypeDetails configuration : configurations) {
+      if (!StringUtils.equals(configuration.getType().getModule(), this.controller.getType()
+          .getModule())) {
+        continue;
+      }
+      final LogicalPath logicalPath =
+          PhysicalTypeIdentifier.getPath(configuration.getDeclaredByMetadataId());
+      registerDependency(
+          WebMvcConfigurationMetadata.createIdentifier(configuration.getType(), logicalPath),
+          metadataIdentificationString);
+
+      AnnotationAttributeValue<?> executionModelAttribute =
+          configuration.getAnnotation(RooJavaType.ROO_WEB_MVC_CONFIGURATION).getAttribute(
+              "executionModel");
+      if (executionModelAttribute != null
+          && executionModelAttribute.getValue() instanceof EnumDetails) {
+        ExecutionModel executionModel =
+            ExecutionModel.getExecutionModel(((EnumDetails) executionModelAttribute.getValue())
+                .getField().getSymbolName());
+        if (executionModel != null) {
+          return executionModel;
+        }
+      }
+      return ExecutionModel.SYNC;
+    }
+    return ExecutionModel.SYNC;
+  }
+
   /**
    * This method registers a new type on types to import list and then returns
    * it.
@@ -1,10 +1,13 @@
 package org.springframework.roo.addon.web.mvc.controller.addon.servers;
 
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.Service;
@@ -12,10 +15,15 @@ import org.osgi.framework.BundleContext;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.component.ComponentContext;
+import org.springframework.roo.addon.web.mvc.controller.annotations.config.ExecutionModel;
+import org.springframework.roo.model.JavaType;
+import org.springframework.roo.process.manager.FileManager;
 import org.springframework.roo.project.FeatureNames;
+import org.springframework.roo.project.Path;
 import org.springframework.roo.project.ProjectOperations;
 import org.springframework.roo.project.maven.Pom;
 import org.springframework.roo.support.logging.HandlerUtils;
+import org.springframework.roo.support.util.FileUtils;
 
 /**
  * Provider to manage the application configuration for embedded servers
@@ -33,6 +41,7 @@ public class EmbeddedServerProvider implements ServerProvider {
   private BundleContext context;
 
   ProjectOperations projectOperations;
+  FileManager fileManager;
   private List<ServerProvider> serverProviders = new ArrayList<ServerProvider>();
 
 
@@ -40,8 +49,39 @@ public class EmbeddedServerProvider implements ServerProvider {
     this.context = context.getBundleContext();
   }
 
+  /**
+   * When the requests must run on virtual threads, adds a customizer that
+   * replaces the worker pool of the embedded Tomcat.
+   */
   @Override
-  public void setup(Pom module) {}
+  public void setup(Pom module, ExecutionModel executionModel) {
+    if (executionModel != ExecutionModel.VIRTUAL) {
+      return;
+    }
+
+    final JavaType customizer =
+        new JavaType(String.format("%s.config.VirtualThreadsServerCustomizer",
+            module.getGroupId()), module.getModuleName());
+    final String identifier =
+        getProjectOperations().getPathResolver().getCanonicalPath(customizer.getModule(),
+            Path.SRC_MAIN_JAVA, customizer);
+    if (getFileManager().exists(identifier)) {
+      return;
+    }
+
+    InputStream inputStream = null;
+    try {
+      inputStream =
+          FileUtils.getInputStream(getClass(), "VirtualThreadsServerCustomizer-template._java");
+      String input = IOUtils.toString(inputStream);
+      input = input.replace("__PACKAGE__", customizer.getPackage().getFullyQualifiedPackageName());
+      getFileManager().createOrUpdateTextFileIfRequired(identifier, input, true);
+    } catch (final IOException e) {
+      throw new IllegalStateException(String.format("Unable to create '%s'", identifier), e);
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
 
   @Override
   public String getName() {
@@ -108,4 +148,27 @@ public class EmbeddedServerProvider implements ServerProvider {
     }
   }
 
+  public FileManager getFileManager() {
+    if (fileManager == null) {
+      // Get all Services implement FileManager interface
+      try {
+        ServiceReference<?>[] references =
+            this.context.getAllServiceReferences(FileManager.class.getName(), null);
+
+        for (ServiceReference<?> ref : references) {
+          fileManager = (FileManager) this.context.getService(ref);
+          return fileManager;
+        }
+
+        return null;
+
+      } catch (InvalidSyntaxException e) {
+        LOGGER.warning("Cannot load FileManager on EmbeddedServerProvider.");
+        return null;
+      }
+    } else {
+      return fileManager;
+    }
+  }
+
 }
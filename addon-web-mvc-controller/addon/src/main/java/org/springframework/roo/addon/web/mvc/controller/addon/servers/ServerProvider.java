@@ -1,5 +1,6 @@
 package org.springframework.roo.addon.web.mvc.controller.addon.servers;
 
+import org.springframework.roo.addon.web.mvc.controller.annotations.config.ExecutionModel;
 import org.springframework.roo.project.Feature;
 import org.springframework.roo.project.maven.Pom;
 
@@ -13,7 +14,10 @@ public interface ServerProvider extends Feature {
 
   /**
   * Provides an operation to setup the configuration of this server on current project.
+  *
+  * @param module the module where Spring MVC is being installed
+  * @param executionModel how the server should run the requests
   */
-  public void setup(Pom module);
+  public void setup(Pom module, ExecutionModel executionModel);
 
 }
@@ -40,4 +40,13 @@ public @interface RooController {
    */
   ControllerType type();
 
+  /**
+   * Indicates if the controller must answer conditional requests, using the
+   * version of the entities as ETag. Only available for JSON controllers of
+   * entities with a numeric or timestamp version field.
+   *
+   * @return true if conditional requests must be answered
+   */
+  boolean etag() default false;
+
 }
@@ -0,0 +1,36 @@
+package org.springframework.roo.addon.web.mvc.controller.annotations.config;
+
+/**
+ * How the generated controllers run the requests that load or export many
+ * entities.
+ *
+ * @since 2.0
+ */
+public enum ExecutionModel {
+
+  /**
+   * Requests are completely handled by the server thread that receives them.
+   */
+  SYNC,
+
+  /**
+   * List and export requests release the server thread and continue on a
+   * pool of MVC task executor threads.
+   */
+  ASYNC,
+
+  /**
+   * Like {@link #ASYNC}, but requests run on virtual threads, both in the
+   * embedded server and in the MVC task executor. Requires Java 21 or later
+   * at runtime.
+   */
+  VIRTUAL;
+
+  public static ExecutionModel getExecutionModel(final String name) {
+    try {
+      return ExecutionModel.valueOf(name);
+    } catch (final IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
@@ -16,4 +16,11 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 public @interface RooWebMvcConfiguration {
 
+  /**
+   * How the list and export requests of the generated controllers are
+   * executed.
+   *
+   * @return the execution model. {@link ExecutionModel#SYNC} by default.
+   */
+  ExecutionModel executionModel() default ExecutionModel.SYNC;
 }
@@ -18,4 +18,13 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.SOURCE)
 @Target(ElementType.TYPE)
 public @interface RooJSON {
+
+  /**
+   * Indicates if the collection controller must include an "/export" 
+   * endpoint which streams every entity matching the global search as 
+   * newline delimited JSON, without paging the results.
+   * 
+   * @return true if the export endpoint must be generated
+   */
+  boolean export() default false;
 }
@@ -20,6 +20,7 @@ import org.springframework.roo.addon.web.mvc.i18n.languages.EnglishLanguage;
 import org.springframework.roo.addon.web.mvc.controller.addon.responses.ControllerMVCResponseService;
 import org.springframework.roo.addon.web.mvc.views.MVCViewGenerationService;
 import org.springframework.roo.addon.web.mvc.views.ViewContext;
+import org.springframework.roo.application.config.ApplicationConfigService;
 import org.springframework.roo.classpath.PhysicalTypeCategory;
 import org.springframework.roo.classpath.PhysicalTypeIdentifier;
 import org.springframework.roo.classpath.TypeLocationService;
@@ -60,6 +61,7 @@ public class ThymeleafMVCViewResponseService extends AbstractOperations implemen
 
   private static Logger LOGGER = HandlerUtils.getLogger(ThymeleafMVCViewResponseService.class);
   private static final String RESPONSE_TYPE = "THYMELEAF";
+  private static final String PRODUCTION_PROFILE = "prod";
 
   private final Dependency starterThymeleafDependency = new Dependency("org.springframework.boot",
       "spring-boot-starter-thymeleaf", null);
@@ -73,6 +75,7 @@ public class ThymeleafMVCViewResponseService extends AbstractOperations implemen
   private FileManager fileManager;
   private MVCViewGenerationService viewGenerationService;
   private I18nOperations i18nOperations;
+  private ApplicationConfigService applicationConfigService;
 
   /**
    * This operation returns the Feature name. In this case,
@@ -182,6 +185,10 @@ public class ThymeleafMVCViewResponseService extends AbstractOperations implemen
     addThymeleafDatatablesResources(module);
     // Is necessary to copy static resources
     copyStaticResources(module);
+    // Cache the parsed templates on production
+    addProductionProfile(module);
+    // Include a page to track the render time of the views
+    addRenderBenchmark(module);
 
     // Delegate on view generation to create view elements
     ViewContext ctx = new ViewContext();
@@ -353,6 +360,77 @@ public class ThymeleafMVCViewResponseService extends AbstractOperations implemen
         getPathResolver().getIdentifier(resourcesPath, "/static/public/js"), true);
   }
 
+  /**
+   * This method configures the template cache of Thymeleaf on the production
+   * profile, adding ThymeleafCacheConfiguration.java class inside .config
+   * package of generated project
+   * 
+   * @param module
+   */
+  private void addProductionProfile(Pom module) {
+    getApplicationConfigService().addProperty(module.getModuleName(), "spring.thymeleaf.cache",
+        "true", PRODUCTION_PROFILE, true);
+    getApplicationConfigService().addProperty(module.getModuleName(),
+        "thymeleaf.cache.template-max-size", "1000", PRODUCTION_PROFILE, false);
+    getApplicationConfigService().addProperty(module.getModuleName(),
+        "thymeleaf.cache.expression-max-size", "2000", PRODUCTION_PROFILE, false);
+
+    createClassFromTemplate(module, "ThymeleafCacheConfiguration-template._java",
+        "config.ThymeleafCacheConfiguration");
+  }
+
+  /**
+   * This method adds RenderBenchmarkController.java class inside .web package 
+   * of generated project, with the views that it renders. The controller is 
+   * only registered when the application runs with the benchmark profile.
+   * 
+   * @param module
+   */
+  private void addRenderBenchmark(Pom module) {
+    createClassFromTemplate(module, "RenderBenchmarkController-template._java",
+        "web.RenderBenchmarkController");
+
+    LogicalPath resourcesPath =
+        LogicalPath.getInstance(Path.SRC_MAIN_RESOURCES, module.getModuleName());
+    copyDirectoryContents("benchmark/*.html",
+        getPathResolver().getIdentifier(resourcesPath, "/templates/benchmark"), false);
+  }
+
+  /**
+   * Creates a class of the generated project from a template, if it doesn't 
+   * exist yet
+   * 
+   * @param module
+   * @param templateName the name of the template file
+   * @param className the class name, relative to the top level package
+   */
+  private void createClassFromTemplate(Pom module, String templateName, String className) {
+    JavaPackage modulePackage = getProjectOperations().getTopLevelPackage(module.getModuleName());
+
+    final JavaType javaType =
+        new JavaType(String.format("%s.%s", modulePackage, className), module.getModuleName());
+    final String physicalPath =
+        getPathResolver().getCanonicalPath(javaType.getModule(), Path.SRC_MAIN_JAVA, javaType);
+    if (getFileManager().exists(physicalPath)) {
+      return;
+    }
+
+    InputStream inputStream = null;
+    try {
+      // Use defined template
+      inputStream = FileUtils.getInputStream(getClass(), templateName);
+      String input = IOUtils.toString(inputStream);
+      // Replacing package
+      input = input.replace("__PACKAGE__", javaType.getPackage().getFullyQualifiedPackageName());
+
+      getFileManager().createOrUpdateTextFileIfRequired(physicalPath, input, true);
+    } catch (final IOException e) {
+      throw new IllegalStateException(String.format("Unable to create '%s'", physicalPath), e);
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
   /**
    * This method install Datatables resources and Datatables support for thymeleaf 
    * implementation
@@ -847,4 +925,28 @@ public class ThymeleafMVCViewResponseService extends AbstractOperations implemen
       return i18nOperations;
     }
   }
+
+  public ApplicationConfigService getApplicationConfigService() {
+    if (applicationConfigService == null) {
+      // Get all Services implement ApplicationConfigService interface
+      try {
+        ServiceReference<?>[] references =
+            this.context.getAllServiceReferences(ApplicationConfigService.class.getName(), null);
+
+        for (ServiceReference<?> ref : references) {
+          applicationConfigService = (ApplicationConfigService) this.context.getService(ref);
+          return applicationConfigService;
+        }
+
+        return null;
+
+      } catch (InvalidSyntaxException e) {
+        LOGGER
+            .warning("Cannot load ApplicationConfigService on ThymeleafMvcViewResponseService.");
+        return null;
+      }
+    } else {
+      return applicationConfigService;
+    }
+  }
 }
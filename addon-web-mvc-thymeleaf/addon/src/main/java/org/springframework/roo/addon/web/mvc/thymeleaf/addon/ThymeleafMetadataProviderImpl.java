@@ -97,6 +97,7 @@ public class ThymeleafMetadataProviderImpl extends AbstractViewGeneratorMetadata
   private ControllerType type;
   private String entityPlural;
   private String pathPrefix;
+  private String countStrategy;
 
   /**
    * This service is being activated so setup it:
@@ -279,12 +280,15 @@ public class ThymeleafMetadataProviderImpl extends AbstractViewGeneratorMetadata
       this.pathPrefix = (String) controllerAnnotation.getAttribute("pathPrefix").getValue();
     }
 
+    this.countStrategy = getCountStrategy(this.entity);
+
     // Getting methods from related service
     MethodMetadata serviceSaveMethod = serviceMetadata.getSaveMethod();
     MethodMetadata serviceDeleteMethod = serviceMetadata.getDeleteMethod();
     MethodMetadata serviceFindAllGlobalSearchMethod =
         serviceMetadata.getFindAllGlobalSearchMethod();
-    MethodMetadata serviceCountMethod = serviceMetadata.getCountMethod();
+    MethodMetadata serviceFindAllForDatatablesMethod =
+        serviceMetadata.getFindAllForDatatablesMethod();
 
     // Add finder methods
     List<MethodMetadata> findersToAdd = new ArrayList<MethodMetadata>();
@@ -339,7 +343,7 @@ public class ThymeleafMetadataProviderImpl extends AbstractViewGeneratorMetadata
     return new ThymeleafMetadata(metadataIdentificationString, this.aspectName,
         this.governorPhysicalTypeMetadata, getListFormMethod(),
         getListJSONMethod(serviceFindAllGlobalSearchMethod),
-        getListDatatablesJSONMethod(serviceCountMethod), getCreateFormMethod(),
+        getListDatatablesJSONMethod(serviceFindAllForDatatablesMethod), getCreateFormMethod(),
         getCreateMethod(serviceSaveMethod), getEditFormMethod(),
         getUpdateMethod(serviceSaveMethod), getDeleteMethod(serviceDeleteMethod), getShowMethod(),
         getDetailsMethods(), getPopulateFormMethod(), getPopulateFormatsMethod(),
@@ -884,15 +888,48 @@ public class ThymeleafMetadataProviderImpl extends AbstractViewGeneratorMetadata
     return methodBuilder.build();
   }
 
+  /**
+   * Returns the count strategy configured in the custom repository of the
+   * given entity, as the name of its <code>CountStrategy</code> value.
+   *
+   * @param entity
+   * @return the strategy name, or "EXACT" if the entity has no custom
+   *         repository or it doesn't set the strategy
+   */
+  private String getCountStrategy(JavaType entity) {
+    Set<ClassOrInterfaceTypeDetails> repositories =
+        getTypeLocationService().findClassesOrInterfaceDetailsWithAnnotation(
+            RooJavaType.ROO_REPOSITORY_JPA_CUSTOM);
+    for (ClassOrInterfaceTypeDetails repository : repositories) {
+      AnnotationMetadata repositoryAnnotation =
+          repository.getAnnotation(RooJavaType.ROO_REPOSITORY_JPA_CUSTOM);
+      AnnotationAttributeValue<?> entityAttribute = repositoryAnnotation.getAttribute("entity");
+      if (entityAttribute == null || !entity.equals(entityAttribute.getValue())) {
+        continue;
+      }
+      AnnotationAttributeValue<?> countStrategyAttribute =
+          repositoryAnnotation.getAttribute("countStrategy");
+      if (countStrategyAttribute != null
+          && countStrategyAttribute.getValue() instanceof EnumDetails) {
+        return ((EnumDetails) countStrategyAttribute.getValue()).getField().getSymbolName();
+      }
+    }
+    return "EXACT";
+  }
+
   /**
    * This method provides the "list" Datatables JSON method using JSON
-   * response type and returns Datatables element
+   * response type and returns Datatables element. It only loads the entity
+   * properties shown by the Datatables columns, and the total number of
+   * entities is kept in the session, so it is only counted again when the
+   * table is drawn for the first time or without search text.
    *
-   * @param serviceCountMethod
+   * @param serviceFindAllForDatatablesMethod
    *
    * @return MethodMetadata
    */
-  private MethodMetadata getListDatatablesJSONMethod(MethodMetadata serviceCountMethod) {
+  private MethodMetadata getListDatatablesJSONMethod(
+      MethodMetadata serviceFindAllForDatatablesMethod) {
 
     // If provided entity is readOnly or annotated controller is not a
     // Collection controller
@@ -922,11 +959,19 @@ public class ThymeleafMetadataProviderImpl extends AbstractViewGeneratorMetadata
         new AnnotationMetadataBuilder(SpringJavaType.REQUEST_PARAM);
     requestParamAnnotation.addStringAttribute("value", "draw");
     parameterTypes.add(new AnnotatedJavaType(JavaType.INT_OBJECT, requestParamAnnotation.build()));
+    boolean countTotal = !"NONE".equals(this.countStrategy);
+    if (countTotal) {
+      parameterTypes.add(AnnotatedJavaType.convertFromJavaType(new JavaType(
+          "javax.servlet.http.HttpSession")));
+    }
 
     final List<JavaSymbolName> parameterNames = new ArrayList<JavaSymbolName>();
     parameterNames.add(new JavaSymbolName("search"));
     parameterNames.add(new JavaSymbolName("pageable"));
     parameterNames.add(new JavaSymbolName("draw"));
+    if (countTotal) {
+      parameterNames.add(new JavaSymbolName("session"));
+    }
 
     // Adding annotations
     final List<AnnotationMetadataBuilder> annotations = new ArrayList<AnnotationMetadataBuilder>();
@@ -943,22 +988,68 @@ public class ThymeleafMetadataProviderImpl extends AbstractViewGeneratorMetadata
     // Generate body
     InvocableMemberBodyBuilder bodyBuilder = new InvocableMemberBodyBuilder();
 
-    // Page<Entity> entityNamePlural = list(search, pageable);
-    bodyBuilder.appendFormalLine(String.format("%s<%s> %s = list(search, pageable);",
-        addTypeToImport(SpringJavaType.PAGE).getSimpleTypeName(), addTypeToImport(this.entity)
-            .getSimpleTypeName(), this.entityPlural));
-
-    // long allAvailableentityNamePlural = serviceField.count();
-    bodyBuilder.appendFormalLine(String.format("long allAvailable%s = %s.%s();",
-        StringUtils.capitalize(this.entityPlural), getServiceField().getFieldName(),
-        serviceCountMethod.getMethodName()));
-
-    // return new DatatablesData<Entity>(entityNamePlural, allAvailableentityNamePlural,
-    // draw);
-    bodyBuilder.appendFormalLine(String.format("return new %s<%s>(%s, allAvailable%s, draw);",
-        addTypeToImport(this.datatablesDataType).getSimpleTypeName(),
-        this.entity.getSimpleTypeName(), this.entityPlural,
-        StringUtils.capitalize(this.entityPlural)));
+    // Add module dependency with the module providing the page type
+    JavaType pageType = serviceFindAllForDatatablesMethod.getReturnType();
+    getTypeLocationService().addModuleDependency(this.controller.getType().getModule(),
+        pageType);
+
+    if (!countTotal) {
+
+      // If the repository doesn't count, the page total is used as is
+      // FilteredPage<Entity> entityNamePlural =
+      //   serviceField.findAllForDatatables(search, pageable, pageable.getColumns(), false);
+      bodyBuilder.appendFormalLine(String.format(
+          "%s<%s> %s = %s.%s(search, pageable, pageable.getColumns(), false);",
+          addTypeToImport(pageType).getSimpleTypeName(), addTypeToImport(this.entity)
+              .getSimpleTypeName(), this.entityPlural, getServiceField().getFieldName(),
+          serviceFindAllForDatatablesMethod.getMethodName()));
+
+      // return new DatatablesData<Entity>(entityNamePlural,
+      //   entityNamePlural.getTotalElements(), draw);
+      bodyBuilder.appendFormalLine(String.format(
+          "return new %s<%s>(%s, %s.getTotalElements(), draw);",
+          addTypeToImport(this.datatablesDataType).getSimpleTypeName(),
+          this.entity.getSimpleTypeName(), this.entityPlural, this.entityPlural));
+    } else {
+      String totalAttribute =
+          this.controller.getType().getFullyQualifiedTypeName().concat(".recordsTotal");
+
+      // Long recordsTotal = (Long) session.getAttribute("Controller.recordsTotal");
+      bodyBuilder.appendFormalLine(String.format(
+          "Long recordsTotal = (Long) session.getAttribute(\"%s\");", totalAttribute));
+
+      // FilteredPage<Entity> entityNamePlural = serviceField.findAllForDatatables(search,
+      //   pageable, pageable.getColumns(), draw == 1 || recordsTotal == null);
+      bodyBuilder.appendFormalLine(String.format("%s<%s> %s = %s.%s(search, pageable,",
+          addTypeToImport(pageType).getSimpleTypeName(), addTypeToImport(this.entity)
+              .getSimpleTypeName(), this.entityPlural, getServiceField().getFieldName(),
+          serviceFindAllForDatatablesMethod.getMethodName()));
+      bodyBuilder.indent();
+      bodyBuilder.appendFormalLine("pageable.getColumns(), draw == 1 || recordsTotal == null);");
+      bodyBuilder.indentRemove();
+
+      // if (entityNamePlural.getUnfilteredTotal() >= 0) {
+      bodyBuilder.appendFormalLine(String.format("if (%s.getUnfilteredTotal() >= 0) {",
+          this.entityPlural));
+      bodyBuilder.indent();
+
+      // recordsTotal = entityNamePlural.getUnfilteredTotal();
+      bodyBuilder.appendFormalLine(String.format("recordsTotal = %s.getUnfilteredTotal();",
+          this.entityPlural));
+
+      // session.setAttribute("Controller.recordsTotal", recordsTotal);
+      bodyBuilder.appendFormalLine(String.format(
+          "session.setAttribute(\"%s\", recordsTotal);", totalAttribute));
+      bodyBuilder.indentRemove();
+      bodyBuilder.appendFormalLine("}");
+
+      // return new DatatablesData<Entity>(entityNamePlural.getContent(), recordsTotal,
+      //   entityNamePlural.getTotalElements(), draw);
+      bodyBuilder.appendFormalLine(String.format(
+          "return new %s<%s>(%s.getContent(), recordsTotal, %s.getTotalElements(), draw);",
+          addTypeToImport(this.datatablesDataType).getSimpleTypeName(),
+          this.entity.getSimpleTypeName(), this.entityPlural, this.entityPlural));
+    }
 
     // Generating returnType
     JavaType returnType =
@@ -2,14 +2,24 @@ package org.springframework.roo.addon.web.mvc.views;
 
 import java.io.File;
 import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Logger;
 
 import org.apache.commons.io.FileUtils;
@@ -66,6 +76,13 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
   private MemberDetailsScanner memberDetailsScanner;
   private I18nOperationsImpl i18nOperationsImpl;
 
+  /**
+   * Fingerprint of the information used to generate every view, followed by
+   * the hash of the content written on disk, by view path
+   */
+  private final ConcurrentMap<String, String> viewFingerprints =
+      new ConcurrentHashMap<String, String>();
+
   // ------------ OSGi component attributes ----------------
   protected BundleContext context;
 
@@ -83,6 +100,25 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
 
   protected abstract void writeDoc(DOC document, String viewPath);
 
+  /**
+   * Returns the content that writeDoc writes on disk for the provided 
+   * document.
+   *
+   * @param document
+   * @return the content of the document, or null if there isn't any
+   */
+  protected abstract String getContent(DOC document);
+
+  /**
+   * Returns a value which changes when the templates used to generate the
+   * views change. By default, templates never change.
+   *
+   * @return the fingerprint of the templates
+   */
+  protected String getTemplatesFingerprint() {
+    return "";
+  }
+
   @Override
   public void addListView(String moduleName, MemberDetails entityDetails, ViewContext ctx) {
 
@@ -93,14 +129,20 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
     ctx.addExtraParameter("fields", fields);
     ctx.addExtraParameter("details", details);
 
-    // Process elements to generate
-    DOC newDoc = process("list", ctx);
-
     // Getting new viewName
     String viewName =
         getViewsFolder(moduleName).concat(ctx.getControllerPath()).concat("/").concat("/list")
             .concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("list", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("list", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
       newDoc =
@@ -108,7 +150,7 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
 
   }
 
@@ -122,14 +164,20 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
     ctx.addExtraParameter("fields", fields);
     ctx.addExtraParameter("details", details);
 
-    // Process elements to generate
-    DOC newDoc = process("show", ctx);
-
     // Getting new viewName
     String viewName =
         getViewsFolder(moduleName).concat(ctx.getControllerPath()).concat("/").concat("/show")
             .concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("show", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("show", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
 
@@ -141,7 +189,7 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
 
   }
 
@@ -153,14 +201,20 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
 
     ctx.addExtraParameter("fields", fields);
 
-    // Process elements to generate
-    DOC newDoc = process("create", ctx);
-
     // Getting new viewName
     String viewName =
         getViewsFolder(moduleName).concat(ctx.getControllerPath()).concat("/").concat("/create")
             .concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("create", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("create", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
       List<String> requiredIds = new ArrayList<String>();
@@ -171,7 +225,7 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
 
   }
 
@@ -183,14 +237,20 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
 
     ctx.addExtraParameter("fields", fields);
 
-    // Process elements to generate
-    DOC newDoc = process("edit", ctx);
-
     // Getting new viewName
     String viewName =
         getViewsFolder(moduleName).concat(ctx.getControllerPath()).concat("/").concat("/edit")
             .concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("edit", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("edit", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
       List<String> requiredIds = new ArrayList<String>();
@@ -201,7 +261,7 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
 
   }
 
@@ -214,14 +274,20 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
 
     ctx.addExtraParameter("fields", fields);
 
-    // Process elements to generate
-    DOC newDoc = process("finderForm", ctx);
-
     // Getting new viewName
     String viewName =
         getViewsFolder(moduleName).concat(ctx.getControllerPath()).concat("/").concat(finderName)
             .concat("Form").concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("finderForm", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("finderForm", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
       List<String> requiredIds = new ArrayList<String>();
@@ -232,7 +298,7 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
   }
 
   @Override
@@ -244,14 +310,20 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
 
     ctx.addExtraParameter("fields", fields);
 
-    // Process elements to generate
-    DOC newDoc = process("finderList", ctx);
-
     // Getting new viewName
     String viewName =
         getViewsFolder(moduleName).concat(ctx.getControllerPath()).concat("/").concat(finderName)
             .concat("List").concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("finderList", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("finderList", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
       List<String> requiredIds = new ArrayList<String>();
@@ -262,101 +334,131 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
   }
 
 
   @Override
   public void addIndexView(String moduleName, ViewContext ctx) {
 
-    // Process elements to generate
-    DOC newDoc = process("index", ctx);
-
     // Getting new viewName
     String viewName = getViewsFolder(moduleName).concat("/index").concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("index", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("index", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
       newDoc = merge(loadExistingDoc(viewName), newDoc, null);
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
 
   }
 
   @Override
   public void addErrorView(String moduleName, ViewContext ctx) {
 
-    // Process elements to generate
-    DOC newDoc = process("error", ctx);
-
     // Getting new viewName
     String viewName = getViewsFolder(moduleName).concat("/error").concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("error", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("error", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
       newDoc = merge(loadExistingDoc(viewName), newDoc, null);
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
 
   }
 
   @Override
   public void addDefaultLayout(String moduleName, ViewContext ctx) {
 
-    // Process elements to generate
-    DOC newDoc = process("layouts/default-layout", ctx);
-
     // Getting new viewName
     String viewName =
         getLayoutsFolder(moduleName).concat("/default-layout").concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("layouts/default-layout", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("layouts/default-layout", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
       newDoc = merge(loadExistingDoc(viewName), newDoc, null);
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
 
   }
 
   @Override
   public void addFooter(String moduleName, ViewContext ctx) {
-    // Process elements to generate
-    DOC newDoc = process("fragments/footer", ctx);
-
     // Getting new viewName
     String viewName = getFragmentsFolder(moduleName).concat("/footer").concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("fragments/footer", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("fragments/footer", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
       newDoc = merge(loadExistingDoc(viewName), newDoc, null);
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
 
   }
 
   @Override
   public void addHeader(String moduleName, ViewContext ctx) {
-    // Process elements to generate
-    DOC newDoc = process("fragments/header", ctx);
-
     // Getting new viewName
     String viewName = getFragmentsFolder(moduleName).concat("/header").concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("fragments/header", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("fragments/header", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
       newDoc = merge(loadExistingDoc(viewName), newDoc, null);
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
 
   }
 
@@ -416,74 +518,98 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
       requiredIds.add(entry.getEntityName() + "Entry");
     }
 
-    // Process elements to generate
-    DOC newDoc = process("fragments/menu", ctx);
-
     // Getting new viewName
     String viewName = getFragmentsFolder(moduleName).concat("/menu").concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("fragments/menu", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("fragments/menu", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
       newDoc = merge(loadExistingDoc(viewName), newDoc, requiredIds);
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
 
   }
 
   @Override
   public void addModal(String moduleName, ViewContext ctx) {
-    // Process elements to generate
-    DOC newDoc = process("fragments/modal", ctx);
-
     // Getting new viewName
     String viewName = getFragmentsFolder(moduleName).concat("/modal").concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("fragments/modal", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("fragments/modal", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
       newDoc = merge(loadExistingDoc(viewName), newDoc, null);
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
 
   }
 
   @Override
   public void addSession(String moduleName, ViewContext ctx) {
-    // Process elements to generate
-    DOC newDoc = process("fragments/session", ctx);
-
     // Getting new viewName
     String viewName = getFragmentsFolder(moduleName).concat("/session").concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("fragments/session", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("fragments/session", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
       newDoc = merge(loadExistingDoc(viewName), newDoc, null);
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
 
   }
 
   @Override
   public void addSessionLinks(String moduleName, ViewContext ctx) {
-    // Process elements to generate
-    DOC newDoc = process("fragments/session-links", ctx);
-
     // Getting new viewName
     String viewName =
         getFragmentsFolder(moduleName).concat("/session-links").concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("fragments/session-links", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("fragments/session-links", ctx);
+
     // Check if new view to generate exists or not
     if (existsFile(viewName)) {
       newDoc = merge(loadExistingDoc(viewName), newDoc, null);
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
 
   }
 
@@ -494,13 +620,19 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
     List<I18n> installedLanguages = getI18nOperationsImpl().getInstalledLanguages(moduleName);
     ctx.addExtraParameter("languages", installedLanguages);
 
-    // Process elements to generate
-    DOC newDoc = process("fragments/languages", ctx);
-
     // Getting new viewName
     String viewName =
         getFragmentsFolder(moduleName).concat("/languages").concat(getViewsExtension());
 
+    // Nothing to do if the view was generated from the same information
+    String fingerprint = getViewFingerprint("fragments/languages", ctx);
+    if (isViewUpToDate(viewName, fingerprint)) {
+      return;
+    }
+
+    // Process elements to generate
+    DOC newDoc = process("fragments/languages", ctx);
+
     // Generate ids to search when merge new and existing doc
     List<String> requiredIds = new ArrayList<String>();
     for (I18n language : installedLanguages) {
@@ -513,7 +645,7 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
     }
 
     // Write newDoc on disk
-    writeDoc(newDoc, viewName);
+    writeView(newDoc, viewName, fingerprint);
   }
 
   @Override
@@ -808,6 +940,143 @@ public abstract class AbstractViewGenerationService<DOC> implements MVCViewGener
 
   }
 
+  /**
+   * This method calculates the fingerprint of the information used to 
+   * generate a view: the template, the ViewContext and the field items 
+   * included on it.
+   *
+   * @param templateName
+   * @param ctx
+   * @return the fingerprint of the view
+   */
+  protected String getViewFingerprint(String templateName, ViewContext ctx) {
+    StringBuilder sb = new StringBuilder(templateName);
+    sb.append('|').append(getTemplatesFingerprint());
+    appendFingerprintValue(sb, ctx.getProjectName());
+    appendFingerprintValue(sb, ctx.getDescription());
+    appendFingerprintValue(sb, ctx.getVersion());
+    appendFingerprintValue(sb, ctx.getControllerPath());
+    appendFingerprintValue(sb, ctx.getIdentifierField());
+    appendFingerprintValue(sb, ctx.getModelAttribute());
+    appendFingerprintValue(sb, ctx.getModelAttributeName());
+    appendFingerprintValue(sb, ctx.getEntityName());
+    appendFingerprintValue(sb, ctx.getExtraInformation());
+    return sha1(sb.toString());
+  }
+
+  /**
+   * Appends the provided value to the fingerprint. Maps are appended 
+   * sorted by key, so the fingerprint doesn't depend on their order.
+   *
+   * @param sb
+   * @param value
+   */
+  private void appendFingerprintValue(StringBuilder sb, Object value) {
+    sb.append('|');
+    if (value instanceof Map) {
+      Map<String, Object> sortedMap = new TreeMap<String, Object>();
+      for (Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        sortedMap.put(String.valueOf(entry.getKey()), entry.getValue());
+      }
+      sb.append('{');
+      for (Entry<String, Object> entry : sortedMap.entrySet()) {
+        sb.append(entry.getKey()).append('=');
+        appendFingerprintValue(sb, entry.getValue());
+      }
+      sb.append('}');
+    } else if (value instanceof Collection) {
+      sb.append('[');
+      for (Object item : (Collection<?>) value) {
+        appendFingerprintValue(sb, item);
+      }
+      sb.append(']');
+    } else if (value instanceof Object[]) {
+      appendFingerprintValue(sb, Arrays.asList((Object[]) value));
+    } else if (value instanceof FieldItem) {
+      FieldItem fieldItem = (FieldItem) value;
+      appendFingerprintValue(sb, fieldItem.getFieldName());
+      appendFingerprintValue(sb, fieldItem.getLabel());
+      appendFingerprintValue(sb, fieldItem.getType());
+      appendFingerprintValue(sb, fieldItem.getZ());
+      appendFingerprintValue(sb, fieldItem.getConfiguration());
+    } else if (value instanceof MenuEntry) {
+      MenuEntry menuEntry = (MenuEntry) value;
+      appendFingerprintValue(sb, menuEntry.getEntityName());
+      appendFingerprintValue(sb, menuEntry.getPath());
+      appendFingerprintValue(sb, menuEntry.getEntityLabel());
+      appendFingerprintValue(sb, menuEntry.getEntityPluralLabel());
+    } else if (value instanceof I18n) {
+      appendFingerprintValue(sb, ((I18n) value).getLocale());
+    } else {
+      sb.append(value);
+    }
+  }
+
+  /**
+   * Checks if the provided view was generated from information with the 
+   * same fingerprint and hasn't changed on disk since then, so generating 
+   * it again would produce the same content.
+   *
+   * @param viewPath
+   * @param fingerprint
+   * @return true if the view doesn't need to be generated
+   */
+  protected boolean isViewUpToDate(String viewPath, String fingerprint) {
+    String generated = viewFingerprints.get(viewPath);
+    if (generated == null || !existsFile(viewPath)) {
+      return false;
+    }
+    String content = loadExistingContent(viewPath);
+    return content != null && generated.equals(fingerprint.concat(":").concat(sha1(content)));
+  }
+
+  /**
+   * Writes the provided view on disk and records the fingerprint of the 
+   * information used to generate it, together with the hash of the written 
+   * content. 
+   * 
+   * The hash is calculated from the generated content instead of the file, 
+   * because writeDoc could defer the write until the end of the current 
+   * operation.
+   *
+   * @param document
+   * @param viewPath
+   * @param fingerprint
+   */
+  protected void writeView(DOC document, String viewPath, String fingerprint) {
+    writeDoc(document, viewPath);
+    String content = getContent(document);
+    if (content == null) {
+      viewFingerprints.remove(viewPath);
+    } else {
+      viewFingerprints.put(viewPath, fingerprint.concat(":").concat(sha1(content)));
+    }
+  }
+
+  /**
+   * This method loads the content of the provided view from disk, which is
+   * written in UTF-8.
+   *
+   * @param viewPath
+   * @return the content of the view, or null if it couldn't be read
+   */
+  protected String loadExistingContent(String viewPath) {
+    try {
+      return FileUtils.readFileToString(new File(viewPath), Charset.forName("UTF-8"));
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private String sha1(String data) {
+    try {
+      return new BigInteger(1, MessageDigest.getInstance("SHA-1").digest(
+          data.getBytes(Charset.forName("UTF-8")))).toString(16);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   /**
    * This method load the provided file and get its content in String format.
    *
@@ -1,13 +1,17 @@
 package org.springframework.roo.addon.web.mvc.views.template.engines;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.output.StringBuilderWriter;
@@ -32,9 +36,25 @@ import freemarker.template.Version;
 public abstract class AbstractFreeMarkerViewGenerationService<DOC> extends
     AbstractViewGenerationService<DOC> {
 
+  private static final Version FREEMARKER_VERSION = new Version(2, 3, 23);
+
   @Reference
   FileManager fileManager;
 
+  /**
+   * Configurations which load the templates customized by the user, by
+   * templates location. Every configuration caches its parsed templates
+   * and reloads them when their last modification changes.
+   */
+  private final ConcurrentMap<String, Configuration> directoryConfigurations =
+      new ConcurrentHashMap<String, Configuration>();
+
+  /**
+   * Configuration which loads the templates included in the add-on. They
+   * don't change while the add-on is installed, so they are parsed once.
+   */
+  private volatile Configuration classpathConfiguration;
+
   protected abstract Class<?> getResourceLoaderClass();
 
   protected boolean checkTemplates(String location, String templateName) {
@@ -42,21 +62,37 @@ public abstract class AbstractFreeMarkerViewGenerationService<DOC> extends
     return fileManager.exists(location.concat("/").concat(templateName).concat(".ftl"));
   }
 
+  /**
+   * The views are generated again when the user customizes some template,
+   * so the fingerprint includes the number and the last modification of 
+   * the customized templates.
+   */
+  @Override
+  protected String getTemplatesFingerprint() {
+    File templatesDirectory = new File(getTemplatesLocation());
+    if (!templatesDirectory.isDirectory()) {
+      return "";
+    }
+    Collection<File> templates =
+        org.apache.commons.io.FileUtils.listFiles(templatesDirectory, new String[] {"ftl"}, true);
+    long lastModified = 0;
+    for (File template : templates) {
+      lastModified = Math.max(lastModified, template.lastModified());
+    }
+    return templates.size() + ":" + lastModified;
+  }
+
   protected DOC process(String templateName, ViewContext ctx) {
     String content = "";
 
     try {
 
-      Configuration cfg = new Configuration(new Version(2, 3, 23));
-      cfg.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
-
       // Check if exists some template. If not, use classpath to locate the template
+      Configuration cfg;
       if (checkTemplates(getTemplatesLocation(), templateName)) {
-        // Process using FreeMarker and setDirectoryForTemplateLoading
-        cfg.setDirectoryForTemplateLoading(new File(getTemplatesLocation()));
+        cfg = getDirectoryConfiguration(getTemplatesLocation());
       } else {
-        // Process using FreeMarker and setClassForTemplateLoading
-        cfg.setClassForTemplateLoading(getResourceLoaderClass(), "templates");
+        cfg = getClasspathConfiguration();
       }
 
       // Prepare the template input:
@@ -111,6 +147,60 @@ public abstract class AbstractFreeMarkerViewGenerationService<DOC> extends
 
   }
 
+  /**
+   * Returns the shared configuration which loads the templates of the 
+   * provided directory, creating it the first time.
+   * 
+   * @param templatesLocation the directory of the customized templates
+   * @return the FreeMarker configuration
+   * @throws IOException if the directory can't be used to load templates
+   */
+  private Configuration getDirectoryConfiguration(String templatesLocation) throws IOException {
+    Configuration cfg = directoryConfigurations.get(templatesLocation);
+    if (cfg == null) {
+      cfg = createConfiguration();
+      cfg.setDirectoryForTemplateLoading(new File(templatesLocation));
+
+      // Customized templates are checked on every use, so changes made by
+      // the user are applied without restarting the shell
+      cfg.setTemplateUpdateDelayMilliseconds(0);
+
+      Configuration existing = directoryConfigurations.putIfAbsent(templatesLocation, cfg);
+      if (existing != null) {
+        cfg = existing;
+      }
+    }
+    return cfg;
+  }
+
+  /**
+   * Returns the shared configuration which loads the templates included in
+   * the add-on, creating it the first time.
+   * 
+   * @return the FreeMarker configuration
+   */
+  private Configuration getClasspathConfiguration() {
+    Configuration cfg = classpathConfiguration;
+    if (cfg == null) {
+      synchronized (this) {
+        cfg = classpathConfiguration;
+        if (cfg == null) {
+          cfg = createConfiguration();
+          cfg.setClassForTemplateLoading(getResourceLoaderClass(), "templates");
+          cfg.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
+          classpathConfiguration = cfg;
+        }
+      }
+    }
+    return cfg;
+  }
+
+  private Configuration createConfiguration() {
+    Configuration cfg = new Configuration(FREEMARKER_VERSION);
+    cfg.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+    return cfg;
+  }
+
   /**
    * This method will copy the contents of a directory to another if the
    * resource does not already exist in the target directory
@@ -161,6 +251,14 @@ public abstract class AbstractFreeMarkerViewGenerationService<DOC> extends
         }
       }
     }
+
+    // The templates of the target directory, or its fragments, may have
+    // been replaced
+    for (Entry<String, Configuration> cfg : directoryConfigurations.entrySet()) {
+      if (targetDirectory.startsWith(StringUtils.removeEnd(cfg.getKey(), "/").concat("/"))) {
+        cfg.getValue().clearTemplateCache();
+      }
+    }
   }
 
 }
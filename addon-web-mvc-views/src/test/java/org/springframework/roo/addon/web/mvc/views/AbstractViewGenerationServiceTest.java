@@ -0,0 +1,173 @@
+package org.springframework.roo.addon.web.mvc.views;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test of {@link AbstractViewGenerationService}
+ *
+ * @since 2.0
+ */
+public class AbstractViewGenerationServiceTest {
+
+  private static final String MODULE_NAME = "";
+
+  @Rule
+  public TemporaryFolder viewsFolder = new TemporaryFolder();
+
+  private TestViewGenerationService service;
+  private ViewContext ctx;
+
+  @Before
+  public void setUp() {
+    service = new TestViewGenerationService(viewsFolder.getRoot());
+    ctx = new ViewContext();
+    ctx.setProjectName("petclinic");
+  }
+
+  @Test
+  public void testSecondGenerationWithSameInformationDoesNotWrite() throws Exception {
+    // Set up
+    service.addIndexView(MODULE_NAME, ctx);
+    service.flush();
+
+    // Invoke
+    service.addIndexView(MODULE_NAME, ctx);
+
+    // Check
+    assertEquals(1, service.writes);
+  }
+
+  @Test
+  public void testSecondGenerationWithSameNonAsciiInformationDoesNotWrite() throws Exception {
+    // Set up
+    ctx.setProjectName("cl\u00ednica");
+    service.addIndexView(MODULE_NAME, ctx);
+    service.flush();
+
+    // Invoke
+    service.addIndexView(MODULE_NAME, ctx);
+
+    // Check
+    assertEquals(1, service.writes);
+  }
+
+  @Test
+  public void testGenerationWithDifferentInformationWrites() throws Exception {
+    // Set up
+    service.addIndexView(MODULE_NAME, ctx);
+    service.flush();
+    ctx.setProjectName("clinic");
+
+    // Invoke
+    service.addIndexView(MODULE_NAME, ctx);
+
+    // Check
+    assertEquals(2, service.writes);
+  }
+
+  @Test
+  public void testGenerationAfterViewChangedOnDiskWrites() throws Exception {
+    // Set up
+    service.addIndexView(MODULE_NAME, ctx);
+    service.flush();
+    FileUtils.writeStringToFile(new File(viewsFolder.getRoot(), "index.html"), "changed");
+
+    // Invoke
+    service.addIndexView(MODULE_NAME, ctx);
+
+    // Check
+    assertEquals(2, service.writes);
+  }
+
+  /**
+   * View generation service that defers writing views on disk until
+   * {@link #flush()} is called, the same way the FileManager does until the
+   * end of the current operation.
+   */
+  private static class TestViewGenerationService extends AbstractViewGenerationService<String> {
+
+    private final File folder;
+    private final Map<String, String> pendingWrites = new LinkedHashMap<String, String>();
+    private int writes;
+
+    TestViewGenerationService(File folder) {
+      this.folder = folder;
+    }
+
+    void flush() throws IOException {
+      for (Entry<String, String> pendingWrite : pendingWrites.entrySet()) {
+        FileUtils.writeStringToFile(new File(pendingWrite.getKey()), pendingWrite.getValue(),
+            Charset.forName("UTF-8"));
+      }
+      pendingWrites.clear();
+    }
+
+    @Override
+    protected String process(String templateName, ViewContext ctx) {
+      return templateName.concat(":").concat(ctx.getProjectName());
+    }
+
+    @Override
+    protected String parse(String content) {
+      return content;
+    }
+
+    @Override
+    protected String merge(String existingDoc, String newDoc, List<String> requiredIds) {
+      return newDoc;
+    }
+
+    @Override
+    protected String getTemplatesLocation() {
+      return folder.getAbsolutePath();
+    }
+
+    @Override
+    protected void writeDoc(String document, String viewPath) {
+      writes++;
+      pendingWrites.put(viewPath, document);
+    }
+
+    @Override
+    protected String getContent(String document) {
+      return document;
+    }
+
+    @Override
+    protected boolean existsFile(String viewPath) {
+      return new File(viewPath).exists();
+    }
+
+    @Override
+    public String getName() {
+      return "TEST";
+    }
+
+    @Override
+    public String getViewsFolder(String moduleName) {
+      return folder.getAbsolutePath();
+    }
+
+    @Override
+    public String getViewsExtension() {
+      return ".html";
+    }
+
+    @Override
+    public void installTemplates() {}
+  }
+}
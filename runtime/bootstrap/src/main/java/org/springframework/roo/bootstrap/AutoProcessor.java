@@ -58,6 +58,13 @@ public class AutoProcessor
      * The property name prefix for the launcher's auto-start property.
     **/
     public static final String AUTO_START_PROP = "felix.auto.start";
+    // **** CHANGE FROM ORIGINAL FELIX VERSION ****
+    /**
+     * The property name used to enable the parallel startup of the
+     * auto-deploy bundles, also read from the system properties.
+    **/
+    public static final String PARALLEL_STARTUP_PROP = "roo.startup.parallel";
+    // **** END OF CHANGE FROM ORIGINAL FELIX VERSION ****
 
     /**
      * Used to instigate auto-deploy directory process and auto-install/auto-start
@@ -66,11 +73,37 @@ public class AutoProcessor
      * @param context The system bundle context.
     **/
 	public static void process(Map configMap, BundleContext context)
+    {
+        process(configMap, context, null); // **** CHANGE FROM ORIGINAL FELIX VERSION ****
+    }
+
+    // **** CHANGE FROM ORIGINAL FELIX VERSION ****
+    /**
+     * Used to instigate auto-deploy directory process and auto-install/auto-start
+     * configuration property processing, recording the installation of the
+     * auto-deploy bundles in the given profiler. If the
+     * <tt>roo.startup.parallel</tt> property is <tt>true</tt>, the auto-deploy
+     * bundles are installed concurrently and their start is deferred to the
+     * returned <tt>ParallelStartup</tt>.
+     * @param configMap Map of configuration properties.
+     * @param context The system bundle context.
+     * @param profiler The startup profiler, or <tt>null</tt>.
+     * @return The parallel startup to start once the framework has started,
+     *         or <tt>null</tt> if the framework starts the bundles itself.
+    **/
+    public static ParallelStartup process(Map configMap, BundleContext context,
+        StartupProfiler profiler)
     {
         configMap = (configMap == null) ? new HashMap() : configMap;
-        processAutoDeploy(configMap, context);
+        String parallel = (String) configMap.get(PARALLEL_STARTUP_PROP);
+        parallel = (parallel == null) ? System.getProperty(PARALLEL_STARTUP_PROP) : parallel;
+        ParallelStartup parallelStartup = Boolean.valueOf(parallel).booleanValue()
+            ? new ParallelStartup(context, profiler) : null;
+        processAutoDeploy(configMap, context, parallelStartup, profiler);
         processAutoProperties(configMap, context);
+        return parallelStartup;
     }
+    // **** END OF CHANGE FROM ORIGINAL FELIX VERSION ****
 
     /**
      * <p>
@@ -78,7 +111,8 @@ public class AutoProcessor
      * specified deploy actions.
      * </p>
      */
-    private static void processAutoDeploy(Map configMap, BundleContext context)
+    private static void processAutoDeploy(Map configMap, BundleContext context,
+        ParallelStartup parallelStartup, StartupProfiler profiler) // **** CHANGE FROM ORIGINAL FELIX VERSION ****
     {
         // Determine if auto deploy actions to perform.
         String action = (String) configMap.get(AUTO_DEPLOY_ACTION_PROPERY);
@@ -147,6 +181,23 @@ public class AutoProcessor
                 }
             }
 
+            // **** CHANGE FROM ORIGINAL FELIX VERSION ****
+            // Install the bundles that are not installed yet concurrently.
+            if ((parallelStartup != null) && actionList.contains(AUTO_DEPLOY_INSTALL_VALUE))
+            {
+                List locations = new ArrayList();
+                for (int i = 0; i < jarList.size(); i++)
+                {
+                    String location = ((File) jarList.get(i)).toURI().toString();
+                    if (!installedBundleMap.containsKey(location))
+                    {
+                        locations.add(location);
+                    }
+                }
+                parallelStartup.installAll(locations);
+            }
+            // **** END OF CHANGE FROM ORIGINAL FELIX VERSION ****
+
             // Install bundle JAR files and remember the bundle objects.
             final List startBundleList = new ArrayList();
             for (int i = 0; i < jarList.size(); i++)
@@ -163,8 +214,22 @@ public class AutoProcessor
                     // if the 'install' action is present.
                     if ((b == null) && actionList.contains(AUTO_DEPLOY_INSTALL_VALUE))
                     {
-                        b = context.installBundle(
-                            ((File) jarList.get(i)).toURI().toString());
+                        // **** CHANGE FROM ORIGINAL FELIX VERSION ****
+                        String location = ((File) jarList.get(i)).toURI().toString();
+                        if (parallelStartup != null)
+                        {
+                            b = parallelStartup.getInstalled(location);
+                        }
+                        else
+                        {
+                            long installStarted = System.nanoTime();
+                            b = context.installBundle(location);
+                            if (profiler != null)
+                            {
+                                profiler.installed(b, System.nanoTime() - installStarted);
+                            }
+                        }
+                        // **** END OF CHANGE FROM ORIGINAL FELIX VERSION ****
                     }
                     // If the bundle is already installed, then update it
                     // if the 'update' action is present.
@@ -214,7 +279,13 @@ public class AutoProcessor
 
             // Start all installed and/or updated bundles if the 'start'
             // action is present.
-            if (actionList.contains(AUTO_DEPLOY_START_VALUE))
+            // **** CHANGE FROM ORIGINAL FELIX VERSION ****
+            if (actionList.contains(AUTO_DEPLOY_START_VALUE) && (parallelStartup != null))
+            {
+                parallelStartup.defer(startBundleList, sl);
+            }
+            // **** END OF CHANGE FROM ORIGINAL FELIX VERSION ****
+            else if (actionList.contains(AUTO_DEPLOY_START_VALUE))
             {
                 for (int i = 0; i < startBundleList.size(); i++)
                 {
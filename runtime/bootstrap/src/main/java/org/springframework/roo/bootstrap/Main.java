@@ -287,12 +287,33 @@ public class Main
             m_fwk.init();
             // Use the system bundle context to process the auto-deploy
             // and auto-install/auto-start properties.
-            AutoProcessor.process(configProps, m_fwk.getBundleContext());
+            // **** CHANGE FROM ORIGINAL FELIX VERSION ****
+            String profile = configProps.get(StartupProfiler.PROFILE_STARTUP_PROP);
+            profile = (profile == null)
+                ? System.getProperty(StartupProfiler.PROFILE_STARTUP_PROP) : profile;
+            StartupProfiler profiler = null;
+            if (Boolean.valueOf(profile).booleanValue())
+            {
+                profiler = new StartupProfiler((long) startedNanoseconds);
+                m_fwk.getBundleContext().addBundleListener(profiler);
+                m_fwk.getBundleContext().addFrameworkListener(profiler);
+            }
+            ParallelStartup parallelStartup =
+                AutoProcessor.process(configProps, m_fwk.getBundleContext(), profiler);
+            // **** END OF CHANGE FROM ORIGINAL FELIX VERSION ****
             FrameworkEvent event;
             do
             {
                 // Start the framework.
                 m_fwk.start();
+                // **** CHANGE FROM ORIGINAL FELIX VERSION ****
+                // Start the deferred auto-deploy bundles in dependency waves.
+                if (parallelStartup != null)
+                {
+                    parallelStartup.start();
+                    parallelStartup = null;
+                }
+                // **** END OF CHANGE FROM ORIGINAL FELIX VERSION ****
                 // Wait for framework to stop to exit the VM.
                 event = m_fwk.waitForStop(0);
             }
@@ -0,0 +1,295 @@
+package org.springframework.roo.bootstrap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
+import org.osgi.framework.Constants;
+import org.osgi.framework.wiring.FrameworkWiring;
+import org.osgi.service.startlevel.StartLevel;
+
+/**
+ * Installs the auto-deploy bundles concurrently and, once the framework has
+ * started, starts them in waves that follow their package and bundle
+ * dependencies: every bundle of a wave only depends on bundles of earlier
+ * waves, so the bundles of a wave can be activated concurrently.
+ * <p>
+ * Bundles are started with {@link Bundle#START_ACTIVATION_POLICY}, so those
+ * declaring a lazy <code>Bundle-ActivationPolicy</code> are only activated
+ * when a class is first loaded from them.
+ *
+ * @since 2.0
+ */
+public class ParallelStartup {
+
+  private static final String THREAD_NAME = "Spring Roo Startup";
+
+  /**
+   * Returns the names declared by the clauses of the given manifest header,
+   * i.e. the package names of an Import-Package or Export-Package header or the
+   * symbolic names of a Require-Bundle header, ignoring their attributes and
+   * directives.
+   *
+   * @param header the header value (can be <code>null</code>)
+   * @return a non-<code>null</code> list
+   */
+  static List<String> parseHeaderNames(final String header) {
+    final List<String> names = new ArrayList<String>();
+    if (header == null) {
+      return names;
+    }
+    final StringBuilder part = new StringBuilder();
+    boolean quoted = false;
+    boolean inParameters = false;
+    for (int i = 0; i <= header.length(); i++) {
+      final char c = i < header.length() ? header.charAt(i) : ',';
+      if (c == '"') {
+        quoted = !quoted;
+      } else if (!quoted && (c == ';' || c == ',')) {
+        final String name = part.toString().trim();
+        if (name.indexOf('=') >= 0) {
+          inParameters = true;
+        } else if (!inParameters && name.length() > 0) {
+          names.add(name);
+        }
+        part.setLength(0);
+        if (c == ',') {
+          inParameters = false;
+        }
+      } else {
+        part.append(c);
+      }
+    }
+    return names;
+  }
+
+  /**
+   * Splits the given bundles into start waves. When none of the remaining
+   * bundles has all its dependencies in earlier waves, i.e. they form or
+   * depend on a dependency cycle, all of them are placed in a final wave.
+   *
+   * @param bundles the bundles to start, in their preferred order (required)
+   * @return the non-empty waves, in start order
+   */
+  static List<List<Bundle>> computeWaves(final List<Bundle> bundles) {
+    final Map<String, Bundle> exporters = new HashMap<String, Bundle>();
+    final Map<String, Bundle> bundlesBySymbolicName = new HashMap<String, Bundle>();
+    for (final Bundle bundle : bundles) {
+      for (final String packageName : parseHeaderNames(getHeader(bundle,
+          Constants.EXPORT_PACKAGE))) {
+        if (!exporters.containsKey(packageName)) {
+          exporters.put(packageName, bundle);
+        }
+      }
+      if (bundle.getSymbolicName() != null) {
+        bundlesBySymbolicName.put(bundle.getSymbolicName(), bundle);
+      }
+    }
+
+    final Map<Bundle, Set<Bundle>> dependencies = new LinkedHashMap<Bundle, Set<Bundle>>();
+    for (final Bundle bundle : bundles) {
+      final Set<Bundle> required = new LinkedHashSet<Bundle>();
+      for (final String packageName : parseHeaderNames(getHeader(bundle,
+          Constants.IMPORT_PACKAGE))) {
+        addDependency(bundle, exporters.get(packageName), required);
+      }
+      for (final String symbolicName : parseHeaderNames(getHeader(bundle,
+          Constants.REQUIRE_BUNDLE))) {
+        addDependency(bundle, bundlesBySymbolicName.get(symbolicName), required);
+      }
+      dependencies.put(bundle, required);
+    }
+
+    final List<List<Bundle>> waves = new ArrayList<List<Bundle>>();
+    final Set<Bundle> scheduled = new HashSet<Bundle>();
+    while (!dependencies.isEmpty()) {
+      final List<Bundle> wave = new ArrayList<Bundle>();
+      for (final Map.Entry<Bundle, Set<Bundle>> entry : dependencies.entrySet()) {
+        if (scheduled.containsAll(entry.getValue())) {
+          wave.add(entry.getKey());
+        }
+      }
+      if (wave.isEmpty()) {
+        wave.addAll(dependencies.keySet());
+      }
+      for (final Bundle bundle : wave) {
+        dependencies.remove(bundle);
+      }
+      scheduled.addAll(wave);
+      waves.add(wave);
+    }
+    return waves;
+  }
+
+  private static void addDependency(final Bundle bundle, final Bundle dependency,
+      final Set<Bundle> dependencies) {
+    if (dependency != null && dependency != bundle) {
+      dependencies.add(dependency);
+    }
+  }
+
+  private static String getHeader(final Bundle bundle, final String name) {
+    return bundle.getHeaders().get(name);
+  }
+
+  private static void printError(final String action, final Throwable t) {
+    System.err.println(action + ": " + t + (t.getCause() != null ? " - " + t.getCause() : ""));
+  }
+
+  private final BundleContext context;
+  private final List<Bundle> deferredBundles = new ArrayList<Bundle>();
+  private final ExecutorService executor;
+  private final Map<String, Future<Bundle>> installations =
+      new HashMap<String, Future<Bundle>>();
+  private final StartupProfiler profiler;
+
+  /**
+   * Constructor
+   *
+   * @param context the system bundle context (required)
+   * @param profiler the profiler to notify (can be <code>null</code>)
+   */
+  public ParallelStartup(final BundleContext context, final StartupProfiler profiler) {
+    this.context = context;
+    this.profiler = profiler;
+    executor =
+        Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+            new ThreadFactory() {
+              public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+              }
+            });
+  }
+
+  /**
+   * Starts installing the bundles at the given locations in the background;
+   * use {@link #getInstalled(String)} to obtain each bundle.
+   *
+   * @param locations the bundle locations (required)
+   */
+  public void installAll(final Collection<String> locations) {
+    for (final String location : locations) {
+      installations.put(location, executor.submit(new Callable<Bundle>() {
+        public Bundle call() throws BundleException {
+          final long installStarted = System.nanoTime();
+          final Bundle bundle = context.installBundle(location);
+          if (profiler != null) {
+            profiler.installed(bundle, System.nanoTime() - installStarted);
+          }
+          return bundle;
+        }
+      }));
+    }
+  }
+
+  /**
+   * Returns the bundle installed from the given location, waiting for its
+   * installation to finish, or installs it now if {@link #installAll} was not
+   * given that location.
+   *
+   * @param location the bundle location (required)
+   * @return the installed bundle
+   * @throws BundleException if the bundle could not be installed
+   */
+  public Bundle getInstalled(final String location) throws BundleException {
+    final Future<Bundle> installation = installations.remove(location);
+    if (installation == null) {
+      return context.installBundle(location);
+    }
+    try {
+      return installation.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BundleException("Interrupted while installing " + location, e);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof BundleException) {
+        throw (BundleException) e.getCause();
+      }
+      throw new BundleException("Could not install " + location, e.getCause());
+    }
+  }
+
+  /**
+   * Defers the start of the given bundles until {@link #start()} is called.
+   * Their persistent autostart setting is cleared, so that the framework does
+   * not start the bundles recorded as started by a previous session one by
+   * one when it starts.
+   *
+   * @param bundles the bundles to start (required)
+   * @param startLevel the start level service (required)
+   */
+  public void defer(final List<Bundle> bundles, final StartLevel startLevel) {
+    for (final Bundle bundle : bundles) {
+      if (startLevel.isBundlePersistentlyStarted(bundle)) {
+        try {
+          bundle.stop();
+        } catch (final BundleException e) {
+          printError("Auto-deploy start", e);
+        }
+      }
+      deferredBundles.add(bundle);
+    }
+  }
+
+  /**
+   * Resolves the deferred bundles at once, then starts them wave by wave,
+   * starting the bundles of each wave concurrently. To be called after the
+   * framework has started.
+   */
+  public void start() {
+    try {
+      context.getBundle(0).adapt(FrameworkWiring.class).resolveBundles(deferredBundles);
+      final List<List<Bundle>> waves = computeWaves(deferredBundles);
+      if (profiler != null) {
+        for (int i = 0; i < waves.size(); i++) {
+          for (final Bundle bundle : waves.get(i)) {
+            profiler.scheduled(bundle, i);
+          }
+        }
+      }
+      for (final List<Bundle> wave : waves) {
+        final List<Future<?>> starts = new ArrayList<Future<?>>();
+        for (final Bundle bundle : wave) {
+          starts.add(executor.submit(new Callable<Void>() {
+            public Void call() throws BundleException {
+              bundle.start(Bundle.START_ACTIVATION_POLICY);
+              return null;
+            }
+          }));
+        }
+        for (final Future<?> start : starts) {
+          try {
+            start.get();
+          } catch (final ExecutionException e) {
+            printError("Auto-deploy start", e.getCause());
+          }
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      deferredBundles.clear();
+      executor.shutdown();
+      if (profiler != null) {
+        profiler.publish();
+      }
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package org.springframework.roo.bootstrap;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.FrameworkListener;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.SynchronousBundleListener;
+import org.osgi.service.startlevel.StartLevel;
+
+/**
+ * Records how long each bundle takes to install and activate while Roo is
+ * starting up. The launcher only installs it when the
+ * {@value #PROFILE_STARTUP_PROP} property is <code>true</code>.
+ * <p>
+ * The launcher is not an OSGi bundle, so the timeline is published once the
+ * startup completes as the
+ * {@value #TIMELINE_PROPERTY} system property (in the same way the shell hands
+ * "roo.exit" back to the launcher), which is what the
+ * <code>startup report</code> command prints. The first line holds the startup
+ * mode, the milliseconds until the framework reached its final start level and
+ * that start level; every other line describes a bundle as
+ * <code>id,symbolic name,wave,install ms,activation offset ms,activation ms,state</code>,
+ * using -1 for unknown values.
+ *
+ * @since 2.0
+ */
+public class StartupProfiler implements SynchronousBundleListener, FrameworkListener {
+
+  /**
+   * The system property holding the startup timeline.
+   */
+  public static final String TIMELINE_PROPERTY = "roo.startup.timeline";
+
+  /**
+   * The property name used to enable the profiler, also read from the system
+   * properties.
+   */
+  public static final String PROFILE_STARTUP_PROP = "roo.startup.profile";
+
+  private static class Entry {
+
+    private final long bundleId;
+    private final String symbolicName;
+    private long activatedAt = -1;
+    private long installNanos = -1;
+    private boolean lazy;
+    private long startingAt = -1;
+    private int wave = -1;
+
+    Entry(final Bundle bundle) {
+      bundleId = bundle.getBundleId();
+      symbolicName = bundle.getSymbolicName();
+    }
+  }
+
+  private final Map<Long, Entry> entries = new LinkedHashMap<Long, Entry>();
+  private final long originNanos;
+  private boolean parallel;
+  private long readyAt = -1;
+  private int startLevel;
+
+  /**
+   * Constructor
+   *
+   * @param originNanos the {@link System#nanoTime()} at which the launcher
+   *            started, which all the offsets of the timeline are relative to
+   */
+  public StartupProfiler(final long originNanos) {
+    this.originNanos = originNanos;
+  }
+
+  public synchronized void bundleChanged(final BundleEvent event) {
+    switch (event.getType()) {
+      case BundleEvent.STARTING:
+        getEntry(event.getBundle()).startingAt = System.nanoTime();
+        break;
+      case BundleEvent.STARTED:
+        getEntry(event.getBundle()).activatedAt = System.nanoTime();
+        break;
+      case BundleEvent.LAZY_ACTIVATION:
+        getEntry(event.getBundle()).lazy = true;
+        break;
+      default:
+        break;
+    }
+  }
+
+  public synchronized void frameworkEvent(final FrameworkEvent event) {
+    if (event.getType() != FrameworkEvent.STARTLEVEL_CHANGED
+        && event.getType() != FrameworkEvent.STARTED) {
+      return;
+    }
+    final Bundle systemBundle = event.getBundle();
+    if (systemBundle == null || systemBundle.getBundleContext() == null) {
+      return;
+    }
+    final ServiceReference<?> reference =
+        systemBundle.getBundleContext().getServiceReference(StartLevel.class.getName());
+    if (reference != null) {
+      final StartLevel startLevelService =
+          (StartLevel) systemBundle.getBundleContext().getService(reference);
+      if (startLevelService != null) {
+        startLevel = startLevelService.getStartLevel();
+      }
+      systemBundle.getBundleContext().ungetService(reference);
+    }
+    readyAt = System.nanoTime();
+    if (event.getType() == FrameworkEvent.STARTED) {
+      publish();
+    }
+  }
+
+  private Entry getEntry(final Bundle bundle) {
+    Entry entry = entries.get(bundle.getBundleId());
+    if (entry == null) {
+      entry = new Entry(bundle);
+      entries.put(bundle.getBundleId(), entry);
+    }
+    return entry;
+  }
+
+  /**
+   * Records the time it took to install the given bundle.
+   *
+   * @param bundle the installed bundle (required)
+   * @param nanos the elapsed nanoseconds
+   */
+  public synchronized void installed(final Bundle bundle, final long nanos) {
+    getEntry(bundle).installNanos = nanos;
+  }
+
+  /**
+   * Records that the given bundle will be started as part of the given wave
+   * of a parallel startup.
+   *
+   * @param bundle the bundle to start (required)
+   * @param wave the zero-based wave number
+   */
+  public synchronized void scheduled(final Bundle bundle, final int wave) {
+    getEntry(bundle).wave = wave;
+    parallel = true;
+  }
+
+  /**
+   * Publishes the timeline recorded so far. Called when the framework has
+   * started and, in a parallel startup, again once the last wave has been
+   * started.
+   */
+  public synchronized void publish() {
+    final StringBuilder timeline = new StringBuilder();
+    timeline.append(parallel ? "parallel" : "sequential").append(',')
+        .append(toOffsetMillis(readyAt)).append(',').append(startLevel);
+    for (final Entry entry : entries.values()) {
+      timeline.append('\n').append(entry.bundleId).append(',').append(entry.symbolicName)
+          .append(',').append(entry.wave).append(',')
+          .append(entry.installNanos < 0 ? -1 : entry.installNanos / 1000000).append(',')
+          .append(toOffsetMillis(entry.startingAt)).append(',')
+          .append(entry.startingAt < 0 || entry.activatedAt < 0 ? -1
+              : (entry.activatedAt - entry.startingAt) / 1000000).append(',')
+          .append(entry.activatedAt >= 0 ? "active" : entry.lazy ? "lazy" : "pending");
+    }
+    System.setProperty(TIMELINE_PROPERTY, timeline.toString());
+  }
+
+  private long toOffsetMillis(final long nanos) {
+    return nanos < 0 ? -1 : (nanos - originNanos) / 1000000;
+  }
+}
@@ -0,0 +1,139 @@
+package org.springframework.roo.bootstrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.List;
+
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+
+/**
+ * Unit test of {@link ParallelStartup}
+ *
+ * @since 2.0
+ */
+public class ParallelStartupTest {
+
+  /**
+   * Returns a mock bundle with the given symbolic name and manifest headers
+   *
+   * @param symbolicName
+   * @param headers the names and values of the headers, alternately
+   * @return a non-<code>null</code> bundle
+   */
+  private Bundle mockBundle(final String symbolicName, final String... headers) {
+    final Dictionary<String, String> headerValues = new Hashtable<String, String>();
+    for (int i = 0; i < headers.length; i += 2) {
+      headerValues.put(headers[i], headers[i + 1]);
+    }
+    final Bundle bundle = mock(Bundle.class);
+    when(bundle.getSymbolicName()).thenReturn(symbolicName);
+    when(bundle.getHeaders()).thenReturn(headerValues);
+    return bundle;
+  }
+
+  @Test
+  public void testParseNullHeader() {
+    assertTrue(ParallelStartup.parseHeaderNames(null).isEmpty());
+  }
+
+  @Test
+  public void testParseImportPackageIgnoresVersionsAndAttributes() {
+    // Invoke
+    final List<String> names =
+        ParallelStartup.parseHeaderNames("org.example.a;version=\"[1.0,2.0)\","
+            + " org.example.b;resolution:=optional;vendor=example,org.example.c");
+
+    // Check
+    assertEquals(Arrays.asList("org.example.a", "org.example.b", "org.example.c"), names);
+  }
+
+  @Test
+  public void testParseClauseWithSeveralPackages() {
+    // Invoke
+    final List<String> names =
+        ParallelStartup.parseHeaderNames("org.example.a;org.example.b;version=\"1.0\","
+            + "org.example.c;uses:=\"org.example.a,org.example.b\"");
+
+    // Check
+    assertEquals(Arrays.asList("org.example.a", "org.example.b", "org.example.c"), names);
+  }
+
+  @Test
+  public void testParseRequireBundle() {
+    // Invoke
+    final List<String> names =
+        ParallelStartup.parseHeaderNames("org.example.core;bundle-version=\"[2.0,3.0)\";"
+            + "visibility:=reexport,org.example.support");
+
+    // Check
+    assertEquals(Arrays.asList("org.example.core", "org.example.support"), names);
+  }
+
+  @Test
+  public void testWavesFollowImportPackageAndRequireBundle() {
+    // Set up
+    final Bundle model =
+        mockBundle("org.example.model", Constants.EXPORT_PACKAGE,
+            "org.example.model;version=\"2.0.0\"");
+    final Bundle service =
+        mockBundle("org.example.service", Constants.IMPORT_PACKAGE,
+            "org.example.model;version=\"[2.0,3.0)\"", Constants.EXPORT_PACKAGE,
+            "org.example.service");
+    final Bundle shell =
+        mockBundle("org.example.shell", Constants.REQUIRE_BUNDLE,
+            "org.example.service;bundle-version=\"2.0.0\"");
+    final Bundle support = mockBundle("org.example.support");
+
+    // Invoke
+    final List<List<Bundle>> waves =
+        ParallelStartup.computeWaves(Arrays.asList(shell, service, model, support));
+
+    // Check
+    assertEquals(Arrays.asList(Arrays.asList(model, support), Arrays.asList(service),
+        Arrays.asList(shell)), waves);
+  }
+
+  @Test
+  public void testImportsOfOwnOrUnknownPackagesAreIgnored() {
+    // Set up
+    final Bundle bundle =
+        mockBundle("org.example.model", Constants.EXPORT_PACKAGE, "org.example.model",
+            Constants.IMPORT_PACKAGE, "org.example.model,org.osgi.framework;version=\"1.5\"");
+
+    // Invoke
+    final List<List<Bundle>> waves = ParallelStartup.computeWaves(Arrays.asList(bundle));
+
+    // Check
+    assertEquals(Arrays.asList(Arrays.asList(bundle)), waves);
+  }
+
+  @Test
+  public void testCycleIsStartedInPreferredOrderInTheLastWave() {
+    // Set up
+    final Bundle first =
+        mockBundle("org.example.first", Constants.EXPORT_PACKAGE, "org.example.first",
+            Constants.IMPORT_PACKAGE, "org.example.second");
+    final Bundle second =
+        mockBundle("org.example.second", Constants.EXPORT_PACKAGE, "org.example.second",
+            Constants.IMPORT_PACKAGE, "org.example.first");
+    final Bundle dependent =
+        mockBundle("org.example.dependent", Constants.REQUIRE_BUNDLE, "org.example.first");
+    final Bundle independent = mockBundle("org.example.independent");
+
+    // Invoke
+    final List<List<Bundle>> waves =
+        ParallelStartup.computeWaves(Arrays.asList(first, dependent, second, independent));
+
+    // Check
+    assertEquals(Arrays.asList(Arrays.asList(independent),
+        Arrays.asList(first, dependent, second)), waves);
+  }
+}
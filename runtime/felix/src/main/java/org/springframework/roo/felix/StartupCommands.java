@@ -0,0 +1,111 @@
+package org.springframework.roo.felix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Service;
+import org.springframework.roo.shell.CliCommand;
+import org.springframework.roo.shell.CliOption;
+import org.springframework.roo.shell.CommandMarker;
+
+/**
+ * Prints the bundle activation timeline recorded by the launcher while Roo was
+ * starting up.
+ *
+ * @since 2.0
+ */
+@Component
+@Service
+public class StartupCommands implements CommandMarker {
+
+  /**
+   * The system property in which the launcher publishes the startup timeline;
+   * see <code>org.springframework.roo.bootstrap.StartupProfiler</code>.
+   */
+  private static final String TIMELINE_PROPERTY = "roo.startup.timeline";
+
+  private static class BundleTiming {
+
+    private final long activationMillis;
+    private final long activationOffsetMillis;
+    private final long bundleId;
+    private final long installMillis;
+    private final String state;
+    private final String symbolicName;
+    private final int wave;
+
+    BundleTiming(final String[] fields) {
+      bundleId = Long.parseLong(fields[0]);
+      symbolicName = fields[1];
+      wave = Integer.parseInt(fields[2]);
+      installMillis = Long.parseLong(fields[3]);
+      activationOffsetMillis = Long.parseLong(fields[4]);
+      activationMillis = Long.parseLong(fields[5]);
+      state = fields[6];
+    }
+  }
+
+  @CliCommand(value = "startup report",
+      help = "Displays how long each bundle took to install and activate while Roo was starting")
+  public String startupReport(@CliOption(key = "limit", mandatory = false,
+      unspecifiedDefaultValue = "20",
+      help = "The maximum number of bundles to display, slowest activation first") final int limit) {
+
+    final String timeline = System.getProperty(TIMELINE_PROPERTY);
+    if (StringUtils.isBlank(timeline)) {
+      return "No startup timeline was recorded; start Roo with the roo.startup.profile "
+          + "property set to true";
+    }
+
+    final String[] lines = timeline.split("\n");
+    final String[] summary = lines[0].split(",");
+    final List<BundleTiming> timings = new ArrayList<BundleTiming>();
+    int lazyBundles = 0;
+    int waves = 0;
+    for (int i = 1; i < lines.length; i++) {
+      final BundleTiming timing = new BundleTiming(lines[i].split(","));
+      timings.add(timing);
+      if ("lazy".equals(timing.state)) {
+        lazyBundles++;
+      }
+      waves = Math.max(waves, timing.wave + 1);
+    }
+    Collections.sort(timings, new Comparator<BundleTiming>() {
+      public int compare(final BundleTiming t1, final BundleTiming t2) {
+        return Long.valueOf(t2.activationMillis).compareTo(t1.activationMillis);
+      }
+    });
+
+    final StringBuilder report = new StringBuilder();
+    report.append("Startup mode: ").append(summary[0]);
+    if (waves > 0) {
+      report.append(" (").append(waves).append(" waves)");
+    }
+    report.append(IOUtils.LINE_SEPARATOR);
+    report.append("Start level ").append(summary[2]).append(" reached after ")
+        .append(summary[1]).append(" ms").append(IOUtils.LINE_SEPARATOR);
+    report.append("Bundles: ").append(timings.size()).append(" (").append(lazyBundles)
+        .append(" awaiting lazy activation)").append(IOUtils.LINE_SEPARATOR)
+        .append(IOUtils.LINE_SEPARATOR);
+    report.append(String.format("%5s %6s %10s %10s %10s %-8s %s", "ID", "Wave", "Install",
+        "Started at", "Activation", "State", "Symbolic name"));
+    for (int i = 0; i < timings.size() && i < limit; i++) {
+      final BundleTiming timing = timings.get(i);
+      report.append(IOUtils.LINE_SEPARATOR).append(
+          String.format("%5d %6s %10s %10s %10s %-8s %s", timing.bundleId,
+              toText(timing.wave), toText(timing.installMillis),
+              toText(timing.activationOffsetMillis), toText(timing.activationMillis),
+              timing.state, timing.symbolicName));
+    }
+    return report.toString();
+  }
+
+  private String toText(final long value) {
+    return value < 0 ? "-" : String.valueOf(value);
+  }
+}
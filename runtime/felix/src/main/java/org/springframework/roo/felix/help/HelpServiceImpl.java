@@ -6,18 +6,14 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
@@ -30,7 +26,6 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.transform.Transformer;
 
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.felix.scr.annotations.Component;
@@ -40,14 +35,12 @@ import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.component.ComponentContext;
 import org.springframework.roo.shell.AbstractShell;
-import org.springframework.roo.shell.CliAvailabilityIndicator;
-import org.springframework.roo.shell.CliCommand;
 import org.springframework.roo.shell.CliOption;
-import org.springframework.roo.shell.CommandMarker;
-import org.springframework.roo.shell.Converter;
-import org.springframework.roo.shell.MethodTarget;
+import org.springframework.roo.shell.CommandIndex;
+import org.springframework.roo.shell.CommandIndex.CommandEntry;
+import org.springframework.roo.shell.CommandIndex.OptionEntry;
+import org.springframework.roo.shell.CommandIndexService;
 import org.springframework.roo.shell.NaturalOrderComparator;
-import org.springframework.roo.shell.ShellContext;
 import org.springframework.roo.support.logging.HandlerUtils;
 import org.springframework.roo.support.util.XmlElementBuilder;
 import org.springframework.roo.support.util.XmlUtils;
@@ -71,15 +64,16 @@ public class HelpServiceImpl implements HelpService {
   public BundleContext context;
   private static final Comparator<Object> COMPARATOR = new NaturalOrderComparator<Object>();
 
-  private final Map<String, MethodTarget> availabilityIndicators =
-      new HashMap<String, MethodTarget>();
-  private final Set<CommandMarker> commands = new HashSet<CommandMarker>();
-  private final Set<Converter<?>> converters = new HashSet<Converter<?>>();
-
   static final String NULL = "__NULL__";
 
   private final Object mutex = new Object();
 
+  private CommandIndexService commandIndexService;
+
+  // The reference guide last written, and the index it was built from
+  private CommandIndex referenceGuideIndex;
+  private byte[] referenceGuide;
+
   protected void activate(final ComponentContext cContext) {
     context = cContext.getBundleContext();
   }
@@ -87,21 +81,7 @@ public class HelpServiceImpl implements HelpService {
   public void helpReferenceGuide() {
     synchronized (mutex) {
 
-      // Get all Services implement CommandMarker interface
-      try {
-        ServiceReference<?>[] references =
-            this.context.getAllServiceReferences(CommandMarker.class.getName(), null);
-
-        for (ServiceReference<?> ref : references) {
-          CommandMarker command = (CommandMarker) this.context.getService(ref);
-          if (!commands.contains(command)) {
-            add(command);
-          }
-        }
-
-      } catch (InvalidSyntaxException e) {
-        LOGGER.warning("Cannot load CommandMarker on SimpleParser.");
-      }
+      final CommandIndex index = getCommandIndexService().getCommandMetadata();
 
       final File f = new File(".");
       final File[] existing = f.listFiles(new FileFilter() {
@@ -113,210 +93,209 @@ public class HelpServiceImpl implements HelpService {
         e.delete();
       }
 
-      // Compute the sections we'll be outputting, and get them into a
-      // nice order
-      final SortedMap<String, Object> sections = new TreeMap<String, Object>(COMPARATOR);
-      next_target: for (final Object target : commands) {
-        final Method[] methods = target.getClass().getMethods();
-        for (final Method m : methods) {
-          final CliCommand cmd = m.getAnnotation(CliCommand.class);
-          if (cmd != null) {
-            String sectionName = target.getClass().getSimpleName();
-            final Pattern p = Pattern.compile("[A-Z][^A-Z]*");
-            final Matcher matcher = p.matcher(sectionName);
-            final StringBuilder string = new StringBuilder();
-            while (matcher.find()) {
-              string.append(matcher.group()).append(" ");
-            }
-            sectionName = string.toString().trim();
-            if (sections.containsKey(sectionName)) {
-              throw new IllegalStateException("Section name '" + sectionName + "' not unique");
-            }
-            sections.put(sectionName, target);
-            continue next_target;
-          }
+      if (index != referenceGuideIndex) {
+        referenceGuide = buildReferenceGuide(index);
+        referenceGuideIndex = index;
+      }
+
+      try {
+        final File output = new File(f, "appendix-command-index.xml");
+        FileUtils.writeByteArrayToFile(output, referenceGuide);
+      } catch (final IOException ioe) {
+        throw new IllegalStateException(ioe);
+      }
+    }
+  }
+
+  private byte[] buildReferenceGuide(final CommandIndex index) {
+    // Compute the sections we'll be outputting, and get them into a
+    // nice order
+    final SortedMap<String, String> sections = new TreeMap<String, String>(COMPARATOR);
+    final Map<String, List<CommandEntry>> commandsByClass =
+        new HashMap<String, List<CommandEntry>>();
+    for (final CommandEntry command : index.getCommands()) {
+      List<CommandEntry> classCommands = commandsByClass.get(command.getDeclaringClassName());
+      if (classCommands == null) {
+        classCommands = new ArrayList<CommandEntry>();
+        commandsByClass.put(command.getDeclaringClassName(), classCommands);
+
+        String sectionName = StringUtils.substringAfterLast(command.getDeclaringClassName(), ".");
+        final Pattern p = Pattern.compile("[A-Z][^A-Z]*");
+        final Matcher matcher = p.matcher(sectionName);
+        final StringBuilder string = new StringBuilder();
+        while (matcher.find()) {
+          string.append(matcher.group()).append(" ");
+        }
+        sectionName = string.toString().trim();
+        if (sections.containsKey(sectionName)) {
+          throw new IllegalStateException("Section name '" + sectionName + "' not unique");
         }
+        sections.put(sectionName, command.getDeclaringClassName());
       }
+      classCommands.add(command);
+    }
 
-      // Build each section of the appendix
-      final DocumentBuilder builder = XmlUtils.getDocumentBuilder();
-      final Document document = builder.newDocument();
-      final List<Element> builtSections = new ArrayList<Element>();
-
-      for (final Entry<String, Object> entry : sections.entrySet()) {
-        final String section = entry.getKey();
-        final Object target = entry.getValue();
-        final SortedMap<String, Element> individualCommands =
-            new TreeMap<String, Element>(COMPARATOR);
-
-        final Method[] methods = target.getClass().getMethods();
-        for (final Method m : methods) {
-          final CliCommand cmd = m.getAnnotation(CliCommand.class);
-          if (cmd != null) {
-            final StringBuilder cmdSyntax = new StringBuilder();
-            cmdSyntax.append(cmd.value()[0]);
-
-            // Build the syntax list
-
-            // Store the order options appear
-            final List<String> optionKeys = new ArrayList<String>();
-            // key: option key, value: help text
-            final Map<String, String> optionDetails = new HashMap<String, String>();
-            for (final Annotation[] ann : m.getParameterAnnotations()) {
-              for (final Annotation a : ann) {
-                if (a instanceof CliOption) {
-                  final CliOption option = (CliOption) a;
-                  // Figure out which key we want to use (use
-                  // first non-empty string, or make it
-                  // "(default)" if needed)
-                  String key = option.key()[0];
-                  if ("".equals(key)) {
-                    for (final String otherKey : option.key()) {
-                      if (!"".equals(otherKey)) {
-                        key = otherKey;
-                        break;
-                      }
-                    }
-                    if ("".equals(key)) {
-                      key = "[default]";
-                    }
-                  }
-
-                  final StringBuilder help = new StringBuilder();
-                  if ("".equals(option.help())) {
-                    help.append("No help available");
-                  } else {
-                    help.append(option.help());
-                  }
-                  if (option.specifiedDefaultValue().equals(option.unspecifiedDefaultValue())) {
-                    if (option.specifiedDefaultValue().equals(null)) {
-                      help.append("; no default value");
-                    } else {
-                      help.append("; default: '").append(option.specifiedDefaultValue())
-                          .append("'");
-                    }
-                  } else {
-                    if (!"".equals(option.specifiedDefaultValue())
-                        && !NULL.equals(option.specifiedDefaultValue())) {
-                      help.append("; default if option present: '")
-                          .append(option.specifiedDefaultValue()).append("'");
-                    }
-                    if (!"".equals(option.unspecifiedDefaultValue())
-                        && !NULL.equals(option.unspecifiedDefaultValue())) {
-                      help.append("; default if option not present: '")
-                          .append(option.unspecifiedDefaultValue()).append("'");
-                    }
-                  }
-                  help.append(option.mandatory() ? " (mandatory) " : "");
-
-                  // Store details for later
-                  key = "--" + key;
-                  optionKeys.add(key);
-                  optionDetails.put(key, help.toString());
-
-                  // Include it in the mandatory syntax
-                  if (option.mandatory()) {
-                    cmdSyntax.append(" ").append(key);
-                  }
-                }
+    // Build each section of the appendix
+    final DocumentBuilder builder = XmlUtils.getDocumentBuilder();
+    final Document document = builder.newDocument();
+    final List<Element> builtSections = new ArrayList<Element>();
+
+    for (final Entry<String, String> entry : sections.entrySet()) {
+      final String section = entry.getKey();
+      final String className = entry.getValue();
+      final SortedMap<String, Element> individualCommands =
+          new TreeMap<String, Element>(COMPARATOR);
+
+      for (final CommandEntry cmd : commandsByClass.get(className)) {
+        final String commandName = cmd.getValues()[0];
+        final StringBuilder cmdSyntax = new StringBuilder();
+        cmdSyntax.append(commandName);
+
+        // Build the syntax list
+
+        // Store the order options appear
+        final List<String> optionKeys = new ArrayList<String>();
+        // key: option key, value: help text
+        final Map<String, String> optionDetails = new HashMap<String, String>();
+        for (final OptionEntry option : cmd.getOptions()) {
+          // Figure out which key we want to use (use
+          // first non-empty string, or make it
+          // "(default)" if needed)
+          final String[] keys = option.getKeys();
+          String key = keys[0];
+          if ("".equals(key)) {
+            for (final String otherKey : keys) {
+              if (!"".equals(otherKey)) {
+                key = otherKey;
+                break;
               }
             }
-
-            // Make a variable list element
-            Element variableListElement = document.createElement("variablelist");
-            boolean anyVars = false;
-            for (final String optionKey : optionKeys) {
-              anyVars = true;
-              final String help = optionDetails.get(optionKey);
-              variableListElement.appendChild(new XmlElementBuilder("varlistentry", document)
-                  .addChild(new XmlElementBuilder("term", document).setText(optionKey).build())
-                  .addChild(
-                      new XmlElementBuilder("listitem", document).addChild(
-                          new XmlElementBuilder("para", document).setText(help).build()).build())
-                  .build());
+            if ("".equals(key)) {
+              key = "[default]";
             }
+          }
 
-            if (!anyVars) {
-              variableListElement =
-                  new XmlElementBuilder("para", document).setText(
-                      "This command does not accept any options.").build();
+          final StringBuilder help = new StringBuilder();
+          if ("".equals(option.getHelp())) {
+            help.append("No help available");
+          } else {
+            help.append(option.getHelp());
+          }
+          if (option.getSpecifiedDefaultValue().equals(option.getUnspecifiedDefaultValue())) {
+            if (option.getSpecifiedDefaultValue().equals(null)) {
+              help.append("; no default value");
+            } else {
+              help.append("; default: '").append(option.getSpecifiedDefaultValue()).append("'");
+            }
+          } else {
+            if (!"".equals(option.getSpecifiedDefaultValue())
+                && !NULL.equals(option.getSpecifiedDefaultValue())) {
+              help.append("; default if option present: '")
+                  .append(option.getSpecifiedDefaultValue()).append("'");
             }
+            if (!"".equals(option.getUnspecifiedDefaultValue())
+                && !NULL.equals(option.getUnspecifiedDefaultValue())) {
+              help.append("; default if option not present: '")
+                  .append(option.getUnspecifiedDefaultValue()).append("'");
+            }
+          }
+          help.append(option.isMandatory() ? " (mandatory) " : "");
 
-            // Now we've figured out the options, store this
-            // individual command
-            final CDATASection progList = document.createCDATASection(cmdSyntax.toString());
-            final String safeName =
-                cmd.value()[0].replace("\\", "BCK").replace("/", "FWD").replace("*", "ASX");
-            final Element element =
-                new XmlElementBuilder("section", document)
-                    .addAttribute("xml:id",
-                        "command-index-" + safeName.toLowerCase().replace(' ', '-'))
-                    .addChild(
-                        new XmlElementBuilder("title", document).setText(cmd.value()[0]).build())
-                    .addChild(new XmlElementBuilder("para", document).setText(cmd.help()).build())
-                    .addChild(
-                        new XmlElementBuilder("programlisting", document).addChild(progList)
-                            .build()).addChild(variableListElement).build();
-
-            individualCommands.put(cmdSyntax.toString(), element);
+          // Store details for later
+          key = "--" + key;
+          optionKeys.add(key);
+          optionDetails.put(key, help.toString());
+
+          // Include it in the mandatory syntax
+          if (option.isMandatory()) {
+            cmdSyntax.append(" ").append(key);
           }
         }
 
-        final Element topSection = document.createElement("section");
-        topSection.setAttribute("xml:id", "command-index-"
-            + section.toLowerCase().replace(' ', '-'));
-        topSection.appendChild(new XmlElementBuilder("title", document).setText(section).build());
-        topSection.appendChild(new XmlElementBuilder("para", document).setText(
-            section + " are contained in " + target.getClass().getName() + ".").build());
+        // Make a variable list element
+        Element variableListElement = document.createElement("variablelist");
+        boolean anyVars = false;
+        for (final String optionKey : optionKeys) {
+          anyVars = true;
+          final String help = optionDetails.get(optionKey);
+          variableListElement.appendChild(new XmlElementBuilder("varlistentry", document)
+              .addChild(new XmlElementBuilder("term", document).setText(optionKey).build())
+              .addChild(
+                  new XmlElementBuilder("listitem", document).addChild(
+                      new XmlElementBuilder("para", document).setText(help).build()).build())
+              .build());
+        }
 
-        for (final Element value : individualCommands.values()) {
-          topSection.appendChild(value);
+        if (!anyVars) {
+          variableListElement =
+              new XmlElementBuilder("para", document).setText(
+                  "This command does not accept any options.").build();
         }
 
-        builtSections.add(topSection);
+        // Now we've figured out the options, store this
+        // individual command
+        final CDATASection progList = document.createCDATASection(cmdSyntax.toString());
+        final String safeName =
+            commandName.replace("\\", "BCK").replace("/", "FWD").replace("*", "ASX");
+        final Element element =
+            new XmlElementBuilder("section", document)
+                .addAttribute("xml:id",
+                    "command-index-" + safeName.toLowerCase().replace(' ', '-'))
+                .addChild(new XmlElementBuilder("title", document).setText(commandName).build())
+                .addChild(new XmlElementBuilder("para", document).setText(cmd.getHelp()).build())
+                .addChild(
+                    new XmlElementBuilder("programlisting", document).addChild(progList).build())
+                .addChild(variableListElement).build();
+
+        individualCommands.put(cmdSyntax.toString(), element);
       }
 
-      final Element appendix = document.createElement("appendix");
-      appendix.setAttribute("xmlns", "http://docbook.org/ns/docbook");
-      appendix.setAttribute("version", "5.0");
-      appendix.setAttribute("xml:id", "command-index");
-      appendix.appendChild(new XmlElementBuilder("title", document).setText("Command Index")
-          .build());
-      appendix.appendChild(new XmlElementBuilder("para", document).setText(
-          "This appendix was automatically built from Roo " + AbstractShell.versionInfo() + ".")
-          .build());
-      appendix
-          .appendChild(new XmlElementBuilder("para", document)
-              .setText(
-                  "Commands are listed in alphabetic order, and are shown in monospaced font with any mandatory options you must specify when using the command. Most commands accept a large number of options, and all of the possible options for each command are presented in this appendix.")
-              .build());
+      final Element topSection = document.createElement("section");
+      topSection.setAttribute("xml:id", "command-index-" + section.toLowerCase().replace(' ', '-'));
+      topSection.appendChild(new XmlElementBuilder("title", document).setText(section).build());
+      topSection.appendChild(new XmlElementBuilder("para", document).setText(
+          section + " are contained in " + className + ".").build());
 
-      for (final Element section : builtSections) {
-        appendix.appendChild(section);
+      for (final Element value : individualCommands.values()) {
+        topSection.appendChild(value);
       }
-      document.appendChild(appendix);
-
-      final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
 
-      final Transformer transformer = XmlUtils.createIndentingTransformer();
-      // Causes an
-      // "Error reported by XML parser: Multiple notations were used which had the name 'linespecific', but which were not determined to be duplicates."
-      // when creating the DocBook
-      // transformer.setOutputProperty(OutputKeys.DOCTYPE_PUBLIC,
-      // "-//OASIS//DTD DocBook XML V4.5//EN");
-      // transformer.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM,
-      // "http://www.oasis-open.org/docbook/xml/4.5/docbookx.dtd");
+      builtSections.add(topSection);
+    }
 
-      XmlUtils.writeXml(transformer, byteArrayOutputStream, document);
-      try {
-        final File output = new File(f, "appendix-command-index.xml");
-        FileUtils.writeByteArrayToFile(output, byteArrayOutputStream.toByteArray());
-      } catch (final IOException ioe) {
-        throw new IllegalStateException(ioe);
-      } finally {
-        IOUtils.closeQuietly(byteArrayOutputStream);
-      }
+    final Element appendix = document.createElement("appendix");
+    appendix.setAttribute("xmlns", "http://docbook.org/ns/docbook");
+    appendix.setAttribute("version", "5.0");
+    appendix.setAttribute("xml:id", "command-index");
+    appendix.appendChild(new XmlElementBuilder("title", document).setText("Command Index")
+        .build());
+    appendix.appendChild(new XmlElementBuilder("para", document).setText(
+        "This appendix was automatically built from Roo " + AbstractShell.versionInfo() + ".")
+        .build());
+    appendix
+        .appendChild(new XmlElementBuilder("para", document)
+            .setText(
+                "Commands are listed in alphabetic order, and are shown in monospaced font with any mandatory options you must specify when using the command. Most commands accept a large number of options, and all of the possible options for each command are presented in this appendix.")
+            .build());
+
+    for (final Element section : builtSections) {
+      appendix.appendChild(section);
     }
+    document.appendChild(appendix);
+
+    final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+
+    final Transformer transformer = XmlUtils.createIndentingTransformer();
+    // Causes an
+    // "Error reported by XML parser: Multiple notations were used which had the name 'linespecific', but which were not determined to be duplicates."
+    // when creating the DocBook
+    // transformer.setOutputProperty(OutputKeys.DOCTYPE_PUBLIC,
+    // "-//OASIS//DTD DocBook XML V4.5//EN");
+    // transformer.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM,
+    // "http://www.oasis-open.org/docbook/xml/4.5/docbookx.dtd");
+
+    XmlUtils.writeXml(transformer, byteArrayOutputStream, document);
+    return byteArrayOutputStream.toByteArray();
   }
 
   public void obtainHelp(@CliOption(key = {"", "command"}, optionContext = "availableCommands",
@@ -329,27 +308,22 @@ public class HelpServiceImpl implements HelpService {
       final StringBuilder sb = new StringBuilder();
 
       // Figure out if there's a single command we can offer help for
-      final Collection<MethodTarget> matchingTargets = locateTargets(buffer, false, false);
-      if (matchingTargets.size() == 1) {
+      final CommandIndex index = getCommandIndexService().getCommandMetadata();
+      final Collection<CommandEntry> matchingCommands = locateCommands(index, buffer);
+      if (matchingCommands.size() == 1) {
         // Single command help
-        final MethodTarget methodTarget = matchingTargets.iterator().next();
+        final CommandEntry cmd = matchingCommands.iterator().next();
 
-        // Argument conversion time
-        final Annotation[][] parameterAnnotations =
-            methodTarget.getMethod().getParameterAnnotations();
-        if (parameterAnnotations.length > 0) {
+        if (!cmd.getOptions().isEmpty() || cmd.allowsGlobalParameters()) {
           // Offer specified help
-          final CliCommand cmd = methodTarget.getMethod().getAnnotation(CliCommand.class);
-          Validate.notNull(cmd, "CliCommand not found");
-
-          for (final String value : cmd.value()) {
+          for (final String value : cmd.getValues()) {
             sb.append("Keyword:                   ").append(value).append(LINE_SEPARATOR);
           }
 
-          sb.append("Description:               ").append(cmd.help()).append(LINE_SEPARATOR);
+          sb.append("Description:               ").append(cmd.getHelp()).append(LINE_SEPARATOR);
 
           String globalStatus = "DOESN'T ALLOW";
-          if (hasShellContextParameter(methodTarget.getMethod())) {
+          if (cmd.allowsGlobalParameters()) {
             globalStatus = "ALLOWS";
           }
 
@@ -361,31 +335,24 @@ public class HelpServiceImpl implements HelpService {
           sb.append(LINE_SEPARATOR);
           sb.append(LINE_SEPARATOR);
 
-          for (final Annotation[] annotations : parameterAnnotations) {
-            CliOption cliOption = null;
-            for (final Annotation a : annotations) {
-              if (a instanceof CliOption) {
-                cliOption = (CliOption) a;
-
-                for (String key : cliOption.key()) {
-                  if ("".equals(key)) {
-                    key = "** default **";
-                  }
-                  sb.append(" Keyword:                  ").append(key).append(LINE_SEPARATOR);
-                }
-
-                sb.append("   Help:                   ").append(cliOption.help())
-                    .append(LINE_SEPARATOR);
-                sb.append("   Mandatory:              ").append(cliOption.mandatory())
-                    .append(LINE_SEPARATOR);
-                sb.append("   Default if specified:   '").append(cliOption.specifiedDefaultValue())
-                    .append("'").append(LINE_SEPARATOR);
-                sb.append("   Default if unspecified: '")
-                    .append(cliOption.unspecifiedDefaultValue()).append("'").append(LINE_SEPARATOR);
-                sb.append(LINE_SEPARATOR);
+          for (final OptionEntry cliOption : cmd.getOptions()) {
+            for (String key : cliOption.getKeys()) {
+              if ("".equals(key)) {
+                key = "** default **";
               }
-
+              sb.append(" Keyword:                  ").append(key).append(LINE_SEPARATOR);
             }
+
+            sb.append("   Help:                   ").append(cliOption.getHelp())
+                .append(LINE_SEPARATOR);
+            sb.append("   Mandatory:              ").append(cliOption.isMandatory())
+                .append(LINE_SEPARATOR);
+            sb.append("   Default if specified:   '").append(cliOption.getSpecifiedDefaultValue())
+                .append("'").append(LINE_SEPARATOR);
+            sb.append("   Default if unspecified: '")
+                .append(cliOption.getUnspecifiedDefaultValue()).append("'")
+                .append(LINE_SEPARATOR);
+            sb.append(LINE_SEPARATOR);
           }
         }
         // Only a single argument, so default to the normal help
@@ -393,19 +360,27 @@ public class HelpServiceImpl implements HelpService {
       }
 
       final SortedSet<String> result = new TreeSet<String>(COMPARATOR);
-      for (final MethodTarget mt : matchingTargets) {
-        final CliCommand cmd = mt.getMethod().getAnnotation(CliCommand.class);
-        if (cmd != null) {
-          for (final String value : cmd.value()) {
-            if ("".equals(cmd.help())) {
-              result.add("* " + value);
-            } else {
-              result.add("* " + value + " - " + cmd.help());
-            }
+      for (final CommandEntry cmd : matchingCommands) {
+        for (final String value : cmd.getValues()) {
+          if ("".equals(cmd.getHelp())) {
+            result.add("* " + value);
+          } else {
+            result.add("* " + value + " - " + cmd.getHelp());
           }
         }
       }
 
+      if (result.isEmpty()) {
+        // Nothing matches, so suggest the closest commands
+        for (final String similar : index.findSimilar(buffer, 5)) {
+          result.add("* " + similar);
+        }
+        if (!result.isEmpty()) {
+          sb.append("No command matches '").append(buffer.trim())
+              .append("'. Did you mean one of these?").append(LINE_SEPARATOR);
+        }
+      }
+
       for (final String s : result) {
         sb.append(s).append(LINE_SEPARATOR);
       }
@@ -417,134 +392,42 @@ public class HelpServiceImpl implements HelpService {
     }
   }
 
-  /**
-     * Checks if some method has the ShellContext parameter
-     * 
-     * @param method
-     * @return
-     */
-  private boolean hasShellContextParameter(Method method) {
-    int paramNumbers = method.getParameterTypes().length;
-    int shellContextPosition = 1;
-    for (Class<?> methodParameters : method.getParameterTypes()) {
-      if (methodParameters.isAssignableFrom(ShellContext.class)) {
-        if (shellContextPosition != paramNumbers) {
-          String msg =
-              String
-                  .format(
-                      "ShellContext parameter is on position '%s' but should be defined after all '@CliOption' parameters.",
-                      shellContextPosition);
-          throw new RuntimeException(msg);
+  private Collection<CommandEntry> locateCommands(final CommandIndex index, final String buffer) {
+    Validate.notNull(buffer, "Buffer required");
+    final Collection<CommandEntry> result = new LinkedHashSet<CommandEntry>();
+    for (final CommandEntry command : index.getCommands()) {
+      for (final String value : command.getValues()) {
+        if (isMatch(buffer, value, false) != null) {
+          result.add(command);
         }
-        return true;
       }
-      shellContextPosition++;
     }
-    return false;
+    return result;
   }
 
-  private Collection<MethodTarget> locateTargets(final String buffer, final boolean strictMatching,
-      final boolean checkAvailabilityIndicators) {
-
-    // Get all Services implement CommandMarker interface
-    try {
-      ServiceReference<?>[] references =
-          this.context.getAllServiceReferences(CommandMarker.class.getName(), null);
+  public CommandIndexService getCommandIndexService() {
+    if (commandIndexService == null) {
+      // Get all Services implement CommandIndexService interface
+      try {
+        ServiceReference<?>[] references =
+            this.context.getAllServiceReferences(CommandIndexService.class.getName(), null);
 
-      for (ServiceReference<?> ref : references) {
-        CommandMarker command = (CommandMarker) this.context.getService(ref);
-        if (!commands.contains(command)) {
-          add(command);
+        for (ServiceReference<?> ref : references) {
+          commandIndexService = (CommandIndexService) this.context.getService(ref);
+          return commandIndexService;
         }
-      }
-
-    } catch (InvalidSyntaxException e) {
-      LOGGER.warning("Cannot load CommandMarker on SimpleParser.");
-    }
-
-    Validate.notNull(buffer, "Buffer required");
-    final Collection<MethodTarget> result = new HashSet<MethodTarget>();
-
-    // The reflection could certainly be optimised, but it's good enough for
-    // now (and cached reflection
-    // is unlikely to be noticeable to a human being using the CLI)
-    for (final CommandMarker command : commands) {
-      for (final Method method : command.getClass().getMethods()) {
-        final CliCommand cmd = method.getAnnotation(CliCommand.class);
-        if (cmd != null) {
-          // We have a @CliCommand.
-          if (checkAvailabilityIndicators) {
-            // Decide if this @CliCommand is available at this
-            // moment
-            Boolean available = null;
-            for (final String value : cmd.value()) {
-              final MethodTarget mt = getAvailabilityIndicator(value);
-              if (mt != null) {
-                Validate.isTrue(
-                    available == null,
-                    "More than one availability indicator is defined for '"
-                        + method.toGenericString() + "'");
-                try {
-                  available = (Boolean) mt.getMethod().invoke(mt.getTarget());
-                  // We should "break" here, but we loop over
-                  // all to ensure no conflicting availability
-                  // indicators are defined
-                } catch (final Exception e) {
-                  available = false;
-                }
-              }
-            }
-            // Skip this @CliCommand if it's not available
-            if (available != null && !available) {
-              continue;
-            }
-          }
 
-          for (final String value : cmd.value()) {
-            final String remainingBuffer = isMatch(buffer, value, strictMatching);
-            if (remainingBuffer != null) {
-              result.add(new MethodTarget(method, command, remainingBuffer, value));
-            }
-          }
-        }
-      }
-    }
-    return result;
-  }
+        return null;
 
-  public final void add(final CommandMarker command) {
-    synchronized (mutex) {
-      commands.add(command);
-      for (final Method method : command.getClass().getMethods()) {
-        final CliAvailabilityIndicator availability =
-            method.getAnnotation(CliAvailabilityIndicator.class);
-        if (availability != null) {
-          Validate.isTrue(method.getParameterTypes().length == 0,
-              "CliAvailabilityIndicator is only legal for 0 parameter methods ('%s')",
-              method.toGenericString());
-          Validate.isTrue(method.getReturnType().equals(Boolean.TYPE),
-              "CliAvailabilityIndicator is only legal for primitive boolean return types (%s)",
-              method.toGenericString());
-          for (final String cmd : availability.value()) {
-            Validate.isTrue(!availabilityIndicators.containsKey(cmd),
-                "Cannot specify an availability indicator for '%s' more than once", cmd);
-            availabilityIndicators.put(cmd, new MethodTarget(method, command));
-          }
-        }
+      } catch (InvalidSyntaxException e) {
+        LOGGER.warning("Cannot load CommandIndexService on HelpServiceImpl.");
+        return null;
       }
+    } else {
+      return commandIndexService;
     }
   }
 
-  public final void add(final Converter<?> converter) {
-    synchronized (mutex) {
-      converters.add(converter);
-    }
-  }
-
-  private MethodTarget getAvailabilityIndicator(final String command) {
-    return availabilityIndicators.get(command);
-  }
-
   static String isMatch(final String buffer, final String command, final boolean strictMatching) {
     if ("".equals(buffer.trim())) {
       return "";
@@ -9,6 +9,13 @@ package org.springframework.roo.model;
  */
 public final class HibernateJavaType {
 
+  public static final JavaType CACHE = new JavaType("org.hibernate.annotations.Cache");
+  public static final JavaType CACHE_CONCURRENCY_STRATEGY = new JavaType(
+      "org.hibernate.annotations.CacheConcurrencyStrategy");
+  public static final JavaType SEARCH_FIELD = new JavaType(
+      "org.hibernate.search.annotations.Field");
+  public static final JavaType SEARCH_INDEXED = new JavaType(
+      "org.hibernate.search.annotations.Indexed");
   public static final JavaType VALIDATOR_CONSTRAINTS_EMAIL = new JavaType(
       "org.hibernate.validator.constraints.Email");
 
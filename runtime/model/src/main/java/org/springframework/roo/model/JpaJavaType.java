@@ -10,6 +10,7 @@ package org.springframework.roo.model;
 public final class JpaJavaType {
 
   // javax.persistence
+  public static final JavaType CACHEABLE = new JavaType("javax.persistence.Cacheable");
   public static final JavaType CASCADE_TYPE = new JavaType("javax.persistence.CascadeType");
   public static final JavaType COLUMN = new JavaType("javax.persistence.Column");
   public static final JavaType DISCRIMINATOR_COLUMN = new JavaType(
@@ -43,6 +44,7 @@ public final class JpaJavaType {
   public static final JavaType PERSISTENCE_CONTEXT = new JavaType(
       "javax.persistence.PersistenceContext");
   public static final JavaType POST_PERSIST = new JavaType("javax.persistence.PostPersist");
+  public static final JavaType POST_REMOVE = new JavaType("javax.persistence.PostRemove");
   public static final JavaType POST_UPDATE = new JavaType("javax.persistence.PostUpdate");
   public static final JavaType PRE_REMOVE = new JavaType("javax.persistence.PreRemove");
   public static final JavaType QUERY = new JavaType("javax.persistence.Query");
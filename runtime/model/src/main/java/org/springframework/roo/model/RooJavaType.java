@@ -148,6 +148,9 @@ public final class RooJavaType {
   public static final JavaType ROO_JSON_CONVERSION_SERVICE_PROPERTY_SERIALIZER =
       new JavaType(
           "org.springframework.roo.addon.web.mvc.controller.annotations.http.converters.json.RooJSONConversionServicePropertySerializer");
+  public static final JavaType ROO_JSON_CONVERSION_SERVICE_PROPERTY_DESERIALIZER =
+      new JavaType(
+          "org.springframework.roo.addon.web.mvc.controller.annotations.http.converters.json.RooJSONConversionServicePropertyDeserializer");
   public static final JavaType ROO_JSON_DATA_BINDER_BEAN_DESERIALIZER_MODIFIER =
       new JavaType(
           "org.springframework.roo.addon.web.mvc.controller.annotations.http.converters.json.RooJSONDataBinderBeanDeserializerModifier");
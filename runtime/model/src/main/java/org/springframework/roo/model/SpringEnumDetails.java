@@ -36,6 +36,8 @@ public final class SpringEnumDetails {
       SpringJavaType.HTTP_STATUS, new JavaSymbolName("NOT_FOUND"));
   public static final EnumDetails HTTP_STATUS_FOUND = new EnumDetails(SpringJavaType.HTTP_STATUS,
       new JavaSymbolName("FOUND"));
+  public static final EnumDetails HTTP_STATUS_PRECONDITION_FAILED = new EnumDetails(
+      SpringJavaType.HTTP_STATUS, new JavaSymbolName("PRECONDITION_FAILED"));
 
   /**
    * Constructor is private to prevent instantiation
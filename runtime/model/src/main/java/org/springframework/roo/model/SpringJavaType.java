@@ -25,6 +25,14 @@ public final class SpringJavaType {
   public static final JavaType BINDING_RESULT = new JavaType(
       "org.springframework.validation.BindingResult");
   public static final JavaType BEAN = new JavaType("org.springframework.context.annotation.Bean");
+  public static final JavaType CACHE_EVICT = new JavaType(
+      "org.springframework.cache.annotation.CacheEvict");
+  public static final JavaType CACHE_PUT = new JavaType(
+      "org.springframework.cache.annotation.CachePut");
+  public static final JavaType CACHEABLE = new JavaType(
+      "org.springframework.cache.annotation.Cacheable");
+  public static final JavaType CACHING = new JavaType(
+      "org.springframework.cache.annotation.Caching");
   public static final JavaType CHARACTER_ENCODING_FILTER = new JavaType(
       "org.springframework.web.filter.CharacterEncodingFilter");
   public static final JavaType COMPONENT = new JavaType("org.springframework.stereotype.Component");
@@ -118,6 +126,8 @@ public final class SpringJavaType {
       "org.springframework.stereotype.Repository");
   public static final JavaType REQUEST_BODY = new JavaType(
       "org.springframework.web.bind.annotation.RequestBody");
+  public static final JavaType REQUEST_HEADER = new JavaType(
+      "org.springframework.web.bind.annotation.RequestHeader");
   public static final JavaType REQUEST_MAPPING = new JavaType(
       "org.springframework.web.bind.annotation.RequestMapping");
   public static final JavaType REQUEST_METHOD = new JavaType(
@@ -131,10 +141,13 @@ public final class SpringJavaType {
   public static final JavaType SPRING_BOOT_APPLICATION = new JavaType(
       "org.springframework.boot.autoconfigure.SpringBootApplication");
   public static final JavaType SERVICE = new JavaType("org.springframework.stereotype.Service");
+  public static final JavaType SERVLET_WEB_REQUEST = new JavaType(
+      "org.springframework.web.context.request.ServletWebRequest");
   public static final JavaType SIMPLE_MAIL_MESSAGE = new JavaType(
       "org.springframework.mail.SimpleMailMessage");
   public static final JavaType SIMPLE_TYPE_CONVERTER = new JavaType(
       "org.springframework.beans.SimpleTypeConverter");
+  public static final JavaType STRING_UTILS = new JavaType("org.springframework.util.StringUtils");
   public static final JavaType TRANSACTIONAL = new JavaType(
       "org.springframework.transaction.annotation.Transactional");
   public static final JavaType URI_UTILS = new JavaType("org.springframework.web.util.UriUtils");
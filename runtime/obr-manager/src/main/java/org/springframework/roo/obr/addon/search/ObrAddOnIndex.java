@@ -0,0 +1,497 @@
+package org.springframework.roo.obr.addon.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.CharEncoding;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.felix.bundlerepository.Capability;
+import org.apache.felix.bundlerepository.Repository;
+import org.apache.felix.bundlerepository.Resource;
+
+/**
+ * Local index of the bundles published on the installed OBR repositories.
+ * <p>
+ * Bundles are indexed by the tokens of their symbolic name, presentation
+ * name, description and capability values (e.g. the commands provided by an
+ * add-on), so searches don't have to scan every bundle. A repository is only
+ * re-indexed when its "lastmodified" stamp (or the modification time of a
+ * local repository.xml) changes. The index can be saved to and loaded from a
+ * file, so that searches also work when the repositories can't be reached.
+ *
+ * @since 2.0.0
+ */
+class ObrAddOnIndex {
+
+  /**
+   * A bundle published on a repository, as stored in the index.
+   */
+  static class IndexedBundle {
+
+    private final String symbolicName;
+    private final String presentationName;
+    private final String description;
+    private final Long size;
+    private final String version;
+    private final String uri;
+    /** key: capability name, value: values of the capability properties */
+    private final Map<String, List<String>> capabilities;
+
+    IndexedBundle(final String symbolicName, final String presentationName,
+        final String description, final Long size, final String version, final String uri,
+        final Map<String, List<String>> capabilities) {
+      this.symbolicName = symbolicName;
+      this.presentationName = presentationName;
+      this.description = description;
+      this.size = size;
+      this.version = version;
+      this.uri = uri;
+      this.capabilities = capabilities;
+    }
+
+    String getSymbolicName() {
+      return symbolicName;
+    }
+
+    String getPresentationName() {
+      return presentationName;
+    }
+
+    Long getSize() {
+      return size;
+    }
+
+    String getVersion() {
+      return version;
+    }
+
+    String getUri() {
+      return uri;
+    }
+
+    boolean hasCapability(final String capabilityName) {
+      return capabilities.containsKey(capabilityName);
+    }
+
+    /**
+     * @param capabilityName the capability name
+     * @return the values of the given capability (never null)
+     */
+    List<String> getCapabilityValues(final String capabilityName) {
+      final List<String> values = capabilities.get(capabilityName);
+      return values == null ? Collections.<String>emptyList() : values;
+    }
+  }
+
+  private static class RepositoryEntry {
+
+    private final String signature;
+    private final List<IndexedBundle> bundles;
+
+    RepositoryEntry(final String signature, final List<IndexedBundle> bundles) {
+      this.signature = signature;
+      this.bundles = bundles;
+    }
+  }
+
+  private static final int FORMAT_VERSION = 2;
+
+  // Weights of the fields a search term can match
+  private static final int CAPABILITY_WEIGHT = 3;
+  private static final int SYMBOLIC_NAME_WEIGHT = 2;
+  private static final int TEXT_WEIGHT = 1;
+  /** Extra score if a term matches a whole token and not just its start */
+  private static final int EXACT_TOKEN_BONUS = 1;
+  /** Extra score if a capability value starts with the whole search */
+  private static final int PHRASE_BONUS = 5;
+
+  /**
+   * Splits the given text into lower case alphanumeric tokens.
+   *
+   * @param text the text to tokenize (can be null)
+   * @return a non-<code>null</code> list
+   */
+  static List<String> tokenize(final String text) {
+    final List<String> tokens = new ArrayList<String>();
+    if (text == null) {
+      return tokens;
+    }
+    for (final String token : text.toLowerCase().split("[^\\p{Alnum}]+")) {
+      if (token.length() > 0) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  /** key: repository URI, in insertion order */
+  private final Map<String, RepositoryEntry> repositories =
+      new LinkedHashMap<String, RepositoryEntry>();
+
+  /** key: token, value: (key: bundle, value: weight of the best field) */
+  private final TreeMap<String, Map<IndexedBundle, Integer>> postings =
+      new TreeMap<String, Map<IndexedBundle, Integer>>();
+
+  /** key: symbolic name */
+  private final Map<String, IndexedBundle> bundles = new LinkedHashMap<String, IndexedBundle>();
+
+  private boolean modified;
+
+  /**
+   * Returns every indexed bundle, the first repository that publishes a
+   * symbolic name taking precedence.
+   *
+   * @return a non-<code>null</code> map keyed by symbolic name
+   */
+  Map<String, IndexedBundle> getBundles() {
+    return Collections.unmodifiableMap(bundles);
+  }
+
+  /**
+   * Indicates whether the index changed since it was last loaded or saved.
+   */
+  boolean isModified() {
+    return modified;
+  }
+
+  /**
+   * Brings the index up to date with the given repositories, re-indexing only
+   * the repositories that changed since they were indexed. If no repository
+   * is given (e.g. none could be downloaded) the current contents are kept.
+   *
+   * @param currentRepositories the repositories currently installed
+   */
+  void refresh(final Repository[] currentRepositories) {
+    if (currentRepositories == null || currentRepositories.length == 0) {
+      return;
+    }
+
+    boolean changed = false;
+    final Map<String, RepositoryEntry> refreshed = new LinkedHashMap<String, RepositoryEntry>();
+    for (final Repository repository : currentRepositories) {
+      final String signature = getSignature(repository);
+      RepositoryEntry entry = repositories.get(repository.getURI());
+      if (entry == null || !entry.signature.equals(signature)) {
+        entry = new RepositoryEntry(signature, indexResources(repository.getResources()));
+        changed = true;
+      }
+      refreshed.put(repository.getURI(), entry);
+    }
+
+    if (changed || !refreshed.keySet().equals(repositories.keySet())) {
+      repositories.clear();
+      repositories.putAll(refreshed);
+      modified = true;
+      rebuildPostings();
+    }
+  }
+
+  /**
+   * Searches the bundles providing the given capability. Each term of the
+   * search must match the start of a token of the symbolic name,
+   * presentation name, description or capability values of a bundle.
+   *
+   * @param searchTerms the text to search (blank to match every bundle)
+   * @param capabilityName the capability that the bundles must provide
+   * @param excludedSymbolicNames the bundles to leave out (e.g. the ones
+   *            already installed)
+   * @return the matching bundles, most relevant first
+   */
+  List<IndexedBundle> search(final String searchTerms, final String capabilityName,
+      final Set<String> excludedSymbolicNames) {
+    final Map<IndexedBundle, Integer> scores = new HashMap<IndexedBundle, Integer>();
+    final List<String> terms = tokenize(searchTerms);
+    if (terms.isEmpty()) {
+      for (final IndexedBundle bundle : bundles.values()) {
+        scores.put(bundle, 0);
+      }
+    } else {
+      boolean first = true;
+      for (final String term : terms) {
+        final Map<IndexedBundle, Integer> termScores = getTermScores(term);
+        if (first) {
+          scores.putAll(termScores);
+          first = false;
+        } else {
+          scores.keySet().retainAll(termScores.keySet());
+          for (final Entry<IndexedBundle, Integer> score : scores.entrySet()) {
+            score.setValue(score.getValue() + termScores.get(score.getKey()));
+          }
+        }
+      }
+    }
+
+    final List<IndexedBundle> result = new ArrayList<IndexedBundle>();
+    for (final Entry<IndexedBundle, Integer> score : scores.entrySet()) {
+      final IndexedBundle bundle = score.getKey();
+      if (bundle.hasCapability(capabilityName)
+          && !excludedSymbolicNames.contains(bundle.symbolicName)
+          && bundles.get(bundle.symbolicName) == bundle) {
+        if (StringUtils.isNotBlank(searchTerms)) {
+          for (final String value : bundle.getCapabilityValues(capabilityName)) {
+            if (value.startsWith(searchTerms)) {
+              score.setValue(score.getValue() + PHRASE_BONUS);
+              break;
+            }
+          }
+        }
+        result.add(bundle);
+      }
+    }
+
+    Collections.sort(result, new Comparator<IndexedBundle>() {
+      public int compare(final IndexedBundle o1, final IndexedBundle o2) {
+        final int byScore = scores.get(o2).compareTo(scores.get(o1));
+        return byScore != 0 ? byScore : ObjectUtils.compare(o1.symbolicName, o2.symbolicName);
+      }
+    });
+    return result;
+  }
+
+  private Map<IndexedBundle, Integer> getTermScores(final String term) {
+    final Map<IndexedBundle, Integer> termScores = new HashMap<IndexedBundle, Integer>();
+    final SortedMap<String, Map<IndexedBundle, Integer>> matches =
+        postings.subMap(term, term + Character.MAX_VALUE);
+    for (final Entry<String, Map<IndexedBundle, Integer>> match : matches.entrySet()) {
+      final int bonus = match.getKey().equals(term) ? EXACT_TOKEN_BONUS : 0;
+      for (final Entry<IndexedBundle, Integer> posting : match.getValue().entrySet()) {
+        final Integer current = termScores.get(posting.getKey());
+        final int score = posting.getValue() + bonus;
+        if (current == null || current < score) {
+          termScores.put(posting.getKey(), score);
+        }
+      }
+    }
+    return termScores;
+  }
+
+  private String getSignature(final Repository repository) {
+    String signature = String.valueOf(repository.getLastModified());
+    try {
+      final URI uri = new URI(repository.getURI());
+      if ("file".equals(uri.getScheme())) {
+        signature += ":" + new File(uri).lastModified();
+      }
+    } catch (final Exception ignored) {
+      // Not a local repository
+    }
+    return signature;
+  }
+
+  private List<IndexedBundle> indexResources(final Resource[] resources) {
+    final List<IndexedBundle> indexed = new ArrayList<IndexedBundle>();
+    if (resources == null) {
+      return indexed;
+    }
+    for (final Resource resource : resources) {
+      final Map<String, List<String>> capabilities = new LinkedHashMap<String, List<String>>();
+      for (final Capability capability : resource.getCapabilities()) {
+        List<String> values = capabilities.get(capability.getName());
+        if (values == null) {
+          values = new ArrayList<String>();
+          capabilities.put(capability.getName(), values);
+        }
+        for (final Object value : capability.getPropertiesAsMap().values()) {
+          if (value != null) {
+            values.add(value.toString());
+          }
+        }
+      }
+      final Object description = resource.getProperties().get(Resource.DESCRIPTION);
+      indexed.add(new IndexedBundle(resource.getSymbolicName(), resource.getPresentationName(),
+          description == null ? null : description.toString(), resource.getSize(), resource
+              .getVersion() == null ? null : resource.getVersion().toString(), resource.getURI(),
+          capabilities));
+    }
+    return indexed;
+  }
+
+  private void rebuildPostings() {
+    bundles.clear();
+    postings.clear();
+    for (final RepositoryEntry repository : repositories.values()) {
+      for (final IndexedBundle bundle : repository.bundles) {
+        if (!bundles.containsKey(bundle.symbolicName)) {
+          bundles.put(bundle.symbolicName, bundle);
+        }
+        addPostings(bundle, tokenize(bundle.symbolicName), SYMBOLIC_NAME_WEIGHT);
+        addPostings(bundle, tokenize(bundle.presentationName), TEXT_WEIGHT);
+        addPostings(bundle, tokenize(bundle.description), TEXT_WEIGHT);
+        for (final List<String> values : bundle.capabilities.values()) {
+          for (final String value : values) {
+            addPostings(bundle, tokenize(value), CAPABILITY_WEIGHT);
+          }
+        }
+      }
+    }
+  }
+
+  private void addPostings(final IndexedBundle bundle, final Collection<String> tokens,
+      final int weight) {
+    for (final String token : tokens) {
+      Map<IndexedBundle, Integer> tokenBundles = postings.get(token);
+      if (tokenBundles == null) {
+        tokenBundles = new HashMap<IndexedBundle, Integer>();
+        postings.put(token, tokenBundles);
+      }
+      final Integer current = tokenBundles.get(bundle);
+      if (current == null || current < weight) {
+        tokenBundles.put(bundle, weight);
+      }
+    }
+  }
+
+  /**
+   * Loads the index saved to the given file, if any. An unreadable file is
+   * ignored, leaving the index empty.
+   *
+   * @param file the file to read (can be null)
+   * @return whether the index could be loaded
+   */
+  boolean load(final File file) {
+    if (file == null || !file.isFile()) {
+      return false;
+    }
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      if (in.readInt() != FORMAT_VERSION) {
+        return false;
+      }
+      final Map<String, RepositoryEntry> loaded = new LinkedHashMap<String, RepositoryEntry>();
+      for (int r = in.readInt(); r > 0; r--) {
+        final String repositoryUri = readString(in);
+        final String signature = readString(in);
+        final List<IndexedBundle> repositoryBundles = new ArrayList<IndexedBundle>();
+        for (int b = in.readInt(); b > 0; b--) {
+          final String symbolicName = readString(in);
+          final String presentationName = readString(in);
+          final String description = readString(in);
+          final long size = in.readLong();
+          final String version = readString(in);
+          final String uri = readString(in);
+          final Map<String, List<String>> capabilities =
+              new LinkedHashMap<String, List<String>>();
+          for (int c = in.readInt(); c > 0; c--) {
+            final String capabilityName = readString(in);
+            final List<String> values = new ArrayList<String>();
+            for (int v = in.readInt(); v > 0; v--) {
+              values.add(readString(in));
+            }
+            capabilities.put(capabilityName, values);
+          }
+          repositoryBundles.add(new IndexedBundle(symbolicName, presentationName, description,
+              size < 0 ? null : size, version, uri, capabilities));
+        }
+        loaded.put(repositoryUri, new RepositoryEntry(signature, repositoryBundles));
+      }
+      repositories.clear();
+      repositories.putAll(loaded);
+      rebuildPostings();
+      modified = false;
+      return true;
+    } catch (final IOException e) {
+      return false;
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+  }
+
+  /**
+   * Saves the index to the given file.
+   *
+   * @param file the file to write (required)
+   * @throws IOException if the file can't be written
+   */
+  void save(final File file) throws IOException {
+    DataOutputStream out = null;
+    try {
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(repositories.size());
+      for (final Entry<String, RepositoryEntry> repository : repositories.entrySet()) {
+        writeString(out, repository.getKey());
+        writeString(out, repository.getValue().signature);
+        out.writeInt(repository.getValue().bundles.size());
+        for (final IndexedBundle bundle : repository.getValue().bundles) {
+          writeString(out, bundle.symbolicName);
+          writeString(out, bundle.presentationName);
+          writeString(out, bundle.description);
+          out.writeLong(bundle.size == null ? -1 : bundle.size);
+          writeString(out, bundle.version);
+          writeString(out, bundle.uri);
+          out.writeInt(bundle.capabilities.size());
+          for (final Entry<String, List<String>> capability : bundle.capabilities.entrySet()) {
+            writeString(out, capability.getKey());
+            out.writeInt(capability.getValue().size());
+            for (final String value : capability.getValue()) {
+              writeString(out, value);
+            }
+          }
+        }
+      }
+      out.flush();
+      modified = false;
+    } finally {
+      IOUtils.closeQuietly(out);
+    }
+  }
+
+  /**
+   * Reads a string written by {@link #writeString(DataOutputStream, String)}
+   *
+   * @param in the stream to read
+   * @return the string read (can be null)
+   * @throws IOException if the string can't be read
+   */
+  private static String readString(final DataInputStream in) throws IOException {
+    final int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    final byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, CharEncoding.UTF_8);
+  }
+
+  /**
+   * Writes the UTF-8 bytes of the given string after their length, or -1 if
+   * the string is null. {@link DataOutputStream#writeUTF(String)} isn't used
+   * because it fails with strings longer than 64KB, as a description can be.
+   *
+   * @param out the stream to write
+   * @param value the string to write (can be null)
+   * @throws IOException if the string can't be written
+   */
+  private static void writeString(final DataOutputStream out, final String value)
+      throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    final byte[] bytes = value.getBytes(CharEncoding.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+}
@@ -1,20 +1,21 @@
 package org.springframework.roo.obr.addon.search;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.apache.commons.lang3.Validate;
-import org.apache.felix.bundlerepository.Capability;
 import org.apache.felix.bundlerepository.Repository;
 import org.apache.felix.bundlerepository.RepositoryAdmin;
-import org.apache.felix.bundlerepository.Resource;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Service;
 import org.osgi.framework.Bundle;
@@ -25,6 +26,7 @@ import org.osgi.framework.ServiceReference;
 import org.osgi.framework.Version;
 import org.osgi.service.component.ComponentContext;
 import org.springframework.roo.felix.BundleSymbolicName;
+import org.springframework.roo.obr.addon.search.ObrAddOnIndex.IndexedBundle;
 import org.springframework.roo.obr.addon.search.model.ObrBundle;
 import org.springframework.roo.shell.Shell;
 import org.springframework.roo.support.logging.HandlerUtils;
@@ -33,6 +35,10 @@ import org.springframework.roo.support.logging.HandlerUtils;
  * 
  * AddonSearch implementation that search available addons on installed OBR
  * Repositories using OSGi Services
+ * <p>
+ * Searches are served from an {@link ObrAddOnIndex} that is refreshed from the
+ * installed repositories and saved to this bundle's data area, so add-ons can
+ * still be found when the repositories are not reachable.
  * 
  * @author Juan Carlos García
  * @since 2.0.0
@@ -44,6 +50,7 @@ public class ObrAddonSearchOperationsImpl implements ObrAddOnSearchOperations {
   private static final String CAPABILITY_COMMANDS_NAME = "roo-addon";
   private static final String CAPABILITY_JDBCDRIVER_NAME = "jdbcdriver";
   private static final String CAPABILITY_LIBRARY_NAME = "library";
+  private static final String INDEX_FILE_NAME = "obr-addon-index.dat";
   private BundleContext context;
   private static final Logger LOGGER = HandlerUtils.getLogger(ObrAddonSearchOperationsImpl.class);
 
@@ -55,6 +62,7 @@ public class ObrAddonSearchOperationsImpl implements ObrAddOnSearchOperations {
   private List<ObrBundle> bundlesToInstall;
   private Map<String, ObrBundle> bundleCache;
   private Map<String, ObrBundle> searchResultCache;
+  private ObrAddOnIndex index;
 
   protected void activate(final ComponentContext cContext) {
     context = cContext.getBundleContext();
@@ -62,6 +70,9 @@ public class ObrAddonSearchOperationsImpl implements ObrAddOnSearchOperations {
     bundlesToInstall = new ArrayList<ObrBundle>();
     bundleCache = new HashMap<String, ObrBundle>();
     searchResultCache = new HashMap<String, ObrBundle>();
+    // Load the add-on index saved on previous sessions
+    index = new ObrAddOnIndex();
+    index.load(context.getDataFile(INDEX_FILE_NAME));
     // Add default repositories
     addDefaultRepositories();
     // Populate Repositories
@@ -87,7 +98,8 @@ public class ObrAddonSearchOperationsImpl implements ObrAddOnSearchOperations {
       // Populating Repositories
       populateRepositories();
 
-      if (repositories.isEmpty()) {
+      // Add-ons indexed on previous sessions can be found offline
+      if (repositories.isEmpty() && index.getBundles().isEmpty()) {
         LOGGER.log(Level.INFO, "No repositories installed on Spring Roo yet");
         return bundlesToInstall;
       }
@@ -156,8 +168,8 @@ public class ObrAddonSearchOperationsImpl implements ObrAddOnSearchOperations {
    */
   private void populateBundlesToInstall(String searchTerms, SearchType type) {
 
-    // Refreshing Repositories
-    populateRepositories();
+    // Refreshing index
+    refreshIndex();
 
     // Cleaning Bundles to install
     bundlesToInstall.clear();
@@ -165,106 +177,47 @@ public class ObrAddonSearchOperationsImpl implements ObrAddOnSearchOperations {
     // Cleaning previous search
     searchResultCache.clear();
 
-    int bundleId = 0;
-
-    for (Repository repo : repositories) {
-      // Getting all resources from every repo
-      Resource[] repoResources = repo.getResources();
-
-      for (Resource repoResource : repoResources) {
-        // Creating bundle of current resource
-        ObrBundle bundle =
-            new ObrBundle(repoResource.getSymbolicName(), repoResource.getPresentationName(),
-                repoResource.getSize(), repoResource.getVersion(), repoResource.getURI());
-
-        // If current bundle is installed, continue with the next one
-        if (checkIfBundleIsInstalled(bundle)) {
-          continue;
-        }
-
-        // Getting Resource Capabilites
-        Capability[] resourceCapabilities = repoResource.getCapabilities();
-
-        for (Capability capability : resourceCapabilities) {
-
-          // Depending of search type, is necessary to look for different
-          // capabilities
-          if (type.equals(SearchType.ADDON)) {
-
-            // Getting resource commands
-            if (capability.getName().equals(CAPABILITY_COMMANDS_NAME)) {
-              // Getting all resource properties
-              Map<String, Object> capabilityProperties = capability.getPropertiesAsMap();
-
-              boolean match = false;
-
-              for (Entry capabilityProperty : capabilityProperties.entrySet()) {
-                String capabilityCommand = (String) capabilityProperty.getValue();
-                bundle.addCommand(capabilityCommand);
-                if (capabilityCommand.startsWith(searchTerms)) {
-                  match = true;
-                }
-              }
-
-              if (match) {
-                bundleId++;
-                bundlesToInstall.add(bundle);
-                searchResultCache.put(String.format("%02d", bundleId), bundle);
-              }
-            }
-
-
-          } else if (type.equals(SearchType.JDBCDRIVER)) {
-
-            // Getting resource driver
-            if (capability.getName().equals(CAPABILITY_JDBCDRIVER_NAME)) {
-              // Getting all resource properties
-              Map<String, Object> capabilityProperties = capability.getPropertiesAsMap();
-
-              boolean match = false;
-
-              for (Entry capabilityProperty : capabilityProperties.entrySet()) {
-                String capabilityKey = (String) capabilityProperty.getKey();
-                // Getting driver class
-                if (capabilityKey.toLowerCase().equals("driver")) {
-                  String capabilityDriver = (String) capabilityProperty.getValue();
-                  if (capabilityDriver.startsWith(searchTerms)) {
-                    match = true;
-                  }
-                }
-              }
-
-              if (match) {
-                bundleId++;
-                bundlesToInstall.add(bundle);
-                searchResultCache.put(String.format("%02d", bundleId), bundle);
-              }
-            }
+    // Depending of search type, is necessary to look for different
+    // capabilities
+    final String capabilityName;
+    if (type.equals(SearchType.ADDON)) {
+      capabilityName = CAPABILITY_COMMANDS_NAME;
+    } else if (type.equals(SearchType.JDBCDRIVER)) {
+      capabilityName = CAPABILITY_JDBCDRIVER_NAME;
+    } else {
+      // TODO: Implement library bundle search
+      return;
+    }
 
+    int bundleId = 0;
 
-          } else if (type.equals(SearchType.LIBRARY)) {
-            // TODO: Implement library bundle search
-          }
+    // Installed bundles are not shown
+    for (IndexedBundle indexedBundle : index.search(searchTerms, capabilityName,
+        getInstalledSymbolicNames())) {
+      ObrBundle bundle = createBundle(indexedBundle);
+      if (type.equals(SearchType.ADDON)) {
+        for (String capabilityCommand : indexedBundle.getCapabilityValues(capabilityName)) {
+          bundle.addCommand(capabilityCommand);
         }
       }
+
+      bundleId++;
+      bundlesToInstall.add(bundle);
+      searchResultCache.put(String.format("%02d", bundleId), bundle);
     }
   }
 
   /**
-   * Method to check if some bundle is installed on OSGi
-   * @param bundle
+   * Method to obtain the symbolic names of the bundles installed on OSGi
+   * 
    * @return
    */
-  private boolean checkIfBundleIsInstalled(ObrBundle bundle) {
-    // Refreshing installed bundles
-    Bundle[] allInstalledBundles = context.getBundles();
-    // Checking if bundles is installed
-    for (Bundle installedBundle : allInstalledBundles) {
-      if (installedBundle.getSymbolicName().equals(bundle.getSymbolicName())) {
-        return true;
-      }
+  private Set<String> getInstalledSymbolicNames() {
+    Set<String> installedSymbolicNames = new HashSet<String>();
+    for (Bundle installedBundle : context.getBundles()) {
+      installedSymbolicNames.add(installedBundle.getSymbolicName());
     }
-    return false;
+    return installedSymbolicNames;
   }
 
   /**
@@ -272,44 +225,58 @@ public class ObrAddonSearchOperationsImpl implements ObrAddOnSearchOperations {
    */
   private void populateBundleCache() {
 
-    // Refreshing Repositories
-    populateRepositories();
+    // Refreshing index
+    refreshIndex();
 
     // Cleaning Bundle Cache
     bundleCache.clear();
 
-    for (Repository repo : repositories) {
-      Resource[] repoResources = repo.getResources();
-
-      for (Resource repoResource : repoResources) {
-        // Creating bundle of current resource
-        ObrBundle bundle =
-            new ObrBundle(repoResource.getSymbolicName(), repoResource.getPresentationName(),
-                repoResource.getSize(), repoResource.getVersion(), repoResource.getURI());
-
-        // Getting Resource Capabilites
-        Capability[] resourceCapabilities = repoResource.getCapabilities();
-
-        for (Capability capability : resourceCapabilities) {
-          // Getting resource commands
-          if (capability.getName().equals(CAPABILITY_COMMANDS_NAME)
-              || capability.getName().equals(CAPABILITY_JDBCDRIVER_NAME)
-              || capability.getName().equals(CAPABILITY_LIBRARY_NAME)) {
-            // Getting all resource properties
-            Map<String, Object> capabilityProperties = capability.getPropertiesAsMap();
-
-            for (Entry capabilityProperty : capabilityProperties.entrySet()) {
-              String capabilityCommand = (String) capabilityProperty.getValue();
-              bundle.addCommand(capabilityCommand);
-            }
-            bundleCache.put(bundle.getSymbolicName(), bundle);
+    for (IndexedBundle indexedBundle : index.getBundles().values()) {
+      if (indexedBundle.hasCapability(CAPABILITY_COMMANDS_NAME)
+          || indexedBundle.hasCapability(CAPABILITY_JDBCDRIVER_NAME)
+          || indexedBundle.hasCapability(CAPABILITY_LIBRARY_NAME)) {
+        // Getting resource commands
+        ObrBundle bundle = createBundle(indexedBundle);
+        for (String capabilityName : Arrays.asList(CAPABILITY_COMMANDS_NAME,
+            CAPABILITY_JDBCDRIVER_NAME, CAPABILITY_LIBRARY_NAME)) {
+          for (String capabilityCommand : indexedBundle.getCapabilityValues(capabilityName)) {
+            bundle.addCommand(capabilityCommand);
           }
         }
+        bundleCache.put(bundle.getSymbolicName(), bundle);
+      }
+    }
+  }
 
+  /**
+   * Method to update the add-on index with the installed repositories, saving
+   * it if changed
+   */
+  private void refreshIndex() {
+
+    // Refreshing Repositories
+    populateRepositories();
+
+    index.refresh(repositories.toArray(new Repository[repositories.size()]));
+
+    if (index.isModified()) {
+      File indexFile = context.getDataFile(INDEX_FILE_NAME);
+      if (indexFile != null) {
+        try {
+          index.save(indexFile);
+        } catch (IOException e) {
+          LOGGER.log(Level.WARNING, "Unable to save add-on index", e);
+        }
       }
     }
   }
 
+  private ObrBundle createBundle(IndexedBundle indexedBundle) {
+    return new ObrBundle(indexedBundle.getSymbolicName(), indexedBundle.getPresentationName(),
+        indexedBundle.getSize(), Version.parseVersion(indexedBundle.getVersion()),
+        indexedBundle.getUri());
+  }
+
   private void printResultList(List<ObrBundle> bundles) {
     final StringBuilder sb = new StringBuilder();
     int bundleId = 1;
@@ -0,0 +1,246 @@
+package org.springframework.roo.obr.addon.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.felix.bundlerepository.Capability;
+import org.apache.felix.bundlerepository.Repository;
+import org.apache.felix.bundlerepository.Resource;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.roo.obr.addon.search.ObrAddOnIndex.IndexedBundle;
+
+/**
+ * Unit test of {@link ObrAddOnIndex}
+ *
+ * @since 2.0
+ */
+public class ObrAddOnIndexTest {
+
+  private static final String COMMANDS = "roo-addon";
+  private static final String JPA = "org.example.roo.addon.jpa";
+  private static final String SECURITY = "org.example.roo.addon.security";
+  private static final String WEB = "org.example.roo.addon.web";
+  private static final Set<String> NONE_EXCLUDED = Collections.emptySet();
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  // Fixture
+  private ObrAddOnIndex index;
+
+  @Before
+  public void setUp() {
+    index = new ObrAddOnIndex();
+  }
+
+  /**
+   * Returns a mock repository publishing the given resources
+   *
+   * @param uri
+   * @param resources
+   * @return a non-<code>null</code> repository
+   */
+  private Repository mockRepository(final String uri, final Resource... resources) {
+    final Repository repository = mock(Repository.class);
+    when(repository.getURI()).thenReturn(uri);
+    when(repository.getLastModified()).thenReturn(1L);
+    when(repository.getResources()).thenReturn(resources);
+    return repository;
+  }
+
+  /**
+   * Returns a mock resource providing the given commands
+   *
+   * @param symbolicName
+   * @param presentationName
+   * @param description
+   * @param commands
+   * @return a non-<code>null</code> resource
+   */
+  private Resource mockResource(final String symbolicName, final String presentationName,
+      final String description, final String... commands) {
+    final Map<String, Object> commandProperties = new HashMap<String, Object>();
+    for (int i = 0; i < commands.length; i++) {
+      commandProperties.put("command" + i, commands[i]);
+    }
+    final Capability capability = mock(Capability.class);
+    when(capability.getName()).thenReturn(COMMANDS);
+    when(capability.getPropertiesAsMap()).thenReturn(commandProperties);
+
+    final Map<String, Object> properties = new HashMap<String, Object>();
+    properties.put(Resource.DESCRIPTION, description);
+
+    final Resource resource = mock(Resource.class);
+    when(resource.getSymbolicName()).thenReturn(symbolicName);
+    when(resource.getPresentationName()).thenReturn(presentationName);
+    when(resource.getProperties()).thenReturn(properties);
+    when(resource.getURI()).thenReturn("http://repo.example.org/" + symbolicName + ".jar");
+    when(resource.getCapabilities()).thenReturn(new Capability[] {capability});
+    return resource;
+  }
+
+  /**
+   * Indexes the JPA, web and security add-ons
+   */
+  private void indexAddOns() {
+    index.refresh(new Repository[] {mockRepository("http://repo.example.org/repository.xml",
+        mockResource(WEB, "Roo Web MVC add-on", "Spring MVC controllers", "web mvc setup",
+            "web mvc controller"),
+        mockResource(SECURITY, "Roo security add-on", "Spring Security for the web layer",
+            "security setup"),
+        mockResource(JPA, "Roo JPA add-on", "Persistence with JPA", "jpa setup",
+            "repository jpa"))});
+  }
+
+  /**
+   * Returns the symbolic names of the given bundles
+   *
+   * @param bundles
+   * @return a non-<code>null</code> list
+   */
+  private List<String> getSymbolicNames(final List<IndexedBundle> bundles) {
+    final List<String> symbolicNames = new ArrayList<String>();
+    for (final IndexedBundle bundle : bundles) {
+      symbolicNames.add(bundle.getSymbolicName());
+    }
+    return symbolicNames;
+  }
+
+  @Test
+  public void testTokenizeSplitsLowerCaseAlphanumericTokens() {
+    assertEquals(Arrays.asList("spring", "roo", "add", "on", "2", "0"),
+        ObrAddOnIndex.tokenize(" Spring Roo, add-on 2.0 "));
+  }
+
+  @Test
+  public void testTokenizeNullText() {
+    assertTrue(ObrAddOnIndex.tokenize(null).isEmpty());
+  }
+
+  @Test
+  public void testSearchMatchesTheStartOfTokens() {
+    // Set up
+    indexAddOns();
+
+    // Invoke
+    final List<IndexedBundle> bundles = index.search("contr", COMMANDS, NONE_EXCLUDED);
+
+    // Check
+    assertEquals(Arrays.asList(WEB), getSymbolicNames(bundles));
+  }
+
+  @Test
+  public void testSearchMatchesEveryTerm() {
+    // Set up
+    indexAddOns();
+
+    // Invoke
+    final List<IndexedBundle> bundles = index.search("jpa setup", COMMANDS, NONE_EXCLUDED);
+
+    // Check
+    assertEquals(Arrays.asList(JPA), getSymbolicNames(bundles));
+  }
+
+  @Test
+  public void testSearchRanksCapabilityMatchesBeforeDescriptionMatches() {
+    // Set up
+    indexAddOns();
+
+    // Invoke
+    final List<IndexedBundle> bundles = index.search("web", COMMANDS, NONE_EXCLUDED);
+
+    // Check
+    assertEquals(Arrays.asList(WEB, SECURITY), getSymbolicNames(bundles));
+  }
+
+  @Test
+  public void testSearchSortsBundlesWithTheSameScoreBySymbolicName() {
+    // Set up
+    indexAddOns();
+
+    // Invoke
+    final List<IndexedBundle> bundles = index.search("setup", COMMANDS, NONE_EXCLUDED);
+
+    // Check
+    assertEquals(Arrays.asList(JPA, SECURITY, WEB), getSymbolicNames(bundles));
+  }
+
+  @Test
+  public void testSearchLeavesOutExcludedBundlesAndOtherCapabilities() {
+    // Set up
+    indexAddOns();
+    final Set<String> excluded = new HashSet<String>(Arrays.asList(JPA));
+
+    // Invoke
+    final List<IndexedBundle> commands = index.search("", COMMANDS, excluded);
+    final List<IndexedBundle> drivers = index.search("", "jdbcdriver", NONE_EXCLUDED);
+
+    // Check
+    assertEquals(Arrays.asList(SECURITY, WEB), getSymbolicNames(commands));
+    assertTrue(drivers.isEmpty());
+  }
+
+  @Test
+  public void testSearchBundlesWithoutSymbolicName() {
+    // Set up
+    index.refresh(new Repository[] {mockRepository("http://repo.example.org/repository.xml",
+        mockResource(null, "Unnamed add-on", null, "unnamed setup"),
+        mockResource(JPA, "Roo JPA add-on", null, "jpa setup"))});
+
+    // Invoke
+    final List<IndexedBundle> bundles = index.search("setup", COMMANDS, NONE_EXCLUDED);
+
+    // Check
+    assertEquals(Arrays.asList(null, JPA), getSymbolicNames(bundles));
+  }
+
+  @Test
+  public void testSaveAndLoad() throws Exception {
+    // Set up
+    final String longDescription = StringUtils.repeat("A\u00f1adido ", 10000);
+    index.refresh(new Repository[] {mockRepository("http://repo.example.org/repository.xml",
+        mockResource(JPA, "Roo JPA add-on", longDescription, "jpa setup"),
+        mockResource(WEB, null, null, "web mvc setup"))});
+    final File file = folder.newFile("index.dat");
+    index.save(file);
+    final ObrAddOnIndex loadedIndex = new ObrAddOnIndex();
+
+    // Invoke
+    final boolean loaded = loadedIndex.load(file);
+
+    // Check
+    assertTrue(loaded);
+    assertFalse(loadedIndex.isModified());
+    assertEquals(index.getBundles().keySet(), loadedIndex.getBundles().keySet());
+    final IndexedBundle jpa = loadedIndex.getBundles().get(JPA);
+    assertEquals("Roo JPA add-on", jpa.getPresentationName());
+    assertEquals("http://repo.example.org/" + JPA + ".jar", jpa.getUri());
+    assertEquals(Arrays.asList("jpa setup"), jpa.getCapabilityValues(COMMANDS));
+    assertEquals(null, loadedIndex.getBundles().get(WEB).getPresentationName());
+    assertEquals(Arrays.asList(JPA),
+        getSymbolicNames(loadedIndex.search("adido", COMMANDS, NONE_EXCLUDED)));
+  }
+
+  @Test
+  public void testLoadMissingFile() {
+    assertFalse(index.load(new File(folder.getRoot(), "missing.dat")));
+    assertTrue(index.getBundles().isEmpty());
+  }
+}
@@ -422,6 +422,10 @@ public class MavenOperationsImpl extends AbstractProjectOperations implements Ma
     Validate.isTrue(root.isDirectory() && root.exists(),
         "Project root does not currently exist as a directory ('%s')", root.getCanonicalPath());
 
+    // Maven reads the project files from disk, so the writes deferred by the
+    // file manager (e.g. the changes to properties files) must be done first
+    getFileManager().commit();
+
     final String cmd = (File.separatorChar == '\\' ? "mvn.bat " : "mvn ") + extra;
     final Process p = Runtime.getRuntime().exec(cmd, null, root);
 
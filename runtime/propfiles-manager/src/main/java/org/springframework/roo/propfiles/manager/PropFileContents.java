@@ -0,0 +1,280 @@
+package org.springframework.roo.propfiles.manager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * In-memory, line-oriented model of a .properties file. Unlike
+ * {@link Properties}, it keeps comments, blank lines and the order of the
+ * existing entries, so only the lines of changed properties are rewritten.
+ * <p>
+ * Keys and values are parsed and escaped following the rules of
+ * {@link Properties#load(java.io.Reader)} and
+ * {@link Properties#store(java.io.Writer, String)}.
+ *
+ * @since 2.0
+ */
+class PropFileContents {
+
+  private static final String HEADER_PREFIX = "#Updated at ";
+  private static final String TIMESTAMP_PATTERN = "EEE MMM dd HH:mm:ss zzz yyyy";
+  private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+  /**
+   * A logical line of the file: a comment, a blank line or a (possibly
+   * multi-line) property entry.
+   */
+  private static class Line {
+
+    private final String key;
+    private final String raw;
+
+    Line(final String key, final String raw) {
+      this.key = key;
+      this.raw = raw;
+    }
+  }
+
+  /**
+   * Parses the given contents of a .properties file.
+   *
+   * @param contents the file contents (required)
+   * @return a non-<code>null</code> model
+   */
+  static PropFileContents parse(final String contents) {
+    final PropFileContents propFile = new PropFileContents();
+    final String[] physicalLines = contents.split("\r\n|\r|\n", -1);
+    // A trailing line separator does not start a new line
+    int lineCount = physicalLines.length;
+    if (lineCount > 0 && physicalLines[lineCount - 1].length() == 0) {
+      lineCount--;
+    }
+
+    int i = 0;
+    while (i < lineCount) {
+      final String line = physicalLines[i++];
+      final String trimmed = StringUtils.stripStart(line, " \t\f");
+      if (trimmed.length() == 0 || trimmed.charAt(0) == '#' || trimmed.charAt(0) == '!') {
+        propFile.lines.add(new Line(null, line));
+        continue;
+      }
+
+      final StringBuilder raw = new StringBuilder(line);
+      String current = line;
+      while (isContinued(current) && i < lineCount) {
+        current = physicalLines[i++];
+        raw.append('\n').append(current);
+      }
+      final Properties entry = new Properties();
+      try {
+        entry.load(new StringReader(raw.toString()));
+      } catch (final IOException e) {
+        throw new IllegalStateException("Could not load properties", e);
+      }
+      for (final String key : entry.stringPropertyNames()) {
+        propFile.lines.add(new Line(key, raw.toString()));
+        propFile.properties.put(key, entry.getProperty(key));
+      }
+    }
+    return propFile;
+  }
+
+  private static boolean isContinued(final String line) {
+    int backslashes = 0;
+    for (int i = line.length() - 1; i >= 0 && line.charAt(i) == '\\'; i--) {
+      backslashes++;
+    }
+    return backslashes % 2 == 1;
+  }
+
+  private static String toEntryLine(final String key, final String value) {
+    final StringBuilder sb = new StringBuilder(key.length() + value.length() + 1);
+    escape(key, true, sb);
+    sb.append('=');
+    escape(value, false, sb);
+    return sb.toString();
+  }
+
+  private static void escape(final String text, final boolean isKey, final StringBuilder sb) {
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      switch (c) {
+        case ' ':
+          if (i == 0 || isKey) {
+            sb.append('\\');
+          }
+          sb.append(' ');
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        case '\f':
+          sb.append("\\f");
+          break;
+        case '=':
+        case ':':
+        case '#':
+        case '!':
+        case '\\':
+          sb.append('\\').append(c);
+          break;
+        default:
+          if (c < 0x0020 || c > 0x007e) {
+            appendUnicodeEscape(c, sb);
+          } else {
+            sb.append(c);
+          }
+      }
+    }
+  }
+
+  private static void appendUnicodeEscape(final char c, final StringBuilder sb) {
+    sb.append("\\u").append(HEX_DIGITS[c >> 12 & 0xF]).append(HEX_DIGITS[c >> 8 & 0xF])
+        .append(HEX_DIGITS[c >> 4 & 0xF]).append(HEX_DIGITS[c & 0xF]);
+  }
+
+  private final List<Line> lines = new ArrayList<Line>();
+  private final Map<String, String> properties = new LinkedHashMap<String, String>();
+
+  /**
+   * Returns the properties of this file, in file order.
+   *
+   * @return a non-<code>null</code> unmodifiable map
+   */
+  Map<String, String> getProperties() {
+    return Collections.unmodifiableMap(properties);
+  }
+
+  String getProperty(final String key) {
+    return properties.get(key);
+  }
+
+  /**
+   * Sets the given property, rewriting the line of an existing property in
+   * place or adding a new line otherwise.
+   *
+   * @param key the property key (required)
+   * @param value the property value (required)
+   * @param sorted whether new properties should be inserted before the first
+   *            property whose key sorts after it, instead of being appended
+   */
+  void setProperty(final String key, final String value, final boolean sorted) {
+    final Line line = new Line(key, toEntryLine(key, value));
+    if (properties.put(key, value) != null) {
+      // Properties#load keeps the last occurrence of a key
+      for (int i = lines.size() - 1; i >= 0; i--) {
+        if (key.equals(lines.get(i).key)) {
+          lines.set(i, line);
+          return;
+        }
+      }
+    }
+    if (sorted) {
+      for (int i = 0; i < lines.size(); i++) {
+        final String existingKey = lines.get(i).key;
+        if (existingKey != null && existingKey.compareTo(key) > 0) {
+          lines.add(i, line);
+          return;
+        }
+      }
+    }
+    lines.add(line);
+  }
+
+  /**
+   * Removes every line of the given property.
+   *
+   * @param key the property key
+   * @return <code>true</code> if the property existed
+   */
+  boolean removeProperty(final String key) {
+    if (properties.remove(key) == null) {
+      return false;
+    }
+    for (final Iterator<Line> iter = lines.iterator(); iter.hasNext();) {
+      if (key.equals(iter.next().key)) {
+        iter.remove();
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Renders this model as the contents of a .properties file, stamping the
+   * "Updated at" header comment and the timestamp comment that follows it,
+   * as written by {@link Properties#store(java.io.Writer, String)}, with the
+   * given date.
+   *
+   * @param date the modification date to record
+   * @return the file contents
+   */
+  String render(final Date date) {
+    final String header = HEADER_PREFIX + date;
+    final String timestamp = "#" + date;
+    if (!lines.isEmpty() && lines.get(0).key == null
+        && lines.get(0).raw.startsWith(HEADER_PREFIX)) {
+      lines.set(0, new Line(null, header));
+      if (lines.size() > 1 && isTimestamp(lines.get(1))) {
+        lines.set(1, new Line(null, timestamp));
+      } else {
+        lines.add(1, new Line(null, timestamp));
+      }
+    } else {
+      lines.add(0, new Line(null, header));
+      lines.add(1, new Line(null, timestamp));
+    }
+
+    final StringBuilder sb = new StringBuilder();
+    for (final Line line : lines) {
+      final String raw = line.raw;
+      for (int i = 0; i < raw.length(); i++) {
+        final char c = raw.charAt(i);
+        if (c == '\n') {
+          sb.append(IOUtils.LINE_SEPARATOR);
+        } else if (c > 0x007e) {
+          // Keep the file ASCII, as Properties#store does
+          appendUnicodeEscape(c, sb);
+        } else {
+          sb.append(c);
+        }
+      }
+      sb.append(IOUtils.LINE_SEPARATOR);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns whether the given line is the timestamp comment written by
+   * {@link Properties#store(java.io.Writer, String)}, i.e. a comment holding
+   * a {@link Date#toString()}.
+   */
+  private static boolean isTimestamp(final Line line) {
+    if (line.key != null || !line.raw.startsWith("#")) {
+      return false;
+    }
+    final SimpleDateFormat format = new SimpleDateFormat(TIMESTAMP_PATTERN, Locale.US);
+    final ParsePosition position = new ParsePosition(0);
+    final String text = line.raw.substring(1);
+    return format.parse(text, position) != null && position.getIndex() == text.length();
+  }
+}
@@ -22,8 +22,10 @@ public interface PropFilesManagerService {
    * @param propertyFilename the name of the property file within the
    *            specified path (required)
    * @param properties the map of properties to add
-   * @param sorted indicates if the resulting properties should be sorted
-   *            alphabetically
+   * @param sorted indicates if the new properties should be inserted in
+   *            alphabetical order. The properties already in the file keep
+   *            their position, so the file is only fully sorted if it was
+   *            before
    * @param force boolean that indicates if is necessary to force operation
    */
   void addProperties(LogicalPath propertyFilePath, String propertyFilename,
@@ -37,8 +39,10 @@ public interface PropFilesManagerService {
    *            specified path (required)
    * @param prefix the string to be used as prefix of every property
    * @param properties the map of properties to add
-   * @param sorted indicates if the resulting properties should be sorted
-   *            alphabetically
+   * @param sorted indicates if the new properties should be inserted in
+   *            alphabetical order. The properties already in the file keep
+   *            their position, so the file is only fully sorted if it was
+   *            before
    * @param force boolean that indicates if is necessary to force operation
    */
   void addProperties(LogicalPath propertyFilePath, String propertyFilename, String prefix,
@@ -79,8 +83,10 @@ public interface PropFilesManagerService {
    *            specified path (required)
    * @param key the property key to update (required)
    * @param value the property value to set into the property key (required)
-   * @param sorted indicates if the resulting properties should be sorted
-   *            alphabetically
+   * @param sorted indicates if the new properties should be inserted in
+   *            alphabetical order. The properties already in the file keep
+   *            their position, so the file is only fully sorted if it was
+   *            before
    * @param force boolean that indicates if is necessary to force operation
    */
   void addPropertyIfNotExists(LogicalPath propertyFilePath, String propertyFilename, String key,
@@ -95,8 +101,10 @@ public interface PropFilesManagerService {
    * @param prefix the property prefix to use
    * @param key the property key to update (required)
    * @param value the property value to set into the property key (required)
-   * @param sorted indicates if the resulting properties should be sorted
-   *            alphabetically
+   * @param sorted indicates if the new properties should be inserted in
+   *            alphabetical order. The properties already in the file keep
+   *            their position, so the file is only fully sorted if it was
+   *            before
    * @param force boolean that indicates if is necessary to force operation
    */
   void addPropertyIfNotExists(LogicalPath propertyFilePath, String propertyFilename, String prefix,
@@ -139,8 +147,10 @@ public interface PropFilesManagerService {
    * @param propertyFilename the name of the property file within the
    *            specified path (required)
    * @param key the property key to update (required)
-   * @param sorted indicates if the resulting properties should be sorted
-   *            alphabetically
+   * @param sorted indicates if the new properties should be inserted in
+   *            alphabetical order. The properties already in the file keep
+   *            their position, so the file is only fully sorted if it was
+   *            before
    * @param value the property value to set into the property key (required)
    * @param force boolean that indicates if is necessary to force operation
    */
@@ -156,8 +166,10 @@ public interface PropFilesManagerService {
    *            specified path (required)
    * @param prefix the string that match with the property starts
    * @param key the property key to update (required)
-   * @param sorted indicates if the resulting properties should be sorted
-   *            alphabetically
+   * @param sorted indicates if the new properties should be inserted in
+   *            alphabetical order. The properties already in the file keep
+   *            their position, so the file is only fully sorted if it was
+   *            before
    * @param value the property value to set into the property key (required)
    * @param force boolean that indicates if is necessary to force operation
    */
@@ -196,8 +208,10 @@ public interface PropFilesManagerService {
    * @param propertyFilename the name of the property file within the
    *            specified path (required)
    * @param properties the map of properties to update
-   * @param sorted indicates if the resulting properties should be sorted
-   *            alphabetically
+   * @param sorted indicates if the new properties should be inserted in
+   *            alphabetical order. The properties already in the file keep
+   *            their position, so the file is only fully sorted if it was
+   *            before
    * @param force boolean that indicates if is necessary to force operation
    */
   void changeProperties(LogicalPath propertyFilePath, String propertyFilename,
@@ -211,8 +225,10 @@ public interface PropFilesManagerService {
    *            specified path (required)
    * @param prefix the string that match with start of every property           
    * @param properties the map of properties to update
-   * @param sorted indicates if the resulting properties should be sorted
-   *            alphabetically
+   * @param sorted indicates if the new properties should be inserted in
+   *            alphabetical order. The properties already in the file keep
+   *            their position, so the file is only fully sorted if it was
+   *            before
    * @param force boolean that indicates if is necessary to force operation
    */
   void changeProperties(LogicalPath propertyFilePath, String propertyFilename, String prefix,
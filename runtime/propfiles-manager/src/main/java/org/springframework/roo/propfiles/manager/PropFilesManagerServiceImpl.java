@@ -1,17 +1,13 @@
 package org.springframework.roo.propfiles.manager;
 
-import java.io.BufferedInputStream;
-import java.io.FileInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
-import java.util.Enumeration;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
@@ -29,8 +25,10 @@ import org.osgi.framework.BundleContext;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.component.ComponentContext;
+import org.springframework.roo.file.undo.UndoEvent;
+import org.springframework.roo.file.undo.UndoListener;
+import org.springframework.roo.file.undo.UndoManager;
 import org.springframework.roo.process.manager.FileManager;
-import org.springframework.roo.process.manager.MutableFile;
 import org.springframework.roo.project.LogicalPath;
 import org.springframework.roo.project.ProjectOperations;
 import org.springframework.roo.support.logging.HandlerUtils;
@@ -39,20 +37,56 @@ import org.springframework.roo.support.util.FileUtils;
 /**
  * Provides service that could be used to manage all necessary .properties files
  * located on project.
+ * <p>
+ * Each properties file is parsed once and kept in memory, preserving its
+ * comments and ordering. Cached contents are validated against the file's
+ * last-modified time and length before being used. Changes are handed to the
+ * {@link FileManager} as deferred writes, so all the changes made to a file
+ * during a process manager transaction result in a single write.
+ * <p>
+ * Until the transaction is committed, the changes to an existing file are
+ * only visible through this service and {@link FileManager#getInputStream}.
+ * Code that reads the file straight from disk, such as an external process,
+ * must call {@link FileManager#commit()} first.
  * 
  * @author Juan Carlos García
  * @since 2.0
  */
 @Component
 @Service
-public class PropFilesManagerServiceImpl implements PropFilesManagerService {
+public class PropFilesManagerServiceImpl implements PropFilesManagerService, UndoListener {
 
   protected final static Logger LOGGER = HandlerUtils.getLogger(PropFilesManagerServiceImpl.class);
 
   private static final boolean SORTED = true;
+  private static final long UNKNOWN = -1;
+
+  /**
+   * The cached contents of a properties file, plus the fingerprint of the
+   * file on disk they correspond to.
+   */
+  private static class CachedPropFile {
+
+    private final PropFileContents contents;
+    private long lastModified = UNKNOWN;
+    private long length = UNKNOWN;
+    /** whether the contents have been written but not yet committed */
+    private boolean pending;
+    /** the file contents as last read or written */
+    private String text;
+
+    CachedPropFile(final PropFileContents contents, final String text) {
+      this.contents = contents;
+      this.text = text;
+    }
+  }
+
+  /** key: file identifier, value: cached file */
+  private final Map<String, CachedPropFile> cache = new HashMap<String, CachedPropFile>();
 
   private FileManager fileManager;
   private ProjectOperations projectOperations;
+  private UndoManager undoManager;
 
   // ------------ OSGi component attributes ----------------
   private BundleContext context;
@@ -61,6 +95,35 @@ public class PropFilesManagerServiceImpl implements PropFilesManagerService {
     this.context = context.getBundleContext();
   }
 
+  protected void deactivate(final ComponentContext context) {
+    if (undoManager != null) {
+      undoManager.removeUndoListener(this);
+    }
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  public void onUndoEvent(final UndoEvent event) {
+    synchronized (cache) {
+      if (event.isUndoing()) {
+        // Deferred writes have been discarded and created files removed
+        cache.clear();
+        return;
+      }
+
+      // Deferred writes are committed to disk on flush or reset, so the
+      // fingerprint of the written files must be taken again
+      for (final CachedPropFile cachedFile : cache.values()) {
+        if (cachedFile.pending) {
+          cachedFile.pending = false;
+          cachedFile.lastModified = UNKNOWN;
+          cachedFile.length = UNKNOWN;
+        }
+      }
+    }
+  }
+
   @Override
   public void addProperties(final LogicalPath propertyFilePath, final String propertyFilename,
       final Map<String, String> properties, final boolean sorted, final boolean force) {
@@ -154,24 +217,11 @@ public class PropFilesManagerServiceImpl implements PropFilesManagerService {
 
     final String filePath =
         getProjectOperations().getPathResolver().getIdentifier(propertyFilePath, propertyFilename);
-    final Properties props = new Properties();
-
-    try {
-      if (getFileManager().exists(filePath)) {
-        loadProperties(props, new BufferedInputStream(new FileInputStream(filePath)));
-      } else {
-        throw new IllegalStateException(String.format(
-            "ERROR: '%s' properties file doesn't exists.", filePath));
-      }
-    } catch (final IOException ioe) {
-      throw new IllegalStateException(ioe);
-    }
 
-    final Map<String, String> result = new HashMap<String, String>();
-    for (final Object key : props.keySet()) {
-      result.put(key.toString(), props.getProperty(key.toString()));
+    synchronized (cache) {
+      final PropFileContents contents = getRequiredContents(filePath);
+      return Collections.unmodifiableMap(new HashMap<String, String>(contents.getProperties()));
     }
-    return Collections.unmodifiableMap(result);
   }
 
   @Override
@@ -190,22 +240,19 @@ public class PropFilesManagerServiceImpl implements PropFilesManagerService {
 
     final String filePath =
         getProjectOperations().getPathResolver().getIdentifier(propertyFilePath, propertyFilename);
-    MutableFile mutableFile = null;
-    final Properties props = new Properties();
-
-    if (getFileManager().exists(filePath)) {
-      mutableFile = getFileManager().updateFile(filePath);
-      loadProperties(props, mutableFile.getInputStream());
-    } else {
-      return null;
-    }
 
     // Including prefix if needed
     if (StringUtils.isNotBlank(prefix)) {
       key = prefix.concat(".").concat(key);
     }
 
-    return props.getProperty(key);
+    synchronized (cache) {
+      final PropFileContents contents = getContents(filePath);
+      if (contents == null) {
+        return null;
+      }
+      return contents.getProperty(key);
+    }
   }
 
   @Override
@@ -223,32 +270,22 @@ public class PropFilesManagerServiceImpl implements PropFilesManagerService {
 
     final String filePath =
         getProjectOperations().getPathResolver().getIdentifier(propertyFilePath, propertyFilename);
-    final Properties props = new Properties();
-
-    try {
-      if (getFileManager().exists(filePath)) {
-        loadProperties(props, new BufferedInputStream(new FileInputStream(filePath)));
-      } else {
-        throw new IllegalStateException(String.format(
-            "ERROR: '%s' properties file doesn't exists.", filePath));
-      }
-    } catch (final IOException ioe) {
-      throw new IllegalStateException(ioe);
-    }
 
     final SortedSet<String> result = new TreeSet<String>();
-    for (final Object key : props.keySet()) {
-      String info = key.toString();
-      if (StringUtils.isNotBlank(prefix)) {
-        if (info.startsWith(prefix)) {
-          result.add(includeValues ? info.concat(" = ").concat(props.getProperty(key.toString()))
-              : info);
+    synchronized (cache) {
+      final PropFileContents contents = getRequiredContents(filePath);
+      for (final Entry<String, String> property : contents.getProperties().entrySet()) {
+        String info = property.getKey();
+        if (StringUtils.isNotBlank(prefix)) {
+          if (info.startsWith(prefix)) {
+            result.add(includeValues ? info.concat(" = ").concat(property.getValue()) : info);
+          }
+        } else {
+          if (includeValues) {
+            info += " = " + property.getValue();
+          }
+          result.add(info);
         }
-      } else {
-        if (includeValues) {
-          info += " = " + props.getProperty(key.toString());
-        }
-        result.add(info);
       }
     }
     return result;
@@ -284,27 +321,18 @@ public class PropFilesManagerServiceImpl implements PropFilesManagerService {
 
     final String filePath =
         getProjectOperations().getPathResolver().getIdentifier(propertyFilePath, propertyFilename);
-    MutableFile mutableFile = null;
-    final Properties props = new Properties();
-
-    if (getFileManager().exists(filePath)) {
-      mutableFile = getFileManager().updateFile(filePath);
-      loadProperties(props, mutableFile.getInputStream());
-    } else {
-      throw new IllegalStateException(String.format("ERROR: '%s' properties file doesn't exists.",
-          filePath));
-    }
 
     // Including prefix if needed
     if (StringUtils.isNotBlank(prefix)) {
       key = prefix.concat(".").concat(key);
     }
 
-    if (props.containsKey(key)) {
-      props.remove(key);
-      storeProps(props, mutableFile.getOutputStream(), "Updated at " + new Date());
+    synchronized (cache) {
+      final PropFileContents contents = getRequiredContents(filePath);
+      if (contents.removeProperty(key)) {
+        writeContents(filePath, contents);
+      }
     }
-
   }
 
   @Override
@@ -316,26 +344,19 @@ public class PropFilesManagerServiceImpl implements PropFilesManagerService {
 
     final String filePath =
         getProjectOperations().getPathResolver().getIdentifier(propertyFilePath, propertyFilename);
-    MutableFile mutableFile = null;
-    final Properties props = new Properties();
 
-    if (getFileManager().exists(filePath)) {
-      mutableFile = getFileManager().updateFile(filePath);
-      loadProperties(props, mutableFile.getInputStream());
-    } else {
-      throw new IllegalStateException(String.format("ERROR: '%s' properties file doesn't exists.",
-          filePath));
-    }
-
-    for (Entry property : props.entrySet()) {
-      String key = (String) property.getKey();
-      if (key != null && key.startsWith(prefix)) {
-        props.remove(key);
+    synchronized (cache) {
+      final PropFileContents contents = getRequiredContents(filePath);
+      boolean saveNeeded = false;
+      for (final String key : new ArrayList<String>(contents.getProperties().keySet())) {
+        if (key.startsWith(prefix)) {
+          saveNeeded |= contents.removeProperty(key);
+        }
+      }
+      if (saveNeeded) {
+        writeContents(filePath, contents);
       }
     }
-
-    storeProps(props, mutableFile.getOutputStream(), "Updated at " + new Date());
-
   }
 
   // Util methods
@@ -366,115 +387,183 @@ public class PropFilesManagerServiceImpl implements PropFilesManagerService {
 
     final String filePath =
         getProjectOperations().getPathResolver().getIdentifier(propertyFilePath, propertyFilename);
-    MutableFile mutableFile = null;
-
-    Properties props;
-    if (sorted) {
-      props = new Properties() {
-        private static final long serialVersionUID = 1L;
-
-        // Override the keys() method to order the keys alphabetically
-        @SuppressWarnings("all")
-        public synchronized Enumeration keys() {
-          final Object[] keys = keySet().toArray();
-          Arrays.sort(keys);
-          return new Enumeration() {
-            int i = 0;
-
-            public boolean hasMoreElements() {
-              return i < keys.length;
-            }
-
-            public Object nextElement() {
-              return keys[i++];
-            }
-          };
-        }
-      };
-    } else {
-      props = new Properties();
-    }
 
-    if (getFileManager().exists(filePath)) {
-      mutableFile = getFileManager().updateFile(filePath);
-      loadProperties(props, mutableFile.getInputStream());
-    } else {
-      // Unable to find the file, so let's create it
-      mutableFile = getFileManager().createFile(filePath);
-    }
+    synchronized (cache) {
+      PropFileContents contents = getContents(filePath);
+      final boolean exists = contents != null;
+      if (!exists) {
+        // Unable to find the file, so let's create it
+        contents = new PropFileContents();
+      }
 
-    boolean saveNeeded = false;
-    boolean needForce = false;
-    Map<String, String> overwriteProperties = new HashMap<String, String>();
+      final Map<String, String> newProperties = new LinkedHashMap<String, String>();
+      boolean needForce = false;
+      Map<String, String> overwriteProperties = new HashMap<String, String>();
 
-    for (final Entry<String, String> entry : properties.entrySet()) {
-      String key = entry.getKey();
+      for (final Entry<String, String> entry : properties.entrySet()) {
+        String key = entry.getKey();
 
-      // Adding prefix if needed
-      if (StringUtils.isNotBlank(prefix)) {
-        key = prefix.concat(".").concat(key);
+        // Adding prefix if needed
+        if (StringUtils.isNotBlank(prefix)) {
+          key = prefix.concat(".").concat(key);
+        }
+
+        final String newValue = entry.getValue();
+        final String existingValue = contents.getProperty(key);
+        if (existingValue == null || !existingValue.equals(newValue) && force) {
+          newProperties.put(key, newValue);
+        } else if (!existingValue.equals(newValue) && !force) {
+          // ROO-3702: Show error when tries to update some properties that
+          // already exists and --force global param is false. 
+          needForce = true;
+          overwriteProperties.put(key, existingValue);
+        }
       }
 
-      final String newValue = entry.getValue();
-      final String existingValue = props.getProperty(key);
-      if (existingValue == null || !existingValue.equals(newValue) && force) {
-        props.setProperty(key, newValue);
-        saveNeeded = true;
-      } else if (!existingValue.equals(newValue) && !force) {
-        // ROO-3702: Show error when tries to update some properties that
-        // already exists and --force global param is false. 
-        needForce = true;
-        overwriteProperties.put(key, existingValue);
+      // ROO-3702: Show error when tries to update some properties that
+      // already exists and --force global param is false. 
+      if (needForce) {
+        String propertyCount = overwriteProperties.size() > 1 ? "Properties" : "Property";
+
+        String propertyLists = "";
+        for (Entry<String, String> property : overwriteProperties.entrySet()) {
+          String key = property.getKey();
+          String value = property.getValue();
+          propertyLists =
+              propertyLists.concat("'").concat(key).concat(" = ").concat(value).concat("', ");
+        }
+
+        String msg =
+            String.format("WARNING: %s %s already exists. "
+                + "Use --force parameter to overwrite it.", propertyCount,
+                propertyLists.substring(0, propertyLists.length() - 2));
+        throw new RuntimeException(msg);
       }
-    }
 
-    // ROO-3702: Show error when tries to update some properties that
-    // already exists and --force global param is false. 
-    if (needForce) {
-      String propertyCount = overwriteProperties.size() > 1 ? "Properties" : "Property";
-
-      String propertyLists = "";
-      for (Entry<String, String> property : overwriteProperties.entrySet()) {
-        String key = property.getKey();
-        String value = property.getValue();
-        propertyLists =
-            propertyLists.concat("'").concat(key).concat(" = ").concat(value).concat("', ");
+      for (final Entry<String, String> property : newProperties.entrySet()) {
+        contents.setProperty(property.getKey(), property.getValue(), sorted);
       }
 
-      String msg =
-          String.format("WARNING: %s %s already exists. "
-              + "Use --force parameter to overwrite it.", propertyCount,
-              propertyLists.substring(0, propertyLists.length() - 2));
-      throw new RuntimeException(msg);
+      if (!exists || !newProperties.isEmpty()) {
+        writeContents(filePath, contents);
+      }
     }
+  }
 
-    if (saveNeeded) {
-      storeProps(props, mutableFile.getOutputStream(), "Updated at " + new Date());
+  /**
+   * Returns the contents of the given properties file, from the cache if the
+   * file has not changed since it was cached.
+   * 
+   * @param filePath the canonical path of the file
+   * @return <code>null</code> if the file doesn't exist
+   */
+  private PropFileContents getContents(final String filePath) {
+    final CachedPropFile cachedFile = cache.get(filePath);
+    if (cachedFile != null && isUpToDate(filePath, cachedFile)) {
+      return cachedFile.contents;
+    }
+    cache.remove(filePath);
 
-      String propertyCount = props.size() > 1 ? "Properties" : "Property";
-      String haveCount = props.size() > 1 ? "have" : "has";
-      String propertyLists = "";
-      for (Entry<Object, Object> property : props.entrySet()) {
-        String key = (String) property.getKey();
-        String value = (String) property.getValue();
+    if (!getFileManager().exists(filePath)) {
+      return null;
+    }
+    final File file = new File(filePath);
+    final long lastModified = file.lastModified();
+    final long length = file.length();
+    final String text = readFile(filePath);
+    final CachedPropFile loadedFile = new CachedPropFile(PropFileContents.parse(text), text);
+    loadedFile.lastModified = lastModified;
+    loadedFile.length = length;
+    cache.put(filePath, loadedFile);
+    return loadedFile.contents;
+  }
 
-        propertyLists =
-            propertyLists.concat("'").concat(key).concat(" = ").concat(value).concat("', ");
-      }
+  private PropFileContents getRequiredContents(final String filePath) {
+    final PropFileContents contents = getContents(filePath);
+    if (contents == null) {
+      throw new IllegalStateException(String.format("ERROR: '%s' properties file doesn't exists.",
+          filePath));
+    }
+    return contents;
+  }
 
+  private boolean isUpToDate(final String filePath, final CachedPropFile cachedFile) {
+    if (cachedFile.pending) {
+      // Written by this service during the current transaction
+      return true;
     }
+    final File file = new File(filePath);
+    if (!file.isFile()) {
+      return false;
+    }
+    final long lastModified = file.lastModified();
+    final long length = file.length();
+    if (cachedFile.lastModified == lastModified && cachedFile.length == length) {
+      return true;
+    }
+    if (cachedFile.lastModified == UNKNOWN && cachedFile.text.equals(readFile(filePath))) {
+      // First access since our changes were committed
+      cachedFile.lastModified = lastModified;
+      cachedFile.length = length;
+      return true;
+    }
+    return false;
   }
 
-  private void storeProps(final Properties props, final OutputStream outputStream,
-      final String comment) {
-    Validate.notNull(outputStream, "OutputStream required");
+  private String readFile(final String filePath) {
+    final InputStream inputStream = getFileManager().getInputStream(filePath);
     try {
-      props.store(outputStream, comment);
+      // Properties files are ISO-8859-1 encoded, as per Properties#load
+      return IOUtils.toString(inputStream, "ISO-8859-1");
     } catch (final IOException e) {
-      throw new IllegalStateException("Could not store properties", e);
+      throw new IllegalStateException("Could not load properties", e);
     } finally {
-      IOUtils.closeQuietly(outputStream);
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
+  /**
+   * Writes the given contents to the given properties file. Writes to
+   * existing files are deferred until the current process manager
+   * transaction is committed, so that repeated changes to the same file are
+   * coalesced into a single write.
+   * 
+   * @param filePath the canonical path of the file
+   * @param contents the new contents of the file
+   */
+  private void writeContents(final String filePath, final PropFileContents contents) {
+    final String text = contents.render(new Date());
+    // New files are created straight away so other add-ons can find them
+    final boolean writeImmediately =
+        !getFileManager().exists(filePath) || !isUndoListenerRegistered();
+    getFileManager().createOrUpdateTextFileIfRequired(filePath, text, writeImmediately);
+
+    CachedPropFile cachedFile = cache.get(filePath);
+    if (cachedFile == null || cachedFile.contents != contents) {
+      cachedFile = new CachedPropFile(contents, text);
+      cache.put(filePath, cachedFile);
+    }
+    cachedFile.text = text;
+    cachedFile.pending = !writeImmediately;
+    cachedFile.lastModified = UNKNOWN;
+    cachedFile.length = UNKNOWN;
+  }
+
+  /**
+   * Registers this service to be notified when the process manager commits
+   * or discards the deferred writes. Without it writes can't be deferred.
+   * 
+   * @return whether this service is registered as an {@link UndoListener}
+   */
+  private boolean isUndoListenerRegistered() {
+    if (undoManager == null) {
+      undoManager = getUndoManager();
+      if (undoManager == null) {
+        return false;
+      }
+      undoManager.addUndoListener(this);
     }
+    return true;
   }
 
   public FileManager getFileManager() {
@@ -524,4 +613,22 @@ public class PropFilesManagerServiceImpl implements PropFilesManagerService {
     }
 
   }
+
+  public UndoManager getUndoManager() {
+    // Get all Services implement UndoManager interface
+    try {
+      ServiceReference<?>[] references =
+          this.context.getAllServiceReferences(UndoManager.class.getName(), null);
+
+      for (ServiceReference<?> ref : references) {
+        return (UndoManager) this.context.getService(ref);
+      }
+
+      return null;
+
+    } catch (InvalidSyntaxException e) {
+      LOGGER.warning("Cannot load UndoManager on PropFilesManagerServiceImpl.");
+      return null;
+    }
+  }
 }
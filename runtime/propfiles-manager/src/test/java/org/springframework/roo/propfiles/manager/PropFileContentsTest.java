@@ -0,0 +1,110 @@
+package org.springframework.roo.propfiles.manager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.Date;
+import java.util.Properties;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+/**
+ * Unit test of {@link PropFileContents}
+ *
+ * @since 2.0
+ */
+public class PropFileContentsTest {
+
+  private static final String NL = IOUtils.LINE_SEPARATOR;
+  private static final String CONTENTS = "#Updated at yesterday\n"
+      + "#Thu Jan 01 00:00:00 UTC 1970\n" + "# Labels\n"
+      + "label.a=A\n" + "label.c = C \\\n" + "    continued\n" + "\n" + "! other\n"
+      + "label.e:E\n";
+
+  private String render(final PropFileContents contents) {
+    final String text = contents.render(new Date(0));
+    final String body = text.substring(text.indexOf(NL) + NL.length());
+    return body.substring(body.indexOf(NL) + NL.length());
+  }
+
+  @Test
+  public void testParseKeepsValuesOfProperties() throws Exception {
+    // Set up
+    final Properties expected = new Properties();
+    expected.load(new StringReader(CONTENTS));
+
+    // Invoke
+    final PropFileContents contents = PropFileContents.parse(CONTENTS);
+
+    // Check
+    assertEquals(expected, toProperties(contents));
+    assertEquals("C continued", contents.getProperty("label.c"));
+  }
+
+  @Test
+  public void testSetPropertyKeepsCommentsAndOrder() {
+    // Set up
+    final PropFileContents contents = PropFileContents.parse(CONTENTS);
+
+    // Invoke
+    contents.setProperty("label.e", "new E", true);
+    contents.setProperty("label.b", "B", true);
+    contents.setProperty("label.z", "Z", true);
+
+    // Check
+    assertEquals("# Labels" + NL + "label.a=A" + NL + "label.b=B" + NL + "label.c = C \\" + NL
+        + "    continued" + NL + NL + "! other" + NL + "label.e=new E" + NL + "label.z=Z" + NL,
+        render(contents));
+  }
+
+  @Test
+  public void testRemoveProperty() {
+    // Set up
+    final PropFileContents contents = PropFileContents.parse(CONTENTS);
+
+    // Invoke
+    assertTrue(contents.removeProperty("label.c"));
+    assertFalse(contents.removeProperty("label.x"));
+
+    // Check
+    assertNull(contents.getProperty("label.c"));
+    assertEquals("# Labels" + NL + "label.a=A" + NL + NL + "! other" + NL + "label.e:E" + NL,
+        render(contents));
+  }
+
+  @Test
+  public void testRenderUpdatesBothHeaderLines() {
+    // Set up
+    final PropFileContents contents = PropFileContents.parse(CONTENTS);
+    final Date date = new Date(86400000L);
+
+    // Invoke
+    final String text = contents.render(date);
+
+    // Check
+    assertTrue(text.startsWith("#Updated at " + date + NL + "#" + date + NL + "# Labels" + NL));
+  }
+
+  @Test
+  public void testRenderedEntriesAreEscaped() throws Exception {
+    // Set up
+    final PropFileContents contents = new PropFileContents();
+    contents.setProperty("key with spaces", " a=b:c #!\u00f1\n", false);
+
+    // Invoke
+    final PropFileContents reparsed = PropFileContents.parse(contents.render(new Date()));
+
+    // Check
+    assertEquals(toProperties(contents), toProperties(reparsed));
+  }
+
+  private Properties toProperties(final PropFileContents contents) {
+    final Properties properties = new Properties();
+    properties.putAll(contents.getProperties());
+    return properties;
+  }
+}
@@ -43,6 +43,7 @@ public class SimpleParserComponent extends SimpleParser implements CommandMarker
   protected void commandNotFound(final Logger logger, final String buffer) {
     logger.warning("Command '" + buffer + "' not found (for assistance press "
         + AbstractShell.completionKeys + " or type \"hint\" then hit ENTER)");
+    suggestSimilarCommands(logger, buffer);
 
     if (addOnSearch == null) {
       return;
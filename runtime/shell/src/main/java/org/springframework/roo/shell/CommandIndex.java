@@ -0,0 +1,406 @@
+package org.springframework.roo.shell;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Immutable index of the {@link CliCommand}s and {@link CliOption}s declared
+ * by a set of {@link CommandMarker}s.
+ * <p>
+ * The index is built by reflecting over the commands once, so that help, tab
+ * completion and command listings don't need to do it on every invocation.
+ * It can be written to a stream and read back, e.g. to reuse it across
+ * restarts; an index read back that way only contains the metadata of the
+ * commands, i.e. {@link CommandEntry#getMethod()} and
+ * {@link CommandEntry#getTarget()} return <code>null</code>.
+ *
+ * @since 2.0
+ */
+public class CommandIndex {
+
+  /**
+   * The metadata of a {@link CliCommand} method.
+   */
+  public static class CommandEntry {
+
+    private final boolean allowsGlobalParameters;
+    private final String declaringClassName;
+    private final String help;
+    private final Method method;
+    private final List<OptionEntry> options;
+    private final CommandMarker target;
+    private final String[] values;
+
+    CommandEntry(final String[] values, final String help, final String declaringClassName,
+        final boolean allowsGlobalParameters, final List<OptionEntry> options,
+        final Method method, final CommandMarker target) {
+      this.allowsGlobalParameters = allowsGlobalParameters;
+      this.declaringClassName = declaringClassName;
+      this.help = help;
+      this.method = method;
+      this.options = Collections.unmodifiableList(options);
+      this.target = target;
+      this.values = values;
+    }
+
+    /**
+     * Indicates whether the command accepts the global parameters, i.e.
+     * whether its last parameter is a {@link ShellContext}
+     */
+    public boolean allowsGlobalParameters() {
+      return allowsGlobalParameters;
+    }
+
+    /**
+     * Returns the fully-qualified name of the {@link CommandMarker} class
+     * declaring this command
+     */
+    public String getDeclaringClassName() {
+      return declaringClassName;
+    }
+
+    public String getHelp() {
+      return help;
+    }
+
+    /**
+     * @return the command method, or <code>null</code> if this entry was read
+     *         from a stream
+     */
+    public Method getMethod() {
+      return method;
+    }
+
+    /**
+     * @return the options of this command, in parameter order
+     */
+    public List<OptionEntry> getOptions() {
+      return options;
+    }
+
+    /**
+     * @return the object declaring this command, or <code>null</code> if this
+     *         entry was read from a stream
+     */
+    public CommandMarker getTarget() {
+      return target;
+    }
+
+    /**
+     * @return the names of this command (never empty)
+     */
+    public String[] getValues() {
+      return values.clone();
+    }
+  }
+
+  /**
+   * The metadata of a {@link CliOption} parameter.
+   */
+  public static class OptionEntry {
+
+    private final String help;
+    private final String[] keys;
+    private final boolean mandatory;
+    private final String specifiedDefaultValue;
+    private final String unspecifiedDefaultValue;
+
+    OptionEntry(final String[] keys, final String help, final boolean mandatory,
+        final String specifiedDefaultValue, final String unspecifiedDefaultValue) {
+      this.help = help;
+      this.keys = keys;
+      this.mandatory = mandatory;
+      this.specifiedDefaultValue = specifiedDefaultValue;
+      this.unspecifiedDefaultValue = unspecifiedDefaultValue;
+    }
+
+    public String getHelp() {
+      return help;
+    }
+
+    public String[] getKeys() {
+      return keys.clone();
+    }
+
+    public String getSpecifiedDefaultValue() {
+      return specifiedDefaultValue;
+    }
+
+    public String getUnspecifiedDefaultValue() {
+      return unspecifiedDefaultValue;
+    }
+
+    public boolean isMandatory() {
+      return mandatory;
+    }
+  }
+
+  private static final Comparator<Object> COMPARATOR = new NaturalOrderComparator<Object>();
+  private static final int FORMAT_VERSION = 1;
+
+  /**
+   * Builds the index of the commands declared by the given objects.
+   *
+   * @param commands the commands to index (required)
+   * @param fingerprint identifies the set of bundles the commands come from
+   *            (can be <code>null</code>)
+   * @return a non-<code>null</code> index
+   */
+  public static CommandIndex build(final Collection<? extends CommandMarker> commands,
+      final String fingerprint) {
+    Validate.notNull(commands, "Commands required");
+    final List<CommandEntry> entries = new ArrayList<CommandEntry>();
+    for (final CommandMarker command : commands) {
+      for (final Method method : command.getClass().getMethods()) {
+        final CliCommand cmd = method.getAnnotation(CliCommand.class);
+        if (cmd == null || cmd.value().length == 0) {
+          continue;
+        }
+        final List<OptionEntry> options = new ArrayList<OptionEntry>();
+        for (final Annotation[] annotations : method.getParameterAnnotations()) {
+          for (final Annotation annotation : annotations) {
+            if (annotation instanceof CliOption) {
+              final CliOption option = (CliOption) annotation;
+              options.add(new OptionEntry(option.key(), option.help(), option.mandatory(), option
+                  .specifiedDefaultValue(), option.unspecifiedDefaultValue()));
+            }
+          }
+        }
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        final boolean allowsGlobalParameters =
+            parameterTypes.length > 0
+                && parameterTypes[parameterTypes.length - 1].isAssignableFrom(ShellContext.class);
+        entries.add(new CommandEntry(cmd.value(), cmd.help(), command.getClass().getName(),
+            allowsGlobalParameters, options, method, command));
+      }
+    }
+    return new CommandIndex(entries, new LinkedHashSet<CommandMarker>(commands), fingerprint);
+  }
+
+  /**
+   * Returns the edit distance between the two given strings.
+   */
+  static int distance(final String s1, final String s2) {
+    int[] previous = new int[s2.length() + 1];
+    int[] current = new int[s2.length() + 1];
+    for (int j = 0; j <= s2.length(); j++) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= s1.length(); i++) {
+      current[0] = i;
+      for (int j = 1; j <= s2.length(); j++) {
+        final int cost = s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1;
+        current[j] =
+            Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+      }
+      final int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return previous[s2.length()];
+  }
+
+  /**
+   * Reads an index written by {@link #write(OutputStream)}.
+   *
+   * @param in the stream to read (required)
+   * @return the index, or <code>null</code> if it was written in another
+   *         format
+   * @throws IOException if the stream could not be read
+   */
+  public static CommandIndex read(final InputStream in) throws IOException {
+    final DataInputStream data = new DataInputStream(in);
+    if (data.readInt() != FORMAT_VERSION) {
+      return null;
+    }
+    final String fingerprint = data.readBoolean() ? data.readUTF() : null;
+    final int commandCount = data.readInt();
+    final List<CommandEntry> entries = new ArrayList<CommandEntry>(commandCount);
+    for (int i = 0; i < commandCount; i++) {
+      final String[] values = readStrings(data);
+      final String help = data.readUTF();
+      final String declaringClassName = data.readUTF();
+      final boolean allowsGlobalParameters = data.readBoolean();
+      final int optionCount = data.readInt();
+      final List<OptionEntry> options = new ArrayList<OptionEntry>(optionCount);
+      for (int j = 0; j < optionCount; j++) {
+        options.add(new OptionEntry(readStrings(data), data.readUTF(), data.readBoolean(), data
+            .readUTF(), data.readUTF()));
+      }
+      entries.add(new CommandEntry(values, help, declaringClassName, allowsGlobalParameters,
+          options, null, null));
+    }
+    return new CommandIndex(entries, Collections.<CommandMarker>emptySet(), fingerprint);
+  }
+
+  private static String[] readStrings(final DataInputStream data) throws IOException {
+    final String[] strings = new String[data.readInt()];
+    for (int i = 0; i < strings.length; i++) {
+      strings[i] = data.readUTF();
+    }
+    return strings;
+  }
+
+  private static void writeStrings(final DataOutputStream data, final String[] strings)
+      throws IOException {
+    data.writeInt(strings.length);
+    for (final String string : strings) {
+      data.writeUTF(string);
+    }
+  }
+
+  private final List<CommandEntry> commands;
+  private final SortedSet<String> everyCommand;
+  private final String fingerprint;
+  private final Set<CommandMarker> targets;
+
+  private CommandIndex(final List<CommandEntry> entries, final Set<CommandMarker> targets,
+      final String fingerprint) {
+    final TreeMap<String, List<CommandEntry>> sorted =
+        new TreeMap<String, List<CommandEntry>>(COMPARATOR);
+    final SortedSet<String> names = new TreeSet<String>(COMPARATOR);
+    for (final CommandEntry entry : entries) {
+      List<CommandEntry> sameName = sorted.get(entry.values[0]);
+      if (sameName == null) {
+        sameName = new ArrayList<CommandEntry>(1);
+        sorted.put(entry.values[0], sameName);
+      }
+      sameName.add(entry);
+      names.addAll(Arrays.asList(entry.values));
+    }
+    final List<CommandEntry> ordered = new ArrayList<CommandEntry>(entries.size());
+    for (final List<CommandEntry> sameName : sorted.values()) {
+      ordered.addAll(sameName);
+    }
+    commands = Collections.unmodifiableList(ordered);
+    everyCommand = Collections.unmodifiableSortedSet(names);
+    this.fingerprint = fingerprint;
+    this.targets = Collections.unmodifiableSet(targets);
+  }
+
+  /**
+   * Returns the commands whose names are closest to the given mistyped
+   * command, closest first.
+   *
+   * @param input the user input (can be blank)
+   * @param maxResults the maximum number of names to return
+   * @return a non-<code>null</code> list of command names
+   */
+  public List<String> findSimilar(final String input, final int maxResults) {
+    final String typed = StringUtils.normalizeSpace(StringUtils.defaultString(input));
+    if (typed.length() == 0 || maxResults <= 0) {
+      return Collections.emptyList();
+    }
+    final int threshold = Math.max(2, typed.length() / 3);
+    // Compare against as many words of each name as were typed
+    final int typedWords = StringUtils.countMatches(typed, " ") + 1;
+    final TreeMap<Integer, Set<String>> byDistance = new TreeMap<Integer, Set<String>>();
+    for (final String name : everyCommand) {
+      final String[] words = StringUtils.split(name, " ");
+      final String prefix =
+          StringUtils.join(words, " ", 0, Math.min(typedWords, words.length));
+      final int distance = distance(typed, prefix);
+      if (distance <= threshold) {
+        Set<String> names = byDistance.get(distance);
+        if (names == null) {
+          names = new LinkedHashSet<String>();
+          byDistance.put(distance, names);
+        }
+        names.add(name);
+      }
+    }
+    final List<String> result = new ArrayList<String>();
+    for (final Set<String> names : byDistance.values()) {
+      for (final String name : names) {
+        if (result.size() == maxResults) {
+          return result;
+        }
+        result.add(name);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the indexed commands, in natural order of their first name
+   */
+  public List<CommandEntry> getCommands() {
+    return commands;
+  }
+
+  /**
+   * @return the names of every indexed command, in natural order
+   */
+  public SortedSet<String> getEveryCommand() {
+    return everyCommand;
+  }
+
+  /**
+   * @return the fingerprint given when this index was built; can be
+   *         <code>null</code>
+   */
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * Returns the {@link CommandMarker}s this index was built from, including
+   * those that only declare indicators.
+   *
+   * @return an empty set if this index was read from a stream
+   */
+  public Set<CommandMarker> getTargets() {
+    return targets;
+  }
+
+  /**
+   * Writes the metadata of the indexed commands to the given stream, which is
+   * not closed.
+   *
+   * @param out the stream to write to (required)
+   * @throws IOException if the stream could not be written
+   */
+  public void write(final OutputStream out) throws IOException {
+    final DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(FORMAT_VERSION);
+    data.writeBoolean(fingerprint != null);
+    if (fingerprint != null) {
+      data.writeUTF(fingerprint);
+    }
+    data.writeInt(commands.size());
+    for (final CommandEntry entry : commands) {
+      writeStrings(data, entry.values);
+      data.writeUTF(entry.help);
+      data.writeUTF(entry.declaringClassName);
+      data.writeBoolean(entry.allowsGlobalParameters);
+      data.writeInt(entry.options.size());
+      for (final OptionEntry option : entry.options) {
+        writeStrings(data, option.keys);
+        data.writeUTF(option.help);
+        data.writeBoolean(option.mandatory);
+        data.writeUTF(option.specifiedDefaultValue);
+        data.writeUTF(option.unspecifiedDefaultValue);
+      }
+    }
+    data.flush();
+  }
+}
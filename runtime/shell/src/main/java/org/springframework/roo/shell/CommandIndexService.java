@@ -0,0 +1,29 @@
+package org.springframework.roo.shell;
+
+/**
+ * Provides the {@link CommandIndex} of the {@link CommandMarker}s currently
+ * registered, shared by the parser, the help and the command listings.
+ *
+ * @since 2.0
+ */
+public interface CommandIndexService {
+
+  /**
+   * Returns the index of the registered commands, bound to the command
+   * objects. The index is only rebuilt after a {@link CommandMarker} has been
+   * registered or unregistered.
+   *
+   * @return a non-<code>null</code> index
+   */
+  CommandIndex getCommandIndex();
+
+  /**
+   * Returns the metadata of the registered commands. Unlike
+   * {@link #getCommandIndex()}, this may return the index saved by a previous
+   * session if the bundles providing commands haven't changed since, which
+   * avoids obtaining (and so activating) every command object.
+   *
+   * @return a non-<code>null</code> index, whose entries may not be bound
+   */
+  CommandIndex getCommandMetadata();
+}
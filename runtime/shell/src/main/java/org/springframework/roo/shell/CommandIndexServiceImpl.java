@@ -0,0 +1,192 @@
+package org.springframework.roo.shell;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.felix.scr.annotations.Component;
+import org.apache.felix.scr.annotations.Service;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.component.ComponentContext;
+import org.springframework.roo.support.logging.HandlerUtils;
+
+/**
+ * Default implementation of {@link CommandIndexService}.
+ * <p>
+ * Listens for {@link CommandMarker} service events to know when the index is
+ * stale, and saves the metadata of every index it builds in the bundle data
+ * area, so that the next session can use it until a command bundle changes.
+ *
+ * @since 2.0
+ */
+@Component
+@Service
+public class CommandIndexServiceImpl implements CommandIndexService, ServiceListener {
+
+  private static final Logger LOGGER = HandlerUtils.getLogger(CommandIndexServiceImpl.class);
+
+  private static final String COMMAND_MARKER_FILTER = "(" + Constants.OBJECTCLASS + "="
+      + CommandMarker.class.getName() + ")";
+  private static final String INDEX_FILE_NAME = "command-index.dat";
+
+  private BundleContext context;
+  private CommandIndex commandIndex;
+  private CommandIndex savedIndex;
+  private volatile boolean stale = true;
+
+  protected void activate(final ComponentContext cContext) {
+    context = cContext.getBundleContext();
+    try {
+      context.addServiceListener(this, COMMAND_MARKER_FILTER);
+    } catch (final InvalidSyntaxException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  protected void deactivate(final ComponentContext cContext) {
+    context.removeServiceListener(this);
+    synchronized (this) {
+      commandIndex = null;
+      savedIndex = null;
+      stale = true;
+    }
+  }
+
+  public void serviceChanged(final ServiceEvent event) {
+    if (event.getType() == ServiceEvent.REGISTERED
+        || event.getType() == ServiceEvent.UNREGISTERING) {
+      stale = true;
+    }
+  }
+
+  public synchronized CommandIndex getCommandIndex() {
+    if (commandIndex == null || stale) {
+      stale = false;
+      final ServiceReference<?>[] references = getCommandReferences();
+      final List<CommandMarker> commands = new ArrayList<CommandMarker>();
+      for (final ServiceReference<?> reference : references) {
+        final CommandMarker command = (CommandMarker) context.getService(reference);
+        if (command != null) {
+          commands.add(command);
+        }
+      }
+      commandIndex = CommandIndex.build(commands, getFingerprint(references));
+      if (savedIndex == null
+          || !commandIndex.getFingerprint().equals(savedIndex.getFingerprint())) {
+        save(commandIndex);
+        savedIndex = commandIndex;
+      }
+    }
+    return commandIndex;
+  }
+
+  public synchronized CommandIndex getCommandMetadata() {
+    if (commandIndex != null && !stale) {
+      return commandIndex;
+    }
+    if (savedIndex == null) {
+      savedIndex = load();
+    }
+    if (savedIndex != null && savedIndex.getFingerprint() != null
+        && savedIndex.getFingerprint().equals(getFingerprint(getCommandReferences()))) {
+      return savedIndex;
+    }
+    return getCommandIndex();
+  }
+
+  private ServiceReference<?>[] getCommandReferences() {
+    try {
+      final ServiceReference<?>[] references =
+          context.getAllServiceReferences(CommandMarker.class.getName(), null);
+      return references == null ? new ServiceReference<?>[0] : references;
+    } catch (final InvalidSyntaxException e) {
+      LOGGER.warning("Cannot load CommandMarker on CommandIndexService.");
+      return new ServiceReference<?>[0];
+    }
+  }
+
+  /**
+   * Identifies the given command services by the bundles registering them,
+   * without obtaining the services.
+   */
+  private String getFingerprint(final ServiceReference<?>[] references) {
+    final SortedSet<String> registrations = new TreeSet<String>();
+    for (final ServiceReference<?> reference : references) {
+      final Bundle bundle = reference.getBundle();
+      if (bundle != null) {
+        registrations.add(bundle.getSymbolicName() + ":" + bundle.getVersion() + ":"
+            + bundle.getLastModified() + ":" + reference.getProperty("component.name"));
+      }
+    }
+    try {
+      final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      for (final String registration : registrations) {
+        digest.update(registration.getBytes("UTF-8"));
+        digest.update((byte) '\n');
+      }
+      final StringBuilder fingerprint = new StringBuilder();
+      for (final byte b : digest.digest()) {
+        fingerprint.append(String.format("%02x", b));
+      }
+      return fingerprint.toString();
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    } catch (final UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private CommandIndex load() {
+    final File file = context.getDataFile(INDEX_FILE_NAME);
+    if (file == null || !file.isFile()) {
+      return null;
+    }
+    InputStream in = null;
+    try {
+      in = new BufferedInputStream(new FileInputStream(file));
+      return CommandIndex.read(in);
+    } catch (final IOException e) {
+      LOGGER.log(Level.FINE, "Unable to load command index", e);
+      return null;
+    } finally {
+      IOUtils.closeQuietly(in);
+    }
+  }
+
+  private void save(final CommandIndex index) {
+    final File file = context.getDataFile(INDEX_FILE_NAME);
+    if (file == null) {
+      return;
+    }
+    OutputStream out = null;
+    try {
+      out = new BufferedOutputStream(new FileOutputStream(file));
+      index.write(out);
+    } catch (final IOException e) {
+      LOGGER.log(Level.FINE, "Unable to save command index", e);
+    } finally {
+      IOUtils.closeQuietly(out);
+    }
+  }
+}
@@ -56,6 +56,8 @@ public class SimpleParser implements Parser {
   public BundleContext context;
 
   private RooBundleActivator rooBundleActivator;
+  private CommandIndexService commandIndexService;
+  private CommandIndex commandIndex;
 
   private Long lastTimeUpdateComponents;
 
@@ -273,6 +275,29 @@ public class SimpleParser implements Parser {
   protected void commandNotFound(final Logger logger, final String buffer) {
     logger.warning("Command '" + buffer + "' not found (for assistance press "
         + AbstractShell.completionKeys + " or type \"hint\" then hit ENTER)");
+    suggestSimilarCommands(logger, buffer);
+  }
+
+  /**
+   * Logs the commands whose names are closest to the given unknown command,
+   * if any
+   * 
+   * @param logger the logger to use (required)
+   * @param buffer the user input
+   */
+  protected void suggestSimilarCommands(final Logger logger, final String buffer) {
+    if (commandIndex == null) {
+      return;
+    }
+    String command = StringUtils.defaultString(buffer).trim();
+    final int firstDash = command.indexOf("--");
+    if (firstDash > 0) {
+      command = command.substring(0, firstDash).trim();
+    }
+    final List<String> similar = commandIndex.findSimilar(command, 3);
+    if (!similar.isEmpty()) {
+      logger.warning("Did you mean: " + StringUtils.join(similar, ", ") + "?");
+    }
   }
 
   public int complete(final String buffer, final int cursor, final List<String> candidates) {
@@ -1004,33 +1029,11 @@ public class SimpleParser implements Parser {
   public void loadConvertersAndCommands() {
     synchronized (mutex) {
 
-      boolean someComponentChanges = false;
-
-      if (commands.isEmpty() || hasToReloadComponents()) {
-        // Cleaning commands
-        commands.clear();
-        availabilityIndicators.clear();
-        // Get all Services implement CommandMarker interface
-        try {
-          ServiceReference<?>[] references =
-              this.context.getAllServiceReferences(CommandMarker.class.getName(), null);
-
-          for (ServiceReference<?> ref : references) {
-            CommandMarker command = (CommandMarker) this.context.getService(ref);
-            add(command);
-          }
-
-        } catch (InvalidSyntaxException e) {
-          LOGGER.warning("Cannot load CommandMarker on SimpleParser.");
-        }
-
-        someComponentChanges = true;
-      }
+      boolean someComponentChanges = loadCommands();
 
       if (converters.isEmpty() || hasToReloadComponents()) {
         // Cleaning converters
         converters.clear();
-        availabilityIndicators.clear();
         // Get all Services implement Converter interface
         try {
           ServiceReference<?>[] references =
@@ -1056,23 +1059,65 @@ public class SimpleParser implements Parser {
     }
   }
 
+  /**
+   * Loads the commands from the shared {@link CommandIndex}, which is only
+   * rebuilt when command services change, or looks them up directly if the
+   * {@link CommandIndexService} is not available
+   * 
+   * @return whether the commands were reloaded
+   */
+  private boolean loadCommands() {
+    final CommandIndexService indexService = getCommandIndexService();
+    if (indexService != null) {
+      final CommandIndex index = indexService.getCommandIndex();
+      if (index == commandIndex) {
+        return false;
+      }
+      clearCommands();
+      for (final CommandMarker command : index.getTargets()) {
+        add(command);
+      }
+      commandIndex = index;
+      return true;
+    }
+
+    if (!commands.isEmpty() && !hasToReloadComponents()) {
+      return false;
+    }
+    clearCommands();
+    // Get all Services implement CommandMarker interface
+    try {
+      ServiceReference<?>[] references =
+          this.context.getAllServiceReferences(CommandMarker.class.getName(), null);
+
+      for (ServiceReference<?> ref : references) {
+        CommandMarker command = (CommandMarker) this.context.getService(ref);
+        add(command);
+      }
+
+    } catch (InvalidSyntaxException e) {
+      LOGGER.warning("Cannot load CommandMarker on SimpleParser.");
+    }
+    commandIndex = CommandIndex.build(commands, null);
+    return true;
+  }
+
+  private void clearCommands() {
+    commands.clear();
+    availabilityIndicators.clear();
+    dynamicMandatoryIndicators.clear();
+    optionVisibilityIndicators.clear();
+    optionAutocompleteIndicators.clear();
+    globalParameters.clear();
+  }
+
   public Set<String> getEveryCommand() {
     synchronized (mutex) {
 
       loadConvertersAndCommands();
 
       // Return commands list
-      final SortedSet<String> result = new TreeSet<String>(COMPARATOR);
-      for (final Object o : commands) {
-        final Method[] methods = o.getClass().getMethods();
-        for (final Method m : methods) {
-          final CliCommand cmd = m.getAnnotation(CliCommand.class);
-          if (cmd != null) {
-            result.addAll(Arrays.asList(cmd.value()));
-          }
-        }
-      }
-      return result;
+      return commandIndex.getEveryCommand();
     }
   }
 
@@ -1102,71 +1147,47 @@ public class SimpleParser implements Parser {
   private Collection<MethodTarget> locateTargets(final String buffer, final boolean strictMatching,
       final boolean checkAvailabilityIndicators) {
 
-    if (commands.isEmpty() || hasToReloadComponents()) {
-      // Cleaning commands
-      commands.clear();
-      availabilityIndicators.clear();
-      // Get all Services implement CommandMarker interface
-      try {
-        ServiceReference<?>[] references =
-            this.context.getAllServiceReferences(CommandMarker.class.getName(), null);
-
-        for (ServiceReference<?> ref : references) {
-          CommandMarker command = (CommandMarker) this.context.getService(ref);
-          add(command);
-        }
-
-      } catch (InvalidSyntaxException e) {
-        LOGGER.warning("Cannot load CommandMarker on SimpleParser.");
-      }
-
+    if (loadCommands()) {
       setLasTimeUpdateComponents(System.currentTimeMillis());
     }
 
     Validate.notNull(buffer, "Buffer required");
     final Collection<MethodTarget> result = new HashSet<MethodTarget>();
 
-    // The reflection could certainly be optimised, but it's good enough for
-    // now (and cached reflection
-    // is unlikely to be noticeable to a human being using the CLI)
-    for (final CommandMarker command : commands) {
-      for (final Method method : command.getClass().getMethods()) {
-        final CliCommand cmd = method.getAnnotation(CliCommand.class);
-        if (cmd != null) {
-          // We have a @CliCommand.
-          if (checkAvailabilityIndicators) {
-            // Decide if this @CliCommand is available at this
-            // moment
-            Boolean available = null;
-            for (final String value : cmd.value()) {
-              final MethodTarget mt = getAvailabilityIndicator(value);
-              if (mt != null) {
-                Validate.isTrue(
-                    available == null,
-                    "More than one availability indicator is defined for '"
-                        + method.toGenericString() + "'");
-                try {
-                  available = (Boolean) mt.getMethod().invoke(mt.getTarget());
-                  // We should "break" here, but we loop over
-                  // all to ensure no conflicting availability
-                  // indicators are defined
-                } catch (final Exception e) {
-                  available = false;
-                }
-              }
-            }
-            // Skip this @CliCommand if it's not available
-            if (available != null && !available) {
-              continue;
+    // The commands were reflected over once, when the index was built
+    for (final CommandIndex.CommandEntry entry : commandIndex.getCommands()) {
+      final Method method = entry.getMethod();
+      final String[] values = entry.getValues();
+      if (checkAvailabilityIndicators) {
+        // Decide if this @CliCommand is available at this
+        // moment
+        Boolean available = null;
+        for (final String value : values) {
+          final MethodTarget mt = getAvailabilityIndicator(value);
+          if (mt != null) {
+            Validate.isTrue(available == null,
+                "More than one availability indicator is defined for '"
+                    + method.toGenericString() + "'");
+            try {
+              available = (Boolean) mt.getMethod().invoke(mt.getTarget());
+              // We should "break" here, but we loop over
+              // all to ensure no conflicting availability
+              // indicators are defined
+            } catch (final Exception e) {
+              available = false;
             }
           }
+        }
+        // Skip this @CliCommand if it's not available
+        if (available != null && !available) {
+          continue;
+        }
+      }
 
-          for (final String value : cmd.value()) {
-            final String remainingBuffer = isMatch(buffer, value, strictMatching);
-            if (remainingBuffer != null) {
-              result.add(new MethodTarget(method, command, remainingBuffer, value));
-            }
-          }
+      for (final String value : values) {
+        final String remainingBuffer = isMatch(buffer, value, strictMatching);
+        if (remainingBuffer != null) {
+          result.add(new MethodTarget(method, entry.getTarget(), remainingBuffer, value));
         }
       }
     }
@@ -1758,6 +1779,38 @@ public class SimpleParser implements Parser {
 
   }
 
+  /**
+   * Obtains the Service that implements CommandIndexService
+   * 
+   * @return
+   */
+  public CommandIndexService getCommandIndexService() {
+    if (commandIndexService == null && context != null) {
+      // Get all Services implement CommandIndexService interface
+      try {
+        ServiceReference<?>[] references =
+            context.getAllServiceReferences(CommandIndexService.class.getName(), null);
+        if (references == null) {
+          return null;
+        }
+
+        for (ServiceReference<?> ref : references) {
+          commandIndexService = (CommandIndexService) context.getService(ref);
+          return commandIndexService;
+        }
+
+        return null;
+
+      } catch (InvalidSyntaxException e) {
+        LOGGER.warning("Cannot load CommandIndexService on SimpleParser.");
+        return null;
+      }
+    } else {
+      return commandIndexService;
+    }
+
+  }
+
   private boolean isDifferentVersion() {
     String rooVersion = getRooProjectVersion();
 
@@ -0,0 +1,88 @@
+package org.springframework.roo.shell;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.springframework.roo.shell.CommandIndex.CommandEntry;
+import org.springframework.roo.shell.CommandIndex.OptionEntry;
+
+/**
+ * Unit test of {@link CommandIndex}
+ *
+ * @since 2.0
+ */
+public class CommandIndexTest {
+
+  public static class SampleCommands implements CommandMarker {
+
+    @CliCommand(value = "entity jpa", help = "Creates an entity")
+    public void entity(
+        @CliOption(key = "class", mandatory = true, help = "The entity") final String name,
+        @CliOption(key = {"", "table"}, unspecifiedDefaultValue = "T") final String table,
+        final ShellContext shellContext) {}
+
+    @CliCommand(value = {"web mvc setup", "mvc setup"})
+    public void webMvcSetup() {}
+
+    public void notACommand() {}
+  }
+
+  private final CommandIndex index = CommandIndex.build(
+      Collections.singleton(new SampleCommands()), "fingerprint");
+
+  @Test
+  public void testBuildIndexesCommandsAndOptions() {
+    // Invoke
+    final CommandEntry entity = index.getCommands().get(0);
+
+    // Check
+    assertEquals(2, index.getCommands().size());
+    assertArrayEquals(new String[] {"entity jpa"}, entity.getValues());
+    assertEquals(SampleCommands.class.getName(), entity.getDeclaringClassName());
+    assertTrue(entity.allowsGlobalParameters());
+    assertSame(SampleCommands.class, entity.getTarget().getClass());
+    final OptionEntry table = entity.getOptions().get(1);
+    assertArrayEquals(new String[] {"", "table"}, table.getKeys());
+    assertEquals("T", table.getUnspecifiedDefaultValue());
+    assertFalse(table.isMandatory());
+    assertEquals(Arrays.asList("entity jpa", "mvc setup", "web mvc setup"),
+        Arrays.asList(index.getEveryCommand().toArray()));
+  }
+
+  @Test
+  public void testFindSimilar() {
+    assertEquals(Arrays.asList("entity jpa"), index.findSimilar("entty jpa", 3));
+    assertEquals(Arrays.asList("web mvc setup"), index.findSimilar("wbe", 3));
+    assertTrue(index.findSimilar("database reverse engineer", 3).isEmpty());
+  }
+
+  @Test
+  public void testReadWrittenIndex() throws Exception {
+    // Set up
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    index.write(out);
+
+    // Invoke
+    final CommandIndex read = CommandIndex.read(new ByteArrayInputStream(out.toByteArray()));
+
+    // Check
+    assertEquals("fingerprint", read.getFingerprint());
+    assertEquals(index.getEveryCommand(), read.getEveryCommand());
+    final CommandEntry entity = read.getCommands().get(0);
+    assertNull(entity.getMethod());
+    assertNull(entity.getTarget());
+    assertTrue(entity.allowsGlobalParameters());
+    assertEquals("The entity", entity.getOptions().get(0).getHelp());
+    assertTrue(read.getTargets().isEmpty());
+  }
+}
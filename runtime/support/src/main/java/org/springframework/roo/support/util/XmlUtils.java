@@ -11,9 +11,10 @@ import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -57,11 +58,66 @@ import org.xml.sax.SAXException;
  */
 public final class XmlUtils {
 
-  private static final Map<String, XPathExpression> COMPILED_EXPRESSION_CACHE =
-      new HashMap<String, XPathExpression>();
+  /**
+   * Maximum number of compiled XPath expressions kept per thread; the least
+   * recently used expression is discarded once this is exceeded
+   */
+  private static final int COMPILED_EXPRESSION_CACHE_SIZE = 256;
+
   private static final DocumentBuilderFactory FACTORY = DocumentBuilderFactory.newInstance();
+
+  /**
+   * Matches XPath expressions made only of child steps with plain element
+   * names (e.g. "/project/dependencies/dependency" or "build/plugins"),
+   * which can be resolved by walking the DOM instead of using XPath
+   */
+  private static final Pattern SIMPLE_CHILD_PATH = Pattern
+      .compile("/?[A-Za-z_][\\w.\\-]*(/[A-Za-z_][\\w.\\-]*)*");
+
   private static final TransformerFactory TRANSFORMER_FACTORY = TransformerFactory.newInstance();
-  private static final XPath XPATH = XPathFactory.newInstance().newXPath();
+
+  // XPath, XPathExpression, DocumentBuilder and Transformer instances are not
+  // thread-safe, so each thread gets its own (reusable) copy of them
+
+  private static final ThreadLocal<Map<String, XPathExpression>> COMPILED_EXPRESSION_CACHE =
+      new ThreadLocal<Map<String, XPathExpression>>() {
+        @Override
+        protected Map<String, XPathExpression> initialValue() {
+          return new LinkedHashMap<String, XPathExpression>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, XPathExpression> eldest) {
+              return size() > COMPILED_EXPRESSION_CACHE_SIZE;
+            }
+          };
+        }
+      };
+
+  private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER =
+      new ThreadLocal<DocumentBuilder>() {
+        @Override
+        protected DocumentBuilder initialValue() {
+          return getDocumentBuilder();
+        }
+      };
+
+  private static final ThreadLocal<Transformer> INDENTING_TRANSFORMER =
+      new ThreadLocal<Transformer>() {
+        @Override
+        protected Transformer initialValue() {
+          return createIndentingTransformer();
+        }
+      };
+
+  private static final ThreadLocal<XPath> XPATH = new ThreadLocal<XPath>() {
+    @Override
+    protected XPath initialValue() {
+      synchronized (XPathFactory.class) {
+        return XPathFactory.newInstance().newXPath();
+      }
+    }
+  };
 
   /**
    * Checks the presented element for illegal characters that could cause
@@ -132,13 +188,14 @@ public final class XmlUtils {
   public static Transformer createIndentingTransformer() {
     Transformer transformer;
     try {
-      TRANSFORMER_FACTORY.setAttribute("indent-number", 4);
-      transformer = TRANSFORMER_FACTORY.newTransformer();
+      synchronized (TRANSFORMER_FACTORY) {
+        TRANSFORMER_FACTORY.setAttribute("indent-number", 4);
+        transformer = TRANSFORMER_FACTORY.newTransformer();
+      }
     } catch (final Exception e) {
       throw new IllegalStateException(e);
     }
-    transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-    transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+    setIndentingOutputProperties(transformer);
     return transformer;
   }
 
@@ -221,15 +278,16 @@ public final class XmlUtils {
    */
   public static List<Element> findElements(final String xPathExpression, final Element root) {
     final List<Element> elements = new ArrayList<Element>();
-    NodeList nodes = null;
+    final Node context = getSimplePathContext(xPathExpression, root);
+    if (context != null) {
+      findChildElements(getPathSteps(xPathExpression), 0, context, elements, false);
+      return elements;
+    }
 
+    NodeList nodes = null;
     try {
-      XPathExpression expr = COMPILED_EXPRESSION_CACHE.get(xPathExpression);
-      if (expr == null) {
-        expr = XPATH.compile(xPathExpression);
-        COMPILED_EXPRESSION_CACHE.put(xPathExpression, expr);
-      }
-      nodes = (NodeList) expr.evaluate(root, XPathConstants.NODESET);
+      nodes = (NodeList) getCompiledExpression(xPathExpression).evaluate(root,
+          XPathConstants.NODESET);
     } catch (final XPathExpressionException e) {
       throw new IllegalArgumentException("Unable evaluate xpath expression", e);
     }
@@ -251,12 +309,7 @@ public final class XmlUtils {
   public static Node findFirstAttribute(final String xPathExpression, final Element element) {
     Node attr = null;
     try {
-      XPathExpression expr = COMPILED_EXPRESSION_CACHE.get(xPathExpression);
-      if (expr == null) {
-        expr = XPATH.compile(xPathExpression);
-        COMPILED_EXPRESSION_CACHE.put(xPathExpression, expr);
-      }
-      attr = (Node) expr.evaluate(element, XPathConstants.NODE);
+      attr = (Node) getCompiledExpression(xPathExpression).evaluate(element, XPathConstants.NODE);
     } catch (final XPathExpressionException e) {
       throw new IllegalArgumentException("Unable evaluate xpath expression", e);
     }
@@ -311,14 +364,16 @@ public final class XmlUtils {
   public static Node findNode(final String xPathExpression, final Node root) {
     Validate.notBlank(xPathExpression, "XPath expression required");
     Validate.notNull(root, "Root element required");
+    final Node context = getSimplePathContext(xPathExpression, root);
+    if (context != null) {
+      final List<Element> elements = new ArrayList<Element>(1);
+      findChildElements(getPathSteps(xPathExpression), 0, context, elements, true);
+      return elements.isEmpty() ? null : elements.get(0);
+    }
+
     Node node = null;
     try {
-      XPathExpression expr = COMPILED_EXPRESSION_CACHE.get(xPathExpression);
-      if (expr == null) {
-        expr = XPATH.compile(xPathExpression);
-        COMPILED_EXPRESSION_CACHE.put(xPathExpression, expr);
-      }
-      node = (Node) expr.evaluate(root, XPathConstants.NODE);
+      node = (Node) getCompiledExpression(xPathExpression).evaluate(root, XPathConstants.NODE);
     } catch (final XPathExpressionException e) {
       throw new IllegalArgumentException("Unable evaluate XPath expression '" + xPathExpression
           + "'", e);
@@ -364,12 +419,133 @@ public final class XmlUtils {
   public static DocumentBuilder getDocumentBuilder() {
     // factory.setNamespaceAware(true);
     try {
-      return FACTORY.newDocumentBuilder();
+      synchronized (FACTORY) {
+        return FACTORY.newDocumentBuilder();
+      }
     } catch (final ParserConfigurationException e) {
       throw new IllegalStateException(e);
     }
   }
 
+  /**
+   * Returns this thread's reusable document builder, reset to its initial
+   * state. The returned builder must not be kept or shared with other
+   * threads.
+   * 
+   * @return a non-<code>null</code> document builder
+   */
+  private static DocumentBuilder getThreadDocumentBuilder() {
+    final DocumentBuilder documentBuilder = DOCUMENT_BUILDER.get();
+    documentBuilder.reset();
+    return documentBuilder;
+  }
+
+  /**
+   * Returns this thread's reusable indenting transformer, reset to the
+   * settings applied by {@link #createIndentingTransformer()}. The returned
+   * transformer must not be kept or shared with other threads.
+   * 
+   * @return a non-<code>null</code> transformer
+   */
+  private static Transformer getThreadIndentingTransformer() {
+    final Transformer transformer = INDENTING_TRANSFORMER.get();
+    transformer.reset();
+    setIndentingOutputProperties(transformer);
+    return transformer;
+  }
+
+  /**
+   * Returns the compiled form of the given XPath expression from this
+   * thread's cache, compiling and caching it if necessary.
+   * 
+   * @param xPathExpression the XPath expression to compile (required)
+   * @return a non-<code>null</code> expression
+   * @throws XPathExpressionException if the expression cannot be compiled
+   */
+  private static XPathExpression getCompiledExpression(final String xPathExpression)
+      throws XPathExpressionException {
+    final Map<String, XPathExpression> cache = COMPILED_EXPRESSION_CACHE.get();
+    XPathExpression expr = cache.get(xPathExpression);
+    if (expr == null) {
+      expr = XPATH.get().compile(xPathExpression);
+      cache.put(xPathExpression, expr);
+    }
+    return expr;
+  }
+
+  /**
+   * Returns the node from which the steps of the given XPath expression can
+   * be resolved by walking child elements, i.e. without evaluating XPath.
+   * 
+   * @param xPathExpression the XPath expression
+   * @param root the node against which the expression is evaluated
+   * @return <code>null</code> if the expression is not a simple child path
+   *         or cannot be resolved by walking the DOM from the given node
+   */
+  private static Node getSimplePathContext(final String xPathExpression, final Node root) {
+    if (root == null || !SIMPLE_CHILD_PATH.matcher(xPathExpression).matches()) {
+      return null;
+    }
+    if (xPathExpression.charAt(0) != '/') {
+      return root;
+    }
+    // Absolute paths start from the document containing the given node
+    Node top = root;
+    while (top.getParentNode() != null) {
+      top = top.getParentNode();
+    }
+    return top instanceof Document ? top : null;
+  }
+
+  private static String[] getPathSteps(final String simplePath) {
+    return StringUtils.split(simplePath, '/');
+  }
+
+  /**
+   * Collects the elements reached by following the given child steps from
+   * the given parent node, in document order.
+   * 
+   * @param steps the element names to follow
+   * @param index the index of the current step
+   * @param parent the node whose children match the current step
+   * @param results the list to which matching elements are added
+   * @param firstOnly whether to stop at the first matching element
+   * @return <code>true</code> if searching should stop
+   */
+  private static boolean findChildElements(final String[] steps, final int index,
+      final Node parent, final List<Element> results, final boolean firstOnly) {
+    for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+      if (child.getNodeType() != Node.ELEMENT_NODE || !matchesNameTest(child, steps[index])) {
+        continue;
+      }
+      if (index == steps.length - 1) {
+        results.add((Element) child);
+        if (firstOnly) {
+          return true;
+        }
+      } else if (findChildElements(steps, index + 1, child, results, firstOnly)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Indicates whether the given element is selected by an unprefixed XPath
+   * name test, which only matches elements in no namespace and (for DOMs
+   * built without namespace awareness) ignores any prefix.
+   */
+  private static boolean matchesNameTest(final Node element, final String name) {
+    if (element.getNamespaceURI() != null) {
+      return false;
+    }
+    String localName = element.getLocalName();
+    if (localName == null) {
+      localName = StringUtils.substringAfterLast(":" + element.getNodeName(), ":");
+    }
+    return name.equals(localName);
+  }
+
   /**
    * Returns the root element of the given XML file.
    * 
@@ -407,7 +583,7 @@ public final class XmlUtils {
   public static String nodeToString(final Node node) {
     try {
       final StringWriter writer = new StringWriter();
-      createIndentingTransformer().transform(new DOMSource(node), new StreamResult(writer));
+      getThreadIndentingTransformer().transform(new DOMSource(node), new StreamResult(writer));
       return writer.toString();
     } catch (final TransformerException e) {
       throw new IllegalStateException(e);
@@ -429,7 +605,7 @@ public final class XmlUtils {
       if (!(inputStream instanceof BufferedInputStream)) {
         inputStream = new BufferedInputStream(inputStream);
       }
-      return getDocumentBuilder().parse(inputStream);
+      return getThreadDocumentBuilder().parse(inputStream);
     } catch (final Exception e) {
       throw new IllegalStateException(e);
     } finally {
@@ -461,12 +637,10 @@ public final class XmlUtils {
       return null;
     }
     try {
-      return FACTORY.newDocumentBuilder().parse(new ByteArrayInputStream(xml.getBytes()))
+      return getThreadDocumentBuilder().parse(new ByteArrayInputStream(xml.getBytes()))
           .getDocumentElement();
     } catch (final IOException e) {
       throw new IllegalStateException(e);
-    } catch (final ParserConfigurationException e) {
-      throw new IllegalStateException(e);
     } catch (final SAXException e) {
       throw new IllegalStateException(e);
     }
@@ -549,7 +723,7 @@ public final class XmlUtils {
    * @param document the document to write.
    */
   public static void writeXml(final OutputStream outputStream, final Document document) {
-    writeXml(createIndentingTransformer(), outputStream, document);
+    writeXml(getThreadIndentingTransformer(), outputStream, document);
   }
 
   /**
@@ -582,6 +756,11 @@ public final class XmlUtils {
     }
   }
 
+  private static void setIndentingOutputProperties(final Transformer transformer) {
+    transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+    transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
+  }
+
   /**
    * Constructor is private to prevent instantiation
    */
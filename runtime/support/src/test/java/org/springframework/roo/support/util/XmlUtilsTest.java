@@ -0,0 +1,99 @@
+package org.springframework.roo.support.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+/**
+ * Unit test of {@link XmlUtils}
+ *
+ * @since 2.0
+ */
+public class XmlUtilsTest {
+
+  private static final String XML =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\"?><project><dependencies>"
+          + "<dependency><artifactId>a</artifactId></dependency>"
+          + "<dependency><artifactId>b</artifactId></dependency>"
+          + "</dependencies><dependencies><dependency><artifactId>c</artifactId></dependency>"
+          + "</dependencies><sec:http xmlns:sec=\"urn:sec\"/></project>";
+
+  @Test
+  public void testFindElementsBySimplePathMatchesXPath() {
+    // Set up
+    final Element root = XmlUtils.stringToElement(XML);
+
+    // Invoke
+    final List<Element> simple = XmlUtils.findElements("dependencies/dependency/artifactId", root);
+    final List<Element> xpath =
+        XmlUtils.findElements("dependencies/dependency/artifactId[true()]", root);
+
+    // Check
+    assertEquals(3, simple.size());
+    assertEquals(xpath, simple);
+    assertEquals("a", simple.get(0).getTextContent());
+    assertEquals("c", simple.get(2).getTextContent());
+  }
+
+  @Test
+  public void testFindFirstElementByAbsoluteSimplePath() {
+    // Set up
+    final Element root = XmlUtils.stringToElement(XML);
+    final Element dependency = XmlUtils.findFirstElement("dependencies/dependency", root);
+
+    // Invoke
+    final Element artifactId =
+        XmlUtils.findFirstElement("/project/dependencies/dependency/artifactId", dependency);
+
+    // Check
+    assertEquals("a", artifactId.getTextContent());
+    assertNull(XmlUtils.findFirstElement("/dependencies", dependency));
+  }
+
+  @Test
+  public void testFindFirstElementIgnoresPrefix() {
+    final Element root = XmlUtils.stringToElement(XML);
+
+    assertSame(XmlUtils.findFirstElement("http[true()]", root),
+        XmlUtils.findFirstElement("http", root));
+  }
+
+  @Test
+  public void testConcurrentParsingAndLookup() throws Exception {
+    // Set up
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    final List<Future<String>> results = new ArrayList<Future<String>>();
+
+    // Invoke
+    try {
+      for (int i = 0; i < 50; i++) {
+        results.add(executor.submit(new Callable<String>() {
+          public String call() {
+            final Element root = XmlUtils.stringToElement(XML);
+            final Element element =
+                XmlUtils.findFirstElement("dependencies/dependency[artifactId = 'b']", root);
+            return XmlUtils.nodeToString(element);
+          }
+        }));
+      }
+
+      // Check
+      final String expected = results.get(0).get();
+      for (final Future<String> result : results) {
+        assertEquals(expected, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}